@@ -0,0 +1,107 @@
+/*
+ * Hibernate OGM, Domain model persistence for NoSQL datastores
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.ogm.datastore.ignite.benchmarks;
+
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+
+import org.hibernate.Session;
+import org.hibernate.Transaction;
+import org.hibernate.ogm.datastore.ignite.benchmarks.model.Address;
+import org.hibernate.ogm.datastore.ignite.benchmarks.model.Author;
+import org.hibernate.ogm.datastore.ignite.benchmarks.model.Book;
+import org.hibernate.ogm.datastore.ignite.benchmarks.model.Tag;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Loads and updates of the associations of an author, through sessions: a one-to-many association, a many-to-many
+ * association stored in a third table and an embedded collection.
+ * <p>
+ * An update removes an element of the association and adds it back in the same transaction, the stored data does not
+ * change from one invocation to the next.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class AssociationBenchmarks {
+
+	private int next;
+
+	@Benchmark
+	public int loadOneToMany(IgniteBenchmarkState state) {
+		try ( Session session = state.getSessionFactory().openSession() ) {
+			return session.get( Author.class, state.authorId( next++ ) ).getBooks().size();
+		}
+	}
+
+	@Benchmark
+	public int loadThirdTable(IgniteBenchmarkState state) {
+		try ( Session session = state.getSessionFactory().openSession() ) {
+			return session.get( Author.class, state.authorId( next++ ) ).getTags().size();
+		}
+	}
+
+	@Benchmark
+	public int loadEmbedded(IgniteBenchmarkState state) {
+		try ( Session session = state.getSessionFactory().openSession() ) {
+			return session.get( Author.class, state.authorId( next++ ) ).getAddresses().size();
+		}
+	}
+
+	@Benchmark
+	public void updateOneToMany(IgniteBenchmarkState state) {
+		try ( Session session = state.getSessionFactory().openSession() ) {
+			Transaction transaction = session.beginTransaction();
+			Author author = session.get( Author.class, state.authorId( next++ ) );
+			Book book = first( author.getBooks().iterator() );
+			author.getBooks().remove( book );
+			session.flush();
+			author.getBooks().add( book );
+			transaction.commit();
+		}
+	}
+
+	@Benchmark
+	public void updateThirdTable(IgniteBenchmarkState state) {
+		try ( Session session = state.getSessionFactory().openSession() ) {
+			Transaction transaction = session.beginTransaction();
+			Author author = session.get( Author.class, state.authorId( next++ ) );
+			Tag tag = first( author.getTags().iterator() );
+			author.getTags().remove( tag );
+			session.flush();
+			author.getTags().add( tag );
+			transaction.commit();
+		}
+	}
+
+	@Benchmark
+	public void updateEmbedded(IgniteBenchmarkState state) {
+		try ( Session session = state.getSessionFactory().openSession() ) {
+			Transaction transaction = session.beginTransaction();
+			Author author = session.get( Author.class, state.authorId( next++ ) );
+			Address address = author.getAddresses().remove( 0 );
+			session.flush();
+			author.getAddresses().add( address );
+			transaction.commit();
+		}
+	}
+
+	private static <T> T first(Iterator<T> iterator) {
+		return iterator.next();
+	}
+}
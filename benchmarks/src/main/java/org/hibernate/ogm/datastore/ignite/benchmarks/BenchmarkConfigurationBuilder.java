@@ -0,0 +1,48 @@
+/*
+ * Hibernate OGM, Domain model persistence for NoSQL datastores
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.ogm.datastore.ignite.benchmarks;
+
+import java.util.Collections;
+
+import org.apache.ignite.IgniteSystemProperties;
+import org.apache.ignite.binary.BinaryBasicNameMapper;
+import org.apache.ignite.configuration.BinaryConfiguration;
+import org.apache.ignite.configuration.IgniteConfiguration;
+import org.apache.ignite.spi.discovery.tcp.TcpDiscoverySpi;
+import org.apache.ignite.spi.discovery.tcp.ipfinder.vm.TcpDiscoveryVmIpFinder;
+import org.hibernate.ogm.datastore.ignite.IgniteConfigurationBuilder;
+
+/**
+ * Configuration of the in-process Ignite node the benchmarks run against. The node only looks for other nodes on the
+ * loopback interface so that it stays alone.
+ */
+public class BenchmarkConfigurationBuilder implements IgniteConfigurationBuilder {
+
+	public static final String GRID_NAME = "OgmBenchmarkGrid";
+
+	@Override
+	public IgniteConfiguration build() {
+		System.setProperty( IgniteSystemProperties.IGNITE_UPDATE_NOTIFIER, Boolean.FALSE.toString() );
+		System.setProperty( IgniteSystemProperties.IGNITE_NO_ASCII, Boolean.TRUE.toString() );
+		System.setProperty( IgniteSystemProperties.IGNITE_QUIET, Boolean.TRUE.toString() );
+
+		IgniteConfiguration config = new IgniteConfiguration();
+		config.setIgniteInstanceName( GRID_NAME );
+		BinaryConfiguration binaryConfiguration = new BinaryConfiguration();
+		binaryConfiguration.setNameMapper( new BinaryBasicNameMapper( true ) );
+		binaryConfiguration.setCompactFooter( false ); // required by the embedded collections
+		config.setBinaryConfiguration( binaryConfiguration );
+
+		TcpDiscoveryVmIpFinder ipFinder = new TcpDiscoveryVmIpFinder();
+		ipFinder.setAddresses( Collections.singletonList( "127.0.0.1:47500" ) );
+		TcpDiscoverySpi discoverySpi = new TcpDiscoverySpi();
+		discoverySpi.setLocalAddress( "127.0.0.1" );
+		discoverySpi.setIpFinder( ipFinder );
+		config.setDiscoverySpi( discoverySpi );
+		return config;
+	}
+}
@@ -0,0 +1,62 @@
+/*
+ * Hibernate OGM, Domain model persistence for NoSQL datastores
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.ogm.datastore.ignite.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.hibernate.ogm.datastore.ignite.IgniteDialect;
+import org.hibernate.ogm.datastore.ignite.benchmarks.model.Author;
+import org.hibernate.ogm.datastore.ignite.benchmarks.model.Book;
+import org.hibernate.ogm.dialect.spi.NextValueRequest;
+import org.hibernate.ogm.model.key.spi.IdSourceKey;
+import org.hibernate.ogm.model.key.spi.IdSourceKeyMetadata;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Generation of identifiers with a table and with a sequence. Running it with several threads ({@code -t})
+ * measures the contention on the table row.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class IdGenerationBenchmarks {
+
+	private IgniteDialect dialect;
+	private NextValueRequest tableRequest;
+	private NextValueRequest sequenceRequest;
+
+	@Setup
+	public void setUp(IgniteBenchmarkState state) {
+		dialect = state.getDialect();
+		IdSourceKeyMetadata tableMetadata = IdSourceKeyMetadata.forTable( Author.ID_TABLE, "name", "nextValue" );
+		tableRequest = new NextValueRequest( IdSourceKey.forTable( tableMetadata, Author.ID_SEGMENT ), 1, 1 );
+		IdSourceKeyMetadata sequenceMetadata = IdSourceKeyMetadata.forSequence( Book.ID_SEQUENCE );
+		sequenceRequest = new NextValueRequest( IdSourceKey.forSequence( sequenceMetadata ), 1, 1 );
+	}
+
+	@Benchmark
+	public Number nextValueTable() {
+		return dialect.nextValue( tableRequest );
+	}
+
+	@Benchmark
+	public Number nextValueSequence() {
+		return dialect.nextValue( sequenceRequest );
+	}
+}
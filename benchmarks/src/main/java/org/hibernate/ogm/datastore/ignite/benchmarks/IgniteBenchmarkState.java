@@ -0,0 +1,151 @@
+/*
+ * Hibernate OGM, Domain model persistence for NoSQL datastores
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.ogm.datastore.ignite.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.Session;
+import org.hibernate.Transaction;
+import org.hibernate.boot.MetadataSources;
+import org.hibernate.boot.registry.StandardServiceRegistry;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.ogm.boot.OgmSessionFactoryBuilder;
+import org.hibernate.ogm.cfg.OgmProperties;
+import org.hibernate.ogm.datastore.ignite.IgniteDialect;
+import org.hibernate.ogm.datastore.ignite.IgniteProperties;
+import org.hibernate.ogm.datastore.ignite.benchmarks.model.Address;
+import org.hibernate.ogm.datastore.ignite.benchmarks.model.Author;
+import org.hibernate.ogm.datastore.ignite.benchmarks.model.Book;
+import org.hibernate.ogm.datastore.ignite.benchmarks.model.Tag;
+import org.hibernate.ogm.datastore.ignite.impl.IgniteDatastoreProvider;
+import org.hibernate.ogm.datastore.spi.DatastoreProvider;
+import org.hibernate.ogm.dialect.impl.GridDialects;
+import org.hibernate.ogm.dialect.spi.GridDialect;
+import org.hibernate.ogm.model.key.spi.EntityKeyMetadata;
+import org.hibernate.ogm.persister.impl.OgmEntityPersister;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Starts an in-process Ignite node through a Hibernate OGM session factory and stores the data read by the
+ * benchmarks: authors with their books, tags and addresses.
+ */
+@State(Scope.Benchmark)
+public class IgniteBenchmarkState {
+
+	/**
+	 * Number of authors
+	 */
+	@Param("1000")
+	public int authors;
+
+	/**
+	 * Number of books, tags and addresses of each author
+	 */
+	@Param("10")
+	public int associationSize;
+
+	private SessionFactoryImplementor sessionFactory;
+	private IgniteDatastoreProvider provider;
+	private IgniteDialect dialect;
+	private final List<Long> authorIds = new ArrayList<>();
+	private final List<Long> bookIds = new ArrayList<>();
+
+	@Setup(Level.Trial)
+	public void start() {
+		StandardServiceRegistry registry = new StandardServiceRegistryBuilder()
+				.applySetting( OgmProperties.ENABLED, true )
+				.applySetting( OgmProperties.DATASTORE_PROVIDER, IgniteDatastoreProvider.class.getName() )
+				.applySetting( IgniteProperties.CONFIGURATION_CLASS_NAME, BenchmarkConfigurationBuilder.class.getName() )
+				.build();
+		sessionFactory = new MetadataSources( registry )
+				.addAnnotatedClass( Author.class )
+				.addAnnotatedClass( Book.class )
+				.addAnnotatedClass( Tag.class )
+				.buildMetadata()
+				.getSessionFactoryBuilder()
+				.unwrap( OgmSessionFactoryBuilder.class )
+				.build()
+				.unwrap( SessionFactoryImplementor.class );
+		provider = (IgniteDatastoreProvider) sessionFactory.getServiceRegistry().getService( DatastoreProvider.class );
+		dialect = GridDialects.getDelegateOrNull( sessionFactory.getServiceRegistry().getService( GridDialect.class ), IgniteDialect.class );
+		populate();
+	}
+
+	private void populate() {
+		List<Tag> tags = new ArrayList<>( associationSize );
+		try ( Session session = sessionFactory.openSession() ) {
+			Transaction transaction = session.beginTransaction();
+			for ( int i = 0; i < associationSize; i++ ) {
+				Tag tag = new Tag( "tag-" + i );
+				session.persist( tag );
+				tags.add( tag );
+			}
+			transaction.commit();
+		}
+		for ( int a = 0; a < authors; a++ ) {
+			try ( Session session = sessionFactory.openSession() ) {
+				Transaction transaction = session.beginTransaction();
+				Author author = new Author( "author-" + a );
+				for ( int i = 0; i < associationSize; i++ ) {
+					Book book = new Book( "book-" + a + "-" + i, 1900 + ( a + i ) % 120 );
+					session.persist( book );
+					author.getBooks().add( book );
+					author.getTags().add( session.load( Tag.class, tags.get( i ).getName() ) );
+					author.getAddresses().add( new Address( "street-" + i, "city-" + a ) );
+				}
+				session.persist( author );
+				transaction.commit();
+				authorIds.add( author.getId() );
+				for ( Book book : author.getBooks() ) {
+					bookIds.add( book.getId() );
+				}
+			}
+		}
+	}
+
+	@TearDown(Level.Trial)
+	public void stop() {
+		sessionFactory.close();
+	}
+
+	public SessionFactoryImplementor getSessionFactory() {
+		return sessionFactory;
+	}
+
+	public IgniteDatastoreProvider getProvider() {
+		return provider;
+	}
+
+	public IgniteDialect getDialect() {
+		return dialect;
+	}
+
+	public EntityKeyMetadata getEntityKeyMetadata(Class<?> entityClass) {
+		return ( (OgmEntityPersister) sessionFactory.getMetamodel().entityPersister( entityClass ) ).getEntityKeyMetadata();
+	}
+
+	/**
+	 * @return the identifier of a stored author
+	 */
+	public Long authorId(int index) {
+		return authorIds.get( Math.floorMod( index, authorIds.size() ) );
+	}
+
+	/**
+	 * @return the identifier of a stored book
+	 */
+	public Long bookId(int index) {
+		return bookIds.get( Math.floorMod( index, bookIds.size() ) );
+	}
+}
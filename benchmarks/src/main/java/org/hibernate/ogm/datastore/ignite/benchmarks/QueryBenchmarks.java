@@ -0,0 +1,87 @@
+/*
+ * Hibernate OGM, Domain model persistence for NoSQL datastores
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.ogm.datastore.ignite.benchmarks;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.hibernate.ogm.datastore.ignite.IgniteDialect;
+import org.hibernate.ogm.datastore.ignite.query.impl.IgniteQueryDescriptor;
+import org.hibernate.ogm.datastore.ignite.query.parsing.impl.IgniteQueryParserService;
+import org.hibernate.ogm.dialect.query.spi.BackendQuery;
+import org.hibernate.ogm.dialect.query.spi.ClosableIterator;
+import org.hibernate.ogm.dialect.query.spi.QueryParameters;
+import org.hibernate.ogm.dialect.query.spi.RowSelection;
+import org.hibernate.ogm.model.spi.Tuple;
+import org.hibernate.ogm.query.spi.QueryParsingResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Translation of JP-QL queries to Ignite SQL, and iteration over the results of a query.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class QueryBenchmarks {
+
+	private static final String ENTITY_QUERY = "FROM Book b WHERE b.published >= :published ORDER BY b.title";
+	private static final String JOIN_QUERY = "SELECT a.name, b.title FROM Author a JOIN a.books b WHERE b.published = :published";
+
+	private static final Map<String, Object> PARAMETERS = Collections.<String, Object>singletonMap( "published", 2010 );
+
+	private IgniteDialect dialect;
+	private BackendQuery<IgniteQueryDescriptor> entityQuery;
+	private QueryParameters queryParameters;
+
+	@Setup
+	public void setUp(IgniteBenchmarkState state) {
+		dialect = state.getDialect();
+		entityQuery = new BackendQuery<>( (IgniteQueryDescriptor) parse( state, ENTITY_QUERY ).getQueryObject(), null );
+		queryParameters = new QueryParameters( new RowSelection( null, null ), Collections.emptyMap(),
+				Collections.emptyList(), Collections.emptyList() );
+	}
+
+	@Benchmark
+	public QueryParsingResult parseAndRenderEntityQuery(IgniteBenchmarkState state) {
+		return parse( state, ENTITY_QUERY );
+	}
+
+	@Benchmark
+	public QueryParsingResult parseAndRenderJoinQuery(IgniteBenchmarkState state) {
+		return parse( state, JOIN_QUERY );
+	}
+
+	@Benchmark
+	public int iterateEntityQuery(Blackhole blackhole) {
+		int count = 0;
+		try ( ClosableIterator<Tuple> tuples = dialect.executeBackendQuery( entityQuery, queryParameters, null ) ) {
+			while ( tuples.hasNext() ) {
+				blackhole.consume( tuples.next().get( "title" ) );
+				count++;
+			}
+		}
+		return count;
+	}
+
+	private static QueryParsingResult parse(IgniteBenchmarkState state, String query) {
+		return IgniteQueryParserService.INSTANCE.parseQuery( state.getSessionFactory(), query, PARAMETERS );
+	}
+}
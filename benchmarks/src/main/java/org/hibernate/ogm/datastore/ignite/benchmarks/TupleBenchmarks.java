@@ -0,0 +1,88 @@
+/*
+ * Hibernate OGM, Domain model persistence for NoSQL datastores
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.ogm.datastore.ignite.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.hibernate.ogm.datastore.ignite.IgniteDialect;
+import org.hibernate.ogm.datastore.ignite.benchmarks.model.Book;
+import org.hibernate.ogm.entityentry.impl.TuplePointer;
+import org.hibernate.ogm.model.key.spi.EntityKey;
+import org.hibernate.ogm.model.key.spi.EntityKeyMetadata;
+import org.hibernate.ogm.model.spi.Tuple;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Reads and writes of entity tuples by key, through the dialect.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class TupleBenchmarks {
+
+	// the identifiers of the books written by insertOrUpdateTuple, out of the range of the stored books
+	private static final long WRITTEN_BOOK_IDS = Long.MAX_VALUE / 2;
+
+	/**
+	 * Number of keys read by getTuples
+	 */
+	@Param("10")
+	public int batchSize;
+
+	private IgniteDialect dialect;
+	private EntityKeyMetadata bookMetadata;
+	private int next;
+
+	@Setup
+	public void setUp(IgniteBenchmarkState state) {
+		dialect = state.getDialect();
+		bookMetadata = state.getEntityKeyMetadata( Book.class );
+	}
+
+	@Benchmark
+	public Tuple getTuple(IgniteBenchmarkState state) {
+		return dialect.getTuple( bookKey( state.bookId( next++ ) ), null );
+	}
+
+	@Benchmark
+	public List<Tuple> getTuples(IgniteBenchmarkState state) {
+		EntityKey[] keys = new EntityKey[batchSize];
+		for ( int i = 0; i < batchSize; i++ ) {
+			keys[i] = bookKey( state.bookId( next++ ) );
+		}
+		return dialect.getTuples( keys, null );
+	}
+
+	@Benchmark
+	public TuplePointer insertOrUpdateTuple() {
+		EntityKey key = bookKey( WRITTEN_BOOK_IDS + next++ % 1000 );
+		Tuple tuple = dialect.createTuple( key, null );
+		tuple.put( "title", "written-" + next );
+		tuple.put( "published", 2000 + next % 20 );
+		TuplePointer tuplePointer = new TuplePointer( tuple );
+		dialect.insertOrUpdateTuple( key, tuplePointer, null );
+		return tuplePointer;
+	}
+
+	private EntityKey bookKey(Long id) {
+		return new EntityKey( bookMetadata, new Object[]{ id } );
+	}
+}
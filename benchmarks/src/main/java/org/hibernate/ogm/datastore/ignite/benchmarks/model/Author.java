@@ -0,0 +1,95 @@
+/*
+ * Hibernate OGM, Domain model persistence for NoSQL datastores
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.ogm.datastore.ignite.benchmarks.model;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import javax.persistence.ElementCollection;
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.JoinColumn;
+import javax.persistence.JoinTable;
+import javax.persistence.ManyToMany;
+import javax.persistence.OneToMany;
+import javax.persistence.TableGenerator;
+
+/**
+ * An author with a one-to-many association, a many-to-many association stored in a third table and an embedded
+ * collection. The identifiers are generated with a table.
+ */
+@Entity
+public class Author {
+
+	public static final String ID_TABLE = "AuthorIds";
+	public static final String ID_SEGMENT = "Author";
+
+	private Long id;
+	private String name;
+	private Set<Book> books = new HashSet<>();
+	private Set<Tag> tags = new HashSet<>();
+	private List<Address> addresses = new ArrayList<>();
+
+	Author() {
+	}
+
+	public Author(String name) {
+		this.name = name;
+	}
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.TABLE, generator = "authorIds")
+	@TableGenerator(name = "authorIds", table = ID_TABLE, pkColumnName = "name", valueColumnName = "nextValue", pkColumnValue = ID_SEGMENT)
+	public Long getId() {
+		return id;
+	}
+
+	public void setId(Long id) {
+		this.id = id;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public void setName(String name) {
+		this.name = name;
+	}
+
+	@OneToMany
+	@JoinColumn(name = "author_id")
+	public Set<Book> getBooks() {
+		return books;
+	}
+
+	public void setBooks(Set<Book> books) {
+		this.books = books;
+	}
+
+	@ManyToMany
+	@JoinTable(name = "Author_Tag")
+	public Set<Tag> getTags() {
+		return tags;
+	}
+
+	public void setTags(Set<Tag> tags) {
+		this.tags = tags;
+	}
+
+	@ElementCollection
+	public List<Address> getAddresses() {
+		return addresses;
+	}
+
+	public void setAddresses(List<Address> addresses) {
+		this.addresses = addresses;
+	}
+}
@@ -7,19 +7,29 @@
 package org.hibernate.ogm.datastore.ignite;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import javax.cache.CacheException;
 
 import org.apache.ignite.IgniteAtomicSequence;
 import org.apache.ignite.IgniteCache;
 import org.apache.ignite.binary.BinaryObject;
 import org.apache.ignite.binary.BinaryObjectBuilder;
+import org.apache.ignite.cache.query.QueryCursor;
 import org.apache.ignite.cache.query.SqlFieldsQuery;
+import org.apache.ignite.internal.binary.BinaryObjectExImpl;
+import org.apache.ignite.transactions.Transaction;
+import org.hibernate.EntityMode;
 import org.hibernate.HibernateException;
 import org.hibernate.LockMode;
 import org.hibernate.cfg.NotYetImplementedException;
@@ -27,22 +37,37 @@
 import org.hibernate.dialect.lock.OptimisticForceIncrementLockingStrategy;
 import org.hibernate.dialect.lock.OptimisticLockingStrategy;
 import org.hibernate.dialect.lock.PessimisticForceIncrementLockingStrategy;
+import org.hibernate.internal.util.collections.BoundedConcurrentHashMap;
 import org.hibernate.loader.custom.ScalarReturn;
+import org.hibernate.ogm.datastore.ignite.impl.CacheKeyComparator;
 import org.hibernate.ogm.datastore.ignite.impl.IgniteAssociationRowSnapshot;
 import org.hibernate.ogm.datastore.ignite.impl.IgniteAssociationSnapshot;
 import org.hibernate.ogm.datastore.ignite.impl.IgniteDatastoreProvider;
 import org.hibernate.ogm.datastore.ignite.impl.IgniteEmbeddedAssociationSnapshot;
+import org.hibernate.ogm.datastore.ignite.impl.IgniteProjectionTupleSnapshot;
 import org.hibernate.ogm.datastore.ignite.impl.IgniteTupleSnapshot;
+import org.hibernate.ogm.datastore.ignite.impl.IgniteWriteBatch;
 import org.hibernate.ogm.datastore.ignite.logging.impl.Log;
 import org.hibernate.ogm.datastore.ignite.logging.impl.LoggerFactory;
+import org.hibernate.ogm.datastore.ignite.logging.impl.SlowQueryLogger;
+import org.hibernate.ogm.datastore.ignite.metrics.impl.DialectOperation;
+import org.hibernate.ogm.datastore.ignite.metrics.impl.IgniteMetrics;
 import org.hibernate.ogm.datastore.ignite.options.impl.CollocatedAssociationOption;
 import org.hibernate.ogm.datastore.ignite.query.impl.IgniteParameterMetadataBuilder;
 import org.hibernate.ogm.datastore.ignite.query.impl.IgniteQueryDescriptor;
 import org.hibernate.ogm.datastore.ignite.query.impl.IgniteSqlQueryParser;
 import org.hibernate.ogm.datastore.ignite.query.impl.QueryHints;
+import org.hibernate.ogm.datastore.ignite.query.impl.QueryPlan;
+import org.hibernate.ogm.datastore.ignite.transaction.impl.TransactionWriteBuffer;
 import org.hibernate.ogm.datastore.ignite.type.impl.IgniteGridTypeMapper;
 import org.hibernate.ogm.datastore.ignite.util.StringHelper;
-import org.hibernate.ogm.datastore.map.impl.MapTupleSnapshot;
+import org.hibernate.ogm.dialect.batch.spi.BatchableGridDialect;
+import org.hibernate.ogm.dialect.batch.spi.InsertOrUpdateAssociationOperation;
+import org.hibernate.ogm.dialect.batch.spi.InsertOrUpdateTupleOperation;
+import org.hibernate.ogm.dialect.batch.spi.Operation;
+import org.hibernate.ogm.dialect.batch.spi.OperationsQueue;
+import org.hibernate.ogm.dialect.batch.spi.RemoveAssociationOperation;
+import org.hibernate.ogm.dialect.batch.spi.RemoveTupleOperation;
 import org.hibernate.ogm.dialect.multiget.spi.MultigetGridDialect;
 import org.hibernate.ogm.dialect.query.spi.BackendQuery;
 import org.hibernate.ogm.dialect.query.spi.ClosableIterator;
@@ -79,14 +104,24 @@
 import org.hibernate.ogm.type.spi.GridType;
 import org.hibernate.ogm.util.impl.Contracts;
 import org.hibernate.persister.entity.Lockable;
+import org.hibernate.type.ComponentType;
 import org.hibernate.type.Type;
 
-public class IgniteDialect extends BaseGridDialect implements GridDialect, MultigetGridDialect, QueryableGridDialect<IgniteQueryDescriptor> {
+public class IgniteDialect extends BaseGridDialect implements GridDialect, MultigetGridDialect, QueryableGridDialect<IgniteQueryDescriptor>,
+		BatchableGridDialect {
 
 	private static final Log log = LoggerFactory.getLogger();
+	// number of queries whose use of the indexes is remembered, like the default size of the query plan cache of ORM
+	private static final int MAX_CHECKED_QUERIES = 2048;
 
 	private IgniteDatastoreProvider provider;
 
+	// queries whose use of the indexes has been checked, the least recently executed ones are checked again
+	private final Set<String> checkedQueries = Collections.newSetFromMap(
+			new BoundedConcurrentHashMap<>( MAX_CHECKED_QUERIES, 20, BoundedConcurrentHashMap.Eviction.LIRS ) );
+	// writes of the flush executed by the current thread, null outside of executeBatch
+	private final ThreadLocal<IgniteWriteBatch> currentBatch = new ThreadLocal<>();
+
 	public IgniteDialect(IgniteDatastoreProvider provider) {
 		this.provider = provider;
 	}
@@ -96,11 +131,8 @@ public LockingStrategy getLockingStrategy(Lockable lockable, LockMode lockMode)
 		if ( lockMode == LockMode.PESSIMISTIC_FORCE_INCREMENT ) {
 			return new PessimisticForceIncrementLockingStrategy( lockable, lockMode );
 		}
-		// else if ( lockMode==LockMode.PESSIMISTIC_WRITE ) {
-		// return new PessimisticWriteLockingStrategy( lockable, lockMode );
-		// }
-		else if ( lockMode == LockMode.PESSIMISTIC_READ ) {
-			return new IgnitePessimisticReadLockingStrategy( lockable, lockMode, provider );
+		else if ( lockMode == LockMode.PESSIMISTIC_READ || lockMode == LockMode.PESSIMISTIC_WRITE ) {
+			return new IgnitePessimisticLockingStrategy( lockable, lockMode, provider );
 		}
 		else if ( lockMode == LockMode.OPTIMISTIC ) {
 			return new OptimisticLockingStrategy( lockable, lockMode );
@@ -116,8 +148,11 @@ else if ( lockMode == LockMode.OPTIMISTIC_FORCE_INCREMENT ) {
 	@Override
 	public Tuple getTuple(EntityKey key, OperationContext operationContext) {
 		IgniteCache<Object, BinaryObject> entityCache = provider.getEntityCache( key.getMetadata() );
+		IgniteMetrics metrics = provider.getMetrics();
+		long start = metrics.start();
 		Object id = provider.createKeyObject( key );
-		BinaryObject bo = entityCache.get( id );
+		BinaryObject bo = get( entityCache, id );
+		metrics.record( DialectOperation.GET_TUPLE, entityCache.getName(), start, bo != null ? 1 : 0, 0, 0 );
 		if ( bo != null ) {
 			return new Tuple( new IgniteTupleSnapshot( id, bo, key.getMetadata() ), SnapshotType.UPDATE );
 		}
@@ -130,11 +165,33 @@ public Tuple getTuple(EntityKey key, OperationContext operationContext) {
 	public List<Tuple> getTuples(EntityKey[] keys, TupleContext tupleContext) {
 		List<Tuple> result = new ArrayList<>( keys.length );
 		IgniteCache<Object, BinaryObject> entityCache = provider.getEntityCache( keys[0].getMetadata() );
+		IgniteMetrics metrics = provider.getMetrics();
+		long start = metrics.start();
 		Map<EntityKey, Object> ids = new HashMap<>( keys.length );
 		for ( EntityKey key : keys ) {
 			ids.put( key, provider.createKeyObject( key ) );
 		}
-		Map<Object, BinaryObject> objects = entityCache.getAll( new HashSet<>( ids.values() ) );
+		Map<Object, BinaryObject> objects = new HashMap<>( keys.length );
+		Set<Object> missingIds = new TreeSet<>( CacheKeyComparator.INSTANCE );
+		TransactionWriteBuffer buffer = provider.findWriteBuffer();
+		IgniteWriteBatch batch = currentBatch.get();
+		for ( Object id : ids.values() ) {
+			if ( batch != null && batch.contains( entityCache, id ) ) {
+				objects.put( id, batch.get( entityCache, id ) );
+			}
+			else if ( buffer != null && buffer.contains( entityCache.getName(), id ) ) {
+				objects.put( id, buffer.get( entityCache.getName(), id ) );
+			}
+			else {
+				missingIds.add( id );
+			}
+		}
+		if ( !missingIds.isEmpty() ) {
+			objects.putAll( entityCache.getAll( missingIds ) );
+		}
+		if ( metrics.isEnabled() ) {
+			metrics.record( DialectOperation.GET_TUPLES, entityCache.getName(), start, objects.values().stream().filter( Objects::nonNull ).count(), 0, 0 );
+		}
 		for ( EntityKey key : keys ) {
 			Object id = ids.get( key );
 			BinaryObject bo = objects.get( id );
@@ -158,36 +215,28 @@ public Tuple createTuple(EntityKey key, OperationContext operationContext) {
 	@Override
 	public void insertOrUpdateTuple(EntityKey key, TuplePointer tuplePointer, TupleContext tupleContext) throws TupleAlreadyExistsException {
 		IgniteCache<Object, BinaryObject> entityCache = provider.getEntityCache( key.getMetadata() );
+		IgniteMetrics metrics = provider.getMetrics();
+		long start = metrics.start();
 		Tuple tuple = tuplePointer.getTuple();
 
-		Object keyObject = null;
-		BinaryObjectBuilder builder = null;
-		IgniteTupleSnapshot tupleSnapshot = (IgniteTupleSnapshot) tuple.getSnapshot();
-		keyObject = tupleSnapshot.getCacheKey();
-		if ( tuple.getSnapshotType() == SnapshotType.UPDATE ) {
-			builder = provider.createBinaryObjectBuilder( tupleSnapshot.getCacheValue() );
+		Object keyObject = ( (IgniteTupleSnapshot) tuple.getSnapshot() ).getCacheKey();
+		BinaryObject valueObject = provider.createBinaryObject( key.getMetadata(), tuple );
+		put( entityCache, keyObject, valueObject );
+		if ( metrics.isEnabled() ) {
+			metrics.record( DialectOperation.INSERT_OR_UPDATE_TUPLE, entityCache.getName(), start, 1, sizeOf( valueObject ), 0 );
 		}
-		else {
-			builder = provider.createBinaryObjectBuilder( provider.getEntityTypeName( key.getMetadata().getTable() ) );
-		}
-		for ( String columnName : tuple.getColumnNames() ) {
-			Object value = tuple.get( columnName );
-			if ( value != null ) {
-				builder.setField( StringHelper.realColumnName( columnName ), value );
-			}
-			else {
-				builder.removeField( StringHelper.realColumnName( columnName ) );
-			}
-		}
-		BinaryObject valueObject = builder.build();
-		entityCache.put( keyObject, valueObject );
+		evictAfterWrite( key );
 		tuplePointer.setTuple( new Tuple( new IgniteTupleSnapshot( keyObject, valueObject, key.getMetadata() ), SnapshotType.UPDATE ) );
 	}
 
 	@Override
 	public void removeTuple(EntityKey key, TupleContext tupleContext) {
 		IgniteCache<Object, BinaryObject> entityCache = provider.getEntityCache( key.getMetadata() );
-		entityCache.remove( provider.createKeyObject( key ) );
+		IgniteMetrics metrics = provider.getMetrics();
+		long start = metrics.start();
+		remove( entityCache, provider.createKeyObject( key ) );
+		metrics.record( DialectOperation.REMOVE_TUPLE, entityCache.getName(), start, 1, 0, 0 );
+		evictAfterWrite( key );
 	}
 
 	@Override
@@ -200,6 +249,8 @@ public Association getAssociation(AssociationKey key, AssociationContext associa
 			throw log.cacheNotFound( key.getMetadata().getTable() );
 		}
 
+		IgniteMetrics metrics = provider.getMetrics();
+		long start = metrics.start();
 		if ( key.getMetadata().getAssociationKind() == AssociationKind.ASSOCIATION ) {
 			QueryHints.Builder hintsBuilder = new QueryHints.Builder();
 			Boolean isCollocated = associationContext.getAssociationTypeContext().getOptionsContext().getUnique( CollocatedAssociationOption.class );
@@ -212,20 +263,21 @@ public Association getAssociation(AssociationKey key, AssociationContext associa
 			SqlFieldsQuery sqlQuery = provider.createSqlFieldsQueryWithLog( createAssociationQuery( key, true ), hints, key.getColumnValues() );
 			Iterable<List<?>> list = executeWithHints( associationCache, sqlQuery, hints );
 
-			Iterator<List<?>> iterator = list.iterator();
-			if ( iterator.hasNext() ) {
-				Map<Object, BinaryObject> associationMap = new HashMap<>();
-				while ( iterator.hasNext() ) {
-					List<?> item = iterator.next();
-					Object id = item.get( 0 );
-					BinaryObject bo = (BinaryObject) item.get( 1 );
-					associationMap.put( id, bo );
-				}
+			Map<Object, BinaryObject> associationMap = new HashMap<>();
+			for ( List<?> item : list ) {
+				Object id = item.get( 0 );
+				BinaryObject bo = (BinaryObject) item.get( 1 );
+				associationMap.put( id, bo );
+			}
+			applyWrites( key, associationCache, associationMap );
+			if ( !associationMap.isEmpty() ) {
 				result = new Association( new IgniteAssociationSnapshot( key, associationMap ) );
 			}
+			metrics.record( DialectOperation.GET_ASSOCIATION, associationCache.getName(), start, associationMap.size(), 0, 0 );
 		}
 		else if ( key.getMetadata().getAssociationKind() == AssociationKind.EMBEDDED_COLLECTION ) {
 			result = new Association( new IgniteEmbeddedAssociationSnapshot( key, associationContext.getEntityTuplePointer().getTuple() ) );
+			metrics.record( DialectOperation.GET_ASSOCIATION, associationCache.getName(), start, 1, 0, 0 );
 		}
 		else {
 			throw new UnsupportedOperationException( "Unknown association kind " + key.getMetadata().getAssociationKind() );
@@ -234,6 +286,43 @@ else if ( key.getMetadata().getAssociationKind() == AssociationKind.EMBEDDED_COL
 		return result;
 	}
 
+	/**
+	 * SQL queries do not see the changes of the current transaction, the rows of the association written in the
+	 * transaction are taken from the write buffer instead.
+	 */
+	private void applyWrites(AssociationKey key, IgniteCache<Object, BinaryObject> associationCache, Map<Object, BinaryObject> associationMap) {
+		TransactionWriteBuffer buffer = provider.findWriteBuffer();
+		if ( buffer != null ) {
+			applyWrites( key, buffer.getEntries( associationCache.getName() ), associationMap );
+		}
+		IgniteWriteBatch batch = currentBatch.get();
+		if ( batch != null ) {
+			applyWrites( key, batch.getEntries( associationCache ), associationMap );
+		}
+	}
+
+	private void applyWrites(AssociationKey key, Map<Object, BinaryObject> writes, Map<Object, BinaryObject> associationMap) {
+		for ( Map.Entry<Object, BinaryObject> entry : writes.entrySet() ) {
+			if ( entry.getValue() != null && isRowOf( key, entry.getValue() ) ) {
+				associationMap.put( entry.getKey(), entry.getValue() );
+			}
+			else {
+				// removed, or no longer a row of this association
+				associationMap.remove( entry.getKey() );
+			}
+		}
+	}
+
+	private boolean isRowOf(AssociationKey key, BinaryObject row) {
+		for ( int i = 0; i < key.getColumnNames().length; i++ ) {
+			Object value = row.field( StringHelper.realColumnName( key.getColumnNames()[i] ) );
+			if ( !Objects.equals( key.getColumnValues()[i], value ) ) {
+				return false;
+			}
+		}
+		return true;
+	}
+
 	private String createAssociationQuery(AssociationKey key, boolean selectObjects) {
 		StringBuilder sb = new StringBuilder();
 		if ( selectObjects ) {
@@ -277,10 +366,12 @@ public void insertOrUpdateAssociation(AssociationKey key, Association associatio
 		}
 
 		IgniteCache<Object, BinaryObject> associationCache = provider.getAssociationCache( key.getMetadata() );
+		IgniteMetrics metrics = provider.getMetrics();
+		long start = metrics.start();
 
 		if ( key.getMetadata().getAssociationKind() == AssociationKind.ASSOCIATION ) {
-			Map<Object, BinaryObject> changedObjects = new HashMap<>();
-			Set<Object> removedObjects = new HashSet<>();
+			Map<Object, BinaryObject> changedObjects = new TreeMap<>( CacheKeyComparator.INSTANCE );
+			Set<Object> removedObjects = new TreeSet<>( CacheKeyComparator.INSTANCE );
 			boolean thirdTableAssociation = IgniteAssociationSnapshot.isThirdTableAssociation( key.getMetadata() );
 
 			for ( AssociationOperation op : association.getOperations() ) {
@@ -292,7 +383,7 @@ public void insertOrUpdateAssociation(AssociationKey key, Association associatio
 										: null;
 				if ( op.getType() == AssociationOperationType.CLEAR
 						|| op.getType() == AssociationOperationType.REMOVE && !thirdTableAssociation ) {
-					BinaryObject clearBo = associationCache.get( previousId );
+					BinaryObject clearBo = get( associationCache, previousId );
 					if ( clearBo != null ) {
 						BinaryObjectBuilder clearBoBuilder = provider.createBinaryObjectBuilder( clearBo );
 						for ( String columnName : key.getColumnNames() ) {
@@ -312,7 +403,7 @@ else if ( op.getType() == AssociationOperationType.PUT ) {
 					else {
 						currentId = ( (IgniteAssociationRowSnapshot) currentStateTuple.getSnapshot() ).getCacheKey();
 					}
-					BinaryObject putBo = previousId != null ? associationCache.get( previousId ) : null;
+					BinaryObject putBo = previousId != null ? get( associationCache, previousId ) : null;
 					BinaryObjectBuilder putBoBuilder = null;
 					if ( putBo != null ) {
 						boolean hasChanges = false;
@@ -359,17 +450,21 @@ else if ( op.getType() == AssociationOperationType.REMOVE ) {
 			}
 
 			if ( !changedObjects.isEmpty() ) {
-				associationCache.putAll( changedObjects );
+				putAll( associationCache, changedObjects );
 			}
 			if ( !removedObjects.isEmpty() ) {
-				associationCache.removeAll( removedObjects );
+				removeAll( associationCache, removedObjects );
+			}
+			if ( metrics.isEnabled() ) {
+				metrics.record( DialectOperation.INSERT_OR_UPDATE_ASSOCIATION, associationCache.getName(), start,
+						changedObjects.size() + removedObjects.size(), sizeOf( changedObjects.values() ), 0 );
 			}
 		}
 		else if ( key.getMetadata().getAssociationKind() == AssociationKind.EMBEDDED_COLLECTION ) {
 			String indexColumnName = findIndexColumnName( key.getMetadata() );
 			boolean searchByValue = indexColumnName == null;
 			Object id = ( (IgniteTupleSnapshot) associationContext.getEntityTuplePointer().getTuple().getSnapshot() ).getCacheKey();
-			BinaryObject binaryObject = associationCache.get( id );
+			BinaryObject binaryObject = get( associationCache, id );
 			Contracts.assertNotNull( binaryObject, "binaryObject" );
 			String column = StringHelper.realColumnName( key.getMetadata().getCollectionRole() );
 
@@ -423,7 +518,10 @@ else if ( key.getMetadata().getAssociationKind() == AssociationKind.EMBEDDED_COL
 			BinaryObjectBuilder binaryObjectBuilder = provider.createBinaryObjectBuilder( binaryObject );
 			binaryObjectBuilder.setField( column, associationObjects.toArray( new BinaryObject[ associationObjects.size() ] ) );
 			binaryObject = binaryObjectBuilder.build();
-			associationCache.put( id, binaryObject );
+			put( associationCache, id, binaryObject );
+			if ( metrics.isEnabled() ) {
+				metrics.record( DialectOperation.INSERT_OR_UPDATE_ASSOCIATION, associationCache.getName(), start, 1, sizeOf( binaryObject ), 0 );
+			}
 		}
 	}
 
@@ -484,6 +582,8 @@ public void removeAssociation(AssociationKey key, AssociationContext association
 		}
 
 		IgniteCache<Object, BinaryObject> associationCache = provider.getAssociationCache( key.getMetadata() );
+		IgniteMetrics metrics = provider.getMetrics();
+		long start = metrics.start();
 
 		if ( key.getMetadata().getAssociationKind() == AssociationKind.ASSOCIATION ) {
 			QueryHints.Builder hintsBuilder = new QueryHints.Builder();
@@ -497,13 +597,18 @@ public void removeAssociation(AssociationKey key, AssociationContext association
 
 			if ( !IgniteAssociationSnapshot.isThirdTableAssociation( key.getMetadata() ) ) {
 				// clear reference
-				Map<Object, BinaryObject> changedObjects = new HashMap<>();
+				Map<Object, BinaryObject> changedObjects = new TreeMap<>( CacheKeyComparator.INSTANCE );
 
 				SqlFieldsQuery sqlQuery = provider.createSqlFieldsQueryWithLog( createAssociationQuery( key, true ), hints, key.getColumnValues() );
 				Iterable<List<?>> list = executeWithHints( associationCache, sqlQuery, hints );
+				Map<Object, BinaryObject> rows = new HashMap<>();
 				for ( List<?> item : list ) {
-					Object id = item.get( /* _KEY */ 0 );
-					BinaryObject clearBo = (BinaryObject) item.get( /* _VALUE */ 1 );
+					rows.put( /* _KEY */ item.get( 0 ), (BinaryObject) /* _VALUE */ item.get( 1 ) );
+				}
+				applyWrites( key, associationCache, rows );
+				for ( Map.Entry<Object, BinaryObject> row : rows.entrySet() ) {
+					Object id = row.getKey();
+					BinaryObject clearBo = row.getValue();
 					if ( clearBo != null ) {
 						BinaryObjectBuilder clearBoBuilder = provider.createBinaryObjectBuilder( clearBo );
 						for ( String columnName : key.getMetadata().getRowKeyColumnNames() ) {
@@ -514,32 +619,44 @@ public void removeAssociation(AssociationKey key, AssociationContext association
 				}
 
 				if ( !changedObjects.isEmpty() ) {
-					associationCache.putAll( changedObjects );
+					putAll( associationCache, changedObjects );
+				}
+				if ( metrics.isEnabled() ) {
+					metrics.record( DialectOperation.REMOVE_ASSOCIATION, associationCache.getName(), start,
+							changedObjects.size(), sizeOf( changedObjects.values() ), 0 );
 				}
 			}
 			else {
 				// remove objects
-				Set<Object> removedObjects = new HashSet<>();
+				Set<Object> removedObjects = new TreeSet<>( CacheKeyComparator.INSTANCE );
 
 				SqlFieldsQuery sqlQuery = provider.createSqlFieldsQueryWithLog( createAssociationQuery( key, false ), hints, key.getColumnValues() );
 				Iterable<List<?>> list = executeWithHints( associationCache, sqlQuery, hints );
+				Map<Object, BinaryObject> rows = new HashMap<>();
 				for ( List<?> item : list ) {
-					removedObjects.add( /* _KEY */ item.get( 0 ) );
+					// only the keys are needed
+					rows.put( /* _KEY */ item.get( 0 ), null );
 				}
+				applyWrites( key, associationCache, rows );
+				removedObjects.addAll( rows.keySet() );
 
 				if ( !removedObjects.isEmpty() ) {
-					associationCache.removeAll( removedObjects );
+					removeAll( associationCache, removedObjects );
 				}
+				metrics.record( DialectOperation.REMOVE_ASSOCIATION, associationCache.getName(), start, removedObjects.size(), 0, 0 );
 			}
 		}
 		else if ( key.getMetadata().getAssociationKind() == AssociationKind.EMBEDDED_COLLECTION ) {
 			Object id = ( (IgniteTupleSnapshot) associationContext.getEntityTuplePointer().getTuple().getSnapshot() ).getCacheKey();
-			BinaryObject binaryObject = associationCache.get( id );
+			BinaryObject binaryObject = get( associationCache, id );
 			Contracts.assertNotNull( binaryObject, "binaryObject" );
 			BinaryObjectBuilder binaryObjectBuilder = provider.createBinaryObjectBuilder( binaryObject );
 			binaryObjectBuilder.removeField( key.getMetadata().getCollectionRole() );
 			binaryObject = binaryObjectBuilder.build();
-			associationCache.put( id, binaryObject );
+			put( associationCache, id, binaryObject );
+			if ( metrics.isEnabled() ) {
+				metrics.record( DialectOperation.REMOVE_ASSOCIATION, associationCache.getName(), start, 1, sizeOf( binaryObject ), 0 );
+			}
 		}
 	}
 
@@ -550,10 +667,15 @@ public boolean isStoredInEntityStructure(AssociationKeyMetadata associationKeyMe
 
 	@Override
 	public Number nextValue(NextValueRequest request) {
+		IgniteMetrics metrics = provider.getMetrics();
+		long start = metrics.start();
 		Long result = null;
+		String cacheName = null;
+		int retries = 0;
 		switch ( request.getKey().getMetadata().getType() ) {
 			case TABLE:
 				IgniteCache<String, Long> cache = provider.getIdSourceCache( request.getKey().getMetadata() );
+				cacheName = cache.getName();
 				String idSourceKey = request.getKey().getColumnValue();
 				Long previousValue = cache.get( idSourceKey );
 				if ( previousValue == null ) {
@@ -570,15 +692,18 @@ public Number nextValue(NextValueRequest request) {
 						}
 						else {
 							previousValue = cache.get( idSourceKey );
+							retries++;
 						}
 					}
 				}
 				break;
 			case SEQUENCE:
-				IgniteAtomicSequence seq = provider.atomicSequence( request.getKey().getMetadata().getName(), request.getInitialValue(), false );
+				cacheName = request.getKey().getMetadata().getName();
+				IgniteAtomicSequence seq = provider.atomicSequence( cacheName, request.getInitialValue(), false );
 				result = seq.getAndAdd( request.getIncrement() );
 				break;
 		}
+		metrics.record( DialectOperation.NEXT_VALUE, cacheName, start, 1, 0, retries );
 		return result;
 	}
 
@@ -597,7 +722,53 @@ public int executeBackendUpdateQuery(BackendQuery<IgniteQueryDescriptor> query,
 		throw new UnsupportedOperationException( "executeBackendUpdateQuery() is not implemented" );
 	}
 
-	@SuppressWarnings({ "rawtypes", "unchecked" })
+	/**
+	 * Collects the writes of a flush by cache before writing them, see {@link IgniteWriteBatch}.
+	 */
+	@Override
+	public void executeBatch(OperationsQueue queue) {
+		if ( queue.isClosed() ) {
+			return;
+		}
+		IgniteMetrics metrics = provider.getMetrics();
+		long start = metrics.start();
+		IgniteWriteBatch batch = new IgniteWriteBatch( provider );
+		currentBatch.set( batch );
+		try {
+			Operation operation = queue.poll();
+			while ( operation != null ) {
+				if ( operation instanceof InsertOrUpdateTupleOperation ) {
+					InsertOrUpdateTupleOperation tupleOperation = (InsertOrUpdateTupleOperation) operation;
+					insertOrUpdateTuple( tupleOperation.getEntityKey(), tupleOperation.getTuplePointer(), tupleOperation.getTupleContext() );
+				}
+				else if ( operation instanceof RemoveTupleOperation ) {
+					RemoveTupleOperation tupleOperation = (RemoveTupleOperation) operation;
+					removeTuple( tupleOperation.getEntityKey(), tupleOperation.getTupleContext() );
+				}
+				else if ( operation instanceof InsertOrUpdateAssociationOperation ) {
+					InsertOrUpdateAssociationOperation associationOperation = (InsertOrUpdateAssociationOperation) operation;
+					insertOrUpdateAssociation( associationOperation.getAssociationKey(), associationOperation.getAssociation(),
+							associationOperation.getContext() );
+				}
+				else if ( operation instanceof RemoveAssociationOperation ) {
+					RemoveAssociationOperation associationOperation = (RemoveAssociationOperation) operation;
+					removeAssociation( associationOperation.getAssociationKey(), associationOperation.getContext() );
+				}
+				else {
+					throw new UnsupportedOperationException( "Operation not supported: " + operation.getClass().getSimpleName() );
+				}
+				operation = queue.poll();
+			}
+		}
+		finally {
+			currentBatch.remove();
+		}
+		batch.execute();
+		if ( metrics.isEnabled() ) {
+			metrics.record( DialectOperation.EXECUTE_BATCH, IgniteMetrics.ALL_CACHES, start, batch.size(), 0, 0 );
+		}
+	}
+
 	@Override
 	public ClosableIterator<Tuple> executeBackendQuery(BackendQuery<IgniteQueryDescriptor> backendQuery, QueryParameters queryParameters,
 			TupleContext tupleContext) {
@@ -607,8 +778,12 @@ public ClosableIterator<Tuple> executeBackendQuery(BackendQuery<IgniteQueryDescr
 		}
 		EntityKeyMetadata selectionEntity;
 		if ( backendQuery.getQuery().getRootKeyMetadata() == null ) {
+			// native query
 			if ( backendQuery.getSingleEntityMetadataInformationOrNull() != null ) {
 				selectionEntity = backendQuery.getSingleEntityMetadataInformationOrNull().getEntityKeyMetadata();
+				if ( backendQuery.getQuery().hasScalar() ) {
+					throw log.nativeQueryWithoutEntityColumns( selectionEntity.getTable(), backendQuery.getQuery().getSql() );
+				}
 			}
 			else {
 				throw new IllegalArgumentException( "Cannot determine any selection entity" );
@@ -632,27 +807,217 @@ public ClosableIterator<Tuple> executeBackendQuery(BackendQuery<IgniteQueryDescr
 			parameterValues = backendQuery.getQuery().getIndexedParameters();
 		}
 
-		QueryHints hints = ( new QueryHints.Builder( null /* queryParameters.getQueryHints() */ ) ).build();
+		QueryHints hints = provider.createQueryHints( backendQuery.getQuery(), selectionEntity, queryParameters.getQueryHints() );
+		checkIndexUsage( selectionEntity, backendQuery.getQuery() );
+		long start = provider.getMetrics().start();
 		SqlFieldsQuery sqlQuery = provider.createSqlFieldsQueryWithLog(
 				backendQuery.getQuery().getSql(),
 				hints,
 				parameterValues.toArray()
 		);
+		// explained before its first execution
+		QueryPlan fullScanPlan = provider.getFullScanDetector().checkBeforeExecution( sqlQuery.getSql(),
+				() -> provider.explain( selectionEntity, sqlQuery.getSql(), hints, sqlQuery.getArgs() ) );
 		Iterable<List<?>> result = executeWithHints( cache, sqlQuery, hints );
+		// closed with the returned cursor, even if the rows are not all read
+		QueryCursor<?> queryCursor = result instanceof QueryCursor ? (QueryCursor<?>) result : null;
+		result = provider.getFullScanDetector().monitor( result, fullScanPlan );
+
+		RowSelection rowSelection = queryParameters.getRowSelection();
+		if ( hints.isForUpdate() ) {
+			if ( backendQuery.getQuery().hasScalar() ) {
+				throw log.forUpdateRequiresEntities( sqlQuery.getSql() );
+			}
+			result = lockRows( cache, result, rowSelection );
+			// only the rows of the page are returned by lockRows
+			rowSelection = new RowSelection( null, null );
+		}
 
 		if ( backendQuery.getQuery().hasScalar() ) {
-			return new ProjectionResultCursor( result,
-				backendQuery.getQuery().getQueryReturns(), queryParameters.getRowSelection() );
+			return new ProjectionResultCursor( result, queryCursor,
+				backendQuery.getQuery().getQueryReturns(), rowSelection, cache.getName(), start );
 		}
 		else {
 			return new SingleEntityResultCursor(
-				result, queryParameters.getRowSelection(), selectionEntity );
+				result, queryCursor, rowSelection, selectionEntity, cache.getName(), start );
+		}
+	}
+
+	/**
+	 * Locks the entities of the requested page of a query until the end of the current transaction, all at once.
+	 * The rows are read again with the locks so that they are up to date. Only the reads of a pessimistic transaction
+	 * with the {@code REPEATABLE_READ} or {@code SERIALIZABLE} isolation lock the entries.
+	 */
+	private Iterable<List<?>> lockRows(IgniteCache<Object, BinaryObject> cache, Iterable<List<?>> rows, RowSelection rowSelection) {
+		Transaction transaction = provider.getCurrentTransaction();
+		if ( transaction == null || !IgniteDatastoreProvider.isLockingReads( transaction ) ) {
+			throw log.forUpdateRequiresPessimisticTransaction();
+		}
+		int firstRow = rowSelection.getFirstRow() != null ? rowSelection.getFirstRow() : 0;
+		Integer maxRows = rowSelection.getMaxRows();
+		Iterator<List<?>> iterator = rows.iterator();
+		for ( int i = 0; i < firstRow && iterator.hasNext(); i++ ) {
+			iterator.next();
+		}
+		List<Object> keys = new ArrayList<>();
+		while ( ( maxRows == null || keys.size() < maxRows ) && iterator.hasNext() ) {
+			keys.add( iterator.next().get( 0 ) );
+		}
+		Map<Object, BinaryObject> lockedValues;
+		try {
+			lockedValues = cache.getAll( sortedKeys( keys ) );
+		}
+		catch (CacheException e) {
+			provider.onTransactionFailure( e );
+			throw e;
+		}
+		List<List<?>> lockedRows = new ArrayList<>( lockedValues.size() );
+		for ( Object key : keys ) {
+			BinaryObject value = lockedValues.get( key );
+			if ( value != null ) {
+				// else removed since the query was executed
+				lockedRows.add( Arrays.asList( key, value ) );
+			}
+		}
+		return lockedRows;
+	}
+
+	/**
+	 * @return a set sorting the keys in the order all the transactions lock them
+	 */
+	private static Set<Object> sortedKeys(Collection<?> keys) {
+		Set<Object> sortedKeys = new TreeSet<>( CacheKeyComparator.INSTANCE );
+		sortedKeys.addAll( keys );
+		return sortedKeys;
+	}
+
+	/**
+	 * Reads an entry, from the entries written in the current transaction if it has been written by it.
+	 */
+	private BinaryObject get(IgniteCache<Object, BinaryObject> cache, Object key) {
+		IgniteWriteBatch batch = currentBatch.get();
+		if ( batch != null && batch.contains( cache, key ) ) {
+			return batch.get( cache, key );
+		}
+		TransactionWriteBuffer buffer = provider.findWriteBuffer();
+		if ( buffer != null && buffer.contains( cache.getName(), key ) ) {
+			return buffer.get( cache.getName(), key );
+		}
+		return cache.get( key );
+	}
+
+	private void put(IgniteCache<Object, BinaryObject> cache, Object key, BinaryObject value) {
+		IgniteWriteBatch batch = currentBatch.get();
+		if ( batch != null ) {
+			batch.put( cache, key, value );
+			return;
+		}
+		cache.put( key, value );
+		TransactionWriteBuffer buffer = provider.getWriteBuffer();
+		if ( buffer != null ) {
+			buffer.put( cache.getName(), key, value );
+		}
+	}
+
+	private void remove(IgniteCache<Object, BinaryObject> cache, Object key) {
+		IgniteWriteBatch batch = currentBatch.get();
+		if ( batch != null ) {
+			batch.remove( cache, key );
+			return;
+		}
+		cache.remove( key );
+		TransactionWriteBuffer buffer = provider.getWriteBuffer();
+		if ( buffer != null ) {
+			buffer.remove( cache.getName(), key );
+		}
+	}
+
+	/**
+	 * Evicts an entity from the second-level cache once its write is visible to the other sessions: after the batch is
+	 * executed, after the transaction is committed or right away when the write is not staged.
+	 */
+	private void evictAfterWrite(EntityKey key) {
+		IgniteWriteBatch batch = currentBatch.get();
+		if ( batch != null ) {
+			batch.evictAfterWrite( key );
+			return;
+		}
+		TransactionWriteBuffer buffer = provider.getWriteBuffer();
+		if ( buffer != null ) {
+			buffer.evictAfterCommit( key );
+		}
+		else {
+			provider.evictFromSecondLevelCache( key );
+		}
+	}
+
+	private void putAll(IgniteCache<Object, BinaryObject> cache, Map<Object, BinaryObject> sortedObjects) {
+		IgniteWriteBatch batch = currentBatch.get();
+		if ( batch != null ) {
+			sortedObjects.forEach( ( key, value ) -> batch.put( cache, key, value ) );
+			return;
+		}
+		try {
+			cache.putAll( sortedObjects );
+		}
+		catch (CacheException e) {
+			provider.onTransactionFailure( e );
+			throw e;
+		}
+		TransactionWriteBuffer buffer = provider.getWriteBuffer();
+		if ( buffer != null ) {
+			buffer.putAll( cache.getName(), sortedObjects );
+		}
+	}
+
+	private void removeAll(IgniteCache<Object, BinaryObject> cache, Set<Object> sortedKeys) {
+		IgniteWriteBatch batch = currentBatch.get();
+		if ( batch != null ) {
+			sortedKeys.forEach( key -> batch.remove( cache, key ) );
+			return;
+		}
+		try {
+			cache.removeAll( sortedKeys );
+		}
+		catch (CacheException e) {
+			provider.onTransactionFailure( e );
+			throw e;
+		}
+		TransactionWriteBuffer buffer = provider.getWriteBuffer();
+		if ( buffer != null ) {
+			buffer.removeAll( cache.getName(), sortedKeys );
+		}
+	}
+
+	/**
+	 * @return the serialized size of a binary object, {@code 0} if it is not known
+	 */
+	private static long sizeOf(BinaryObject object) {
+		return object instanceof BinaryObjectExImpl ? ( (BinaryObjectExImpl) object ).length() : 0;
+	}
+
+	private static long sizeOf(Collection<BinaryObject> objects) {
+		long size = 0;
+		for ( BinaryObject object : objects ) {
+			size += sizeOf( object );
+		}
+		return size;
+	}
+
+	private void checkIndexUsage(EntityKeyMetadata selectionEntity, IgniteQueryDescriptor query) {
+		Set<String> indexableColumns = query.getIndexableColumns();
+		if ( indexableColumns != null && checkedQueries.add( query.getSql() )
+				&& !provider.isAnyIndexed( selectionEntity, indexableColumns ) ) {
+			log.queryWithoutIndex( selectionEntity.getTable(), query.getSql() );
 		}
 	}
 
 	private Iterable<List<?>> executeWithHints(IgniteCache<Object, BinaryObject> cache, SqlFieldsQuery sqlQuery, QueryHints hints) {
+		SlowQueryLogger slowQueryLogger = provider.getSlowQueryLogger();
+		long start = slowQueryLogger.isEnabled() ? System.nanoTime() : 0L;
 		Iterable<List<?>> result;
 
+		hints.applyTo( sqlQuery );
 		if ( hints.isLocal() ) {
 			if ( !provider.isClientMode() ) {
 				sqlQuery.setLocal( true );
@@ -665,6 +1030,9 @@ private Iterable<List<?>> executeWithHints(IgniteCache<Object, BinaryObject> cac
 			result = cache.query( sqlQuery );
 		}
 
+		if ( slowQueryLogger.isEnabled() ) {
+			result = slowQueryLogger.monitor( result, sqlQuery, hints, start );
+		}
 		return result;
 	}
 
@@ -687,12 +1055,20 @@ public GridType overrideType(Type type) {
 	private abstract class BaseResultCursor<T> implements ClosableIterator<Tuple> {
 
 		private final Iterator<T> resultIterator;
+		private final QueryCursor<?> queryCursor;
 		private final Integer maxRows;
 		private int rowNum = 0;
+		// the query is measured until the cursor is closed
+		private final String cacheName;
+		private final long start;
+		private boolean closed;
 
-		public BaseResultCursor(Iterable<T> resultCursor, RowSelection rowSelection) {
+		public BaseResultCursor(Iterable<T> resultCursor, QueryCursor<?> queryCursor, RowSelection rowSelection, String cacheName, long start) {
 			this.resultIterator = resultCursor.iterator();
+			this.queryCursor = queryCursor;
 			this.maxRows = rowSelection.getMaxRows();
+			this.cacheName = cacheName;
+			this.start = start;
 			iterateToFirst( rowSelection );
 		}
 
@@ -724,25 +1100,73 @@ public void remove() {
 
 		@Override
 		public void close() {
+			if ( !closed ) {
+				closed = true;
+				try {
+					if ( queryCursor != null ) {
+						queryCursor.close();
+					}
+				}
+				finally {
+					provider.getMetrics().record( DialectOperation.EXECUTE_QUERY, cacheName, start, rowNum, 0, 0 );
+				}
+			}
 		}
 	}
 
 	private class ProjectionResultCursor extends BaseResultCursor<List<?>> {
 
 		private final List<ScalarReturn> queryReturns;
+		// position of each return in the rows, computed once for all the rows
+		private final Map<String, Integer> columnIndexes;
+		private final boolean hasEmbeddables;
 
-		ProjectionResultCursor(Iterable<List<?>> resultCursor, List<ScalarReturn> queryReturns, RowSelection rowSelection) {
-			super( resultCursor, rowSelection );
+		ProjectionResultCursor(Iterable<List<?>> resultCursor, QueryCursor<?> queryCursor, List<ScalarReturn> queryReturns,
+				RowSelection rowSelection, String cacheName, long start) {
+			super( resultCursor, queryCursor, rowSelection, cacheName, start );
 			this.queryReturns = queryReturns;
+			Map<String, Integer> indexes = new HashMap<>();
+			boolean embeddables = false;
+			for ( ScalarReturn queryReturn : queryReturns ) {
+				indexes.put( queryReturn.getColumnAlias(), indexes.size() );
+				embeddables |= queryReturn.getType().isComponentType();
+			}
+			this.columnIndexes = Collections.unmodifiableMap( indexes );
+			this.hasEmbeddables = embeddables;
 		}
 
 		@Override
 		TupleSnapshot createTupleSnapshot(List<?> value) {
-			Map<String, Object> map = new HashMap<>();
-			for ( int i = 0; i < value.size(); i++ ) {
-				map.put( queryReturns.get( i ).getColumnAlias(), value.get( i ) );
+			return new IgniteProjectionTupleSnapshot( columnIndexes, hasEmbeddables ? assembleEmbeddables( value ) : value );
+		}
+
+		private List<?> assembleEmbeddables(List<?> value) {
+			Object[] result = new Object[queryReturns.size()];
+			int column = 0;
+			for ( int r = 0; r < result.length; r++ ) {
+				Type type = queryReturns.get( r ).getType();
+				if ( type.isComponentType() ) {
+					// embeddables are selected as one column per property
+					ComponentType componentType = (ComponentType) type;
+					Object[] values = new Object[componentType.getPropertySpan()];
+					boolean empty = true;
+					for ( int i = 0; i < values.length; i++ ) {
+						values[i] = value.get( column++ );
+						empty &= values[i] == null;
+					}
+					result[r] = empty ? null : createComponent( componentType, values );
+				}
+				else {
+					result[r] = value.get( column++ );
+				}
 			}
-			return new MapTupleSnapshot( map );
+			return Arrays.asList( result );
+		}
+
+		private Object createComponent(ComponentType componentType, Object[] values) {
+			Object component = componentType.instantiate( EntityMode.POJO );
+			componentType.setPropertyValues( component, values, EntityMode.POJO );
+			return component;
 		}
 	}
 
@@ -750,8 +1174,9 @@ TupleSnapshot createTupleSnapshot(List<?> value) {
 	private class SingleEntityResultCursor extends BaseResultCursor<List<?>> {
 		private final EntityKeyMetadata keyMetadata;
 
-		SingleEntityResultCursor(Iterable<List<?>> resultCursor, RowSelection rowSelection, EntityKeyMetadata keyMetadata) {
-			super( resultCursor, rowSelection );
+		SingleEntityResultCursor(Iterable<List<?>> resultCursor, QueryCursor<?> queryCursor, RowSelection rowSelection,
+				EntityKeyMetadata keyMetadata, String cacheName, long start) {
+			super( resultCursor, queryCursor, rowSelection, cacheName, start );
 			this.keyMetadata = keyMetadata;
 		}
 
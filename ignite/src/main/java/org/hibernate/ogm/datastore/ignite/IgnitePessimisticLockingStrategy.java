@@ -0,0 +1,125 @@
+/*
+ * Hibernate OGM, Domain model persistence for NoSQL datastores
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.ogm.datastore.ignite;
+
+import java.io.Serializable;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+
+import javax.cache.CacheException;
+
+import org.apache.ignite.IgniteCache;
+import org.apache.ignite.IgniteException;
+import org.apache.ignite.binary.BinaryObject;
+import org.apache.ignite.transactions.Transaction;
+import org.hibernate.LockMode;
+import org.hibernate.LockOptions;
+import org.hibernate.StaleObjectStateException;
+import org.hibernate.dialect.lock.LockingStrategy;
+import org.hibernate.dialect.lock.LockingStrategyException;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.ogm.datastore.ignite.impl.IgniteDatastoreProvider;
+import org.hibernate.ogm.model.impl.EntityKeyBuilder;
+import org.hibernate.ogm.model.key.spi.EntityKey;
+import org.hibernate.ogm.persister.impl.OgmEntityPersister;
+import org.hibernate.ogm.type.spi.GridType;
+import org.hibernate.ogm.type.spi.TypeTranslator;
+import org.hibernate.persister.entity.Lockable;
+
+/**
+ * Locks entities for {@link LockMode#PESSIMISTIC_READ} and {@link LockMode#PESSIMISTIC_WRITE}. Ignite locks are
+ * exclusive, so both modes acquire the same lock.
+ * <p>
+ * Within an Ignite transaction the entity is read in the transaction: a pessimistic transaction with the
+ * {@code REPEATABLE_READ} or {@code SERIALIZABLE} isolation keeps the entry locked until it ends, and an entry already
+ * locked by the transaction, e.g. by a query using the {@code forUpdate} hint, is read without a remote call. The time
+ * spent waiting for the lock is then bounded by the timeout of the transaction. Other transactions do not lock the
+ * entries they read, and explicit locks cannot be acquired in a transaction: the lock request fails.
+ * <p>
+ * Without transaction an explicit lock is acquired within the lock timeout, and released when the Hibernate
+ * transaction completes.
+ */
+public class IgnitePessimisticLockingStrategy implements LockingStrategy {
+
+	private final Lockable lockable;
+	private final LockMode lockMode;
+
+	private IgniteDatastoreProvider provider;
+
+	public IgnitePessimisticLockingStrategy(Lockable lockable, LockMode lockMode, IgniteDatastoreProvider provider) {
+		this.lockable = lockable;
+		this.lockMode = lockMode;
+		this.provider = provider;
+	}
+
+	@Override
+	public void lock(Serializable id, Object version, Object object, int timeout, SharedSessionContractImplementor session)
+			throws StaleObjectStateException, LockingStrategyException {
+
+		TypeTranslator typeTranslator = lockable.getFactory().getServiceRegistry().getService( TypeTranslator.class );
+		GridType idGridType = typeTranslator.getType( lockable.getIdentifierType() );
+		EntityKey key = EntityKeyBuilder.fromData(
+								( (OgmEntityPersister) lockable ).getRootEntityKeyMetadata(),
+								idGridType,
+								id,
+								session
+						);
+
+		IgniteCache<Object, BinaryObject> cache = provider.getEntityCache( key.getMetadata() );
+		Object cacheKey = provider.createKeyObject( key );
+		Transaction transaction = provider.getCurrentTransaction();
+		try {
+			if ( transaction != null ) {
+				if ( !IgniteDatastoreProvider.isLockingReads( transaction ) ) {
+					throw new IgniteLockingStrategyException( object, "Unable to acquire " + lockMode + " lock on "
+							+ lockable.getEntityName() + " in a " + transaction.concurrency() + " " + transaction.isolation()
+							+ " Ignite transaction, which does not lock the entries it reads" );
+				}
+				if ( cache.get( cacheKey ) == null ) {
+					throw new StaleObjectStateException( lockable.getEntityName(), id );
+				}
+			}
+			else {
+				lockUntilTransactionCompletion( cache.lock( cacheKey ), object, timeout, session );
+			}
+		}
+		catch (CacheException | IgniteException e) {
+			// e.g. the timeout of the transaction elapsed while waiting for the lock
+			throw new IgniteLockingStrategyException( object, e.getMessage(), e );
+		}
+	}
+
+	private void lockUntilTransactionCompletion(Lock lock, Object object, int timeout, SharedSessionContractImplementor session) {
+		boolean locked;
+		if ( timeout == LockOptions.WAIT_FOREVER ) {
+			lock.lock();
+			locked = true;
+		}
+		else {
+			try {
+				// NO_WAIT and SKIP_LOCKED only try once
+				locked = lock.tryLock( Math.max( timeout, 0 ), TimeUnit.MILLISECONDS );
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IgniteLockingStrategyException( object, e.getMessage(), e );
+			}
+		}
+		if ( !locked ) {
+			throw new IgniteLockingStrategyException( object, "Unable to acquire " + lockMode + " lock on "
+					+ lockable.getEntityName() + " within " + timeout + " ms" );
+		}
+		if ( session.isTransactionInProgress() && session instanceof SessionImplementor ) {
+			( (SessionImplementor) session ).getActionQueue().registerProcess( (success, s) -> lock.unlock() );
+		}
+		else {
+			// no transaction completion to wait for
+			lock.unlock();
+		}
+	}
+}
@@ -28,9 +28,73 @@ public final class IgniteProperties implements KeyValueStoreProperties {
 	 * Configuration property for specifying the name existing Ignite instance
 	 */
 	public static final String IGNITE_INSTANCE_NAME = "hibernate.ogm.ignite.instance_name";
+	/**
+	 * Configuration property for specifying the maximum number of entries kept on-heap by each second-level cache
+	 * region created by {@link org.hibernate.ogm.datastore.ignite.cache.IgniteRegionFactory}. Least recently used
+	 * entries are evicted first. The update timestamps region is not bounded. Defaults to 10000.
+	 */
+	public static final String CACHE_REGION_MAX_ENTRIES = "hibernate.ogm.ignite.cache.region.max_entries";
+	/**
+	 * Configuration property for specifying the time (in milliseconds) after which an entry of a second-level cache
+	 * region expires. The entries of the update timestamps region never expire. Defaults to 0, which means that entries
+	 * never expire.
+	 */
+	public static final String CACHE_REGION_EXPIRATION = "hibernate.ogm.ignite.cache.region.expiration";
 
 	private IgniteProperties() {
 
 	}
 
+	/**
+	 * Time in milliseconds spent in Ignite above which a query is written to the slow query log, together with its
+	 * execution and fetch times, parameters, hints and row count. The time spent by the application processing the rows
+	 * is not counted. The log category is {@code org.hibernate.ogm.datastore.ignite.SLOW_QUERY}. {@code 0} logs every
+	 * query. Defaults to {@code -1} (disabled).
+	 */
+	public static final String SLOW_QUERY_THRESHOLD = "hibernate.ogm.ignite.slow_query_threshold";
+
+	/**
+	 * Number of rows above which a query scanning whole tables is logged as a warning. The plan of each query is
+	 * checked once with {@code EXPLAIN}, before its first execution. Defaults to {@code -1} (disabled).
+	 */
+	public static final String FULL_SCAN_THRESHOLD = "hibernate.ogm.ignite.full_scan_threshold";
+
+	/**
+	 * Concurrency of the Ignite transactions started for resource-local Hibernate transactions, {@code PESSIMISTIC} or
+	 * {@code OPTIMISTIC}. Can be overridden per session with {@code EntityManager#setProperty(String, Object)}.
+	 * Defaults to {@code PESSIMISTIC}.
+	 */
+	public static final String TRANSACTION_CONCURRENCY = "hibernate.ogm.ignite.transaction.concurrency";
+
+	/**
+	 * Isolation of the Ignite transactions started for resource-local Hibernate transactions, {@code READ_COMMITTED},
+	 * {@code REPEATABLE_READ} or {@code SERIALIZABLE}. Can be overridden per session. Defaults to
+	 * {@code READ_COMMITTED}, which does not lock the entries read by the transaction.
+	 */
+	public static final String TRANSACTION_ISOLATION = "hibernate.ogm.ignite.transaction.isolation";
+
+	/**
+	 * Timeout in milliseconds of the Ignite transactions started for resource-local Hibernate transactions. Can be
+	 * overridden per session, and by {@code org.hibernate.Transaction#setTimeout(int)}. Defaults to {@code 0}, the
+	 * default timeout of the Ignite transaction configuration.
+	 */
+	public static final String TRANSACTION_TIMEOUT = "hibernate.ogm.ignite.transaction.timeout";
+
+	/**
+	 * Expected number of entries written by the Ignite transactions started for resource-local Hibernate transactions.
+	 * Can be overridden per session. Defaults to {@code 0}.
+	 */
+	public static final String TRANSACTION_SIZE = "hibernate.ogm.ignite.transaction.size";
+
+	/**
+	 * Enables the metrics of the operations of the datastore: counts, latency histograms, rows, bytes written and
+	 * retries by operation and cache, registered as JMX MBeans. Defaults to {@code false}.
+	 */
+	public static final String METRICS_ENABLED = "hibernate.ogm.ignite.metrics.enabled";
+
+	/**
+	 * A Micrometer {@code MeterRegistry} instance the metrics are also published to. Setting it enables the metrics.
+	 * Micrometer is an optional dependency.
+	 */
+	public static final String METRICS_REGISTRY = "hibernate.ogm.ignite.metrics.registry";
 }
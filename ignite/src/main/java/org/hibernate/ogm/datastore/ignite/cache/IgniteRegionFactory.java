@@ -0,0 +1,243 @@
+/*
+ * Hibernate OGM, Domain model persistence for NoSQL datastores
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.ogm.datastore.ignite.cache;
+
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+import javax.cache.expiry.CreatedExpiryPolicy;
+import javax.cache.expiry.Duration;
+
+import org.apache.ignite.IgniteCache;
+import org.apache.ignite.IgniteException;
+import org.apache.ignite.IgniteMessaging;
+import org.apache.ignite.cache.CacheAtomicityMode;
+import org.apache.ignite.cache.CacheMode;
+import org.apache.ignite.cache.eviction.lru.LruEvictionPolicy;
+import org.apache.ignite.configuration.CacheConfiguration;
+import org.apache.ignite.lang.IgniteBiPredicate;
+import org.hibernate.boot.registry.classloading.spi.ClassLoaderService;
+import org.hibernate.boot.spi.SessionFactoryOptions;
+import org.hibernate.cache.CacheException;
+import org.hibernate.cache.spi.CacheDataDescription;
+import org.hibernate.cache.spi.CollectionRegion;
+import org.hibernate.cache.spi.EntityRegion;
+import org.hibernate.cache.spi.NaturalIdRegion;
+import org.hibernate.cache.spi.QueryResultsRegion;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.cache.spi.TimestampsRegion;
+import org.hibernate.cache.spi.access.AccessType;
+import org.hibernate.ogm.datastore.ignite.IgniteProperties;
+import org.hibernate.ogm.datastore.ignite.cache.impl.EntityRegionKey;
+import org.hibernate.ogm.datastore.ignite.cache.impl.IgniteCollectionRegion;
+import org.hibernate.ogm.datastore.ignite.cache.impl.IgniteEntityRegion;
+import org.hibernate.ogm.datastore.ignite.cache.impl.IgniteGeneralDataRegion;
+import org.hibernate.ogm.datastore.ignite.cache.impl.IgniteNaturalIdRegion;
+import org.hibernate.ogm.datastore.ignite.cache.impl.IgniteRegion;
+import org.hibernate.ogm.datastore.ignite.cache.impl.IgniteTimestampsRegion;
+import org.hibernate.ogm.datastore.ignite.cache.impl.RegionInvalidation;
+import org.hibernate.ogm.datastore.ignite.impl.IgniteDatastoreProvider;
+import org.hibernate.ogm.datastore.ignite.logging.impl.Log;
+import org.hibernate.ogm.datastore.ignite.logging.impl.LoggerFactory;
+import org.hibernate.ogm.datastore.spi.DatastoreProvider;
+import org.hibernate.ogm.model.key.spi.EntityKey;
+import org.hibernate.ogm.util.configurationreader.spi.ConfigurationPropertyReader;
+
+/**
+ * Second-level cache {@link RegionFactory} storing the cached state in local on-heap Ignite caches of the node used by
+ * the {@link IgniteDatastoreProvider}.
+ * <p>
+ * Entity regions are also invalidated by the dialect whenever a tuple is written or removed, so entries never outlive
+ * the data they were built from. Evictions and update timestamps are sent to the other nodes of the cluster with Ignite
+ * messaging, so that every application node invalidates its own copy of the regions.
+ * <p>
+ * The update timestamps region is never bounded: losing the timestamp of a table would let the query cache return
+ * results older than the last update of the table.
+ * <p>
+ * Enable it with {@code hibernate.cache.region.factory_class=org.hibernate.ogm.datastore.ignite.cache.IgniteRegionFactory}.
+ *
+ * @see IgniteProperties#CACHE_REGION_MAX_ENTRIES
+ * @see IgniteProperties#CACHE_REGION_EXPIRATION
+ */
+public class IgniteRegionFactory implements RegionFactory {
+
+	private static final Log log = LoggerFactory.getLogger();
+
+	private static final String REGION_CACHE_PREFIX = "ogm-l2-";
+	private static final String INVALIDATION_TOPIC = REGION_CACHE_PREFIX + "invalidation";
+	private static final int DEFAULT_MAX_ENTRIES = 10000;
+
+	private final ConcurrentMap<String, IgniteEntityRegion> entityRegionsByTable = new ConcurrentHashMap<>();
+	private final ConcurrentMap<String, IgniteRegion> regionsByName = new ConcurrentHashMap<>();
+	private final IgniteBiPredicate<UUID, RegionInvalidation> invalidationListener = (nodeId, invalidation) -> {
+		IgniteRegion region = regionsByName.get( invalidation.getRegionName() );
+		if ( region != null ) {
+			region.applyRemoteInvalidation( invalidation );
+		}
+		return true;
+	};
+
+	private IgniteDatastoreProvider provider;
+	private IgniteMessaging remoteMessaging;
+	private SessionFactoryOptions settings;
+	private int maxEntries;
+	private long expiration;
+
+	@Override
+	public void start(SessionFactoryOptions settings, Properties properties) throws CacheException {
+		this.settings = settings;
+		DatastoreProvider datastoreProvider = settings.getServiceRegistry().getService( DatastoreProvider.class );
+		if ( !( datastoreProvider instanceof IgniteDatastoreProvider ) ) {
+			throw log.unexpectedDatastoreProvider( datastoreProvider.getClass(), IgniteDatastoreProvider.class );
+		}
+		ConfigurationPropertyReader propertyReader = new ConfigurationPropertyReader(
+				properties,
+				settings.getServiceRegistry().getService( ClassLoaderService.class )
+		);
+		this.maxEntries = propertyReader.property( IgniteProperties.CACHE_REGION_MAX_ENTRIES, int.class )
+				.withDefault( DEFAULT_MAX_ENTRIES )
+				.getValue();
+		this.expiration = propertyReader.property( IgniteProperties.CACHE_REGION_EXPIRATION, long.class )
+				.withDefault( 0L )
+				.getValue();
+		this.provider = (IgniteDatastoreProvider) datastoreProvider;
+		this.remoteMessaging = provider.getRemoteMessaging();
+		this.remoteMessaging.localListen( INVALIDATION_TOPIC, invalidationListener );
+		this.provider.setRegionFactory( this );
+	}
+
+	@Override
+	public void stop() {
+		if ( provider != null ) {
+			provider.setRegionFactory( null );
+			remoteMessaging.stopLocalListen( INVALIDATION_TOPIC, invalidationListener );
+			provider = null;
+			remoteMessaging = null;
+		}
+		entityRegionsByTable.clear();
+		regionsByName.clear();
+	}
+
+	@Override
+	public boolean isMinimalPutsEnabledByDefault() {
+		return true;
+	}
+
+	@Override
+	public AccessType getDefaultAccessType() {
+		return AccessType.NONSTRICT_READ_WRITE;
+	}
+
+	@Override
+	public long nextTimestamp() {
+		return System.currentTimeMillis();
+	}
+
+	@Override
+	public EntityRegion buildEntityRegion(String regionName, Properties properties, CacheDataDescription metadata) throws CacheException {
+		return register( new IgniteEntityRegion( this, regionName, createRegionCache( regionName, true ), metadata ) );
+	}
+
+	@Override
+	public NaturalIdRegion buildNaturalIdRegion(String regionName, Properties properties, CacheDataDescription metadata) throws CacheException {
+		return register( new IgniteNaturalIdRegion( this, regionName, createRegionCache( regionName, true ), metadata ) );
+	}
+
+	@Override
+	public CollectionRegion buildCollectionRegion(String regionName, Properties properties, CacheDataDescription metadata) throws CacheException {
+		return register( new IgniteCollectionRegion( this, regionName, createRegionCache( regionName, true ), metadata ) );
+	}
+
+	@Override
+	public QueryResultsRegion buildQueryResultsRegion(String regionName, Properties properties) throws CacheException {
+		return register( new IgniteGeneralDataRegion( this, regionName, createRegionCache( regionName, true ) ) );
+	}
+
+	@Override
+	public TimestampsRegion buildTimestampsRegion(String regionName, Properties properties) throws CacheException {
+		return register( new IgniteTimestampsRegion( this, regionName, createRegionCache( regionName, false ) ) );
+	}
+
+	public SessionFactoryOptions getSettings() {
+		return settings;
+	}
+
+	/**
+	 * Remembers which region holds the entities of a table, so that writes to the table can invalidate it.
+	 *
+	 * @param table the table (cache) of the entity
+	 * @param region the region caching the entities of the table
+	 */
+	public void registerEntityRegion(String table, IgniteEntityRegion region) {
+		if ( !entityRegionsByTable.containsKey( table ) ) {
+			entityRegionsByTable.putIfAbsent( table, region );
+		}
+	}
+
+	/**
+	 * Removes the state of the given entity from the second-level cache
+	 *
+	 * @param key the key of the entity written or removed by the dialect
+	 */
+	public void evict(EntityKey key) {
+		IgniteEntityRegion region = entityRegionsByTable.get( key.getTable() );
+		if ( region != null ) {
+			region.evict( new EntityRegionKey( key, null ) );
+		}
+	}
+
+	/**
+	 * Sends a change of a region to the other nodes of the cluster, a failure is logged and does not fail the
+	 * transaction which has already been applied to the datastore
+	 *
+	 * @param invalidation the eviction or the new update timestamp
+	 */
+	public void invalidateRemotely(RegionInvalidation invalidation) {
+		IgniteMessaging messaging = remoteMessaging;
+		if ( messaging == null || messaging.clusterGroup().nodes().isEmpty() ) {
+			return;
+		}
+		try {
+			messaging.send( INVALIDATION_TOPIC, invalidation );
+		}
+		catch (IgniteException e) {
+			log.unableToInvalidateRemoteRegion( invalidation.toString(), e );
+		}
+	}
+
+	private <R extends IgniteRegion> R register(R region) {
+		regionsByName.put( region.getName(), region );
+		return region;
+	}
+
+	/**
+	 * @param regionName the name of the region
+	 * @param bounded {@code false} for a region which must keep all its entries
+	 */
+	private IgniteCache<Object, Object> createRegionCache(String regionName, boolean bounded) {
+		CacheConfiguration<Object, Object> config = new CacheConfiguration<>( REGION_CACHE_PREFIX + regionName );
+		config.setCacheMode( CacheMode.LOCAL );
+		config.setAtomicityMode( CacheAtomicityMode.ATOMIC );
+		config.setOnheapCacheEnabled( true );
+		config.setCopyOnRead( false );
+		if ( bounded ) {
+			config.setEvictionPolicy( new LruEvictionPolicy<Object, Object>( maxEntries ) );
+			if ( expiration > 0 ) {
+				config.setExpiryPolicyFactory( CreatedExpiryPolicy.factoryOf( new Duration( TimeUnit.MILLISECONDS, expiration ) ) );
+			}
+		}
+		try {
+			return provider.initializeCache( config );
+		}
+		catch (Exception ex) {
+			throw log.unableToInitializeCache( config.getName(), ex );
+		}
+	}
+}
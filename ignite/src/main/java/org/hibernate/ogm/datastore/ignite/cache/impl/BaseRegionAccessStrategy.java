@@ -0,0 +1,101 @@
+/*
+ * Hibernate OGM, Domain model persistence for NoSQL datastores
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.ogm.datastore.ignite.cache.impl;
+
+import org.hibernate.cache.CacheException;
+import org.hibernate.cache.spi.access.RegionAccessStrategy;
+import org.hibernate.cache.spi.access.SoftLock;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+
+/**
+ * Access strategy with "non-strict read-write" semantic: entries are removed from the region when they are changed and
+ * put back on the next load.
+ * <p>
+ * For read only regions, a change of an entry is an error.
+ */
+abstract class BaseRegionAccessStrategy implements RegionAccessStrategy {
+
+	private final IgniteTransactionalDataRegion region;
+	private final boolean readOnly;
+
+	BaseRegionAccessStrategy(IgniteTransactionalDataRegion region, boolean readOnly) {
+		this.region = region;
+		this.readOnly = readOnly;
+	}
+
+	protected boolean isReadOnly() {
+		return readOnly;
+	}
+
+	protected void checkWritable() {
+		if ( readOnly ) {
+			throw new UnsupportedOperationException( "Can't write to a readonly object" );
+		}
+	}
+
+	@Override
+	public Object get(SharedSessionContractImplementor session, Object key, long txTimestamp) throws CacheException {
+		return region.get( key );
+	}
+
+	@Override
+	public boolean putFromLoad(SharedSessionContractImplementor session, Object key, Object value, long txTimestamp, Object version) throws CacheException {
+		return putFromLoad( session, key, value, txTimestamp, version, region.getFactory().isMinimalPutsEnabledByDefault() );
+	}
+
+	@Override
+	public boolean putFromLoad(SharedSessionContractImplementor session, Object key, Object value, long txTimestamp, Object version, boolean minimalPutOverride)
+			throws CacheException {
+		if ( minimalPutOverride && region.contains( key ) ) {
+			return false;
+		}
+		region.put( key, value );
+		return true;
+	}
+
+	@Override
+	public SoftLock lockItem(SharedSessionContractImplementor session, Object key, Object version) throws CacheException {
+		return null;
+	}
+
+	@Override
+	public SoftLock lockRegion() throws CacheException {
+		return null;
+	}
+
+	@Override
+	public void unlockItem(SharedSessionContractImplementor session, Object key, SoftLock lock) throws CacheException {
+		if ( !readOnly ) {
+			region.evict( key );
+		}
+	}
+
+	@Override
+	public void unlockRegion(SoftLock lock) throws CacheException {
+		region.evictAll();
+	}
+
+	@Override
+	public void remove(SharedSessionContractImplementor session, Object key) throws CacheException {
+		region.evict( key );
+	}
+
+	@Override
+	public void removeAll() throws CacheException {
+		region.evictAll();
+	}
+
+	@Override
+	public void evict(Object key) throws CacheException {
+		region.evict( key );
+	}
+
+	@Override
+	public void evictAll() throws CacheException {
+		region.evictAll();
+	}
+}
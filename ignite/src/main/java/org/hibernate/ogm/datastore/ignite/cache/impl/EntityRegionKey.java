@@ -0,0 +1,62 @@
+/*
+ * Hibernate OGM, Domain model persistence for NoSQL datastores
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.ogm.datastore.ignite.cache.impl;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+import org.hibernate.ogm.model.key.spi.EntityKey;
+
+/**
+ * Key of an entity in the second-level cache.
+ * <p>
+ * It is built from the {@link EntityKey}, so that the dialect can invalidate an entry without knowing the identifier
+ * object of the entity. The identifier is serialized with the key, so that keys read back from the region still return it,
+ * but it is not part of the key identity.
+ */
+public class EntityRegionKey implements Serializable {
+
+	private final String table;
+	private final Object[] columnValues;
+	private final Object id;
+
+	public EntityRegionKey(EntityKey entityKey, Object id) {
+		this.table = entityKey.getTable();
+		this.columnValues = entityKey.getColumnValues();
+		this.id = id;
+	}
+
+	public String getTable() {
+		return table;
+	}
+
+	public Object getId() {
+		return id;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if ( this == obj ) {
+			return true;
+		}
+		if ( obj == null || getClass() != obj.getClass() ) {
+			return false;
+		}
+		EntityRegionKey other = (EntityRegionKey) obj;
+		return table.equals( other.table ) && Arrays.equals( columnValues, other.columnValues );
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * table.hashCode() + Arrays.hashCode( columnValues );
+	}
+
+	@Override
+	public String toString() {
+		return "EntityRegionKey [table=" + table + ", columnValues=" + Arrays.toString( columnValues ) + "]";
+	}
+}
@@ -0,0 +1,30 @@
+/*
+ * Hibernate OGM, Domain model persistence for NoSQL datastores
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.ogm.datastore.ignite.cache.impl;
+
+import org.apache.ignite.IgniteCache;
+import org.hibernate.cache.CacheException;
+import org.hibernate.cache.spi.CacheDataDescription;
+import org.hibernate.cache.spi.CollectionRegion;
+import org.hibernate.cache.spi.access.AccessType;
+import org.hibernate.cache.spi.access.CollectionRegionAccessStrategy;
+import org.hibernate.ogm.datastore.ignite.cache.IgniteRegionFactory;
+
+/**
+ * Region caching the identifiers of the elements of collections
+ */
+public class IgniteCollectionRegion extends IgniteTransactionalDataRegion implements CollectionRegion {
+
+	public IgniteCollectionRegion(IgniteRegionFactory factory, String name, IgniteCache<Object, Object> cache, CacheDataDescription metadata) {
+		super( factory, name, cache, metadata );
+	}
+
+	@Override
+	public CollectionRegionAccessStrategy buildAccessStrategy(AccessType accessType) throws CacheException {
+		return new IgniteCollectionRegionAccessStrategy( this, isReadOnly( accessType ) );
+	}
+}
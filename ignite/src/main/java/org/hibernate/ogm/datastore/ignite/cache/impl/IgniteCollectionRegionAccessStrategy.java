@@ -0,0 +1,40 @@
+/*
+ * Hibernate OGM, Domain model persistence for NoSQL datastores
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.ogm.datastore.ignite.cache.impl;
+
+import org.hibernate.cache.spi.CollectionRegion;
+import org.hibernate.cache.spi.access.CollectionRegionAccessStrategy;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.persister.collection.CollectionPersister;
+
+/**
+ * Access strategy for collection regions
+ */
+class IgniteCollectionRegionAccessStrategy extends BaseRegionAccessStrategy implements CollectionRegionAccessStrategy {
+
+	private final IgniteCollectionRegion region;
+
+	IgniteCollectionRegionAccessStrategy(IgniteCollectionRegion region, boolean readOnly) {
+		super( region, readOnly );
+		this.region = region;
+	}
+
+	@Override
+	public Object generateCacheKey(Object id, CollectionPersister persister, SessionFactoryImplementor factory, String tenantIdentifier) {
+		return new RegionKey( persister.getRole(), id );
+	}
+
+	@Override
+	public Object getCacheKeyId(Object cacheKey) {
+		return ( (RegionKey) cacheKey ).getId();
+	}
+
+	@Override
+	public CollectionRegion getRegion() {
+		return region;
+	}
+}
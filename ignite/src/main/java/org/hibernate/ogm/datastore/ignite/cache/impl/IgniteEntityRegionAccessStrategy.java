@@ -0,0 +1,88 @@
+/*
+ * Hibernate OGM, Domain model persistence for NoSQL datastores
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.ogm.datastore.ignite.cache.impl;
+
+import java.io.Serializable;
+
+import org.hibernate.cache.CacheException;
+import org.hibernate.cache.spi.EntityRegion;
+import org.hibernate.cache.spi.access.EntityRegionAccessStrategy;
+import org.hibernate.cache.spi.access.SoftLock;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.ogm.model.impl.EntityKeyBuilder;
+import org.hibernate.ogm.model.key.spi.EntityKey;
+import org.hibernate.ogm.persister.impl.OgmEntityPersister;
+import org.hibernate.ogm.type.spi.GridType;
+import org.hibernate.ogm.type.spi.TypeTranslator;
+import org.hibernate.persister.entity.EntityPersister;
+
+/**
+ * Access strategy for entity regions
+ */
+class IgniteEntityRegionAccessStrategy extends BaseRegionAccessStrategy implements EntityRegionAccessStrategy {
+
+	private final IgniteEntityRegion region;
+
+	IgniteEntityRegionAccessStrategy(IgniteEntityRegion region, boolean readOnly) {
+		super( region, readOnly );
+		this.region = region;
+	}
+
+	@Override
+	public Object generateCacheKey(Object id, EntityPersister persister, SessionFactoryImplementor factory, String tenantIdentifier) {
+		TypeTranslator typeTranslator = factory.getServiceRegistry().getService( TypeTranslator.class );
+		GridType idGridType = typeTranslator.getType( persister.getIdentifierType() );
+		EntityKey key = EntityKeyBuilder.fromData(
+				( (OgmEntityPersister) persister ).getRootEntityKeyMetadata(),
+				idGridType,
+				(Serializable) id,
+				null
+		);
+		region.getFactory().registerEntityRegion( key.getTable(), region );
+		return new EntityRegionKey( key, id );
+	}
+
+	@Override
+	public Object getCacheKeyId(Object cacheKey) {
+		return ( (EntityRegionKey) cacheKey ).getId();
+	}
+
+	@Override
+	public EntityRegion getRegion() {
+		return region;
+	}
+
+	@Override
+	public boolean insert(SharedSessionContractImplementor session, Object key, Object value, Object version) throws CacheException {
+		return false;
+	}
+
+	@Override
+	public boolean afterInsert(SharedSessionContractImplementor session, Object key, Object value, Object version) throws CacheException {
+		if ( isReadOnly() ) {
+			region.put( key, value );
+			return true;
+		}
+		return false;
+	}
+
+	@Override
+	public boolean update(SharedSessionContractImplementor session, Object key, Object value, Object currentVersion, Object previousVersion)
+			throws CacheException {
+		checkWritable();
+		region.evict( key );
+		return false;
+	}
+
+	@Override
+	public boolean afterUpdate(SharedSessionContractImplementor session, Object key, Object value, Object currentVersion, Object previousVersion,
+			SoftLock lock) throws CacheException {
+		unlockItem( session, key, lock );
+		return false;
+	}
+}
@@ -0,0 +1,34 @@
+/*
+ * Hibernate OGM, Domain model persistence for NoSQL datastores
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.ogm.datastore.ignite.cache.impl;
+
+import org.apache.ignite.IgniteCache;
+import org.hibernate.cache.CacheException;
+import org.hibernate.cache.spi.QueryResultsRegion;
+import org.hibernate.cache.spi.TimestampsRegion;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.ogm.datastore.ignite.cache.IgniteRegionFactory;
+
+/**
+ * Region used for query results, and base class of the update timestamps region
+ */
+public class IgniteGeneralDataRegion extends IgniteRegion implements QueryResultsRegion, TimestampsRegion {
+
+	public IgniteGeneralDataRegion(IgniteRegionFactory factory, String name, IgniteCache<Object, Object> cache) {
+		super( factory, name, cache );
+	}
+
+	@Override
+	public Object get(SharedSessionContractImplementor session, Object key) throws CacheException {
+		return get( key );
+	}
+
+	@Override
+	public void put(SharedSessionContractImplementor session, Object key, Object value) throws CacheException {
+		put( key, value );
+	}
+}
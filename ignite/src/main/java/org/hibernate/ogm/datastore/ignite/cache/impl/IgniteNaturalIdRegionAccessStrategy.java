@@ -0,0 +1,69 @@
+/*
+ * Hibernate OGM, Domain model persistence for NoSQL datastores
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.ogm.datastore.ignite.cache.impl;
+
+import org.hibernate.cache.CacheException;
+import org.hibernate.cache.spi.NaturalIdRegion;
+import org.hibernate.cache.spi.access.NaturalIdRegionAccessStrategy;
+import org.hibernate.cache.spi.access.SoftLock;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.persister.entity.EntityPersister;
+
+/**
+ * Access strategy for natural id regions
+ */
+class IgniteNaturalIdRegionAccessStrategy extends BaseRegionAccessStrategy implements NaturalIdRegionAccessStrategy {
+
+	private final IgniteNaturalIdRegion region;
+
+	IgniteNaturalIdRegionAccessStrategy(IgniteNaturalIdRegion region, boolean readOnly) {
+		super( region, readOnly );
+		this.region = region;
+	}
+
+	@Override
+	public Object generateCacheKey(Object[] naturalIdValues, EntityPersister persister, SharedSessionContractImplementor session) {
+		return new RegionKey( persister.getRootEntityName(), naturalIdValues );
+	}
+
+	@Override
+	public Object[] getNaturalIdValues(Object cacheKey) {
+		return (Object[]) ( (RegionKey) cacheKey ).getId();
+	}
+
+	@Override
+	public NaturalIdRegion getRegion() {
+		return region;
+	}
+
+	@Override
+	public boolean insert(SharedSessionContractImplementor session, Object key, Object value) throws CacheException {
+		return false;
+	}
+
+	@Override
+	public boolean afterInsert(SharedSessionContractImplementor session, Object key, Object value) throws CacheException {
+		if ( isReadOnly() ) {
+			region.put( key, value );
+			return true;
+		}
+		return false;
+	}
+
+	@Override
+	public boolean update(SharedSessionContractImplementor session, Object key, Object value) throws CacheException {
+		checkWritable();
+		region.evict( key );
+		return false;
+	}
+
+	@Override
+	public boolean afterUpdate(SharedSessionContractImplementor session, Object key, Object value, SoftLock lock) throws CacheException {
+		unlockItem( session, key, lock );
+		return false;
+	}
+}
@@ -0,0 +1,127 @@
+/*
+ * Hibernate OGM, Domain model persistence for NoSQL datastores
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.ogm.datastore.ignite.cache.impl;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.cache.Cache;
+
+import org.apache.ignite.IgniteCache;
+import org.apache.ignite.cache.CachePeekMode;
+import org.hibernate.cache.CacheException;
+import org.hibernate.cache.spi.Region;
+import org.hibernate.ogm.datastore.ignite.cache.IgniteRegionFactory;
+
+/**
+ * Base class for the second-level cache regions backed by a local Ignite cache.
+ * <p>
+ * Evictions are also sent to the other nodes of the cluster, which apply them to their own copy of the region.
+ */
+public class IgniteRegion implements Region {
+
+	private static final int TIMEOUT = 60000;
+
+	private final IgniteRegionFactory factory;
+	private final String name;
+	protected final IgniteCache<Object, Object> cache;
+
+	public IgniteRegion(IgniteRegionFactory factory, String name, IgniteCache<Object, Object> cache) {
+		this.factory = factory;
+		this.name = name;
+		this.cache = cache;
+	}
+
+	public Object get(Object key) throws CacheException {
+		return cache.get( key );
+	}
+
+	public void put(Object key, Object value) throws CacheException {
+		cache.put( key, value );
+	}
+
+	public void evict(Object key) throws CacheException {
+		cache.remove( key );
+		factory.invalidateRemotely( RegionInvalidation.evict( name, key ) );
+	}
+
+	public void evictAll() throws CacheException {
+		cache.removeAll();
+		factory.invalidateRemotely( RegionInvalidation.evictAll( name ) );
+	}
+
+	/**
+	 * Applies a change of the region made by another node of the cluster
+	 *
+	 * @param invalidation the change received from the other node
+	 */
+	public void applyRemoteInvalidation(RegionInvalidation invalidation) {
+		if ( invalidation.getKey() == null ) {
+			cache.removeAll();
+		}
+		else if ( invalidation.getValue() == null ) {
+			cache.remove( invalidation.getKey() );
+		}
+		else {
+			cache.put( invalidation.getKey(), invalidation.getValue() );
+		}
+	}
+
+	@Override
+	public String getName() {
+		return name;
+	}
+
+	@Override
+	public void destroy() throws CacheException {
+		cache.clear();
+	}
+
+	@Override
+	public boolean contains(Object key) {
+		return cache.containsKey( key );
+	}
+
+	@Override
+	public long getSizeInMemory() {
+		return -1;
+	}
+
+	@Override
+	public long getElementCountInMemory() {
+		return cache.localSize( CachePeekMode.ONHEAP );
+	}
+
+	@Override
+	public long getElementCountOnDisk() {
+		return 0;
+	}
+
+	@Override
+	@SuppressWarnings("rawtypes")
+	public Map toMap() {
+		Map<Object, Object> result = new HashMap<>();
+		for ( Cache.Entry<Object, Object> entry : cache.localEntries( CachePeekMode.ONHEAP ) ) {
+			result.put( entry.getKey(), entry.getValue() );
+		}
+		return result;
+	}
+
+	@Override
+	public long nextTimestamp() {
+		return factory.nextTimestamp();
+	}
+
+	@Override
+	public int getTimeout() {
+		return TIMEOUT;
+	}
+
+	public IgniteRegionFactory getFactory() {
+		return factory;
+	}
+}
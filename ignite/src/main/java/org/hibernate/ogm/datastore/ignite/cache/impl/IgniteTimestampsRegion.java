@@ -0,0 +1,29 @@
+/*
+ * Hibernate OGM, Domain model persistence for NoSQL datastores
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.ogm.datastore.ignite.cache.impl;
+
+import org.apache.ignite.IgniteCache;
+import org.hibernate.cache.CacheException;
+import org.hibernate.ogm.datastore.ignite.cache.IgniteRegionFactory;
+
+/**
+ * Region holding the last update timestamp of each table. A cached query result is only valid if it is more recent than
+ * the timestamps of its tables, so the region never evicts nor expires entries and every update is also applied by the
+ * other nodes of the cluster.
+ */
+public class IgniteTimestampsRegion extends IgniteGeneralDataRegion {
+
+	public IgniteTimestampsRegion(IgniteRegionFactory factory, String name, IgniteCache<Object, Object> cache) {
+		super( factory, name, cache );
+	}
+
+	@Override
+	public void put(Object key, Object value) throws CacheException {
+		super.put( key, value );
+		getFactory().invalidateRemotely( RegionInvalidation.put( getName(), key, value ) );
+	}
+}
@@ -0,0 +1,57 @@
+/*
+ * Hibernate OGM, Domain model persistence for NoSQL datastores
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.ogm.datastore.ignite.cache.impl;
+
+import org.apache.ignite.IgniteCache;
+import org.hibernate.cache.CacheException;
+import org.hibernate.cache.spi.CacheDataDescription;
+import org.hibernate.cache.spi.TransactionalDataRegion;
+import org.hibernate.cache.spi.access.AccessType;
+import org.hibernate.ogm.datastore.ignite.cache.IgniteRegionFactory;
+import org.hibernate.ogm.datastore.ignite.logging.impl.Log;
+import org.hibernate.ogm.datastore.ignite.logging.impl.LoggerFactory;
+
+/**
+ * Region holding entities, collections or natural ids
+ */
+public abstract class IgniteTransactionalDataRegion extends IgniteRegion implements TransactionalDataRegion {
+
+	private static final Log log = LoggerFactory.getLogger();
+
+	private final CacheDataDescription metadata;
+
+	public IgniteTransactionalDataRegion(IgniteRegionFactory factory, String name, IgniteCache<Object, Object> cache, CacheDataDescription metadata) {
+		super( factory, name, cache );
+		this.metadata = metadata;
+	}
+
+	@Override
+	public boolean isTransactionAware() {
+		return false;
+	}
+
+	@Override
+	public CacheDataDescription getCacheDataDescription() {
+		return metadata;
+	}
+
+	/**
+	 * @param accessType the access type requested by the mapping
+	 * @return {@code true} if entries are read only, {@code false} if they may be updated
+	 */
+	protected boolean isReadOnly(AccessType accessType) throws CacheException {
+		switch ( accessType ) {
+			case READ_ONLY:
+				return true;
+			case NONSTRICT_READ_WRITE:
+			case READ_WRITE:
+				return false;
+			default:
+				throw log.unsupportedCacheAccessType( accessType, getName() );
+		}
+	}
+}
@@ -0,0 +1,57 @@
+/*
+ * Hibernate OGM, Domain model persistence for NoSQL datastores
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.ogm.datastore.ignite.cache.impl;
+
+import java.io.Serializable;
+
+/**
+ * A change of a second-level cache region, sent to the other nodes of the cluster so that they apply it to their own
+ * local region.
+ */
+public class RegionInvalidation implements Serializable {
+
+	private final String regionName;
+	// null for the whole region
+	private final Object key;
+	// the new value of the key, null if the key is evicted
+	private final Object value;
+
+	private RegionInvalidation(String regionName, Object key, Object value) {
+		this.regionName = regionName;
+		this.key = key;
+		this.value = value;
+	}
+
+	public static RegionInvalidation evict(String regionName, Object key) {
+		return new RegionInvalidation( regionName, key, null );
+	}
+
+	public static RegionInvalidation evictAll(String regionName) {
+		return new RegionInvalidation( regionName, null, null );
+	}
+
+	public static RegionInvalidation put(String regionName, Object key, Object value) {
+		return new RegionInvalidation( regionName, key, value );
+	}
+
+	public String getRegionName() {
+		return regionName;
+	}
+
+	public Object getKey() {
+		return key;
+	}
+
+	public Object getValue() {
+		return value;
+	}
+
+	@Override
+	public String toString() {
+		return "RegionInvalidation [regionName=" + regionName + ", key=" + key + "]";
+	}
+}
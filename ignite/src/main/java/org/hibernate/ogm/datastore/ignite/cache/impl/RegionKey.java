@@ -0,0 +1,51 @@
+/*
+ * Hibernate OGM, Domain model persistence for NoSQL datastores
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.ogm.datastore.ignite.cache.impl;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Key of a collection or a natural id in the second-level cache
+ */
+public class RegionKey implements Serializable {
+
+	private final String role;
+	private final Object id;
+
+	public RegionKey(String role, Object id) {
+		this.role = role;
+		this.id = id;
+	}
+
+	public Object getId() {
+		return id;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if ( this == obj ) {
+			return true;
+		}
+		if ( obj == null || getClass() != obj.getClass() ) {
+			return false;
+		}
+		RegionKey other = (RegionKey) obj;
+		return role.equals( other.role ) && Objects.deepEquals( id, other.id );
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * role.hashCode() + Arrays.deepHashCode( new Object[] { id } );
+	}
+
+	@Override
+	public String toString() {
+		return "RegionKey [role=" + role + ", id=" + ( id instanceof Object[] ? Arrays.toString( (Object[]) id ) : id ) + "]";
+	}
+}
@@ -9,6 +9,8 @@
 import java.net.URL;
 import java.util.Map;
 
+import org.apache.ignite.transactions.TransactionConcurrency;
+import org.apache.ignite.transactions.TransactionIsolation;
 import org.hibernate.boot.registry.classloading.spi.ClassLoaderService;
 import org.hibernate.ogm.datastore.ignite.IgniteConfigurationBuilder;
 import org.hibernate.ogm.datastore.ignite.IgniteProperties;
@@ -30,6 +32,14 @@ public class IgniteProviderConfiguration {
 	private URL url;
 	private String instanceName;
 	private IgniteConfigurationBuilder configBuilder;
+	private long slowQueryThreshold;
+	private long fullScanThreshold;
+	private TransactionConcurrency transactionConcurrency;
+	private TransactionIsolation transactionIsolation;
+	private long transactionTimeout;
+	private int transactionSize;
+	private boolean metricsEnabled;
+	private Object metricsRegistry;
 
 	/**
 	 * Initialize the internal values from the given {@link Map}.
@@ -58,6 +68,44 @@ public void initialize(Map configurationMap, ClassLoaderService classLoaderServi
 		this.instanceName = configurationPropertyReader
 				.property( IgniteProperties.IGNITE_INSTANCE_NAME, String.class )
 				.getValue();
+
+		this.slowQueryThreshold = configurationPropertyReader
+				.property( IgniteProperties.SLOW_QUERY_THRESHOLD, long.class )
+				.withDefault( -1L )
+				.getValue();
+
+		this.fullScanThreshold = configurationPropertyReader
+				.property( IgniteProperties.FULL_SCAN_THRESHOLD, long.class )
+				.withDefault( -1L )
+				.getValue();
+
+		this.transactionConcurrency = configurationPropertyReader
+				.property( IgniteProperties.TRANSACTION_CONCURRENCY, TransactionConcurrency.class )
+				.withDefault( TransactionConcurrency.PESSIMISTIC )
+				.getValue();
+
+		this.transactionIsolation = configurationPropertyReader
+				.property( IgniteProperties.TRANSACTION_ISOLATION, TransactionIsolation.class )
+				.withDefault( TransactionIsolation.READ_COMMITTED )
+				.getValue();
+
+		this.transactionTimeout = configurationPropertyReader
+				.property( IgniteProperties.TRANSACTION_TIMEOUT, long.class )
+				.withDefault( 0L )
+				.getValue();
+
+		this.transactionSize = configurationPropertyReader
+				.property( IgniteProperties.TRANSACTION_SIZE, int.class )
+				.withDefault( 0 )
+				.getValue();
+
+		// an instance, not read as a property to avoid loading Micrometer when it is not used
+		this.metricsRegistry = configurationMap.get( IgniteProperties.METRICS_REGISTRY );
+
+		this.metricsEnabled = configurationPropertyReader
+				.property( IgniteProperties.METRICS_ENABLED, boolean.class )
+				.withDefault( metricsRegistry != null )
+				.getValue();
 	}
 
 	/**
@@ -80,4 +128,68 @@ public IgniteConfigurationBuilder getConfigBuilder() {
 		return configBuilder;
 	}
 
+	/**
+	 * @see IgniteProperties#SLOW_QUERY_THRESHOLD
+	 * @return the execution time in milliseconds above which queries are logged, negative if disabled
+	 */
+	public long getSlowQueryThreshold() {
+		return slowQueryThreshold;
+	}
+
+	/**
+	 * @see IgniteProperties#FULL_SCAN_THRESHOLD
+	 * @return the number of rows above which the plan of a query is checked, negative if disabled
+	 */
+	public long getFullScanThreshold() {
+		return fullScanThreshold;
+	}
+
+	/**
+	 * @see IgniteProperties#TRANSACTION_CONCURRENCY
+	 * @return the concurrency of the resource-local transactions
+	 */
+	public TransactionConcurrency getTransactionConcurrency() {
+		return transactionConcurrency;
+	}
+
+	/**
+	 * @see IgniteProperties#TRANSACTION_ISOLATION
+	 * @return the isolation of the resource-local transactions
+	 */
+	public TransactionIsolation getTransactionIsolation() {
+		return transactionIsolation;
+	}
+
+	/**
+	 * @see IgniteProperties#TRANSACTION_TIMEOUT
+	 * @return the timeout in milliseconds of the resource-local transactions, 0 for the default timeout
+	 */
+	public long getTransactionTimeout() {
+		return transactionTimeout;
+	}
+
+	/**
+	 * @see IgniteProperties#TRANSACTION_SIZE
+	 * @return the expected number of entries written by the resource-local transactions
+	 */
+	public int getTransactionSize() {
+		return transactionSize;
+	}
+
+	/**
+	 * @see IgniteProperties#METRICS_ENABLED
+	 * @return {@code true} if the operations are measured
+	 */
+	public boolean isMetricsEnabled() {
+		return metricsEnabled;
+	}
+
+	/**
+	 * @see IgniteProperties#METRICS_REGISTRY
+	 * @return the Micrometer registry the metrics are published to, {@code null} if there is none
+	 */
+	public Object getMetricsRegistry() {
+		return metricsRegistry;
+	}
+
 }
@@ -0,0 +1,125 @@
+/*
+ * Hibernate OGM, Domain model persistence for NoSQL datastores
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.ogm.datastore.ignite.impl;
+
+import java.io.Serializable;
+import java.lang.reflect.Array;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.ignite.binary.BinaryObject;
+
+/**
+ * Total order of the keys of the entity and association caches.
+ * <p>
+ * A pessimistic transaction locks the keys of a {@code putAll}, {@code removeAll} or {@code getAll} in the iteration
+ * order of the given collection. Two transactions locking overlapping keys in different orders may deadlock, which
+ * Ignite only detects after the transaction timeout. Passing the keys sorted by this comparator makes all the
+ * transactions lock them in the same order, on every node.
+ * <p>
+ * Keys of different types are ordered by class name, {@link Comparable} keys by their natural order, arrays element by
+ * element and composite keys, stored as {@link BinaryObject}s, by type name and then field by field. The fields of a
+ * binary type are compared in the order of their names, which is the same on every node whatever the order of the
+ * type metadata. Two keys are only equal for this comparator if they are equal, so that no key is lost by a sorted set
+ * or map.
+ */
+public final class CacheKeyComparator implements Comparator<Object>, Serializable {
+
+	public static final CacheKeyComparator INSTANCE = new CacheKeyComparator();
+
+	// the sorted field names of the binary types, by type id
+	private final transient ConcurrentMap<Integer, String[]> fieldNames = new ConcurrentHashMap<>();
+
+	private CacheKeyComparator() {
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public int compare(Object key1, Object key2) {
+		if ( key1 == key2 ) {
+			return 0;
+		}
+		if ( key1 == null ) {
+			return -1;
+		}
+		if ( key2 == null ) {
+			return 1;
+		}
+		if ( key1 instanceof BinaryObject && key2 instanceof BinaryObject ) {
+			return compare( (BinaryObject) key1, (BinaryObject) key2 );
+		}
+		if ( key1.getClass() != key2.getClass() ) {
+			return key1.getClass().getName().compareTo( key2.getClass().getName() );
+		}
+		if ( key1 instanceof Comparable ) {
+			return ( (Comparable<Object>) key1 ).compareTo( key2 );
+		}
+		if ( key1.getClass().isArray() ) {
+			return compareArrays( key1, key2 );
+		}
+		return compareByHash( key1, key2 );
+	}
+
+	private int compare(BinaryObject key1, BinaryObject key2) {
+		if ( key1.equals( key2 ) ) {
+			return 0;
+		}
+		int result = key1.type().typeName().compareTo( key2.type().typeName() );
+		if ( result != 0 ) {
+			return result;
+		}
+		for ( String field : fieldNames( key1 ) ) {
+			result = compare( key1.field( field ), key2.field( field ) );
+			if ( result != 0 ) {
+				return result;
+			}
+		}
+		// same field values but different binary representations
+		return compareByHash( key1, key2 );
+	}
+
+	private String[] fieldNames(BinaryObject key) {
+		return fieldNames.computeIfAbsent( key.type().typeId(), typeId -> {
+			Collection<String> names = key.type().fieldNames();
+			String[] sorted = names.toArray( new String[names.size()] );
+			Arrays.sort( sorted );
+			return sorted;
+		} );
+	}
+
+	private int compareArrays(Object key1, Object key2) {
+		int length1 = Array.getLength( key1 );
+		int length2 = Array.getLength( key2 );
+		for ( int i = 0; i < Math.min( length1, length2 ); i++ ) {
+			int result = compare( Array.get( key1, i ), Array.get( key2, i ) );
+			if ( result != 0 ) {
+				return result;
+			}
+		}
+		return Integer.compare( length1, length2 );
+	}
+
+	private int compareByHash(Object key1, Object key2) {
+		if ( key1.equals( key2 ) ) {
+			return 0;
+		}
+		int result = Integer.compare( key1.hashCode(), key2.hashCode() );
+		if ( result != 0 ) {
+			return result;
+		}
+		// last resort for keys with neither a natural order nor fields, only consistent within this JVM
+		result = Integer.compare( System.identityHashCode( key1 ), System.identityHashCode( key2 ) );
+		return result != 0 ? result : 1;
+	}
+
+	private Object readResolve() {
+		return INSTANCE;
+	}
+}
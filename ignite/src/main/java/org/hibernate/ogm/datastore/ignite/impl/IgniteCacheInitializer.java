@@ -6,12 +6,18 @@
  */
 package org.hibernate.ogm.datastore.ignite.impl;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
-import java.util.Optional;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.UUID;
 
 import org.apache.ignite.cache.CacheAtomicityMode;
 import org.apache.ignite.cache.QueryEntity;
@@ -19,7 +25,6 @@
 import org.apache.ignite.cache.QueryIndexType;
 import org.apache.ignite.configuration.CacheConfiguration;
 import org.apache.ignite.internal.processors.query.QueryUtils;
-import org.hibernate.HibernateException;
 import org.hibernate.boot.model.relational.Namespace;
 import org.hibernate.boot.model.relational.Sequence;
 import org.hibernate.mapping.Column;
@@ -30,6 +35,8 @@
 import org.hibernate.mapping.Value;
 import org.hibernate.ogm.datastore.ignite.logging.impl.Log;
 import org.hibernate.ogm.datastore.ignite.logging.impl.LoggerFactory;
+import org.hibernate.ogm.datastore.ignite.options.IndexOption;
+import org.hibernate.ogm.datastore.ignite.options.impl.IndexOptionsOption;
 import org.hibernate.ogm.datastore.ignite.util.StringHelper;
 import org.hibernate.ogm.datastore.spi.BaseSchemaDefiner;
 import org.hibernate.ogm.datastore.spi.DatastoreProvider;
@@ -37,6 +44,7 @@
 import org.hibernate.ogm.model.key.spi.AssociationKind;
 import org.hibernate.ogm.model.key.spi.EntityKeyMetadata;
 import org.hibernate.ogm.model.key.spi.IdSourceKeyMetadata;
+import org.hibernate.ogm.options.spi.OptionsService;
 import org.hibernate.ogm.type.impl.EnumType;
 import org.hibernate.ogm.type.impl.NumericBooleanType;
 import org.hibernate.ogm.type.impl.YesNoType;
@@ -55,8 +63,44 @@ public class IgniteCacheInitializer extends BaseSchemaDefiner {
 	private static final Log log = LoggerFactory.getLogger();
 	private static final String STRING_CLASS_NAME = String.class.getName();
 	private static final String INTEGER_CLASS_NAME = Integer.class.getName();
+	private static final String DESCENDING_ORDER = "desc";
+
+	/** Inline size used by Ignite when none is set */
+	private static final int DEFAULT_INLINE_SIZE = -1;
+	/** Upper bound of estimated inline sizes: bigger ones reduce the number of items in each index page */
+	private static final int MAX_ESTIMATED_INLINE_SIZE = 256;
+	/**
+	 * Inlined characters of a string column without an explicit length: {@link Column#DEFAULT_LENGTH} tells nothing
+	 * about the values, and a prefix of this size tells most of them apart
+	 */
+	private static final int DEFAULT_LENGTH_INLINED_CHARACTERS = 32;
+	/** Inline sizes of the fixed size types, type byte included */
+	private static final Map<String, Integer> FIXED_INLINE_SIZES;
+
+	static {
+		Map<String, Integer> sizes = new HashMap<>();
+		sizes.put( Boolean.class.getName(), 2 );
+		sizes.put( Byte.class.getName(), 2 );
+		sizes.put( Short.class.getName(), 3 );
+		sizes.put( INTEGER_CLASS_NAME, 5 );
+		sizes.put( Long.class.getName(), 9 );
+		sizes.put( Float.class.getName(), 5 );
+		sizes.put( Double.class.getName(), 9 );
+		sizes.put( java.sql.Date.class.getName(), 9 );
+		sizes.put( java.sql.Time.class.getName(), 9 );
+		sizes.put( java.sql.Timestamp.class.getName(), 17 );
+		sizes.put( java.util.Date.class.getName(), 17 );
+		sizes.put( UUID.class.getName(), 17 );
+		FIXED_INLINE_SIZES = Collections.unmodifiableMap( sizes );
+	}
 
 	private ServiceRegistry serviceRegistry;
+	/** Tables of the default namespace by name */
+	private Map<String, Table> tables;
+	/** Associations stored in the cache of the owning entity, by table */
+	private Map<String, List<AssociationKeyMetadata>> entityTableAssociations;
+	/** Ignite field type of the columns already processed */
+	private Map<Column, String> fieldTypes;
 
 	@Override
 	public void initializeSchema(SchemaDefinitionContext context) {
@@ -64,74 +108,95 @@ public void initializeSchema(SchemaDefinitionContext context) {
 		DatastoreProvider provider = serviceRegistry.getService( DatastoreProvider.class );
 		if ( provider instanceof IgniteDatastoreProvider ) {
 			IgniteDatastoreProvider igniteDatastoreProvider = (IgniteDatastoreProvider) provider;
-			initializeEntities( context, igniteDatastoreProvider );
-			initializeAssociations( context, igniteDatastoreProvider );
-			initializeIdSources( context, igniteDatastoreProvider );
+			indexMetadata( context );
+			Set<String> existingCaches = new HashSet<>( igniteDatastoreProvider.getCacheNames() );
+			// configurations of the missing caches by name
+			Map<String, CacheConfiguration> configs = new LinkedHashMap<>();
+			initializeEntities( context, existingCaches, configs );
+			initializeAssociations( context, existingCaches, configs );
+			initializeIdSources( context, igniteDatastoreProvider, existingCaches, configs );
+			releaseMetadata();
+			try {
+				igniteDatastoreProvider.initializeCaches( configs.values() );
+			}
+			catch (Exception ex) {
+				throw log.unableToInitializeCache( String.join( ", ", configs.keySet() ), ex );
+			}
 		}
 		else {
 			throw log.unexpectedDatastoreProvider( provider.getClass(), IgniteDatastoreProvider.class );
 		}
 	}
 
-	private void initializeEntities(SchemaDefinitionContext context, final IgniteDatastoreProvider igniteDatastoreProvider) {
+	/**
+	 * Builds the lookup maps used while creating the cache configurations, so that the time spent grows linearly
+	 * with the size of the model
+	 */
+	private void indexMetadata(SchemaDefinitionContext context) {
+		tables = new HashMap<>();
+		for ( Table table : context.getDatabase().getDefaultNamespace().getTables() ) {
+			tables.putIfAbsent( table.getName(), table );
+		}
+		entityTableAssociations = new HashMap<>();
+		for ( AssociationKeyMetadata associationKeyMetadata : context.getAllAssociationKeyMetadata() ) {
+			if ( associationKeyMetadata.getAssociationKind() != AssociationKind.EMBEDDED_COLLECTION
+					&& !IgniteAssociationSnapshot.isThirdTableAssociation( associationKeyMetadata ) ) {
+				entityTableAssociations.computeIfAbsent( associationKeyMetadata.getTable(), table -> new ArrayList<>() )
+						.add( associationKeyMetadata );
+			}
+		}
+		// columns with the same name in different tables may have different types
+		fieldTypes = new IdentityHashMap<>();
+	}
+
+	private void releaseMetadata() {
+		tables = null;
+		entityTableAssociations = null;
+		fieldTypes = null;
+	}
+
+	private void initializeEntities(SchemaDefinitionContext context, Set<String> existingCaches, Map<String, CacheConfiguration> configs) {
 		for ( EntityKeyMetadata entityKeyMetadata : context.getAllEntityKeyMetadata() ) {
-			try {
+			String cacheName = StringHelper.stringBeforePoint( entityKeyMetadata.getTable() );
+			if ( isMissing( cacheName, existingCaches, configs ) ) {
 				try {
-					igniteDatastoreProvider.getEntityCache( entityKeyMetadata );
+					configs.put( cacheName, createEntityCacheConfiguration( entityKeyMetadata, context ) );
 				}
-				catch (HibernateException ex) {
-					CacheConfiguration config = createEntityCacheConfiguration( entityKeyMetadata, context );
-					igniteDatastoreProvider.initializeCache( config );
+				catch (Exception ex) {
+					throw log.unableToInitializeCache( entityKeyMetadata.getTable(), ex );
 				}
 			}
-			catch (Exception ex) {
-				// just write error to log
-				throw log.unableToInitializeCache( entityKeyMetadata.getTable(), ex );
-			}
 		}
 	}
 
-	private void initializeAssociations(SchemaDefinitionContext context, IgniteDatastoreProvider igniteDatastoreProvider) {
+	private void initializeAssociations(SchemaDefinitionContext context, Set<String> existingCaches, Map<String, CacheConfiguration> configs) {
 		for ( AssociationKeyMetadata associationKeyMetadata : context.getAllAssociationKeyMetadata() ) {
 			log.debugf( "initializeAssociations. associationKeyMetadata: %s", associationKeyMetadata );
 			if ( associationKeyMetadata.getAssociationKind() != AssociationKind.EMBEDDED_COLLECTION
 					&& IgniteAssociationSnapshot.isThirdTableAssociation( associationKeyMetadata ) ) {
-				try {
+				String cacheName = StringHelper.stringBeforePoint( associationKeyMetadata.getTable() );
+				if ( isMissing( cacheName, existingCaches, configs ) ) {
 					try {
-						igniteDatastoreProvider.getAssociationCache( associationKeyMetadata );
-					}
-					catch (HibernateException ex) {
 						CacheConfiguration config = createCacheConfiguration( associationKeyMetadata, context );
 						if ( config != null ) {
-							igniteDatastoreProvider.initializeCache( config );
+							configs.put( cacheName, config );
 						}
 					}
+					catch (Exception ex) {
+						throw log.unableToInitializeCache( associationKeyMetadata.getTable(), ex );
+					}
 				}
-				catch (Exception ex) {
-					// just write error to log
-					throw log.unableToInitializeCache( associationKeyMetadata.getTable(), ex );
-				}
-
 			}
 		}
 	}
 
-	private void initializeIdSources(SchemaDefinitionContext context, IgniteDatastoreProvider igniteDatastoreProvider) {
+	private void initializeIdSources(SchemaDefinitionContext context, IgniteDatastoreProvider igniteDatastoreProvider, Set<String> existingCaches, Map<String, CacheConfiguration> configs) {
 		// generate tables
 		for ( IdSourceKeyMetadata idSourceKeyMetadata : context.getAllIdSourceKeyMetadata() ) {
 			if ( idSourceKeyMetadata.getType() == IdSourceKeyMetadata.IdSourceType.TABLE ) {
-				try {
-					try {
-						igniteDatastoreProvider.getIdSourceCache( idSourceKeyMetadata );
-					}
-					catch (HibernateException ex) {
-						CacheConfiguration config = createCacheConfiguration( idSourceKeyMetadata );
-						igniteDatastoreProvider.initializeCache( config );
-					}
-				}
-				catch (Exception ex) {
-					// just write error to log
-					throw log.unableToInitializeCache( idSourceKeyMetadata.getName(), ex );
+				String cacheName = StringHelper.stringBeforePoint( idSourceKeyMetadata.getName() );
+				if ( isMissing( cacheName, existingCaches, configs ) ) {
+					configs.put( cacheName, createCacheConfiguration( idSourceKeyMetadata ) );
 				}
 			}
 		}
@@ -152,6 +217,10 @@ private void initializeIdSources(SchemaDefinitionContext context, IgniteDatastor
 		}
 	}
 
+	private static boolean isMissing(String cacheName, Set<String> existingCaches, Map<String, CacheConfiguration> configs) {
+		return !existingCaches.contains( cacheName ) && !configs.containsKey( cacheName );
+	}
+
 	private CacheConfiguration createCacheConfiguration(IdSourceKeyMetadata idSourceKeyMetadata) {
 		CacheConfiguration result = new CacheConfiguration();
 		result.setName( StringHelper.stringBeforePoint( idSourceKeyMetadata.getName() ) );
@@ -171,22 +240,98 @@ private CacheConfiguration createCacheConfiguration(AssociationKeyMetadata assoc
 	}
 
 	private void appendIndex(QueryEntity queryEntity, AssociationKeyMetadata associationKeyMetadata, SchemaDefinitionContext context) {
-		QueryIndex queryIndex = new QueryIndex();
-		queryIndex.setIndexType( QueryIndexType.SORTED );
 		LinkedHashMap<String, Boolean> fields = new LinkedHashMap<>();
-		addTableInfo( queryEntity, context, associationKeyMetadata.getTable() );
+		List<Column> columns = new ArrayList<>();
+		Map<String, Column> tableColumns = addTableInfo( queryEntity, context, associationKeyMetadata.getTable() );
 		for ( String columnName : associationKeyMetadata.getRowKeyColumnNames() ) {
 			String realColumnName = StringHelper.realColumnName( columnName );
 			fields.put( realColumnName, true );
+			columns.add( tableColumns.get( realColumnName ) );
 		}
+		String indexName = queryEntity.getTableName() + '_' + org.hibernate.ogm.util.impl.StringHelper.join( fields.keySet(), "_" );
+		appendIndex( queryEntity, indexName, fields, columns, getAssociationIndexOption( indexName, associationKeyMetadata, context ) );
+	}
+
+	/**
+	 * The options of the index of an association are declared on the entity mapped to the table storing the
+	 * association, e.g. the entity on the many side of a bidirectional one-to-many association. The options declared on
+	 * the entity owning the association apply otherwise, which is always the case for a join table.
+	 */
+	private IndexOption getAssociationIndexOption(String indexName, AssociationKeyMetadata associationKeyMetadata, SchemaDefinitionContext context) {
+		IndexOption indexOption = getIndexOptions( associationKeyMetadata.getTable(), context ).get( indexName );
+		if ( indexOption == null ) {
+			indexOption = getIndexOptions( associationKeyMetadata.getEntityKeyMetadata().getTable(), context ).get( indexName );
+		}
+		return indexOption;
+	}
+
+	private void appendIndex(QueryEntity queryEntity, String indexName, LinkedHashMap<String, Boolean> fields, List<Column> columns, IndexOption indexOption) {
+		QueryIndex queryIndex = new QueryIndex();
+		queryIndex.setName( indexName );
 		queryIndex.setFields( fields );
-		queryIndex.setName( queryEntity.getTableName() + '_' + org.hibernate.ogm.util.impl.StringHelper.join( fields.keySet(), "_" ) );
+		QueryIndexType indexType = indexOption != null ? indexOption.type() : QueryIndexType.SORTED;
+		queryIndex.setIndexType( indexType );
+		if ( indexType == QueryIndexType.SORTED ) {
+			int inlineSize = indexOption != null && indexOption.inlineSize() != IndexOption.ESTIMATED_INLINE_SIZE
+					? indexOption.inlineSize()
+					: estimateInlineSize( columns );
+			queryIndex.setInlineSize( inlineSize );
+		}
 
 		Set<QueryIndex> indexes = new HashSet<>( queryEntity.getIndexes() );
 		indexes.add( queryIndex );
 		queryEntity.setIndexes( indexes );
 	}
 
+	/**
+	 * Estimates how many bytes are needed to store the values of the given columns in the index pages, so that
+	 * comparisons do not have to read the data pages. The estimation stops at the first column of a type Ignite
+	 * can't inline. Strings count for their explicit length, or for {@link #DEFAULT_LENGTH_INLINED_CHARACTERS}
+	 * characters when the column has the default length, and the estimation is capped at
+	 * {@link #MAX_ESTIMATED_INLINE_SIZE}.
+	 *
+	 * @param columns the indexed columns
+	 * @return the inline size or {@link #DEFAULT_INLINE_SIZE} if nothing can be inlined
+	 */
+	private int estimateInlineSize(List<Column> columns) {
+		int result = 0;
+		for ( Column column : columns ) {
+			if ( column == null ) {
+				break;
+			}
+			int size = inlineSize( fieldType( column ), column.getLength() );
+			if ( size < 0 ) {
+				break;
+			}
+			result += size;
+		}
+		return result > 0 ? Math.min( result, MAX_ESTIMATED_INLINE_SIZE ) : DEFAULT_INLINE_SIZE;
+	}
+
+	/**
+	 * @return the inline size of a value (type byte included) or -1 if values of this type are not inlined
+	 */
+	private static int inlineSize(String fieldType, int length) {
+		Integer size = FIXED_INLINE_SIZES.get( fieldType );
+		if ( size != null ) {
+			return size;
+		}
+		if ( STRING_CLASS_NAME.equals( fieldType ) ) {
+			// type byte, two bytes for the length and the characters
+			return 3 + ( length == Column.DEFAULT_LENGTH ? DEFAULT_LENGTH_INLINED_CHARACTERS : length );
+		}
+		return -1;
+	}
+
+	private Map<String, IndexOption> getIndexOptions(String table, SchemaDefinitionContext context) {
+		Class<?> entityClass = context.getTableEntityTypeMapping().get( table );
+		if ( entityClass == null ) {
+			return Collections.emptyMap();
+		}
+		OptionsService optionsService = serviceRegistry.getService( OptionsService.class );
+		return optionsService.context().getEntityOptions( entityClass ).getUnique( IndexOptionsOption.class );
+	}
+
 	private Class getEntityIdClassName( String table, SchemaDefinitionContext context ) {
 		Class<?> entityClass = context.getTableEntityTypeMapping().get( table );
 		EntityPersister entityPersister = context.getSessionFactory().getEntityPersister( entityClass.getName() );
@@ -207,10 +352,9 @@ private CacheConfiguration<?,?> createEntityCacheConfiguration(EntityKeyMetadata
 		queryEntity.setValueType( StringHelper.stringAfterPoint( entityKeyMetadata.getTable() ) );
 
 		addTableInfo( queryEntity, context, entityKeyMetadata.getTable() );
-		for ( AssociationKeyMetadata associationKeyMetadata : context.getAllAssociationKeyMetadata() ) {
-			if ( associationKeyMetadata.getAssociationKind() != AssociationKind.EMBEDDED_COLLECTION
-					&& associationKeyMetadata.getTable().equals( entityKeyMetadata.getTable() )
-					&& !IgniteAssociationSnapshot.isThirdTableAssociation( associationKeyMetadata ) ) {
+		List<AssociationKeyMetadata> associations = entityTableAssociations.get( entityKeyMetadata.getTable() );
+		if ( associations != null ) {
+			for ( AssociationKeyMetadata associationKeyMetadata : associations ) {
 				appendIndex( queryEntity, associationKeyMetadata, context );
 			}
 		}
@@ -227,48 +371,59 @@ private CacheConfiguration<?,?> createEntityCacheConfiguration(EntityKeyMetadata
 	 * @param context
 	 */
 	private void addUserIndexes(QueryEntity queryEntity, SchemaDefinitionContext context, String tableName) {
-		Namespace namespace = context.getDatabase().getDefaultNamespace();
-		Optional<Table> tableOptional = namespace.getTables().stream().filter( currentTable -> currentTable.getName().equals( tableName ) ).findFirst();
-		if ( tableOptional.isPresent() ) {
-			Table table = tableOptional.get();
+		Table table = tables.get( tableName );
+		if ( table != null ) {
+			Map<String, IndexOption> indexOptions = getIndexOptions( tableName, context );
 			for ( Iterator<Index> indexIterator = table.getIndexIterator(); indexIterator.hasNext(); ) {
 				Index index = indexIterator.next();
-				appendIndex( queryEntity, index, context );
+				appendIndex( queryEntity, index, indexOptions.get( index.getName() ) );
 			}
 		}
 	}
 
-	private void appendIndex(QueryEntity queryEntity, Index index, SchemaDefinitionContext context) {
-		QueryIndex queryIndex = new QueryIndex();
-		queryIndex.setName( index.getName() );
-		queryIndex.setIndexType( QueryIndexType.SORTED );
+	private void appendIndex(QueryEntity queryEntity, Index index, IndexOption indexOption) {
 		LinkedHashMap<String, Boolean> fields = new LinkedHashMap<>();
+		List<Column> columns = new ArrayList<>();
 		for ( Iterator<Column> columnIterator = index.getColumnIterator(); columnIterator.hasNext(); ) {
 			Column currentColumn = columnIterator.next();
-			fields.put( currentColumn.getName(), true );
+			String order = index.getColumnOrderMap().get( currentColumn );
+			fields.put( currentColumn.getName(), order == null || !DESCENDING_ORDER.equalsIgnoreCase( order.trim() ) );
+			columns.add( currentColumn );
 		}
-		queryIndex.setFields( fields );
-
-		Set<QueryIndex> indexes = new HashSet<>( queryEntity.getIndexes() );
-		indexes.add( queryIndex );
-		queryEntity.setIndexes( indexes );
+		appendIndex( queryEntity, index.getName(), fields, columns, indexOption );
 	}
 
+	/**
+	 * Adds the columns of the table as query fields
+	 *
+	 * @return the columns of the table by field name
+	 */
 	@SuppressWarnings("unchecked")
-	private void addTableInfo(QueryEntity queryEntity, SchemaDefinitionContext context, String tableName) {
-		Namespace namespace = context.getDatabase().getDefaultNamespace();
-		Optional<Table> tableOptional = namespace.getTables().stream().filter( currentTable -> currentTable.getName().equals( tableName ) ).findFirst();
-		if ( tableOptional.isPresent() ) {
-			Table table = tableOptional.get();
+	private Map<String, Column> addTableInfo(QueryEntity queryEntity, SchemaDefinitionContext context, String tableName) {
+		Map<String, Column> columns = new HashMap<>();
+		Table table = tables.get( tableName );
+		if ( table != null ) {
 			for ( Iterator<Column> columnIterator = table.getColumnIterator(); columnIterator.hasNext(); ) {
 				Column currentColumn = columnIterator.next();
 				String fieldType = fieldType( currentColumn );
-				queryEntity.addQueryField( StringHelper.realColumnName( currentColumn.getName() ), fieldType, null );
+				String fieldName = StringHelper.realColumnName( currentColumn.getName() );
+				queryEntity.addQueryField( fieldName, fieldType, null );
+				columns.put( fieldName, currentColumn );
 			}
 		}
+		return columns;
 	}
 
 	private String fieldType(Column currentColumn) {
+		String fieldType = fieldTypes.get( currentColumn );
+		if ( fieldType == null ) {
+			fieldType = resolveFieldType( currentColumn );
+			fieldTypes.put( currentColumn, fieldType );
+		}
+		return fieldType;
+	}
+
+	private String resolveFieldType(Column currentColumn) {
 		Value value = currentColumn.getValue();
 		Type type = value.getType();
 		while ( type.isEntityType() || type.isComponentType() ) {
@@ -9,11 +9,23 @@
 import static org.hibernate.ogm.datastore.ignite.util.StringHelper.isNotEmpty;
 
 import java.net.URL;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
-import java.util.HashMap;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+import javax.transaction.Status;
+import javax.transaction.Synchronization;
 
 import org.apache.ignite.Ignite;
 import org.apache.ignite.IgniteAtomicSequence;
@@ -21,11 +33,16 @@
 import org.apache.ignite.IgniteCheckedException;
 import org.apache.ignite.IgniteException;
 import org.apache.ignite.IgniteIllegalStateException;
+import org.apache.ignite.IgniteMessaging;
 import org.apache.ignite.IgniteState;
 import org.apache.ignite.Ignition;
 import org.apache.ignite.binary.BinaryObject;
 import org.apache.ignite.binary.BinaryObjectBuilder;
+import org.apache.ignite.cache.CacheKeyConfiguration;
+import org.apache.ignite.cache.CacheMode;
 import org.apache.ignite.cache.QueryEntity;
+import org.apache.ignite.cache.QueryIndex;
+import org.apache.ignite.cache.affinity.Affinity;
 import org.apache.ignite.cache.query.SqlFieldsQuery;
 import org.apache.ignite.configuration.CacheConfiguration;
 import org.apache.ignite.configuration.IgniteConfiguration;
@@ -34,17 +51,33 @@
 import org.apache.ignite.lang.IgniteCallable;
 import org.apache.ignite.resources.IgniteInstanceResource;
 import org.apache.ignite.thread.IgniteThread;
+import org.apache.ignite.transactions.Transaction;
+import org.apache.ignite.transactions.TransactionConcurrency;
+import org.apache.ignite.transactions.TransactionDeadlockException;
+import org.apache.ignite.transactions.TransactionIsolation;
 import org.hibernate.boot.registry.classloading.spi.ClassLoaderService;
 import org.hibernate.engine.jdbc.spi.JdbcServices;
+import org.hibernate.engine.jdbc.spi.SqlStatementLogger;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
 import org.hibernate.engine.transaction.jta.platform.internal.NoJtaPlatform;
 import org.hibernate.engine.transaction.jta.platform.spi.JtaPlatform;
 import org.hibernate.ogm.datastore.ignite.IgniteDialect;
+import org.hibernate.ogm.datastore.ignite.cache.IgniteRegionFactory;
 import org.hibernate.ogm.datastore.ignite.configuration.impl.IgniteProviderConfiguration;
+import org.hibernate.ogm.datastore.ignite.logging.impl.FullScanDetector;
 import org.hibernate.ogm.datastore.ignite.logging.impl.Log;
 import org.hibernate.ogm.datastore.ignite.logging.impl.LoggerFactory;
+import org.hibernate.ogm.datastore.ignite.logging.impl.SlowQueryLogger;
+import org.hibernate.ogm.datastore.ignite.metrics.impl.DialectOperation;
+import org.hibernate.ogm.datastore.ignite.metrics.impl.IgniteMetrics;
+import org.hibernate.ogm.datastore.ignite.query.impl.IgniteQueryDescriptor;
+import org.hibernate.ogm.datastore.ignite.query.impl.IgniteSqlQueryParser;
 import org.hibernate.ogm.datastore.ignite.query.impl.QueryHints;
+import org.hibernate.ogm.datastore.ignite.query.impl.QueryPlan;
 import org.hibernate.ogm.datastore.ignite.query.parsing.impl.IgniteQueryParserService;
+import org.hibernate.ogm.datastore.ignite.transaction.impl.IgniteTransactionCoordinatorBuilder;
 import org.hibernate.ogm.datastore.ignite.transaction.impl.IgniteTransactionManagerFactory;
+import org.hibernate.ogm.datastore.ignite.transaction.impl.TransactionWriteBuffer;
 import org.hibernate.ogm.datastore.ignite.util.StringHelper;
 import org.hibernate.ogm.datastore.spi.BaseDatastoreProvider;
 import org.hibernate.ogm.datastore.spi.SchemaDefiner;
@@ -56,13 +89,18 @@
 import org.hibernate.ogm.model.key.spi.EntityKeyMetadata;
 import org.hibernate.ogm.model.key.spi.IdSourceKeyMetadata;
 import org.hibernate.ogm.model.key.spi.RowKey;
+import org.hibernate.ogm.model.spi.Tuple;
+import org.hibernate.ogm.model.spi.Tuple.SnapshotType;
+import org.hibernate.ogm.persister.impl.OgmEntityPersister;
 import org.hibernate.ogm.query.spi.QueryParserService;
+import org.hibernate.resource.transaction.spi.TransactionCoordinatorBuilder;
 import org.hibernate.service.spi.Configurable;
 import org.hibernate.service.spi.ServiceException;
 import org.hibernate.service.spi.ServiceRegistryAwareService;
 import org.hibernate.service.spi.ServiceRegistryImplementor;
 import org.hibernate.service.spi.Startable;
 import org.hibernate.service.spi.Stoppable;
+import org.jboss.logging.Logger;
 
 /**
  * Provides access to a Ignite instance
@@ -73,10 +111,14 @@ public class IgniteDatastoreProvider extends BaseDatastoreProvider
 		implements Startable, Stoppable, ServiceRegistryAwareService, Configurable {
 
 	private static final Log log = LoggerFactory.getLogger();
+	/** Category used by {@link SqlStatementLogger} */
+	private static final Logger sqlLog = Logger.getLogger( "org.hibernate.SQL" );
 
 	private JtaPlatform jtaPlatform;
 	private JdbcServices jdbcServices;
-	private IgniteEx cacheManager;
+	private volatile IgniteEx cacheManager;
+	// serializes the restarts of a stopped node, a lock rather than a monitor so that virtual threads are not pinned
+	private final ReentrantLock restartLock = new ReentrantLock();
 	private IgniteProviderConfiguration configProvider;
 
 	private String gridName;
@@ -85,9 +127,16 @@ public class IgniteDatastoreProvider extends BaseDatastoreProvider
 	/** true - if we start node and we have to stop it */
 	private boolean stopOnExit = false;
 	/** Associate entity name with cache key type for entities with composite id. */
-	private Map<String, String> compositeIdTypes = new HashMap<>();
+	private final ConcurrentMap<String, String> compositeIdTypes = new ConcurrentHashMap<>();
 
 	private ClassLoaderService classLoaderService;
+	/** Second-level cache using this provider, if any */
+	private volatile IgniteRegionFactory regionFactory;
+	private SlowQueryLogger slowQueryLogger;
+	private FullScanDetector fullScanDetector;
+	private volatile IgniteMetrics metrics = IgniteMetrics.DISABLED;
+	private final LongAdder deadlockAborts = new LongAdder();
+	private final ThreadLocal<TransactionWriteBuffer> writeBuffers = new ThreadLocal<>();
 
 	public IgniteCache<Object, BinaryObject> getEntityCache(String entityName) {
 		String entityCacheName = getEntityCacheName( entityName );
@@ -106,8 +155,7 @@ private <K, V> IgniteCache<K, V> getCache(String entityCacheName, boolean keepBi
 		}
 		catch (IllegalStateException ex) {
 			if ( Ignition.state( gridName ) == IgniteState.STOPPED ) {
-				log.stoppedIgnite();
-				restart();
+				restartIfStopped();
 				cache = cacheManager.cache( entityCacheName );
 			}
 			else {
@@ -124,16 +172,45 @@ private <K, V> IgniteCache<K, V> getCache(String entityCacheName, boolean keepBi
 		return cache;
 	}
 
-	<K, T> IgniteCache<K, T> initializeCache(CacheConfiguration<K, T> config) {
+	public <K, T> IgniteCache<K, T> initializeCache(CacheConfiguration<K, T> config) {
 		return cacheManager.getOrCreateCache( config );
 	}
 
-	private void restart() {
-		if ( cacheManager.isRestartEnabled() ) {
-			Ignition.restart( false );
+	/**
+	 * Creates the missing caches in a single cluster-wide operation
+	 *
+	 * @param configs the configurations of the caches
+	 */
+	@SuppressWarnings("rawtypes")
+	public void initializeCaches(Collection<CacheConfiguration> configs) {
+		if ( !configs.isEmpty() ) {
+			cacheManager.getOrCreateCaches( configs );
 		}
-		else {
-			start();
+	}
+
+	/**
+	 * @return the names of the caches already started in the cluster
+	 */
+	public Collection<String> getCacheNames() {
+		return cacheManager.cacheNames();
+	}
+
+	private void restartIfStopped() {
+		restartLock.lock();
+		try {
+			// another thread may have restarted it while this one was waiting
+			if ( Ignition.state( gridName ) == IgniteState.STOPPED ) {
+				log.stoppedIgnite();
+				if ( cacheManager.isRestartEnabled() ) {
+					Ignition.restart( false );
+				}
+				else {
+					start();
+				}
+			}
+		}
+		finally {
+			restartLock.unlock();
 		}
 	}
 
@@ -148,6 +225,29 @@ public IgniteCache<String, Long> getIdSourceCache(IdSourceKeyMetadata keyMetadat
 		return getCache( idSourceCacheName, false );
 	}
 
+	public void setRegionFactory(IgniteRegionFactory regionFactory) {
+		this.regionFactory = regionFactory;
+	}
+
+	/**
+	 * @return the messaging of the other nodes of the cluster, the cluster group follows the nodes joining and leaving
+	 */
+	public IgniteMessaging getRemoteMessaging() {
+		return cacheManager.message( cacheManager.cluster().forRemotes() );
+	}
+
+	/**
+	 * Removes the entity from the second-level cache, if it is enabled
+	 *
+	 * @param key the key of the entity
+	 */
+	public void evictFromSecondLevelCache(EntityKey key) {
+		IgniteRegionFactory currentRegionFactory = regionFactory;
+		if ( currentRegionFactory != null ) {
+			currentRegionFactory.evict( key );
+		}
+	}
+
 	public BinaryObjectBuilder createBinaryObjectBuilder(String type) {
 		return cacheManager.binary().builder( type );
 	}
@@ -156,14 +256,47 @@ public BinaryObjectBuilder createBinaryObjectBuilder(BinaryObject binaryObject)
 		return cacheManager.binary().builder( binaryObject );
 	}
 
+	/**
+	 * Builds the value stored for an entity: the value the tuple has been read from, if any, with the columns of the
+	 * tuple
+	 *
+	 * @param keyMetadata the metadata of the key of the entity
+	 * @param tuple the tuple of the entity, created or read by the dialect
+	 * @return the value to store
+	 */
+	public BinaryObject createBinaryObject(EntityKeyMetadata keyMetadata, Tuple tuple) {
+		IgniteTupleSnapshot tupleSnapshot = (IgniteTupleSnapshot) tuple.getSnapshot();
+		BinaryObjectBuilder builder;
+		if ( tuple.getSnapshotType() == SnapshotType.UPDATE ) {
+			builder = createBinaryObjectBuilder( tupleSnapshot.getCacheValue() );
+		}
+		else {
+			builder = createBinaryObjectBuilder( getEntityTypeName( keyMetadata.getTable() ) );
+		}
+		for ( String columnName : tuple.getColumnNames() ) {
+			Object value = tuple.get( columnName );
+			if ( value != null ) {
+				builder.setField( StringHelper.realColumnName( columnName ), value );
+			}
+			else {
+				builder.removeField( StringHelper.realColumnName( columnName ) );
+			}
+		}
+		return builder.build();
+	}
+
 	@Override
 	public void configure(Map map) {
 		configProvider = new IgniteProviderConfiguration();
 		configProvider.initialize( map, classLoaderService );
+		slowQueryLogger = new SlowQueryLogger( configProvider.getSlowQueryThreshold() );
+		fullScanDetector = new FullScanDetector( configProvider.getFullScanThreshold() );
 	}
 
 	@Override
 	public void stop() {
+		metrics.close();
+		metrics = IgniteMetrics.DISABLED;
 		if ( cacheManager != null && stopOnExit ) {
 			Ignition.stop( cacheManager.name(), true );
 		}
@@ -182,6 +315,9 @@ public void start() {
 				gridName = gridName( configProvider.getInstanceName(), configProvider.getUrl(), conf );
 				startIgnite( conf );
 			}
+			if ( configProvider.isMetricsEnabled() ) {
+				metrics = IgniteMetrics.enabled( gridName, configProvider.getMetricsRegistry() );
+			}
 		}
 		catch (ServiceException ex) {
 			throw ex;
@@ -255,6 +391,155 @@ public void injectServices(ServiceRegistryImplementor serviceRegistryImplementor
 		this.jdbcServices = serviceRegistryImplementor.getService( JdbcServices.class );
 	}
 
+	@Override
+	public TransactionCoordinatorBuilder getTransactionCoordinatorBuilder(TransactionCoordinatorBuilder coordinatorBuilder) {
+		return new IgniteTransactionCoordinatorBuilder( coordinatorBuilder, this );
+	}
+
+	public IgniteProviderConfiguration getConfiguration() {
+		return configProvider;
+	}
+
+	/**
+	 * Starts an Ignite transaction bound to the current thread
+	 *
+	 * @param concurrency the concurrency of the transaction
+	 * @param isolation the isolation of the transaction
+	 * @param timeout the timeout in milliseconds, 0 for the default timeout
+	 * @param size the expected number of entries written by the transaction
+	 * @return the transaction
+	 */
+	public Transaction txStart(TransactionConcurrency concurrency, TransactionIsolation isolation, long timeout, int size) {
+		if ( timeout == 0 && size == 0 ) {
+			return cacheManager.transactions().txStart( concurrency, isolation );
+		}
+		return cacheManager.transactions().txStart( concurrency, isolation, timeout, size );
+	}
+
+	/**
+	 * Returns the entries written by the dialect in the Ignite transaction bound to the current thread, creating the
+	 * buffer on the first write of the transaction. Read paths use {@link #findWriteBuffer()} instead, so that read-only
+	 * transactions never create one.
+	 *
+	 * @return the write buffer of the current transaction, {@code null} if there is no transaction
+	 */
+	public TransactionWriteBuffer getWriteBuffer() {
+		Transaction transaction = getCurrentTransaction();
+		if ( transaction == null ) {
+			writeBuffers.remove();
+			return null;
+		}
+		TransactionWriteBuffer buffer = writeBuffers.get();
+		if ( buffer == null || !buffer.belongsTo( transaction ) ) {
+			// first write of the transaction, or the previous transaction of the thread has ended
+			buffer = new TransactionWriteBuffer( transaction );
+			writeBuffers.set( buffer );
+			completeWithJtaTransaction( buffer );
+		}
+		return buffer;
+	}
+
+	/**
+	 * @return the entries written by the dialect in the Ignite transaction bound to the current thread, {@code null}
+	 * if there is no transaction or if it has not written anything yet
+	 */
+	public TransactionWriteBuffer findWriteBuffer() {
+		TransactionWriteBuffer buffer = writeBuffers.get();
+		if ( buffer == null ) {
+			return null;
+		}
+		Transaction transaction = getCurrentTransaction();
+		if ( transaction == null || !buffer.belongsTo( transaction ) ) {
+			// the transaction of the buffer has ended
+			writeBuffers.remove();
+			return null;
+		}
+		return buffer;
+	}
+
+	/**
+	 * Discards the entries written in the transaction bound to the current thread, once it is committed or rolled back;
+	 * when it is committed, the entities it wrote are evicted from the second-level cache.
+	 *
+	 * @param committed whether the transaction was committed
+	 */
+	public void afterTransactionCompletion(boolean committed) {
+		TransactionWriteBuffer buffer = writeBuffers.get();
+		writeBuffers.remove();
+		if ( committed && buffer != null ) {
+			evictFromSecondLevelCache( buffer );
+		}
+	}
+
+	private void completeWithJtaTransaction(TransactionWriteBuffer buffer) {
+		// resource-local transactions are completed by IgniteResourceLocalTransactionCoordinator
+		if ( jtaPlatform == null || jtaPlatform instanceof NoJtaPlatform || !jtaPlatform.canRegisterSynchronization() ) {
+			return;
+		}
+		jtaPlatform.registerSynchronization( new Synchronization() {
+
+			@Override
+			public void beforeCompletion() {
+			}
+
+			@Override
+			public void afterCompletion(int status) {
+				// the transaction manager may complete the transaction from another thread
+				if ( writeBuffers.get() == buffer ) {
+					writeBuffers.remove();
+				}
+				if ( status == Status.STATUS_COMMITTED ) {
+					evictFromSecondLevelCache( buffer );
+				}
+			}
+		} );
+	}
+
+	private void evictFromSecondLevelCache(TransactionWriteBuffer buffer) {
+		for ( EntityKey key : buffer.getEvictedKeys() ) {
+			evictFromSecondLevelCache( key );
+		}
+	}
+
+	/**
+	 * Counts the transactions aborted because of a deadlock, when the given exception was caused by one.
+	 *
+	 * @param e an exception raised by a cache operation or by the commit of a transaction
+	 */
+	public void onTransactionFailure(Throwable e) {
+		for ( Throwable cause = e; cause != null; cause = cause.getCause() ) {
+			if ( cause instanceof TransactionDeadlockException ) {
+				deadlockAborts.increment();
+				log.transactionDeadlock( cause.getMessage() );
+				return;
+			}
+		}
+	}
+
+	/**
+	 * @return the number of transactions aborted because of a deadlock since the provider started
+	 */
+	public long getDeadlockAbortCount() {
+		return deadlockAborts.sum();
+	}
+
+	/**
+	 * @return the Ignite transaction bound to the current thread, {@code null} if there is none
+	 */
+	public Transaction getCurrentTransaction() {
+		return cacheManager.transactions().tx();
+	}
+
+	/**
+	 * @param transaction an Ignite transaction
+	 * @return {@code true} if the entries read by the transaction stay locked until it ends: the transaction is
+	 * pessimistic and its isolation is {@code REPEATABLE_READ} or {@code SERIALIZABLE}
+	 */
+	public static boolean isLockingReads(Transaction transaction) {
+		return transaction.concurrency() == TransactionConcurrency.PESSIMISTIC
+				&& transaction.isolation() != TransactionIsolation.READ_COMMITTED;
+	}
+
 	@Override
 	public Class<? extends SchemaDefiner> getSchemaDefinerType() {
 		return IgniteCacheInitializer.class;
@@ -264,6 +549,22 @@ public IgniteAtomicSequence atomicSequence(String name, int initialValue, boolea
 		return cacheManager.atomicSequence( name, initialValue, create );
 	}
 
+	public SlowQueryLogger getSlowQueryLogger() {
+		return slowQueryLogger;
+	}
+
+	/**
+	 * @return the metrics of the operations, disabled unless configured
+	 * @see org.hibernate.ogm.datastore.ignite.IgniteProperties#METRICS_ENABLED
+	 */
+	public IgniteMetrics getMetrics() {
+		return metrics;
+	}
+
+	public FullScanDetector getFullScanDetector() {
+		return fullScanDetector;
+	}
+
 	public boolean isClientMode() {
 		return cacheManager.configuration().isClientMode();
 	}
@@ -280,7 +581,10 @@ public Class<? extends GridDialect> getDefaultDialect() {
 
 	public <T> List<T> affinityCall(String cacheName, Object affinityKey, SqlFieldsQuery query) {
 		ComputeForLocalQueries<T> call = new ComputeForLocalQueries<>( cacheName, query );
-		return cacheManager.compute().affinityCall( cacheName, affinityKey, call );
+		long start = metrics.start();
+		List<T> result = cacheManager.compute().affinityCall( cacheName, affinityKey, call );
+		metrics.record( DialectOperation.AFFINITY_CALL, cacheName, start, result.size(), 0, 0 );
+		return result;
 	}
 
 	/**
@@ -311,8 +615,12 @@ public List<T> call() throws Exception {
 	}
 
 	public SqlFieldsQuery createSqlFieldsQueryWithLog(String sql, QueryHints hints, Object... args) {
-		String comment = hints != null ? hints.toComment() : "";
-		jdbcServices.getSqlStatementLogger().logStatement( comment + sql );
+		SqlStatementLogger statementLogger = jdbcServices.getSqlStatementLogger();
+		// avoid building the statement when nobody is going to read it
+		if ( statementLogger.isLogToStdout() || sqlLog.isDebugEnabled() ) {
+			String comment = hints != null ? hints.toComment() : "";
+			statementLogger.logStatement( comment + sql );
+		}
 
 		SqlFieldsQuery query = new SqlFieldsQuery( sql );
 		if ( args != null ) {
@@ -322,6 +630,113 @@ public SqlFieldsQuery createSqlFieldsQueryWithLog(String sql, QueryHints hints,
 		return query;
 	}
 
+	/**
+	 * Builds the hints used to execute a query: the hints given by the user, distributed joins if the query requires
+	 * them and the partitions owning the keys the query is restricted to
+	 *
+	 * @param query the query
+	 * @param selectionEntity the metadata of the key of the entity the query runs on
+	 * @param queryHints the hints given by the user
+	 * @return the hints
+	 */
+	public QueryHints createQueryHints(IgniteQueryDescriptor query, EntityKeyMetadata selectionEntity, List<String> queryHints) {
+		QueryHints.Builder hintsBuilder = new QueryHints.Builder( queryHints );
+		if ( query.isDistributedJoins() && hintsBuilder.getDistributedJoins() == null ) {
+			hintsBuilder.setDistributedJoins( true );
+		}
+		if ( hintsBuilder.getPartitions() == null && !hintsBuilder.isLocal() && !hintsBuilder.isAffinityRun()
+				&& !Boolean.TRUE.equals( hintsBuilder.getDistributedJoins() ) ) {
+			// partition pruning for queries filtering on the key or its affinity field
+			hintsBuilder.setPartitions( findPartitions( selectionEntity, query.getPartitionKeyCandidates() ) );
+		}
+		return hintsBuilder.build();
+	}
+
+	/**
+	 * Explains the Ignite SQL query a JP-QL query is translated to
+	 *
+	 * @param sessionFactory the session factory the entities of the query belong to
+	 * @param jpqlQuery the JP-QL query
+	 * @param parameters the values of the named parameters of the query
+	 * @return the plan of the query
+	 */
+	public QueryPlan explain(SessionFactoryImplementor sessionFactory, String jpqlQuery, Map<String, Object> parameters) {
+		IgniteQueryDescriptor query = (IgniteQueryDescriptor) IgniteQueryParserService.INSTANCE
+				.parseQuery( sessionFactory, jpqlQuery, parameters )
+				.getQueryObject();
+		QueryHints hints = createQueryHints( query, query.getRootKeyMetadata(), Collections.emptyList() );
+		return explain( query.getRootKeyMetadata(), query.getSql(), hints, query.getIndexedParameters().toArray() );
+	}
+
+	/**
+	 * Counts the results of a JP-QL query without fetching them
+	 *
+	 * @param sessionFactory the session factory the entities of the query belong to
+	 * @param jpqlQuery the JP-QL query
+	 * @param parameters the values of the named parameters of the query
+	 * @return the number of results
+	 */
+	public long count(SessionFactoryImplementor sessionFactory, String jpqlQuery, Map<String, Object> parameters) {
+		IgniteQueryDescriptor query = (IgniteQueryDescriptor) IgniteQueryParserService.INSTANCE
+				.parseQuery( sessionFactory, jpqlQuery, parameters )
+				.getQueryObject();
+		return count( query, query.getRootKeyMetadata(), Collections.emptyList(), query.getIndexedParameters().toArray() );
+	}
+
+	/**
+	 * Counts the results of a native query without fetching them
+	 *
+	 * @param sessionFactory the session factory the entity belongs to
+	 * @param entityClass an entity queried by the native query
+	 * @param nativeQuery the native query
+	 * @param args the values of the parameters of the query, in their order
+	 * @return the number of results
+	 */
+	public long countNativeQuery(SessionFactoryImplementor sessionFactory, Class<?> entityClass, String nativeQuery, Object... args) {
+		OgmEntityPersister persister = (OgmEntityPersister) sessionFactory.getMetamodel().entityPersister( entityClass );
+		IgniteQueryDescriptor query = new IgniteSqlQueryParser( nativeQuery ).buildQueryDescriptor();
+		return count( query, persister.getEntityKeyMetadata(), Collections.emptyList(), args );
+	}
+
+	/**
+	 * Counts the results of a query with a {@code SELECT COUNT(*)} query, run as a distributed aggregate
+	 *
+	 * @param query the query
+	 * @param keyMetadata the metadata of the key of the entity the query runs on
+	 * @param queryHints the hints given by the user
+	 * @param args the values of the parameters of the query
+	 * @return the number of results
+	 */
+	public long count(IgniteQueryDescriptor query, EntityKeyMetadata keyMetadata, List<String> queryHints, Object... args) {
+		QueryHints hints = createQueryHints( query, keyMetadata, queryHints );
+		SqlFieldsQuery countQuery = createSqlFieldsQueryWithLog( query.getCountSql(), hints, args );
+		hints.applyTo( countQuery );
+		List<List<?>> rows = getEntityCache( keyMetadata ).query( countQuery ).getAll();
+		return ( (Number) rows.get( 0 ).get( 0 ) ).longValue();
+	}
+
+	/**
+	 * Explains an Ignite SQL query
+	 *
+	 * @param keyMetadata the metadata of the key of the entity the query runs on
+	 * @param sql the query
+	 * @param hints the hints used to execute the query
+	 * @param args the values of the parameters of the query
+	 * @return the plan of the query
+	 */
+	public QueryPlan explain(EntityKeyMetadata keyMetadata, String sql, QueryHints hints, Object... args) {
+		SqlFieldsQuery explainQuery = new SqlFieldsQuery( "EXPLAIN " + sql );
+		if ( args != null ) {
+			explainQuery.setArgs( args );
+		}
+		hints.applyTo( explainQuery );
+		List<String> plans = new ArrayList<>();
+		for ( List<?> row : getEntityCache( keyMetadata ).query( explainQuery ).getAll() ) {
+			plans.add( String.valueOf( row.get( 0 ) ) );
+		}
+		return new QueryPlan( sql, plans, hints.getPartitions(), hints.isLocal() || hints.isAffinityRun() );
+	}
+
 	/**
 	 * Converting entity key to cache key
 	 *
@@ -345,6 +760,103 @@ public Object createKeyObject(EntityKey key) {
 		return result;
 	}
 
+	/**
+	 * Finds the partitions owning the entities whose key, or the affinity field of the key, has one of the given values
+	 *
+	 * @param keyMetadata the metadata of the entity key
+	 * @param columnValues the values by column name of the columns the entities are restricted to
+	 * @return the partitions or {@code null} if none of the columns is the key or its affinity field
+	 */
+	public int[] findPartitions(EntityKeyMetadata keyMetadata, Map<String, List<Object>> columnValues) {
+		if ( columnValues.isEmpty() ) {
+			return null;
+		}
+		IgniteCache<Object, BinaryObject> cache = getEntityCache( keyMetadata );
+		CacheConfiguration cacheConfig = cache.getConfiguration( CacheConfiguration.class );
+		if ( cacheConfig.getCacheMode() != CacheMode.PARTITIONED ) {
+			return null;
+		}
+		String[] keyColumns = keyMetadata.getColumnNames();
+		List<Object> affinityKeys = null;
+		if ( keyColumns.length == 1 ) {
+			List<Object> values = columnValues.get( StringHelper.realColumnName( keyColumns[0] ) );
+			if ( values != null ) {
+				affinityKeys = new ArrayList<>( values.size() );
+				for ( Object value : values ) {
+					Class<?> keyType = cacheConfig.getKeyType();
+					if ( !keyType.isInstance( value ) && keyType != String.class ) {
+						// not the value stored in the key, let the query run on all the partitions
+						return null;
+					}
+					affinityKeys.add( toValidKeyObject( value, keyType ) );
+				}
+			}
+		}
+		else {
+			String affinityField = findAffinityKeyFieldName( cacheConfig, findKeyType( keyMetadata ) );
+			for ( int i = 0; affinityField != null && i < keyColumns.length && affinityKeys == null; i++ ) {
+				if ( affinityField.equals( StringHelper.stringAfterPoint( keyColumns[i] ) ) ) {
+					affinityKeys = columnValues.get( StringHelper.realColumnName( keyColumns[i] ) );
+				}
+			}
+		}
+		if ( affinityKeys == null ) {
+			return null;
+		}
+		Affinity<Object> affinity = cacheManager.affinity( cache.getName() );
+		Set<Integer> partitions = new TreeSet<>();
+		for ( Object affinityKey : affinityKeys ) {
+			partitions.add( affinity.partition( affinityKey ) );
+		}
+		int[] result = new int[partitions.size()];
+		int i = 0;
+		for ( Integer partition : partitions ) {
+			result[i++] = partition;
+		}
+		return result;
+	}
+
+	/**
+	 * Whether an index of the entity cache starts with one of the given columns
+	 *
+	 * @param keyMetadata the metadata of the entity key
+	 * @param columns the columns, {@code _KEY} for the key
+	 * @return {@code true} if the key or the first column of an index is one of the columns
+	 */
+	@SuppressWarnings("unchecked")
+	public boolean isAnyIndexed(EntityKeyMetadata keyMetadata, Collection<String> columns) {
+		if ( columns.contains( "_KEY" ) ) {
+			return true;
+		}
+		CacheConfiguration<?, ?> cacheConfig = getEntityCache( keyMetadata ).getConfiguration( CacheConfiguration.class );
+		for ( QueryEntity queryEntity : cacheConfig.getQueryEntities() ) {
+			for ( QueryIndex index : queryEntity.getIndexes() ) {
+				Iterator<String> fields = index.getFields().keySet().iterator();
+				if ( fields.hasNext() && columns.contains( fields.next() ) ) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	@SuppressWarnings("unchecked")
+	private String findAffinityKeyFieldName(CacheConfiguration cacheConfig, String keyType) {
+		List<CacheKeyConfiguration> keyConfigurations = new ArrayList<>();
+		if ( cacheConfig.getKeyConfiguration() != null ) {
+			keyConfigurations.addAll( Arrays.asList( cacheConfig.getKeyConfiguration() ) );
+		}
+		if ( cacheManager.configuration().getCacheKeyConfiguration() != null ) {
+			keyConfigurations.addAll( Arrays.asList( cacheManager.configuration().getCacheKeyConfiguration() ) );
+		}
+		for ( CacheKeyConfiguration keyConfiguration : keyConfigurations ) {
+			if ( keyType.equals( keyConfiguration.getTypeName() ) || keyType.equals( StringHelper.stringAfterPoint( keyConfiguration.getTypeName() ) ) ) {
+				return keyConfiguration.getAffinityKeyFieldName();
+			}
+		}
+		return null;
+	}
+
 	private Object toValidKeyObject(Object value, Class<?> keyType) {
 		Object result = null;
 		if ( keyType == value.getClass() || keyType.isAssignableFrom( value.getClass() ) ) {
@@ -407,28 +919,34 @@ public Object createParentKeyObject(AssociationKey key) {
 	private String findKeyType(EntityKeyMetadata keyMetadata) {
 		String result = compositeIdTypes.get( keyMetadata.getTable() );
 		if ( result == null ) {
-			String cacheType = getEntityTypeName( keyMetadata.getTable() );
-			IgniteCache<Object, BinaryObject> cache = getEntityCache( keyMetadata );
-			CacheConfiguration cacheConfig = cache.getConfiguration( CacheConfiguration.class );
-			if ( cacheConfig.getQueryEntities() != null ) {
-				for ( QueryEntity qe : (Collection<QueryEntity>) cacheConfig.getQueryEntities() ) {
-					if ( qe.getValueType() != null && cacheType.equalsIgnoreCase( qe.getValueType() ) ) {
-						result = qe.getKeyType();
-						break;
-					}
+			// only the first lookup of a table reads the cache configuration
+			result = compositeIdTypes.computeIfAbsent( keyMetadata.getTable(), table -> readKeyType( keyMetadata ) );
+		}
+		return result;
+	}
+
+	private String readKeyType(EntityKeyMetadata keyMetadata) {
+		String result = null;
+		String cacheType = getEntityTypeName( keyMetadata.getTable() );
+		IgniteCache<Object, BinaryObject> cache = getEntityCache( keyMetadata );
+		CacheConfiguration cacheConfig = cache.getConfiguration( CacheConfiguration.class );
+		if ( cacheConfig.getQueryEntities() != null ) {
+			for ( QueryEntity qe : (Collection<QueryEntity>) cacheConfig.getQueryEntities() ) {
+				if ( qe.getValueType() != null && cacheType.equalsIgnoreCase( qe.getValueType() ) ) {
+					result = qe.getKeyType();
+					break;
 				}
 			}
+		}
+		if ( result == null ) {
+			if ( cacheConfig.getKeyType() != null ) {
+				result = cacheConfig.getKeyType().getSimpleName();
+			}
 			if ( result == null ) {
-				if ( cacheConfig.getKeyType() != null ) {
-					result = cacheConfig.getKeyType().getSimpleName();
-				}
-				if ( result == null ) {
-					// if nothing found we use id field name
-					result = StringHelper.stringBeforePoint( keyMetadata.getColumnNames()[0] );
-					result = capitalize( result );
-				}
+				// if nothing found we use id field name
+				result = StringHelper.stringBeforePoint( keyMetadata.getColumnNames()[0] );
+				result = capitalize( result );
 			}
-			compositeIdTypes.put( keyMetadata.getTable(), result );
 		}
 		return result;
 	}
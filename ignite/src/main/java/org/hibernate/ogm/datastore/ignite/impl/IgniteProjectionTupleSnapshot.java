@@ -0,0 +1,47 @@
+/*
+ * Hibernate OGM, Domain model persistence for NoSQL datastores
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.ogm.datastore.ignite.impl;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.hibernate.ogm.model.spi.TupleSnapshot;
+
+/**
+ * A row of a projection query, read by position. The positions of the columns are computed once per query.
+ */
+public class IgniteProjectionTupleSnapshot implements TupleSnapshot {
+
+	private final Map<String, Integer> columnIndexes;
+	private final List<?> values;
+
+	/**
+	 * @param columnIndexes the position of each column in the row, shared by all the rows of the query
+	 * @param values the row
+	 */
+	public IgniteProjectionTupleSnapshot(Map<String, Integer> columnIndexes, List<?> values) {
+		this.columnIndexes = columnIndexes;
+		this.values = values;
+	}
+
+	@Override
+	public Object get(String column) {
+		Integer index = columnIndexes.get( column );
+		return index != null ? values.get( index ) : null;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return columnIndexes.isEmpty();
+	}
+
+	@Override
+	public Set<String> getColumnNames() {
+		return columnIndexes.keySet();
+	}
+}
@@ -0,0 +1,211 @@
+/*
+ * Hibernate OGM, Domain model persistence for NoSQL datastores
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.ogm.datastore.ignite.impl;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import javax.cache.CacheException;
+
+import org.apache.ignite.IgniteCache;
+import org.apache.ignite.IgniteException;
+import org.apache.ignite.binary.BinaryObject;
+import org.apache.ignite.lang.IgniteFuture;
+import org.hibernate.ogm.datastore.ignite.transaction.impl.TransactionWriteBuffer;
+import org.hibernate.ogm.model.key.spi.EntityKey;
+
+/**
+ * The writes of a flush, collected by cache and written with one {@code putAll} and one {@code removeAll} per cache.
+ * <p>
+ * Outside of a transaction the writes to the different caches are started together with the asynchronous API, so
+ * that the flush takes about as long as the slowest of them. An Ignite transaction only allows one asynchronous
+ * operation at a time, the writes are then executed one after another, in the order of the cache names and of the
+ * keys so that concurrent transactions lock them in the same order.
+ * <p>
+ * The entities written by the batch are evicted from the second-level cache once the writes are applied, or once the
+ * transaction is committed.
+ */
+public class IgniteWriteBatch {
+
+	private final IgniteDatastoreProvider provider;
+	private final Map<String, IgniteCache<Object, BinaryObject>> caches = new TreeMap<>();
+	// the value of each key written by the batch, null if it is removed
+	private final Map<String, Map<Object, BinaryObject>> entriesByCache = new HashMap<>();
+	private final Set<EntityKey> evictedKeys = new HashSet<>();
+
+	public IgniteWriteBatch(IgniteDatastoreProvider provider) {
+		this.provider = provider;
+	}
+
+	/**
+	 * @return {@code true} if the entry is written or removed by the batch
+	 */
+	public boolean contains(IgniteCache<Object, BinaryObject> cache, Object key) {
+		Map<Object, BinaryObject> entries = entriesByCache.get( cache.getName() );
+		return entries != null && entries.containsKey( key );
+	}
+
+	/**
+	 * @return the value written by the batch, {@code null} if the entry is removed
+	 */
+	public BinaryObject get(IgniteCache<Object, BinaryObject> cache, Object key) {
+		Map<Object, BinaryObject> entries = entriesByCache.get( cache.getName() );
+		return entries != null ? entries.get( key ) : null;
+	}
+
+	/**
+	 * @return the entries of a cache written by the batch, with a {@code null} value for the removed ones
+	 */
+	public Map<Object, BinaryObject> getEntries(IgniteCache<Object, BinaryObject> cache) {
+		Map<Object, BinaryObject> entries = entriesByCache.get( cache.getName() );
+		return entries != null ? Collections.unmodifiableMap( entries ) : Collections.emptyMap();
+	}
+
+	/**
+	 * @return the number of entries written or removed by the batch
+	 */
+	public int size() {
+		int size = 0;
+		for ( Map<Object, BinaryObject> entries : entriesByCache.values() ) {
+			size += entries.size();
+		}
+		return size;
+	}
+
+	public void put(IgniteCache<Object, BinaryObject> cache, Object key, BinaryObject value) {
+		entries( cache ).put( key, value );
+	}
+
+	public void remove(IgniteCache<Object, BinaryObject> cache, Object key) {
+		entries( cache ).put( key, null );
+	}
+
+	/**
+	 * @param key an entity written by the batch, to evict from the second-level cache once the batch is executed
+	 */
+	public void evictAfterWrite(EntityKey key) {
+		evictedKeys.add( key );
+	}
+
+	/**
+	 * Writes the entries of the batch and waits for the end of the writes. When a write fails, the failures of the
+	 * writes already started are added to its exception as suppressed.
+	 */
+	public void execute() {
+		TransactionWriteBuffer buffer = provider.getWriteBuffer();
+		List<IgniteFuture<?>> futures = new ArrayList<>();
+		RuntimeException failure = null;
+		try {
+			for ( Map.Entry<String, IgniteCache<Object, BinaryObject>> cacheEntry : caches.entrySet() ) {
+				IgniteCache<Object, BinaryObject> cache = cacheEntry.getValue();
+				Map<Object, BinaryObject> puts = new TreeMap<>( CacheKeyComparator.INSTANCE );
+				Set<Object> removals = new TreeSet<>( CacheKeyComparator.INSTANCE );
+				for ( Map.Entry<Object, BinaryObject> entry : entriesByCache.get( cacheEntry.getKey() ).entrySet() ) {
+					if ( entry.getValue() != null ) {
+						puts.put( entry.getKey(), entry.getValue() );
+					}
+					else {
+						removals.add( entry.getKey() );
+					}
+				}
+				if ( buffer != null ) {
+					write( cache, puts, removals );
+					buffer.putAll( cache.getName(), puts );
+					buffer.removeAll( cache.getName(), removals );
+				}
+				else {
+					writeAsync( cache, puts, removals, futures );
+				}
+			}
+		}
+		catch (CacheException e) {
+			provider.onTransactionFailure( e );
+			failure = e;
+			throw e;
+		}
+		catch (RuntimeException e) {
+			failure = e;
+			throw e;
+		}
+		finally {
+			try {
+				await( futures );
+			}
+			catch (IgniteException e) {
+				if ( failure == null ) {
+					throw e;
+				}
+				failure.addSuppressed( e );
+			}
+			finally {
+				evict( buffer );
+			}
+		}
+	}
+
+	private void evict(TransactionWriteBuffer buffer) {
+		for ( EntityKey key : evictedKeys ) {
+			if ( buffer != null ) {
+				buffer.evictAfterCommit( key );
+			}
+			else {
+				provider.evictFromSecondLevelCache( key );
+			}
+		}
+	}
+
+	private void write(IgniteCache<Object, BinaryObject> cache, Map<Object, BinaryObject> puts, Set<Object> removals) {
+		if ( !puts.isEmpty() ) {
+			cache.putAll( puts );
+		}
+		if ( !removals.isEmpty() ) {
+			cache.removeAll( removals );
+		}
+	}
+
+	private void writeAsync(IgniteCache<Object, BinaryObject> cache, Map<Object, BinaryObject> puts, Set<Object> removals,
+			List<IgniteFuture<?>> futures) {
+		if ( !puts.isEmpty() ) {
+			futures.add( cache.putAllAsync( puts ) );
+		}
+		if ( !removals.isEmpty() ) {
+			futures.add( cache.removeAllAsync( removals ) );
+		}
+	}
+
+	private static void await(List<IgniteFuture<?>> futures) {
+		IgniteException failure = null;
+		for ( IgniteFuture<?> future : futures ) {
+			try {
+				future.get();
+			}
+			catch (IgniteException e) {
+				if ( failure == null ) {
+					failure = e;
+				}
+				else {
+					failure.addSuppressed( e );
+				}
+			}
+		}
+		if ( failure != null ) {
+			throw failure;
+		}
+	}
+
+	private Map<Object, BinaryObject> entries(IgniteCache<Object, BinaryObject> cache) {
+		caches.putIfAbsent( cache.getName(), cache );
+		return entriesByCache.computeIfAbsent( cache.getName(), name -> new HashMap<>() );
+	}
+}
@@ -0,0 +1,116 @@
+/*
+ * Hibernate OGM, Domain model persistence for NoSQL datastores
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.ogm.datastore.ignite.logging.impl;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import org.hibernate.internal.util.collections.BoundedConcurrentHashMap;
+import org.hibernate.ogm.datastore.ignite.IgniteProperties;
+import org.hibernate.ogm.datastore.ignite.query.impl.QueryPlan;
+
+/**
+ * Checks the plan of the queries with {@code EXPLAIN} before their first execution, and logs the ones scanning whole
+ * tables once they return more rows than a threshold. The plan of a query is checked once; the outcome is remembered
+ * for the {@value #MAX_CHECKED_QUERIES} most recently executed queries.
+ *
+ * @see IgniteProperties#FULL_SCAN_THRESHOLD
+ */
+public class FullScanDetector {
+
+	private static final Log log = LoggerFactory.getLogger();
+
+	private static final int MAX_CHECKED_QUERIES = 2048;
+
+	/** Outcome of the check of a query which does not scan whole tables, or which has already been logged */
+	private static final Object NOTHING_TO_LOG = new Object();
+
+	private final long threshold;
+	// the full scan plan of each query to log, or NOTHING_TO_LOG
+	private final Map<String, Object> checkedQueries = new BoundedConcurrentHashMap<>( MAX_CHECKED_QUERIES, 20,
+			BoundedConcurrentHashMap.Eviction.LIRS );
+
+	/**
+	 * @param threshold number of rows above which the plan of a query is checked, negative to disable the detection
+	 */
+	public FullScanDetector(long threshold) {
+		this.threshold = threshold;
+	}
+
+	public boolean isEnabled() {
+		return threshold >= 0;
+	}
+
+	/**
+	 * Explains a query before its first execution
+	 *
+	 * @param sql the query
+	 * @param plan supplies the plan of the query
+	 * @return the plan of the query if it scans whole tables and has not been logged yet, {@code null} otherwise
+	 */
+	public QueryPlan checkBeforeExecution(String sql, Supplier<QueryPlan> plan) {
+		if ( !isEnabled() ) {
+			return null;
+		}
+		Object outcome = checkedQueries.get( sql );
+		if ( outcome == null ) {
+			QueryPlan queryPlan = plan.get();
+			outcome = queryPlan.isFullScan() ? queryPlan : NOTHING_TO_LOG;
+			Object previous = checkedQueries.putIfAbsent( sql, outcome );
+			if ( previous != null ) {
+				outcome = previous;
+			}
+		}
+		return outcome instanceof QueryPlan ? (QueryPlan) outcome : null;
+	}
+
+	/**
+	 * Counts the rows read from the result of a query scanning whole tables, the plan is logged when there are more
+	 * rows than the threshold
+	 *
+	 * @param rows the result of the query
+	 * @param fullScanPlan the plan returned by {@link #checkBeforeExecution(String, Supplier)}
+	 * @return the result of the query
+	 */
+	public Iterable<List<?>> monitor(Iterable<List<?>> rows, QueryPlan fullScanPlan) {
+		if ( fullScanPlan == null ) {
+			return rows;
+		}
+		return () -> new Iterator<List<?>>() {
+
+			private final Iterator<List<?>> delegate = rows.iterator();
+			private long count;
+
+			@Override
+			public boolean hasNext() {
+				return delegate.hasNext();
+			}
+
+			@Override
+			public List<?> next() {
+				List<?> row = delegate.next();
+				if ( ++count == threshold + 1 ) {
+					log( fullScanPlan );
+				}
+				return row;
+			}
+
+			@Override
+			public void remove() {
+				delegate.remove();
+			}
+		};
+	}
+
+	private void log(QueryPlan plan) {
+		if ( checkedQueries.replace( plan.getSql(), plan, NOTHING_TO_LOG ) ) {
+			log.fullScan( threshold, plan.getScannedTables().toString(), plan.getSql(), plan.getPlans().toString() );
+		}
+	}
+}
@@ -7,6 +7,8 @@
 package org.hibernate.ogm.datastore.ignite.logging.impl;
 
 import org.hibernate.HibernateException;
+import org.hibernate.cache.CacheException;
+import org.hibernate.cache.spi.access.AccessType;
 import org.hibernate.ogm.datastore.ignite.IgniteProperties;
 import org.jboss.logging.Logger.Level;
 import org.jboss.logging.annotations.Cause;
@@ -49,4 +51,47 @@ public interface Log extends org.hibernate.ogm.util.impl.Log {
 
 	@Message(id = 1710, value = "Neither " + IgniteProperties.CONFIGURATION_RESOURCE_NAME + " nor " + IgniteProperties.CONFIGURATION_CLASS_NAME + " properties are set")
 	HibernateException configurationNotSet();
+
+	@Message(id = 1711, value = "Cache access type %1$s is not supported by region '%2$s'")
+	CacheException unsupportedCacheAccessType(AccessType accessType, String regionName);
+
+	@LogMessage(level = Level.WARN)
+	@Message(id = 1712, value = "Slow query: %1$d ms (execution: %2$d ms, fetch: %3$d ms), %4$d rows, sql: %5$s, parameters: %6$s, hints: %7$s")
+	void slowQuery(long time, long executionTime, long fetchTime, int rowCount, String sql, String parameters, String hints);
+
+	@Message(id = 1713, value = "Native query returning entities of type %1$s must select the _KEY and _VAL columns, or use {alias.*}: %2$s")
+	HibernateException nativeQueryWithoutEntityColumns(String entityName, String sql);
+
+	@LogMessage(level = Level.WARN)
+	@Message(id = 1714, value = "No index of table '%1$s' can be used by query, all its entries are scanned: %2$s")
+	void queryWithoutIndex(String table, String sql);
+
+	@LogMessage(level = Level.WARN)
+	@Message(id = 1715, value = "Query returning more than %1$d rows scans the whole table %2$s, sql: %3$s, plan: %4$s")
+	void fullScan(long threshold, String tables, String sql, String plan);
+
+	@Message(id = 1716, value = "The forUpdate hint requires a query returning entities: %s")
+	HibernateException forUpdateRequiresEntities(String sql);
+
+	@Message(id = 1717, value = "The forUpdate hint requires a pessimistic Ignite transaction with the REPEATABLE_READ or SERIALIZABLE isolation")
+	HibernateException forUpdateRequiresPessimisticTransaction();
+
+	@LogMessage(level = Level.WARN)
+	@Message(id = 1718, value = "Transaction aborted because of a deadlock: %s")
+	void transactionDeadlock(String details);
+
+	@LogMessage(level = Level.WARN)
+	@Message(id = 1719, value = "Unable to register or unregister the MBean of the metrics of %s")
+	void unableToRegisterMBean(String operation, @Cause Exception cause);
+
+	@Message(id = 1720, value = "The operations of a reactive session cannot be executed in a transaction, they would not see its writes: %s")
+	HibernateException reactiveOperationInTransaction(String operation);
+
+	@LogMessage(level = Level.WARN)
+	@Message(id = 1721, value = "Unable to send the invalidation of the second-level cache to the other nodes of the cluster: %s")
+	void unableToInvalidateRemoteRegion(String invalidation, @Cause Exception cause);
+
+	@LogMessage(level = Level.WARN)
+	@Message(id = 1722, value = "Ignoring unknown Ignite query hint '%s'")
+	void unknownQueryHint(String hint);
 }
@@ -0,0 +1,179 @@
+/*
+ * Hibernate OGM, Domain model persistence for NoSQL datastores
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.ogm.datastore.ignite.logging.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.ignite.cache.query.QueryCursor;
+import org.apache.ignite.cache.query.SqlFieldsQuery;
+import org.hibernate.ogm.datastore.ignite.IgniteProperties;
+import org.hibernate.ogm.datastore.ignite.query.impl.QueryHints;
+import org.jboss.logging.Logger;
+
+/**
+ * Writes the queries running longer than a threshold to a dedicated log category, so that it can be routed to its own
+ * appender.
+ *
+ * @see IgniteProperties#SLOW_QUERY_THRESHOLD
+ */
+public class SlowQueryLogger {
+
+	/**
+	 * Log category of the slow queries
+	 */
+	public static final String CATEGORY = "org.hibernate.ogm.datastore.ignite.SLOW_QUERY";
+
+	private static final Log log = Logger.getMessageLogger( Log.class, CATEGORY );
+
+	private final long thresholdNanos;
+
+	/**
+	 * @param threshold execution time in milliseconds above which queries are logged, negative to disable the log
+	 */
+	public SlowQueryLogger(long threshold) {
+		this.thresholdNanos = threshold < 0 ? -1 : TimeUnit.MILLISECONDS.toNanos( threshold );
+	}
+
+	public boolean isEnabled() {
+		return thresholdNanos >= 0;
+	}
+
+	/**
+	 * Measures the time a query spends in Ignite, then logs it if it exceeds the threshold once its rows are all read
+	 * or its result is closed, whichever comes first. The execution time runs until the first page of rows is
+	 * available, the fetch time adds up the waits for the following pages; the time spent by the caller processing the
+	 * rows is not counted. The rows are not fetched in advance.
+	 *
+	 * @param rows the result of the query
+	 * @param query the executed query
+	 * @param hints the hints used to execute the query, may be {@code null}
+	 * @param start start of the execution, from {@link System#nanoTime()}
+	 * @return the result of the query, closing the underlying cursor
+	 */
+	public QueryCursor<List<?>> monitor(Iterable<List<?>> rows, SqlFieldsQuery query, QueryHints hints, long start) {
+		return new MonitoredCursor( rows, query, hints, start );
+	}
+
+	/**
+	 * Logs the query if the sum of its execution and fetch times exceeds the threshold
+	 *
+	 * @param query the executed query
+	 * @param hints the hints used to execute the query, may be {@code null}
+	 * @param executionTime time until the first page of rows was available, in nanoseconds
+	 * @param fetchTime time spent fetching the following pages, in nanoseconds
+	 * @param rowCount number of rows returned
+	 */
+	public void logQuery(SqlFieldsQuery query, QueryHints hints, long executionTime, long fetchTime, int rowCount) {
+		if ( isEnabled() && executionTime + fetchTime >= thresholdNanos ) {
+			log.slowQuery(
+					TimeUnit.NANOSECONDS.toMillis( executionTime + fetchTime ),
+					TimeUnit.NANOSECONDS.toMillis( executionTime ),
+					TimeUnit.NANOSECONDS.toMillis( fetchTime ),
+					rowCount,
+					query.getSql(),
+					Arrays.toString( query.getArgs() ),
+					hints != null ? hints.toComment() : ""
+			);
+		}
+	}
+
+	private class MonitoredCursor implements QueryCursor<List<?>> {
+
+		private final Iterable<List<?>> rows;
+		private final SqlFieldsQuery query;
+		private final QueryHints hints;
+		private final long start;
+		// -1 until the first page is available
+		private long executionTime = -1;
+		private long fetchTime;
+		private int rowCount;
+		private boolean logged;
+
+		MonitoredCursor(Iterable<List<?>> rows, SqlFieldsQuery query, QueryHints hints, long start) {
+			this.rows = rows;
+			this.query = query;
+			this.hints = hints;
+			this.start = start;
+		}
+
+		@Override
+		public Iterator<List<?>> iterator() {
+			Iterator<List<?>> delegate = rows.iterator();
+			return new Iterator<List<?>>() {
+
+				@Override
+				public boolean hasNext() {
+					long callStart = System.nanoTime();
+					boolean hasNext = delegate.hasNext();
+					measure( callStart );
+					if ( !hasNext ) {
+						log();
+					}
+					return hasNext;
+				}
+
+				@Override
+				public List<?> next() {
+					long callStart = System.nanoTime();
+					List<?> row = delegate.next();
+					measure( callStart );
+					rowCount++;
+					return row;
+				}
+
+				@Override
+				public void remove() {
+					delegate.remove();
+				}
+			};
+		}
+
+		private void measure(long callStart) {
+			long now = System.nanoTime();
+			if ( executionTime < 0 ) {
+				executionTime = now - start;
+			}
+			else {
+				fetchTime += now - callStart;
+			}
+		}
+
+		@Override
+		public List<List<?>> getAll() {
+			List<List<?>> all = new ArrayList<>();
+			for ( List<?> row : this ) {
+				all.add( row );
+			}
+			return all;
+		}
+
+		@Override
+		public void close() {
+			try {
+				if ( rows instanceof QueryCursor ) {
+					( (QueryCursor<?>) rows ).close();
+				}
+			}
+			finally {
+				log();
+			}
+		}
+
+		private void log() {
+			if ( !logged ) {
+				logged = true;
+				// closed before reading any row
+				long execution = executionTime < 0 ? System.nanoTime() - start : executionTime;
+				logQuery( query, hints, execution, fetchTime, rowCount );
+			}
+		}
+	}
+}
@@ -0,0 +1,82 @@
+/*
+ * Hibernate OGM, Domain model persistence for NoSQL datastores
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.ogm.datastore.ignite.metrics;
+
+/**
+ * Statistics of an operation of the Ignite dialect on a cache, registered in JMX under the
+ * {@code org.hibernate.ogm.datastore.ignite} domain when the metrics are enabled.
+ *
+ * @see org.hibernate.ogm.datastore.ignite.IgniteProperties#METRICS_ENABLED
+ */
+public interface OperationMetricsMXBean {
+
+	/**
+	 * @return the name of the operation, e.g. {@code getTuple}
+	 */
+	String getOperation();
+
+	/**
+	 * @return the name of the cache the operation works on
+	 */
+	String getCacheName();
+
+	/**
+	 * @return the number of executions
+	 */
+	long getCount();
+
+	/**
+	 * @return the mean execution time in microseconds
+	 */
+	double getMeanTimeMicros();
+
+	/**
+	 * @return the longest execution time in microseconds
+	 */
+	long getMaxTimeMicros();
+
+	/**
+	 * @return the upper bound in microseconds of the histogram bucket holding the median execution time
+	 */
+	long getMedianTimeMicros();
+
+	/**
+	 * @return the upper bound in microseconds of the histogram bucket holding the 99th percentile of the execution time
+	 */
+	long get99thPercentileTimeMicros();
+
+	/**
+	 * @return the upper bounds in microseconds of the buckets of the execution time histogram, the last bucket has no
+	 * upper bound
+	 */
+	long[] getTimeHistogramBoundsMicros();
+
+	/**
+	 * @return the number of executions in each bucket of the execution time histogram
+	 */
+	long[] getTimeHistogram();
+
+	/**
+	 * @return the number of rows read, or written, by the operation
+	 */
+	long getRows();
+
+	/**
+	 * @return the size in bytes of the binary objects written by the operation
+	 */
+	long getBytesWritten();
+
+	/**
+	 * @return the number of times the operation has been retried, e.g. because of a concurrent update of a sequence
+	 */
+	long getRetries();
+
+	/**
+	 * Resets the statistics
+	 */
+	void reset();
+}
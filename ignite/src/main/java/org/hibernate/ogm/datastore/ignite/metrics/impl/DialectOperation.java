@@ -0,0 +1,35 @@
+/*
+ * Hibernate OGM, Domain model persistence for NoSQL datastores
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.ogm.datastore.ignite.metrics.impl;
+
+/**
+ * The operations of the Ignite datastore measured by {@link IgniteMetrics}
+ */
+public enum DialectOperation {
+
+	GET_TUPLE( "getTuple" ),
+	GET_TUPLES( "getTuples" ),
+	INSERT_OR_UPDATE_TUPLE( "insertOrUpdateTuple" ),
+	REMOVE_TUPLE( "removeTuple" ),
+	GET_ASSOCIATION( "getAssociation" ),
+	INSERT_OR_UPDATE_ASSOCIATION( "insertOrUpdateAssociation" ),
+	REMOVE_ASSOCIATION( "removeAssociation" ),
+	EXECUTE_BATCH( "executeBatch" ),
+	EXECUTE_QUERY( "executeQuery" ),
+	NEXT_VALUE( "nextValue" ),
+	AFFINITY_CALL( "affinityCall" );
+
+	private final String name;
+
+	DialectOperation(String name) {
+		this.name = name;
+	}
+
+	public String getName() {
+		return name;
+	}
+}
@@ -0,0 +1,151 @@
+/*
+ * Hibernate OGM, Domain model persistence for NoSQL datastores
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.ogm.datastore.ignite.metrics.impl;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.hibernate.ogm.datastore.ignite.logging.impl.Log;
+import org.hibernate.ogm.datastore.ignite.logging.impl.LoggerFactory;
+
+/**
+ * Measures the operations of the Ignite datastore, by operation and cache, and publishes the statistics as JMX
+ * MBeans and, optionally, to a Micrometer registry.
+ * <p>
+ * When the metrics are disabled {@link #start()} does not read the clock and {@link #record} returns immediately;
+ * callers computing the arguments of {@code record}, such as the size of the values, check {@link #isEnabled()} first.
+ */
+public class IgniteMetrics {
+
+	/**
+	 * JMX domain of the MBeans
+	 */
+	public static final String JMX_DOMAIN = "org.hibernate.ogm.datastore.ignite";
+
+	/**
+	 * Cache name of the operations working on several caches
+	 */
+	public static final String ALL_CACHES = "all";
+
+	/**
+	 * Metrics which measure nothing
+	 */
+	public static final IgniteMetrics DISABLED = new IgniteMetrics( false, null, null );
+
+	private static final Log log = LoggerFactory.getLogger();
+
+	private final boolean enabled;
+	private final String instanceName;
+	private final MicrometerRecorder micrometerRecorder;
+	private final ConcurrentMap<String, OperationMetrics> operationMetrics = new ConcurrentHashMap<>();
+
+	private IgniteMetrics(boolean enabled, String instanceName, MicrometerRecorder micrometerRecorder) {
+		this.enabled = enabled;
+		this.instanceName = instanceName;
+		this.micrometerRecorder = micrometerRecorder;
+	}
+
+	/**
+	 * @param instanceName the name of the Ignite instance, used in the names of the MBeans
+	 * @param meterRegistry a Micrometer {@code MeterRegistry} to publish the metrics to, may be {@code null}
+	 * @return enabled metrics
+	 */
+	public static IgniteMetrics enabled(String instanceName, Object meterRegistry) {
+		// MicrometerRecorder is only loaded when a registry is given, Micrometer is optional
+		MicrometerRecorder micrometerRecorder = meterRegistry != null ? new MicrometerRecorder( meterRegistry ) : null;
+		return new IgniteMetrics( true, instanceName != null ? instanceName : "default", micrometerRecorder );
+	}
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * @return the start time of an operation, to be given to {@link #record}
+	 */
+	public long start() {
+		return enabled ? System.nanoTime() : 0L;
+	}
+
+	public void record(DialectOperation operation, String cacheName, long start) {
+		record( operation, cacheName, start, 0, 0, 0 );
+	}
+
+	/**
+	 * Records the execution of an operation
+	 *
+	 * @param operation the operation
+	 * @param cacheName the cache the operation works on
+	 * @param start the value returned by {@link #start()} before the operation
+	 * @param rows the number of rows read or written
+	 * @param bytes the size of the binary objects written
+	 * @param retries the number of retries
+	 */
+	public void record(DialectOperation operation, String cacheName, long start, long rows, long bytes, long retries) {
+		if ( !enabled ) {
+			return;
+		}
+		long nanos = System.nanoTime() - start;
+		operationMetrics( operation, cacheName ).record( nanos, rows, bytes, retries );
+		if ( micrometerRecorder != null ) {
+			micrometerRecorder.record( operation, cacheName, nanos, rows, bytes, retries );
+		}
+	}
+
+	/**
+	 * @return the statistics of an operation on a cache
+	 */
+	public OperationMetrics operationMetrics(DialectOperation operation, String cacheName) {
+		String name = operation.getName() + '/' + cacheName;
+		OperationMetrics metrics = operationMetrics.get( name );
+		if ( metrics == null ) {
+			metrics = operationMetrics.computeIfAbsent( name, n -> register( new OperationMetrics( operation, cacheName ) ) );
+		}
+		return metrics;
+	}
+
+	private OperationMetrics register(OperationMetrics metrics) {
+		try {
+			ManagementFactory.getPlatformMBeanServer().registerMBean( metrics, objectName( metrics ) );
+		}
+		catch (JMException e) {
+			log.unableToRegisterMBean( metrics.getOperation() + " on " + metrics.getCacheName(), e );
+		}
+		return metrics;
+	}
+
+	/**
+	 * Unregisters the MBeans
+	 */
+	public void close() {
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		for ( OperationMetrics metrics : operationMetrics.values() ) {
+			try {
+				ObjectName name = objectName( metrics );
+				if ( server.isRegistered( name ) ) {
+					server.unregisterMBean( name );
+				}
+			}
+			catch (JMException e) {
+				log.unableToRegisterMBean( metrics.getOperation() + " on " + metrics.getCacheName(), e );
+			}
+		}
+		operationMetrics.clear();
+	}
+
+	private ObjectName objectName(OperationMetrics metrics) throws JMException {
+		return new ObjectName( JMX_DOMAIN + ":type=Operation"
+				+ ",instance=" + ObjectName.quote( instanceName )
+				+ ",operation=" + metrics.getOperation()
+				+ ",cache=" + ObjectName.quote( metrics.getCacheName() ) );
+	}
+}
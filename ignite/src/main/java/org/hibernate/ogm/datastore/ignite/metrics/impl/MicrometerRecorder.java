@@ -0,0 +1,71 @@
+/*
+ * Hibernate OGM, Domain model persistence for NoSQL datastores
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.ogm.datastore.ignite.metrics.impl;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Publishes the metrics of the operations to a Micrometer registry: a timer with a percentile histogram, the rows
+ * and bytes as distribution summaries and the retries as a counter, tagged with the operation and the cache.
+ */
+class MicrometerRecorder {
+
+	private final MeterRegistry registry;
+	private final ConcurrentMap<String, Meters> meters = new ConcurrentHashMap<>();
+
+	MicrometerRecorder(Object registry) {
+		this.registry = (MeterRegistry) registry;
+	}
+
+	void record(DialectOperation operation, String cacheName, long nanos, long rows, long bytes, long retries) {
+		Meters operationMeters = meters.computeIfAbsent( operation.getName() + '/' + cacheName, name -> new Meters( operation, cacheName ) );
+		operationMeters.timer.record( nanos, TimeUnit.NANOSECONDS );
+		if ( rows > 0 ) {
+			operationMeters.rows.record( rows );
+		}
+		if ( bytes > 0 ) {
+			operationMeters.bytes.record( bytes );
+		}
+		if ( retries > 0 ) {
+			operationMeters.retries.increment( retries );
+		}
+	}
+
+	private class Meters {
+
+		private final Timer timer;
+		private final DistributionSummary rows;
+		private final DistributionSummary bytes;
+		private final Counter retries;
+
+		Meters(DialectOperation operation, String cacheName) {
+			Tags tags = Tags.of( "operation", operation.getName(), "cache", cacheName );
+			this.timer = Timer.builder( "hibernate.ogm.ignite.operation" )
+					.tags( tags )
+					.publishPercentileHistogram()
+					.register( registry );
+			this.rows = DistributionSummary.builder( "hibernate.ogm.ignite.operation.rows" )
+					.tags( tags )
+					.register( registry );
+			this.bytes = DistributionSummary.builder( "hibernate.ogm.ignite.operation.bytes" )
+					.baseUnit( "bytes" )
+					.tags( tags )
+					.register( registry );
+			this.retries = Counter.builder( "hibernate.ogm.ignite.operation.retries" )
+					.tags( tags )
+					.register( registry );
+		}
+	}
+}
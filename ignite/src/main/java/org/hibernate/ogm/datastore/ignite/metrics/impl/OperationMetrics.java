@@ -0,0 +1,167 @@
+/*
+ * Hibernate OGM, Domain model persistence for NoSQL datastores
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.ogm.datastore.ignite.metrics.impl;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.hibernate.ogm.datastore.ignite.metrics.OperationMetricsMXBean;
+
+/**
+ * Statistics of an operation on a cache. The execution times are counted in a histogram whose buckets double in
+ * size, from 1 microsecond to about 16 seconds.
+ */
+public class OperationMetrics implements OperationMetricsMXBean {
+
+	private static final int BUCKETS = 26;
+
+	private final DialectOperation operation;
+	private final String cacheName;
+
+	private final LongAdder count = new LongAdder();
+	private final LongAdder totalTime = new LongAdder();
+	private final LongAccumulator maxTime = new LongAccumulator( Math::max, 0 );
+	private final AtomicLongArray histogram = new AtomicLongArray( BUCKETS );
+	private final LongAdder rows = new LongAdder();
+	private final LongAdder bytes = new LongAdder();
+	private final LongAdder retries = new LongAdder();
+
+	public OperationMetrics(DialectOperation operation, String cacheName) {
+		this.operation = operation;
+		this.cacheName = cacheName;
+	}
+
+	/**
+	 * @param nanos the execution time in nanoseconds
+	 * @param rowCount the number of rows read or written
+	 * @param byteCount the size of the binary objects written
+	 * @param retryCount the number of retries
+	 */
+	public void record(long nanos, long rowCount, long byteCount, long retryCount) {
+		long micros = TimeUnit.NANOSECONDS.toMicros( nanos );
+		count.increment();
+		totalTime.add( micros );
+		maxTime.accumulate( micros );
+		histogram.incrementAndGet( bucket( micros ) );
+		if ( rowCount > 0 ) {
+			rows.add( rowCount );
+		}
+		if ( byteCount > 0 ) {
+			bytes.add( byteCount );
+		}
+		if ( retryCount > 0 ) {
+			retries.add( retryCount );
+		}
+	}
+
+	private static int bucket(long micros) {
+		// bucket i holds the times up to 2^i microseconds
+		int bucket = micros <= 1 ? 0 : 64 - Long.numberOfLeadingZeros( micros - 1 );
+		return Math.min( bucket, BUCKETS - 1 );
+	}
+
+	@Override
+	public String getOperation() {
+		return operation.getName();
+	}
+
+	@Override
+	public String getCacheName() {
+		return cacheName;
+	}
+
+	@Override
+	public long getCount() {
+		return count.sum();
+	}
+
+	@Override
+	public double getMeanTimeMicros() {
+		long executions = count.sum();
+		return executions == 0 ? 0 : (double) totalTime.sum() / executions;
+	}
+
+	@Override
+	public long getMaxTimeMicros() {
+		return maxTime.get();
+	}
+
+	@Override
+	public long getMedianTimeMicros() {
+		return percentile( 0.5 );
+	}
+
+	@Override
+	public long get99thPercentileTimeMicros() {
+		return percentile( 0.99 );
+	}
+
+	private long percentile(double percentile) {
+		long[] counts = getTimeHistogram();
+		long total = 0;
+		for ( long bucketCount : counts ) {
+			total += bucketCount;
+		}
+		long rank = (long) Math.ceil( total * percentile );
+		long seen = 0;
+		for ( int i = 0; i < counts.length; i++ ) {
+			seen += counts[i];
+			if ( seen >= rank && seen > 0 ) {
+				return i < BUCKETS - 1 ? 1L << i : maxTime.get();
+			}
+		}
+		return 0;
+	}
+
+	@Override
+	public long[] getTimeHistogramBoundsMicros() {
+		long[] bounds = new long[BUCKETS - 1];
+		for ( int i = 0; i < bounds.length; i++ ) {
+			bounds[i] = 1L << i;
+		}
+		return bounds;
+	}
+
+	@Override
+	public long[] getTimeHistogram() {
+		long[] counts = new long[BUCKETS];
+		for ( int i = 0; i < BUCKETS; i++ ) {
+			counts[i] = histogram.get( i );
+		}
+		return counts;
+	}
+
+	@Override
+	public long getRows() {
+		return rows.sum();
+	}
+
+	@Override
+	public long getBytesWritten() {
+		return bytes.sum();
+	}
+
+	@Override
+	public long getRetries() {
+		return retries.sum();
+	}
+
+	@Override
+	public void reset() {
+		count.reset();
+		totalTime.reset();
+		maxTime.reset();
+		for ( int i = 0; i < BUCKETS; i++ ) {
+			histogram.set( i, 0 );
+		}
+		rows.reset();
+		bytes.reset();
+		retries.reset();
+	}
+}
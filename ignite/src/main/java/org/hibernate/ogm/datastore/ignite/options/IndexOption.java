@@ -0,0 +1,46 @@
+/*
+ * Hibernate OGM, Domain model persistence for NoSQL datastores
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.ogm.datastore.ignite.options;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import org.apache.ignite.cache.QueryIndexType;
+
+/**
+ * Ignite specific settings of an index. The index is either declared with {@code @Index} or generated for the join
+ * columns of an association; generated indexes are named {@code <table>_<column1>_<column2>...}.
+ * <p>
+ * The sort direction of the fields is taken from {@code @Index#columnList()}.
+ *
+ * @see IndexOptions
+ */
+@Target({})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface IndexOption {
+
+	/**
+	 * Value of {@link #inlineSize()} asking for a size estimated from the type and the length of the columns
+	 */
+	int ESTIMATED_INLINE_SIZE = -1;
+
+	/**
+	 * @return the name of the index these options apply to
+	 */
+	String forIndex();
+
+	/**
+	 * @return the type of the index
+	 */
+	QueryIndexType type() default QueryIndexType.SORTED;
+
+	/**
+	 * @return the number of bytes of the indexed values stored in the index pages of a {@code SORTED} index
+	 */
+	int inlineSize() default ESTIMATED_INLINE_SIZE;
+}
@@ -0,0 +1,28 @@
+/*
+ * Hibernate OGM, Domain model persistence for NoSQL datastores
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.ogm.datastore.ignite.options;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import org.hibernate.ogm.datastore.ignite.options.impl.IndexOptionsConverter;
+import org.hibernate.ogm.options.spi.MappingOption;
+
+/**
+ * Specifies the Ignite settings of the indexes of an entity.
+ *
+ * @see IndexOption
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@MappingOption(IndexOptionsConverter.class)
+public @interface IndexOptions {
+
+	IndexOption[] value();
+}
@@ -0,0 +1,31 @@
+/*
+ * Hibernate OGM, Domain model persistence for NoSQL datastores
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.ogm.datastore.ignite.options.impl;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.hibernate.ogm.datastore.ignite.options.IndexOption;
+import org.hibernate.ogm.datastore.ignite.options.IndexOptions;
+import org.hibernate.ogm.options.spi.AnnotationConverter;
+import org.hibernate.ogm.options.spi.OptionValuePair;
+
+/**
+ * Converts {@link IndexOptions} instances into an equivalent option value pair.
+ */
+public class IndexOptionsConverter implements AnnotationConverter<IndexOptions> {
+
+	@Override
+	public OptionValuePair<?> convert(IndexOptions annotation) {
+		Map<String, IndexOption> value = new HashMap<>();
+		for ( IndexOption indexOption : annotation.value() ) {
+			value.put( indexOption.forIndex(), indexOption );
+		}
+		return OptionValuePair.getInstance( new IndexOptionsOption(), value );
+	}
+
+}
@@ -0,0 +1,25 @@
+/*
+ * Hibernate OGM, Domain model persistence for NoSQL datastores
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.ogm.datastore.ignite.options.impl;
+
+import java.util.Collections;
+import java.util.Map;
+
+import org.hibernate.ogm.datastore.ignite.options.IndexOption;
+import org.hibernate.ogm.options.spi.UniqueOption;
+import org.hibernate.ogm.util.configurationreader.spi.ConfigurationPropertyReader;
+
+/**
+ * Ignite settings of the indexes of an entity, by index name.
+ */
+public class IndexOptionsOption extends UniqueOption<Map<String, IndexOption>> {
+
+	@Override
+	public Map<String, IndexOption> getDefaultValue(ConfigurationPropertyReader propertyReader) {
+		return Collections.emptyMap();
+	}
+}
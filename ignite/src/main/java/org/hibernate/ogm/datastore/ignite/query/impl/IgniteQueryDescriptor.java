@@ -9,6 +9,8 @@
 import java.io.Serializable;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import org.hibernate.loader.custom.ScalarReturn;
 import org.hibernate.ogm.model.key.spi.EntityKeyMetadata;
@@ -25,6 +27,10 @@ public class IgniteQueryDescriptor implements Serializable {
 	private final EntityKeyMetadata rootKeyMetadata;
 	private final List<ScalarReturn> queryReturns;
 	private final boolean hasScalar;
+	private final Map<String, List<Object>> partitionKeyCandidates;
+	private final boolean distributedJoins;
+	private final Set<String> indexableColumns;
+	private final String countSql;
 //	private final Set<String> querySpaces;
 
 	public IgniteQueryDescriptor(String sql, List<Object> indexedParameters, boolean hasScalar) {
@@ -34,11 +40,22 @@ public IgniteQueryDescriptor(String sql, List<Object> indexedParameters, boolean
 	public IgniteQueryDescriptor(String sql, List<Object> indexedParameters,
 			boolean hasScalar, EntityKeyMetadata rootKeyMetadata,
 			List<ScalarReturn> queryReturns) {
+		this( sql, indexedParameters, hasScalar, rootKeyMetadata, queryReturns, Collections.emptyMap(), false, null, null );
+	}
+
+	public IgniteQueryDescriptor(String sql, List<Object> indexedParameters,
+			boolean hasScalar, EntityKeyMetadata rootKeyMetadata,
+			List<ScalarReturn> queryReturns, Map<String, List<Object>> partitionKeyCandidates,
+			boolean distributedJoins, Set<String> indexableColumns, String countSql) {
 		this.sql = sql;
 		this.indexedParameters = indexedParameters;
 		this.hasScalar = hasScalar;
 		this.rootKeyMetadata = rootKeyMetadata;
 		this.queryReturns = queryReturns;
+		this.partitionKeyCandidates = partitionKeyCandidates;
+		this.distributedJoins = distributedJoins;
+		this.indexableColumns = indexableColumns;
+		this.countSql = countSql;
 	}
 
 	public List<Object> getIndexedParameters() {
@@ -61,4 +78,37 @@ public List<ScalarReturn> getQueryReturns() {
 		return queryReturns;
 	}
 
+	/**
+	 * Values of the columns of the root entity compared with {@code =} or {@code IN} in the top-level conjunction of the
+	 * {@code WHERE} clause. When one of them is the cache key or its affinity field, the query only has to run on the
+	 * partitions owning these values.
+	 *
+	 * @return the values by column name
+	 */
+	public Map<String, List<Object>> getPartitionKeyCandidates() {
+		return partitionKeyCandidates;
+	}
+
+	/**
+	 * @return {@code true} if the query joins entities which are not known to be collocated
+	 */
+	public boolean isDistributedJoins() {
+		return distributedJoins;
+	}
+
+	/**
+	 * @return the columns of the root entity restricted by the {@code WHERE} clause in a way an index can be used for,
+	 * {@code null} if the query has no {@code WHERE} clause or is a native query
+	 */
+	public Set<String> getIndexableColumns() {
+		return indexableColumns;
+	}
+
+	/**
+	 * @return a query counting the rows of this query, with the same parameters
+	 */
+	public String getCountSql() {
+		return countSql != null ? countSql : "SELECT COUNT(*) FROM (" + sql + ")";
+	}
+
 }
@@ -10,6 +10,7 @@
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.regex.Pattern;
 
 import org.hibernate.QueryException;
 import org.hibernate.engine.query.spi.ParameterParser;
@@ -27,6 +28,10 @@ public class IgniteSqlQueryParser {
 	private static final String DOMAIN_PLACEHOLDER = "h-domain";
 	private static final String CATALOG_PLACEHOLDER = "h-catalog";
 	private static final String SCHEMA_PLACEHOLDER = "h-schema";
+	// "SELECT [DISTINCT] [alias.]_KEY, [alias.]_VAL ..."
+	private static final Pattern ENTITY_SELECTION = Pattern.compile(
+			"^\\s*SELECT\\s+(DISTINCT\\s+)?(\\w+\\.)?_KEY\\s*,\\s*(\\w+\\.)?_VAL\\b",
+			Pattern.CASE_INSENSITIVE );
 
 	protected final String originalQuery;
 	protected ParserContext context;
@@ -75,8 +80,13 @@ public String process() {
 		return processedSql;
 	}
 
+	/**
+	 * Builds the descriptor of the query. The query returns entities if it starts with selecting their
+	 * {@code _KEY} and {@code _VAL} columns, e.g. {@code SELECT _KEY, _VAL FROM Poem} or {@code SELECT {p.*} FROM Poem p}
+	 */
 	public IgniteQueryDescriptor buildQueryDescriptor() {
-		return new IgniteQueryDescriptor( process(), null, true /* SQL queries working only for scalars queries */ );
+		String sql = process();
+		return new IgniteQueryDescriptor( sql, null, !ENTITY_SELECTION.matcher( sql ).find() );
 	}
 
 	private String substituteBrackets(String sqlQuery) throws QueryException {
@@ -164,6 +174,11 @@ else if ( context.isEntityAlias( aliasName ) ) {
 						result.append( resolveProperties( aliasName, propertyName ) );
 						aliasesFound++;
 					}
+					else if ( "*".equals( aliasPath.substring( firstDot + 1 ) ) ) {
+						// all the columns of an entity {foo.*}, Ignite stores them in the key and the value
+						result.append( aliasName ).append( "._KEY, " ).append( aliasName ).append( "._VAL" );
+						aliasesFound++;
+					}
 					else {
 						// passing through anything we do not know : to support jdbc escape sequences HB-898
 						result.append( '{' ).append( aliasPath ).append( '}' );
@@ -6,29 +6,69 @@
  */
 package org.hibernate.ogm.datastore.ignite.query.impl;
 
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
+import org.apache.ignite.cache.query.SqlFieldsQuery;
 import org.hibernate.HibernateException;
+import org.hibernate.ogm.datastore.ignite.logging.impl.Log;
+import org.hibernate.ogm.datastore.ignite.logging.impl.LoggerFactory;
 
 /**
- * Hints for executing Ignite queries
+ * Hints for executing Ignite queries.
+ * <p>
+ * Hints are added to a query with {@code org.hibernate.query.Query#addQueryHint(String)} using the syntax
+ * {@code name} or {@code name=value}, e.g. {@code distributedJoins=true} or {@code partitions=1,5}. A boolean hint without
+ * value is {@code true}; unknown hints are ignored with a warning.
  *
  * @author Victor Kadachigov
  */
 public class QueryHints {
 
+	private static final Log log = LoggerFactory.getLogger();
+
 	public static final String HINT_LOCAL_QUERY = "local";
 	public static final String HINT_AFFINITY_QUERY = "affinityKey";
+	public static final String HINT_PARTITIONS = "partitions";
+	public static final String HINT_DISTRIBUTED_JOINS = "distributedJoins";
+	public static final String HINT_ENFORCE_JOIN_ORDER = "enforceJoinOrder";
+	public static final String HINT_COLLOCATED = "collocated";
+	public static final String HINT_LAZY = "lazy";
+	public static final String HINT_PAGE_SIZE = "pageSize";
+	/** Timeout in milliseconds */
+	public static final String HINT_TIMEOUT = "timeout";
+	public static final String HINT_REPLICATED_ONLY = "replicatedOnly";
+	/** Locks the entities returned by the query until the end of the current pessimistic transaction */
+	public static final String HINT_FOR_UPDATE = "forUpdate";
 	public static final String HINT_SEPARATOR = ",";
 
 	private final boolean local;
 	private final boolean affinityRun;
 	private final Object affinityKey;
+	private final int[] partitions;
+	private final Boolean distributedJoins;
+	private final Boolean enforceJoinOrder;
+	private final Boolean collocated;
+	private final Boolean lazy;
+	private final Integer pageSize;
+	private final Integer timeout;
+	private final Boolean replicatedOnly;
+	private final boolean forUpdate;
 
-	private QueryHints(boolean local, boolean affinityRun, Object affinityKey) {
-		this.local = local;
-		this.affinityRun = affinityRun;
-		this.affinityKey = affinityKey;
+	private QueryHints(Builder builder) {
+		this.local = builder.local;
+		this.affinityRun = builder.affinityRun;
+		this.affinityKey = builder.affinityKey;
+		this.partitions = builder.partitions;
+		this.distributedJoins = builder.distributedJoins;
+		this.enforceJoinOrder = builder.enforceJoinOrder;
+		this.collocated = builder.collocated;
+		this.lazy = builder.lazy;
+		this.pageSize = builder.pageSize;
+		this.timeout = builder.timeout;
+		this.replicatedOnly = builder.replicatedOnly;
+		this.forUpdate = builder.forUpdate;
 	}
 
 	public boolean isLocal() {
@@ -43,8 +83,59 @@ public Object getAffinityKey() {
 		return affinityKey;
 	}
 
+	/**
+	 * @return the partitions the query is restricted to, {@code null} for all the partitions
+	 */
+	public int[] getPartitions() {
+		return partitions;
+	}
+
+	public boolean isForUpdate() {
+		return forUpdate;
+	}
+
 	public boolean isEmpty() {
-		return !local && !affinityRun;
+		return !local && !affinityRun && !forUpdate && !hasExecutionOptions();
+	}
+
+	private boolean hasExecutionOptions() {
+		return partitions != null || distributedJoins != null || enforceJoinOrder != null || collocated != null
+				|| lazy != null || pageSize != null || timeout != null || replicatedOnly != null;
+	}
+
+	/**
+	 * Sets the execution options given as hints on the query; the others keep the Ignite defaults.
+	 *
+	 * @param query the query to configure
+	 */
+	public void applyTo(SqlFieldsQuery query) {
+		if ( !hasExecutionOptions() ) {
+			return;
+		}
+		if ( partitions != null ) {
+			query.setPartitions( partitions );
+		}
+		if ( distributedJoins != null ) {
+			query.setDistributedJoins( distributedJoins );
+		}
+		if ( enforceJoinOrder != null ) {
+			query.setEnforceJoinOrder( enforceJoinOrder );
+		}
+		if ( collocated != null ) {
+			query.setCollocated( collocated );
+		}
+		if ( lazy != null ) {
+			query.setLazy( lazy );
+		}
+		if ( pageSize != null ) {
+			query.setPageSize( pageSize );
+		}
+		if ( timeout != null ) {
+			query.setTimeout( timeout, TimeUnit.MILLISECONDS );
+		}
+		if ( replicatedOnly != null ) {
+			query.setReplicatedOnly( replicatedOnly );
+		}
 	}
 
 	public String toComment() {
@@ -59,15 +150,43 @@ public String toComment() {
 		if ( affinityRun ) {
 			sb.append( "affinityRun( key: " ).append( affinityKey ).append( " ) " );
 		}
+		if ( partitions != null ) {
+			sb.append( HINT_PARTITIONS ).append( Arrays.toString( partitions ) ).append( ' ' );
+		}
+		appendOption( sb, HINT_DISTRIBUTED_JOINS, distributedJoins );
+		appendOption( sb, HINT_ENFORCE_JOIN_ORDER, enforceJoinOrder );
+		appendOption( sb, HINT_COLLOCATED, collocated );
+		appendOption( sb, HINT_LAZY, lazy );
+		appendOption( sb, HINT_PAGE_SIZE, pageSize );
+		appendOption( sb, HINT_TIMEOUT, timeout );
+		appendOption( sb, HINT_REPLICATED_ONLY, replicatedOnly );
+		if ( forUpdate ) {
+			sb.append( HINT_FOR_UPDATE ).append( ' ' );
+		}
 		sb.append( "*/ " );
 		return sb.toString();
 	}
 
+	private static void appendOption(StringBuilder sb, String name, Object value) {
+		if ( value != null ) {
+			sb.append( name ).append( '=' ).append( value ).append( ' ' );
+		}
+	}
+
 	public static class Builder {
 
 		private boolean local;
 		private boolean affinityRun;
 		private Object affinityKey;
+		private int[] partitions;
+		private Boolean distributedJoins;
+		private Boolean enforceJoinOrder;
+		private Boolean collocated;
+		private Boolean lazy;
+		private Integer pageSize;
+		private Integer timeout;
+		private Boolean replicatedOnly;
+		private boolean forUpdate;
 
 		public Builder() {
 		}
@@ -77,17 +196,82 @@ public Builder(List<String> hints) {
 				for ( String h : hints ) {
 					int index = h.indexOf( '=' );
 					String key = ( index > 0 ? h.substring( 0, index ) : h ).trim();
+					String value = index > 0 ? h.substring( index + 1 ).trim() : null;
 					if ( key.equalsIgnoreCase( HINT_LOCAL_QUERY ) ) {
-						this.local = true;
+						this.local = parseBoolean( h, value );
 					}
 					else if ( key.equalsIgnoreCase( HINT_AFFINITY_QUERY ) ) {
 						this.affinityRun = true;
-						this.affinityKey = h.substring( index + 1 ).trim();
+						this.affinityKey = value;
+					}
+					else if ( key.equalsIgnoreCase( HINT_PARTITIONS ) ) {
+						this.partitions = parsePartitions( h, value );
+					}
+					else if ( key.equalsIgnoreCase( HINT_DISTRIBUTED_JOINS ) ) {
+						this.distributedJoins = parseBoolean( h, value );
+					}
+					else if ( key.equalsIgnoreCase( HINT_ENFORCE_JOIN_ORDER ) ) {
+						this.enforceJoinOrder = parseBoolean( h, value );
+					}
+					else if ( key.equalsIgnoreCase( HINT_COLLOCATED ) ) {
+						this.collocated = parseBoolean( h, value );
+					}
+					else if ( key.equalsIgnoreCase( HINT_LAZY ) ) {
+						this.lazy = parseBoolean( h, value );
+					}
+					else if ( key.equalsIgnoreCase( HINT_PAGE_SIZE ) ) {
+						this.pageSize = parseInt( h, value );
+					}
+					else if ( key.equalsIgnoreCase( HINT_TIMEOUT ) ) {
+						this.timeout = parseInt( h, value );
+					}
+					else if ( key.equalsIgnoreCase( HINT_REPLICATED_ONLY ) ) {
+						this.replicatedOnly = parseBoolean( h, value );
+					}
+					else if ( key.equalsIgnoreCase( HINT_FOR_UPDATE ) ) {
+						this.forUpdate = parseBoolean( h, value );
+					}
+					else {
+						log.unknownQueryHint( h );
 					}
 				}
 			}
 		}
 
+		private static Boolean parseBoolean(String hint, String value) {
+			if ( value == null || value.equalsIgnoreCase( "true" ) ) {
+				return Boolean.TRUE;
+			}
+			if ( value.equalsIgnoreCase( "false" ) ) {
+				return Boolean.FALSE;
+			}
+			throw new HibernateException( "Invalid value for hint '" + hint + "', expecting true or false" );
+		}
+
+		private static Integer parseInt(String hint, String value) {
+			if ( value == null ) {
+				throw new HibernateException( "Hint '" + hint + "' requires a value" );
+			}
+			try {
+				return Integer.valueOf( value );
+			}
+			catch (NumberFormatException e) {
+				throw new HibernateException( "Invalid value for hint '" + hint + "'", e );
+			}
+		}
+
+		private static int[] parsePartitions(String hint, String value) {
+			if ( value == null ) {
+				throw new HibernateException( "Hint '" + hint + "' requires a value" );
+			}
+			String[] values = value.split( HINT_SEPARATOR );
+			int[] result = new int[values.length];
+			for ( int i = 0; i < values.length; i++ ) {
+				result[i] = parseInt( hint, values[i].trim() );
+			}
+			return result;
+		}
+
 		public boolean isLocal() {
 			return local;
 		}
@@ -132,11 +316,102 @@ public Builder setAffinityKey(Object affinityKey) {
 			return this;
 		}
 
+		public int[] getPartitions() {
+			return partitions;
+		}
+
+		/**
+		 * Restricts the query to the given partitions
+		 *
+		 * @param partitions
+		 * @return {@code this} for chaining.
+		 */
+		public Builder setPartitions(int... partitions) {
+			this.partitions = partitions;
+			return this;
+		}
+
+		public Boolean getDistributedJoins() {
+			return distributedJoins;
+		}
+
+		/**
+		 * @param distributedJoins
+		 * @return {@code this} for chaining.
+		 */
+		public Builder setDistributedJoins(Boolean distributedJoins) {
+			this.distributedJoins = distributedJoins;
+			return this;
+		}
+
+		/**
+		 * @param enforceJoinOrder
+		 * @return {@code this} for chaining.
+		 */
+		public Builder setEnforceJoinOrder(Boolean enforceJoinOrder) {
+			this.enforceJoinOrder = enforceJoinOrder;
+			return this;
+		}
+
+		/**
+		 * @param collocated
+		 * @return {@code this} for chaining.
+		 */
+		public Builder setCollocated(Boolean collocated) {
+			this.collocated = collocated;
+			return this;
+		}
+
+		/**
+		 * @param lazy
+		 * @return {@code this} for chaining.
+		 */
+		public Builder setLazy(Boolean lazy) {
+			this.lazy = lazy;
+			return this;
+		}
+
+		/**
+		 * @param pageSize
+		 * @return {@code this} for chaining.
+		 */
+		public Builder setPageSize(Integer pageSize) {
+			this.pageSize = pageSize;
+			return this;
+		}
+
+		/**
+		 * @param timeout timeout in milliseconds
+		 * @return {@code this} for chaining.
+		 */
+		public Builder setTimeout(Integer timeout) {
+			this.timeout = timeout;
+			return this;
+		}
+
+		/**
+		 * @param replicatedOnly
+		 * @return {@code this} for chaining.
+		 */
+		public Builder setReplicatedOnly(Boolean replicatedOnly) {
+			this.replicatedOnly = replicatedOnly;
+			return this;
+		}
+
+		/**
+		 * @param forUpdate whether the entities returned by the query are locked
+		 * @return {@code this} for chaining.
+		 */
+		public Builder setForUpdate(boolean forUpdate) {
+			this.forUpdate = forUpdate;
+			return this;
+		}
+
 		public QueryHints build() {
 			if ( affinityRun && affinityKey == null ) {
 				throw new HibernateException( "AffinityKey can't be null" );
 			}
-			return new QueryHints( local, affinityRun, affinityKey );
+			return new QueryHints( this );
 		}
 	}
 }
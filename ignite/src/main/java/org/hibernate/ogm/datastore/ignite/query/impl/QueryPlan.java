@@ -0,0 +1,113 @@
+/*
+ * Hibernate OGM, Domain model persistence for NoSQL datastores
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.ogm.datastore.ignite.query.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The plan of an Ignite SQL query, as returned by {@code EXPLAIN}.
+ * <p>
+ * A distributed query has one plan per map query, run on the nodes owning the data, followed by the plan of the
+ * reduce query merging their results.
+ */
+public class QueryPlan {
+
+	// "/* PUBLIC.MOVIE_TITLE_IDX: TITLE = ?1 */" or "/* PUBLIC.MOVIE.__SCAN_ */"
+	private static final Pattern INDEX_COMMENT = Pattern.compile( "/\\*\\s*([^:*]+?)\\s*(?::[^*]*)?\\*/" );
+	private static final String SCAN_INDEX_SUFFIX = ".__SCAN_";
+	// indexes of the tables merging the results of the map queries
+	private static final String MERGE_INDEX_PREFIX = "merge_";
+
+	private final String sql;
+	private final List<String> plans;
+	private final int[] partitions;
+	private final boolean local;
+	private final Set<String> usedIndexes = new LinkedHashSet<>();
+	private final Set<String> scannedTables = new LinkedHashSet<>();
+
+	/**
+	 * @param sql the explained query
+	 * @param plans the rows returned by {@code EXPLAIN}
+	 * @param partitions the partitions the query is restricted to, {@code null} for all the partitions
+	 * @param local whether the query runs on a single node
+	 */
+	public QueryPlan(String sql, List<String> plans, int[] partitions, boolean local) {
+		this.sql = sql;
+		this.plans = Collections.unmodifiableList( new ArrayList<>( plans ) );
+		this.partitions = partitions;
+		this.local = local;
+		for ( String plan : plans ) {
+			Matcher matcher = INDEX_COMMENT.matcher( plan );
+			while ( matcher.find() ) {
+				String index = matcher.group( 1 );
+				if ( index.endsWith( SCAN_INDEX_SUFFIX ) ) {
+					scannedTables.add( index.substring( 0, index.length() - SCAN_INDEX_SUFFIX.length() ) );
+				}
+				else if ( index.indexOf( '.' ) > 0 && !index.contains( MERGE_INDEX_PREFIX ) ) {
+					usedIndexes.add( index );
+				}
+			}
+		}
+	}
+
+	public String getSql() {
+		return sql;
+	}
+
+	public List<String> getPlans() {
+		return plans;
+	}
+
+	/**
+	 * @return the indexes used to look up the rows, {@code _key_PK} being the primary key index
+	 */
+	public Set<String> getUsedIndexes() {
+		return Collections.unmodifiableSet( usedIndexes );
+	}
+
+	/**
+	 * @return the tables read entirely
+	 */
+	public Set<String> getScannedTables() {
+		return Collections.unmodifiableSet( scannedTables );
+	}
+
+	public boolean isFullScan() {
+		return !scannedTables.isEmpty();
+	}
+
+	/**
+	 * @return the partitions the query is restricted to, {@code null} if it runs on all of them
+	 */
+	public int[] getPartitions() {
+		return partitions;
+	}
+
+	public boolean isPartitionPruned() {
+		return partitions != null;
+	}
+
+	/**
+	 * @return {@code true} if the query is sent to all the nodes owning a part of the data
+	 */
+	public boolean isBroadcast() {
+		return !local && partitions == null;
+	}
+
+	@Override
+	public String toString() {
+		return "QueryPlan [sql=" + sql + ", usedIndexes=" + usedIndexes + ", scannedTables=" + scannedTables
+				+ ", partitions=" + Arrays.toString( partitions ) + ", broadcast=" + isBroadcast() + ", plans=" + plans + "]";
+	}
+}
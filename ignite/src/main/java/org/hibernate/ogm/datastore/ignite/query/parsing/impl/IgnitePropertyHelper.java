@@ -7,8 +7,10 @@
 package org.hibernate.ogm.datastore.ignite.query.parsing.impl;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -18,14 +20,17 @@
 import org.hibernate.hql.ast.spi.EntityNamesResolver;
 import org.hibernate.ogm.datastore.ignite.logging.impl.Log;
 import org.hibernate.ogm.datastore.ignite.logging.impl.LoggerFactory;
+import org.hibernate.ogm.datastore.ignite.options.impl.CollocatedAssociationOption;
 import org.hibernate.ogm.datastore.ignite.util.StringHelper;
 import org.hibernate.ogm.model.key.spi.EntityKeyMetadata;
+import org.hibernate.ogm.options.spi.OptionsService;
 import org.hibernate.ogm.persister.impl.OgmCollectionPersister;
 import org.hibernate.ogm.persister.impl.OgmEntityPersister;
 import org.hibernate.ogm.query.parsing.impl.ParserPropertyHelper;
 import org.hibernate.ogm.util.impl.ArrayHelper;
 import org.hibernate.persister.entity.Joinable;
 import org.hibernate.type.AssociationType;
+import org.hibernate.type.ComponentType;
 import org.hibernate.type.Type;
 
 /**
@@ -37,8 +42,12 @@ public class IgnitePropertyHelper extends ParserPropertyHelper {
 	private final Map<String, String> aliasByEntityName = new HashMap<>();
 	private final Map<String, String> entityNameByAlias = new HashMap<>();
 	private final List<PropertyPath> selections = new ArrayList<>();
+	/** Aliases of the entities listed in the FROM clause, the first one is the root */
+	private final List<String> persisterSpaceAliases = new ArrayList<>();
+	private final Map<String, PropertyJoin> joinsByAlias = new LinkedHashMap<>();
 
 	private String rootEntityType;
+	private boolean distributedJoins;
 
 
 	public IgnitePropertyHelper(SessionFactoryImplementor sessionFactory, EntityNamesResolver entityNames) {
@@ -59,16 +68,137 @@ protected Type getPropertyType(String entityType, List<String> propertyPath) {
 	}
 
 	void setRootEntity(String entityName) {
-		if ( rootEntityType != null && !rootEntityType.equals( entityName ) ) {
-			throw new NotYetImplementedException( "Multiple root entities" );
+		if ( rootEntityType == null ) {
+			rootEntityType = entityName;
 		}
-		rootEntityType = entityName;
 	}
 
 	String getRootEntity() {
 		return rootEntityType;
 	}
 
+	/**
+	 * Registers an entity of the FROM clause. Entities after the first one are cross joined.
+	 */
+	void registerPersisterSpace(String entityName, String alias) {
+		setRootEntity( entityName );
+		registerEntityAlias( entityName, alias );
+		persisterSpaceAliases.add( StringHelper.sqlNormalize( alias ) );
+		if ( persisterSpaceAliases.size() > 1 ) {
+			// nothing tells the entities are collocated
+			distributedJoins = true;
+		}
+	}
+
+	String getRootAlias() {
+		return persisterSpaceAliases.isEmpty() ? findAliasForType( rootEntityType ) : persisterSpaceAliases.get( 0 );
+	}
+
+	List<String> getPersisterSpaceAliases() {
+		return persisterSpaceAliases;
+	}
+
+	/**
+	 * Registers a join over the association {@code property} of the entity with alias {@code ownerAlias}
+	 */
+	void registerJoin(String alias, String ownerAlias, String property, boolean leftJoin) {
+		alias = StringHelper.sqlNormalize( alias );
+		ownerAlias = StringHelper.sqlNormalize( ownerAlias );
+		String ownerEntityType = getEntityNameByAlias( ownerAlias );
+		joinsByAlias.put( alias, new PropertyJoin( alias, ownerAlias, ownerEntityType, property, leftJoin ) );
+		if ( !isCollocated( ownerEntityType, property ) ) {
+			distributedJoins = true;
+		}
+	}
+
+	Collection<PropertyJoin> getJoins() {
+		return joinsByAlias.values();
+	}
+
+	/**
+	 * @return {@code true} if the query joins entities which may not be stored on the same node
+	 */
+	boolean isDistributedJoins() {
+		return distributedJoins;
+	}
+
+	private boolean isCollocated(String entityType, String property) {
+		OptionsService optionsService = getSessionFactory().getServiceRegistry().getService( OptionsService.class );
+		Class<?> entityClass = getPersister( entityType ).getMappedClass();
+		return optionsService.context().getPropertyOptions( entityClass, property ).getUnique( CollocatedAssociationOption.class );
+	}
+
+	/**
+	 * Appends the {@code JOIN} clauses of the registered joins
+	 */
+	void appendJoins(StringBuilder builder) {
+		for ( PropertyJoin join : joinsByAlias.values() ) {
+			appendJoin( builder, join );
+		}
+	}
+
+	private void appendJoin(StringBuilder builder, PropertyJoin join) {
+		String joinKeyword = join.isLeftJoin() ? "LEFT JOIN " : "JOIN ";
+		OgmEntityPersister ownerPersister = getPersister( join.getOwnerEntityType() );
+		Type type = ownerPersister.getPropertyType( join.getProperty() );
+		if ( !type.isAssociationType() ) {
+			throw new IllegalArgumentException( "Property '" + join.getProperty() + "' of " + join.getOwnerEntityType() + " is not an association" );
+		}
+		Joinable joinable = ( (AssociationType) type ).getAssociatedJoinable( getSessionFactory() );
+		if ( joinable.isCollection() ) {
+			OgmCollectionPersister collectionPersister = (OgmCollectionPersister) joinable;
+			if ( collectionPersister.getElementType().isComponentType() || !collectionPersister.getElementType().isEntityType() ) {
+				throw new NotYetImplementedException( "Joins on collections of embeddables or basic types" );
+			}
+			OgmEntityPersister targetPersister = (OgmEntityPersister) collectionPersister.getElementPersister();
+			String[] ownerIdColumns = ownerPersister.getIdentifierColumnNames();
+			if ( collectionPersister.isOneToMany() ) {
+				// the foreign key is in the table of the associated entity
+				builder.append( ' ' ).append( joinKeyword ).append( targetPersister.getEntityKeyMetadata().getTable() )
+						.append( ' ' ).append( join.getAlias() ).append( " ON " );
+				appendJoinCondition( builder, join.getAlias(), collectionPersister.getKeyColumnNames(), join.getOwnerAlias(), ownerIdColumns );
+			}
+			else {
+				// association stored in its own table
+				String tableAlias = join.getAlias() + "_" + join.getProperty();
+				builder.append( ' ' ).append( joinKeyword ).append( associationTableName( collectionPersister.getTableName() ) )
+						.append( ' ' ).append( tableAlias ).append( " ON " );
+				appendJoinCondition( builder, tableAlias, collectionPersister.getKeyColumnNames(), join.getOwnerAlias(), ownerIdColumns );
+				builder.append( ' ' ).append( joinKeyword ).append( targetPersister.getEntityKeyMetadata().getTable() )
+						.append( ' ' ).append( join.getAlias() ).append( " ON " );
+				appendJoinCondition( builder, join.getAlias(), targetPersister.getIdentifierColumnNames(), tableAlias, collectionPersister.getElementColumnNames() );
+			}
+		}
+		else {
+			OgmEntityPersister targetPersister = (OgmEntityPersister) joinable;
+			String[] foreignKeyColumns = ownerPersister.getPropertyColumnNames( join.getProperty() );
+			if ( foreignKeyColumns.length == 0 ) {
+				throw new NotYetImplementedException( "Joins on the inverse side of a one-to-one association" );
+			}
+			builder.append( ' ' ).append( joinKeyword ).append( targetPersister.getEntityKeyMetadata().getTable() )
+					.append( ' ' ).append( join.getAlias() ).append( " ON " );
+			appendJoinCondition( builder, join.getAlias(), targetPersister.getIdentifierColumnNames(), join.getOwnerAlias(), foreignKeyColumns );
+		}
+	}
+
+	private static void appendJoinCondition(StringBuilder builder, String leftAlias, String[] leftColumns, String rightAlias, String[] rightColumns) {
+		for ( int i = 0; i < leftColumns.length; i++ ) {
+			if ( i > 0 ) {
+				builder.append( " AND " );
+			}
+			builder.append( leftAlias ).append( '.' ).append( StringHelper.realColumnName( leftColumns[i] ) )
+					.append( '=' )
+					.append( rightAlias ).append( '.' ).append( StringHelper.realColumnName( rightColumns[i] ) );
+		}
+	}
+
+	/**
+	 * Association tables are stored in their own cache, thus in the SQL schema named after the cache
+	 */
+	private static String associationTableName(String table) {
+		return '"' + StringHelper.stringBeforePoint( table ) + "\"." + table;
+	}
+
 	void addSelectionPath(PropertyPath path) {
 		selections.add( path );
 	}
@@ -140,11 +270,15 @@ PropertyIdentifier getPropertyIdentifier(PropertyPath path, String targetEntityT
 							Collections.singletonList( property ) );
 						return new PropertyIdentifier( predJoinAlias, propertyName );
 					}
+					if ( associatedJoinable.isCollection() ) {
+						throw new NotYetImplementedException( "Query on a property of a collection without join" );
+					}
 					// else, we register an implicit join
 					lastAssociationPath.add( property );
-					throw new NotYetImplementedException( "Query on associated property" );
-					// predPersister = currentPersister;
-					// isLastElementAssociation = true;
+					predJoinAlias = implicitJoinAlias( predJoinAlias, predPersister.getEntityType().getName(), property, propertyEntityType );
+					propertyAlias = predJoinAlias;
+					predPersister = currentPersister;
+					isLastElementAssociation = true;
 				}
 			}
 			else if ( currentPropertyType.isComponentType()
@@ -175,6 +309,101 @@ else if ( currentPropertyType.isComponentType()
 	}
 
 
+	/**
+	 * Registers the implicit joins of a path made of to-one associations, e.g. {@code o.customer.address}
+	 *
+	 * @return the alias of the last associated entity
+	 */
+	String registerImplicitJoins(PropertyPath path, String targetEntityType) {
+		String alias = path.getFirstNode().isAlias()
+			? StringHelper.sqlNormalize( path.getFirstNode().getName() )
+			: findAliasForType( targetEntityType );
+		String entityType = entityNameByAlias.get( alias );
+		for ( String property : path.getNodeNamesWithoutAlias() ) {
+			Type type = getPropertyType( entityType, Collections.singletonList( property ) );
+			if ( !type.isEntityType() ) {
+				throw new NotYetImplementedException( "Selection of " + path.asStringPathWithoutAlias() );
+			}
+			alias = implicitJoinAlias( alias, entityType, property, type.getName() );
+			entityType = type.getName();
+		}
+		return alias;
+	}
+
+	/**
+	 * @return the columns of the properties of an embeddable, in the order of the properties
+	 */
+	String[] getEmbeddableColumnNames(String entityType, List<String> propertyPath, ComponentType componentType) {
+		for ( Type subtype : componentType.getSubtypes() ) {
+			if ( subtype.isComponentType() || subtype.isAssociationType() ) {
+				throw new NotYetImplementedException( "Projection of embeddables with nested embeddables or associations" );
+			}
+		}
+		String[] columns = getPersister( entityType ).getPropertyColumnNames( String.join( ".", propertyPath ) );
+		String[] result = new String[columns.length];
+		for ( int i = 0; i < columns.length; i++ ) {
+			result[i] = StringHelper.realColumnName( columns[i] );
+		}
+		return result;
+	}
+
+	private String implicitJoinAlias(String ownerAlias, String ownerEntityType, String property, String associatedEntityType) {
+		String alias = StringHelper.sqlNormalize( ownerAlias + "_" + property );
+		if ( !joinsByAlias.containsKey( alias ) ) {
+			entityNameByAlias.put( alias, associatedEntityType );
+			joinsByAlias.put( alias, new PropertyJoin( alias, ownerAlias, ownerEntityType, property, false ) );
+			if ( !isCollocated( ownerEntityType, property ) ) {
+				distributedJoins = true;
+			}
+		}
+		return alias;
+	}
+
+
+	/**
+	 * @return the column of the property in Ignite SQL, {@code _KEY} for the identifier of an entity with a single
+	 * column key, so that the primary key index is used
+	 */
+	String getSqlColumnName(PropertyIdentifier identifier) {
+		String columnName = StringHelper.realColumnName( identifier.getPropertyName() );
+		String entityType = entityNameByAlias.get( StringHelper.sqlNormalize( identifier.getAlias() ) );
+		if ( entityType != null ) {
+			String[] keyColumns = getKeyMetaData( entityType ).getColumnNames();
+			if ( keyColumns.length == 1 && StringHelper.realColumnName( keyColumns[0] ).equals( columnName ) ) {
+				return "_KEY";
+			}
+		}
+		return columnName;
+	}
+
+	/**
+	 * Whether a property may be {@code null} in the result of the query: it is optional in the mapping,
+	 * or it belongs to an entity reached by a left join
+	 */
+	boolean isNullable(PropertyPath path, String entityType) {
+		List<String> propertyPath = path.getNodeNamesWithoutAlias();
+		if ( propertyPath.size() != 1 ) {
+			// embedded properties and implicit joins
+			return true;
+		}
+		if ( path.getFirstNode().isAlias() ) {
+			PropertyJoin join = joinsByAlias.get( StringHelper.sqlNormalize( path.getFirstNode().getName() ) );
+			if ( join != null && join.isLeftJoin() ) {
+				return true;
+			}
+		}
+		OgmEntityPersister persister = getPersister( entityType );
+		String property = propertyPath.get( 0 );
+		if ( property.equals( persister.getIdentifierPropertyName() ) ) {
+			return false;
+		}
+		Integer index = persister.getEntityMetamodel().getPropertyIndexOrNull( property );
+		if ( index == null ) {
+			return true;
+		}
+		return persister.getPropertyNullability()[index] && !persister.getPropertyTypes()[index].getReturnedClass().isPrimitive();
+	}
+
 	public String getColumnName(String entityType, List<String> propertyPathWithoutAlias) {
 		String columnName = getColumn( getPersister( entityType ), propertyPathWithoutAlias );
 		return StringHelper.realColumnName( columnName );
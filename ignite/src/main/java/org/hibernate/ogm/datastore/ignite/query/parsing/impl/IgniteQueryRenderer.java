@@ -8,18 +8,20 @@
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import static java.util.stream.Collectors.toList;
-import org.hibernate.cfg.NotYetImplementedException;
 import org.hibernate.hql.ast.origin.hql.resolve.path.PropertyPath;
 import org.hibernate.loader.custom.ScalarReturn;
 import org.hibernate.ogm.datastore.ignite.query.impl.IgniteQueryDescriptor;
 import org.hibernate.ogm.datastore.ignite.util.StringHelper;
-import org.hibernate.ogm.model.key.spi.EntityKeyMetadata;
+import org.hibernate.type.ComponentType;
 import org.hibernate.type.Type;
 
 /**
@@ -31,13 +33,23 @@ public class IgniteQueryRenderer {
 
 	// values set by IgniteTreeRenderer
 	String where;
+	String groupBy;
+	String having;
 	String orderBy;
 	String from;  // additional expressions in FROM
+	// columns of the root entity an index may be used for, null if the query has no WHERE clause
+	Set<String> indexableColumns;
 
 	private final IgnitePropertyHelper propertyHelper;
 
 	private final Map<String, Object> namedParameterValues;
 	private final List<Object> indexedParameters;
+	private final Map<String, List<Object>> partitionKeyCandidates = new HashMap<>();
+	// entity returned by a query selecting a single entity
+	private String selectedEntity;
+	// select clause of a query using aggregate functions
+	private String aggregateSelection;
+	private List<ScalarReturn> aggregateSelectionReturns;
 
 
 	IgniteQueryRenderer(
@@ -57,55 +69,64 @@ public class IgniteQueryRenderer {
 	 */
 	private List<ScalarReturn> select(StringBuilder queryBuilder) {
 		queryBuilder.append( "SELECT " );
-		String rootAlias = propertyHelper.findAliasForType( propertyHelper.getRootEntity() );
+		if ( aggregateSelection != null ) {
+			queryBuilder.append( aggregateSelection );
+			return aggregateSelectionReturns;
+		}
+		String rootAlias = propertyHelper.getRootAlias();
+		List<PropertyPath> selectionPaths = propertyHelper.getSelections();
 
 		// is selected unqualified root entity (e.g. "from Hypothesis"),
 		// or a single entity defined by alias (e.g. "select h from Hypothesis h")
-		if ( propertyHelper.getSelections().isEmpty()
-			|| ( propertyHelper.getSelections().size() == 1
-			&& propertyHelper.getSelections().get( 0 ).getNodeNamesWithoutAlias().isEmpty() ) ) {
-			String selectionAlias = propertyHelper.getSelections().isEmpty()
+		// or by a to-one association (e.g. "select h.author from Hypothesis h")
+		if ( selectionPaths.isEmpty()
+			|| ( selectionPaths.size() == 1 && isEntitySelection( selectionPaths.get( 0 ), rootAlias ) ) ) {
+			String selectionAlias = selectionPaths.isEmpty()
 				? rootAlias
-				: propertyHelper.getSelections().get( 0 ).getFirstNode().getName();
+				: propertyHelper.registerImplicitJoins( selectionPaths.get( 0 ), propertyHelper.getRootEntity() );
 			queryBuilder
 				.append( selectionAlias ).append( "._KEY, " )
 				.append( selectionAlias ).append( "._VAL" );
+			selectedEntity = propertyHelper.getEntityNameByAlias( StringHelper.sqlNormalize( selectionAlias ) );
 			return Collections.emptyList();
 		}
 
 		// else, treat as projection selection
 		List<ScalarReturn> selections = new ArrayList<>();
 		int columnNumber = 0;
-		Iterator<PropertyPath> i = propertyHelper.getSelections().iterator();
+		Iterator<PropertyPath> i = selectionPaths.iterator();
 		while ( i.hasNext() ) {
 			PropertyPath path = i.next();
 			String alias = path.getFirstNode().isAlias()
 				? path.getFirstNode().getName() : rootAlias;
 
-			String columnName;
 			List<String> propertyPath = path.getNodeNamesWithoutAlias();
 			String entityType = propertyHelper.getEntityNameByAlias( alias );
 			Type type = propertyHelper.getPropertyType( entityType, propertyPath );
-			if ( type.isEntityType() ) {
-				// though it may be better to load both key and value
-				// in one query, OgmQueryLoader requires only key
-				columnName = "_KEY";
+			String columnAlias = "col_" + ( columnNumber++ );
+			if ( propertyPath.isEmpty() ) {
+				// an entity given by its alias, OgmQueryLoader requires only its key
+				queryBuilder.append( alias ).append( "._KEY as " ).append( columnAlias );
 			}
 			else if ( type.isComponentType() ) {
-				throw new NotYetImplementedException( "Embeddables in projection selection" );
+				// one column per property, ProjectionResultCursor builds the embeddable
+				String[] columnNames = propertyHelper.getEmbeddableColumnNames( entityType, propertyPath, (ComponentType) type );
+				for ( int c = 0; c < columnNames.length; c++ ) {
+					if ( c > 0 ) {
+						queryBuilder.append( ", " );
+					}
+					queryBuilder
+						.append( alias ).append( '.' ).append( columnNames[c] )
+						.append( " as " ).append( columnAlias ).append( '_' ).append( c );
+				}
 			}
 			else {
-				columnName = propertyHelper.getColumnName( entityType, propertyPath );
-				EntityKeyMetadata entityKey = propertyHelper.getKeyMetaData( entityType );
-				if ( entityKey.getColumnNames().length == 1
-					&& entityKey.getColumnNames()[0].equals( columnName ) ) {
-					columnName = "_KEY";
-				}
+				// a property, or the foreign key of a to-one association
+				PropertyIdentifier identifier = propertyHelper.getPropertyIdentifier( path, entityType );
+				queryBuilder
+					.append( identifier.getAlias() ).append( '.' ).append( propertyHelper.getSqlColumnName( identifier ) )
+					.append( " as " ).append( columnAlias );
 			}
-			String columnAlias = "col_" + ( columnNumber++ );
-			queryBuilder
-				.append( alias ).append( '.' ).append( columnName )
-				.append( " as " ).append( columnAlias );
 			selections.add( new ScalarReturn( type, columnAlias ) );
 
 			if ( i.hasNext() ) {
@@ -116,31 +137,63 @@ else if ( type.isComponentType() ) {
 	}
 
 
+	private boolean isEntitySelection(PropertyPath path, String rootAlias) {
+		if ( path.getNodeNamesWithoutAlias().isEmpty() ) {
+			return true;
+		}
+		String alias = path.getFirstNode().isAlias() ? path.getFirstNode().getName() : rootAlias;
+		Type type = propertyHelper.getPropertyType( propertyHelper.getEntityNameByAlias( alias ), path.getNodeNamesWithoutAlias() );
+		return type.isEntityType();
+	}
+
+
 	private void from(StringBuilder queryBuilder) {
-		String tableAlias = propertyHelper.findAliasForType( propertyHelper.getRootEntity() );
+		String tableAlias = propertyHelper.getRootAlias();
 		String tableName = propertyHelper.getTableName( propertyHelper.getRootEntity() );
-		queryBuilder.append( " FROM " ).append( tableName ).append( ' ' ).append( tableAlias ).append( ' ' );
-		// append joins here
+		queryBuilder.append( " FROM " ).append( tableName ).append( ' ' ).append( tableAlias );
+		List<String> aliases = propertyHelper.getPersisterSpaceAliases();
+		for ( int i = 1; i < aliases.size(); i++ ) {
+			String alias = aliases.get( i );
+			queryBuilder.append( ", " ).append( propertyHelper.getTableName( propertyHelper.getEntityNameByAlias( alias ) ) )
+				.append( ' ' ).append( alias );
+		}
+		propertyHelper.appendJoins( queryBuilder );
+		queryBuilder.append( ' ' );
 	}
 
 
 	public IgniteQueryParsingResult getResult() {
 		StringBuilder queryBuilder = new StringBuilder();
 		List<ScalarReturn> selections = select( queryBuilder );
-		from( queryBuilder );
+		StringBuilder fromWhere = new StringBuilder();
+		from( fromWhere );
 		if ( !StringHelper.isEmpty( from ) ) {
-			queryBuilder.append( ' ' ).append( from );
+			fromWhere.append( ' ' ).append( from );
 		}
 		if ( !StringHelper.isEmpty( where ) ) {
-			queryBuilder.append( " WHERE " ).append( where );
+			fromWhere.append( " WHERE " ).append( where );
+		}
+		queryBuilder.append( fromWhere );
+		if ( !StringHelper.isEmpty( groupBy ) ) {
+			queryBuilder.append( " GROUP BY " ).append( groupBy );
 		}
+		if ( !StringHelper.isEmpty( having ) ) {
+			queryBuilder.append( " HAVING " ).append( having );
+		}
+		// the count of the rows does not depend on their order
+		String countSql = aggregateSelection == null && StringHelper.isEmpty( groupBy )
+			? "SELECT COUNT(*)" + fromWhere
+			: "SELECT COUNT(*) FROM (" + queryBuilder + ")";
 		if ( !StringHelper.isEmpty( orderBy ) ) {
 			queryBuilder.append( " ORDER BY " ).append( orderBy );
 		}
 
+		String resultEntity = selectedEntity != null ? selectedEntity : propertyHelper.getRootEntity();
 		IgniteQueryDescriptor queryDescriptor = new IgniteQueryDescriptor(
 			queryBuilder.toString(), indexedParameters, !selections.isEmpty(),
-			propertyHelper.getKeyMetaData( propertyHelper.getRootEntity() ), selections );
+			propertyHelper.getKeyMetaData( resultEntity ), selections,
+			resultEntity.equals( propertyHelper.getRootEntity() ) ? partitionKeyCandidates : Collections.emptyMap(),
+			propertyHelper.isDistributedJoins(), indexableColumns, countSql );
 
 		List<String> selectionAliases = selections.isEmpty()
 			? ENTITY_COLUMN_NAMES
@@ -150,12 +203,46 @@ public IgniteQueryParsingResult getResult() {
 	}
 
 
+	void setAggregateSelection( String selection, List<ScalarReturn> selectionReturns ) {
+		this.aggregateSelection = selection;
+		this.aggregateSelectionReturns = selectionReturns;
+	}
+
+
 	// In SQL we use positional parameters ('?x'),
 	// thus we must collect parameter values in correct order.
 	// `typeDefiningPath` - some path that defines type of parameter
 	// (e.g. left part of current comparison predicate). If null,
 	// value is passed unchanged
 	int addParameterValue( String param, PropertyPath typeDefiningPath ) {
+		indexedParameters.add( convertParameterValue( param, typeDefiningPath ) );
+		return indexedParameters.size();
+	}
+
+
+	// Remembers the values a column of the root entity is restricted to,
+	// the query can then run on the partitions owning them only
+	void addPartitionKeyCandidate( String columnName, PropertyPath path, List<String> params ) {
+		if ( partitionKeyCandidates.containsKey( columnName ) ) {
+			return;
+		}
+		List<Object> values = new ArrayList<>( params.size() );
+		for ( String param : params ) {
+			Object value = convertParameterValue( param, path );
+			if ( value instanceof Collection ) {
+				values.addAll( (Collection<?>) value );
+			}
+			else if ( value != null ) {
+				values.add( value );
+			}
+		}
+		if ( !values.isEmpty() ) {
+			partitionKeyCandidates.put( columnName, values );
+		}
+	}
+
+
+	private Object convertParameterValue( String param, PropertyPath typeDefiningPath ) {
 		Object paramValue = namedParameterValues.get( param );
 		if ( paramValue != null ) {
 			// May be enum or association type - needs conversion
@@ -167,8 +254,7 @@ int addParameterValue( String param, PropertyPath typeDefiningPath ) {
 					entityType, typeDefiningPath.getNodeNamesWithoutAlias(), paramValue );
 			}
 		}
-		indexedParameters.add( paramValue );
-		return indexedParameters.size();
+		return paramValue;
 	}
 
 }
@@ -6,7 +6,10 @@
  */
 package org.hibernate.ogm.datastore.ignite.query.parsing.impl;
 
+import java.util.List;
+
 import org.antlr.runtime.tree.Tree;
+import org.hibernate.cfg.NotYetImplementedException;
 import org.hibernate.engine.spi.SessionFactoryImplementor;
 import org.hibernate.hql.ast.common.JoinType;
 import org.hibernate.hql.ast.origin.hql.resolve.path.PathedPropertyReference;
@@ -32,6 +35,7 @@ public class IgniteQueryResolverDelegate implements QueryResolverDelegate {
 	private final SessionFactoryImplementor sessionFactory;
 
 	private String currentAlias;
+	private JoinType currentJoinType;
 	private boolean definingSelect = false;
 
 
@@ -43,8 +47,7 @@ public class IgniteQueryResolverDelegate implements QueryResolverDelegate {
 
 	@Override
 	public void registerPersisterSpace(Tree entityName, Tree alias) {
-		propertyHelper.setRootEntity( entityName.getText() );
-		propertyHelper.registerEntityAlias( entityName.getText(), alias.getText() );
+		propertyHelper.registerPersisterSpace( entityName.getText(), alias.getText() );
 	}
 
 
@@ -64,6 +67,15 @@ else if ( type.isAssociationType() ) {
 		else {
 			throw new IllegalArgumentException( "Failed to determine type for alias '" + alias + "'" );
 		}
+		List<String> properties = path.getNodeNamesWithoutAlias();
+		if ( properties.size() != 1 ) {
+			throw new NotYetImplementedException( "Join on a nested property path: " + path );
+		}
+		boolean leftJoin = currentJoinType == JoinType.LEFT;
+		if ( currentJoinType == JoinType.RIGHT || currentJoinType == JoinType.FULL ) {
+			throw new NotYetImplementedException( "Right and full joins" );
+		}
+		propertyHelper.registerJoin( alias, path.getFirstNode().getName(), properties.get( 0 ), leftJoin );
 	}
 
 	@Override
@@ -132,6 +144,7 @@ public PathedPropertyReferenceSource normalizePropertyPathTerminus(PropertyPath
 	@Override
 	public void pushFromStrategy(JoinType joinType, Tree assosiationFetchTree, Tree propertyFetchTree, Tree alias) {
 		this.currentAlias = alias.getText();
+		this.currentJoinType = joinType;
 	}
 
 	@Override
@@ -6,8 +6,15 @@
  */
 package org.hibernate.ogm.datastore.ignite.query.parsing.impl;
 
+import java.math.BigDecimal;
+import java.math.BigInteger;
 import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
 
 import org.antlr.runtime.TokenStream;
 import org.antlr.runtime.tree.CommonTree;
@@ -17,7 +24,10 @@
 import org.hibernate.hql.ast.origin.hql.resolve.path.PropertyPath;
 import org.hibernate.hql.ast.spi.AstProcessor;
 import org.hibernate.hql.ast.tree.PropertyPathTree;
+import org.hibernate.loader.custom.ScalarReturn;
 import org.hibernate.ogm.datastore.ignite.util.StringHelper;
+import org.hibernate.type.StandardBasicTypes;
+import org.hibernate.type.Type;
 
 /**
  * Component which renders parts of Ignite SQL query, given JPQL query tree
@@ -97,19 +107,185 @@ public CommonTree process(TokenStream tokens, CommonTree tree) {
 		node = firstChildOfType( querySpec, HQLParser.WHERE );
 		if ( node != null && node.getChildCount() > 0 ) {
 			processSubtree( where, node.getChild( 0 ) );
+			collectPartitionKeyCandidates( node.getChild( 0 ) );
+			queryRenderer.indexableColumns = new HashSet<>();
+			collectIndexableColumns( node.getChild( 0 ) );
+		}
+		StringBuilder groupBy = new StringBuilder();
+		node = firstChildOfType( querySpec, HQLParser.GROUP_BY );
+		if ( node != null ) {
+			processSubtree( groupBy, node );
+		}
+		StringBuilder having = new StringBuilder();
+		node = firstChildOfType( querySpec, HQLParser.HAVING );
+		if ( node != null && node.getChildCount() > 0 ) {
+			processSubtree( having, node.getChild( 0 ) );
 		}
 		StringBuilder orderBy = new StringBuilder();
 		node = firstChildOfType( tree, HQLParser.ORDER_BY );
 		if ( node != null ) {
 			processSubtree( orderBy, node );
 		}
+		processAggregateSelection( querySpec );
 		queryRenderer.from = from.toString();
 		queryRenderer.where = where.toString();
+		queryRenderer.groupBy = groupBy.toString();
+		queryRenderer.having = having.toString();
 		queryRenderer.orderBy = orderBy.toString();
 		return tree;
 	}
 
 
+	/**
+	 * Renders the select clause of a query using aggregate functions. The other queries are rendered by
+	 * {@link IgniteQueryRenderer} from the selected property paths.
+	 */
+	private void processAggregateSelection(Tree querySpec) {
+		Tree node = firstChildOfType( querySpec, HQLParser.SELECT_FROM );
+		node = node != null ? firstChildOfType( node, HQLParser.SELECT ) : null;
+		Tree selectList = node != null ? firstChildOfType( node, HQLParser.SELECT_LIST ) : null;
+		if ( selectList == null || !containsAggregate( selectList ) ) {
+			return;
+		}
+		StringBuilder select = new StringBuilder();
+		List<ScalarReturn> selections = new ArrayList<>( selectList.getChildCount() );
+		for ( int i = 0; i < selectList.getChildCount(); ++i ) {
+			Tree expression = selectList.getChild( i ).getChild( 0 );
+			String columnAlias = "col_" + i;
+			if ( i > 0 ) {
+				select.append( ", " );
+			}
+			processSubtree( select, expression );
+			select.append( " as " ).append( columnAlias );
+			selections.add( new ScalarReturn( selectionType( expression ), columnAlias ) );
+		}
+		queryRenderer.setAggregateSelection( select.toString(), selections );
+	}
+
+
+	private static boolean containsAggregate(Tree node) {
+		if ( isAggregate( node ) ) {
+			return true;
+		}
+		for ( int i = 0; i < node.getChildCount(); ++i ) {
+			if ( containsAggregate( node.getChild( i ) ) ) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+
+	private static boolean isAggregate(Tree node) {
+		switch ( node.getType() ) {
+			case HQLParser.COUNT:
+			case HQLParser.SUM:
+			case HQLParser.AVG:
+			case HQLParser.MIN:
+			case HQLParser.MAX:
+				return true;
+			default:
+				return false;
+		}
+	}
+
+
+	/**
+	 * Type of a selected expression, following the JPA rules for the result of the aggregate functions
+	 */
+	private Type selectionType(Tree expression) {
+		switch ( expression.getType() ) {
+			case HQLParser.COUNT:
+				return StandardBasicTypes.LONG;
+			case HQLParser.AVG:
+				return StandardBasicTypes.DOUBLE;
+			case HQLParser.SUM:
+				Class<?> summedClass = pathType( aggregateArgument( expression ) ).getReturnedClass();
+				if ( Float.class.equals( summedClass ) || Double.class.equals( summedClass )
+						|| float.class.equals( summedClass ) || double.class.equals( summedClass ) ) {
+					return StandardBasicTypes.DOUBLE;
+				}
+				if ( BigDecimal.class.equals( summedClass ) ) {
+					return StandardBasicTypes.BIG_DECIMAL;
+				}
+				if ( BigInteger.class.equals( summedClass ) ) {
+					return StandardBasicTypes.BIG_INTEGER;
+				}
+				return StandardBasicTypes.LONG;
+			case HQLParser.MIN:
+			case HQLParser.MAX:
+				return pathType( aggregateArgument( expression ) );
+			case HQLParser.PATH:
+				return pathType( expression );
+			default:
+				throw new NotYetImplementedException( "Expression " + expression.getText() + " in a select clause with aggregate functions" );
+		}
+	}
+
+
+	private Type pathType(Tree node) {
+		if ( node == null || node.getType() != HQLParser.PATH ) {
+			throw new NotYetImplementedException( "Aggregate function on an expression" );
+		}
+		PropertyPath path = ( (PropertyPathTree) node ).getPropertyPath();
+		String entityType = path.getFirstNode().isAlias()
+				? propertyHelper.getEntityNameByAlias( path.getFirstNode().getName() )
+				: propertyHelper.getRootEntity();
+		Type type = propertyHelper.getPropertyType( entityType, path.getNodeNamesWithoutAlias() );
+		if ( type.isComponentType() ) {
+			throw new NotYetImplementedException( "Embeddables in a select clause with aggregate functions" );
+		}
+		return type;
+	}
+
+
+	private static Tree aggregateArgument(Tree aggregate) {
+		for ( int i = 0; i < aggregate.getChildCount(); ++i ) {
+			Tree child = aggregate.getChild( i );
+			if ( child.getType() == HQLParser.DISTINCT || child.getType() == HQLParser.ALL ) {
+				if ( child.getChildCount() > 0 ) {
+					return child.getChild( 0 );
+				}
+			}
+			else {
+				return child;
+			}
+		}
+		return null;
+	}
+
+
+	private void processAggregate(StringBuilder builder, Tree node) {
+		builder.append( node.getText().toUpperCase( Locale.ROOT ) ).append( '(' );
+		Tree argument = aggregateArgument( node );
+		if ( argument == null || argument.getType() == HQLParser.ASTERISK && argument.getChildCount() == 0 ) {
+			builder.append( '*' );
+		}
+		else {
+			if ( firstChildOfType( node, HQLParser.DISTINCT ) != null ) {
+				builder.append( "DISTINCT " );
+			}
+			boolean average = node.getType() == HQLParser.AVG;
+			if ( average ) {
+				// JPA expects a Double even for integer values
+				builder.append( "CAST(" );
+			}
+			PropertyPath path = argument.getType() == HQLParser.PATH ? ( (PropertyPathTree) argument ).getPropertyPath() : null;
+			if ( path != null && path.getFirstNode().isAlias() && path.getNodeNamesWithoutAlias().isEmpty() ) {
+				// count(o)
+				builder.append( StringHelper.sqlNormalize( path.getFirstNode().getName() ) ).append( "._KEY" );
+			}
+			else {
+				processSubtree( builder, argument );
+			}
+			if ( average ) {
+				builder.append( " AS DOUBLE)" );
+			}
+		}
+		builder.append( ')' );
+	}
+
+
 	private void processSubtree(StringBuilder builder, Tree node) {
 
 		int type = node.getType();
@@ -126,8 +302,7 @@ private void processSubtree(StringBuilder builder, Tree node) {
 					entityType = propertyHelper.getRootEntity();
 				}
 				PropertyIdentifier identifier = propertyHelper.getPropertyIdentifier( p, entityType );
-				String columnName = StringHelper.realColumnName( identifier.getPropertyName() );
-				builder.append( identifier.getAlias() ).append( '.' ).append( columnName );
+				builder.append( identifier.getAlias() ).append( '.' ).append( propertyHelper.getSqlColumnName( identifier ) );
 				break;
 
 			case HQLParser.NAMED_PARAM:  // :param
@@ -268,10 +443,23 @@ private void processSubtree(StringBuilder builder, Tree node) {
 				}
 				break;
 
+			case HQLParser.COUNT:
+			case HQLParser.SUM:
+			case HQLParser.AVG:
+			case HQLParser.MIN:
+			case HQLParser.MAX:
+				processAggregate( builder, node );
+				break;
+
 			case HQLParser.ORDER_BY:
+			case HQLParser.GROUP_BY:
 				combineChildren( builder, node, ", ", false );
 				break;
 
+			case HQLParser.GROUPING_VALUE:
+				processSubtree( builder, node.getChild( 0 ) );
+				break;
+
 			case HQLParser.SORT_SPEC:
 				processSubtree( builder, node.getChild( 0 ) );
 				node = firstChildOfType( node, HQLParser.ORDER_SPEC );
@@ -281,18 +469,22 @@ private void processSubtree(StringBuilder builder, Tree node) {
 				break;
 
 			case HQLParser.FROM:
-				combineChildren( builder, node, ", ", false );
-				break;
-
 			case HQLParser.PERSISTER_SPACE:
-				combineChildren( builder, node, "", false );
+				// the entities and the joins are rendered by IgniteQueryRenderer, only check they are supported
+				for ( int i = 0; i < node.getChildCount(); ++i ) {
+					processSubtree( builder, node.getChild( i ) );
+				}
 				break;
 
 			case HQLParser.ENTITY_PERSISTER_REF:
 				break;
 
 			case HQLParser.PROPERTY_JOIN:
-				throw new NotYetImplementedException( "Joins in JPQL queries" );
+				// rendered by IgniteQueryRenderer from the joins registered during the resolution
+				if ( firstChildOfType( node, HQLParser.WITH ) != null ) {
+					throw new NotYetImplementedException( "Joins with a WITH clause" );
+				}
+				break;
 
 			case HQLParser.PERSISTER_JOIN:
 				throw new NotYetImplementedException( "Conditional joins" );
@@ -303,6 +495,109 @@ private void processSubtree(StringBuilder builder, Tree node) {
 	}
 
 
+	/**
+	 * Collects the {@code =} and {@code IN} predicates comparing a column of the root entity with parameters. Only the
+	 * predicates of the top-level conjunction are used: each of them restricts the whole result.
+	 */
+	private void collectPartitionKeyCandidates(Tree node) {
+		switch ( node.getType() ) {
+			case HQLParser.AND:
+				for ( int i = 0; i < node.getChildCount(); ++i ) {
+					collectPartitionKeyCandidates( node.getChild( i ) );
+				}
+				break;
+
+			case HQLParser.EQUALS:
+				if ( node.getChild( 0 ).getType() == HQLParser.PATH && isParameter( node.getChild( 1 ) ) ) {
+					addPartitionKeyCandidate( node.getChild( 0 ), Collections.singletonList( node.getChild( 1 ).getText() ) );
+				}
+				else if ( node.getChild( 1 ).getType() == HQLParser.PATH && isParameter( node.getChild( 0 ) ) ) {
+					addPartitionKeyCandidate( node.getChild( 1 ), Collections.singletonList( node.getChild( 0 ).getText() ) );
+				}
+				break;
+
+			case HQLParser.IN:
+				if ( node.getChild( 0 ).getType() == HQLParser.PATH ) {
+					Tree inList = node.getChild( 1 );
+					List<String> params = new ArrayList<>( inList.getChildCount() );
+					for ( int i = 0; i < inList.getChildCount(); ++i ) {
+						if ( !isParameter( inList.getChild( i ) ) ) {
+							return;
+						}
+						params.add( inList.getChild( i ).getText() );
+					}
+					addPartitionKeyCandidate( node.getChild( 0 ), params );
+				}
+				break;
+
+			default:
+				break;
+		}
+	}
+
+
+	private void addPartitionKeyCandidate(Tree pathNode, List<String> params) {
+		PropertyPath path = ( (PropertyPathTree) pathNode ).getPropertyPath();
+		String rootEntity = propertyHelper.getRootEntity();
+		PropertyIdentifier identifier = propertyHelper.getPropertyIdentifier( path, rootEntity );
+		if ( !identifier.getAlias().equals( propertyHelper.getRootAlias() ) ) {
+			// column of a joined entity
+			return;
+		}
+		queryRenderer.addPartitionKeyCandidate( StringHelper.realColumnName( identifier.getPropertyName() ), path, params );
+	}
+
+
+	/**
+	 * Collects the columns of the root entity compared in the top-level conjunction of the {@code WHERE} clause by
+	 * predicates an index can be used for. Columns wrapped in functions, e.g. {@code UPPER}, are not.
+	 */
+	private void collectIndexableColumns(Tree node) {
+		switch ( node.getType() ) {
+			case HQLParser.AND:
+				for ( int i = 0; i < node.getChildCount(); ++i ) {
+					collectIndexableColumns( node.getChild( i ) );
+				}
+				break;
+
+			case HQLParser.EQUALS:
+			case HQLParser.LESS:
+			case HQLParser.GREATER:
+			case HQLParser.LESS_EQUAL:
+			case HQLParser.GREATER_EQUAL:
+				addIndexableColumn( node.getChild( 0 ) );
+				addIndexableColumn( node.getChild( 1 ) );
+				break;
+
+			case HQLParser.IN:
+			case HQLParser.BETWEEN:
+			case HQLParser.LIKE:
+				addIndexableColumn( node.getChild( 0 ) );
+				break;
+
+			default:
+				break;
+		}
+	}
+
+
+	private void addIndexableColumn(Tree node) {
+		if ( node.getType() != HQLParser.PATH ) {
+			return;
+		}
+		PropertyIdentifier identifier = propertyHelper.getPropertyIdentifier(
+			( (PropertyPathTree) node ).getPropertyPath(), propertyHelper.getRootEntity() );
+		if ( identifier.getAlias().equals( propertyHelper.getRootAlias() ) ) {
+			queryRenderer.indexableColumns.add( propertyHelper.getSqlColumnName( identifier ) );
+		}
+	}
+
+
+	private static boolean isParameter(Tree node) {
+		return node.getType() == HQLParser.NAMED_PARAM || node.getType() == HQLParser.JPA_PARAM;
+	}
+
+
 	private void processBetween(StringBuilder builder, Tree node, boolean negated) {
 		Tree path = firstChildOfType( node, HQLParser.PATH );
 		if ( path != null ) {
@@ -378,7 +673,23 @@ private void processIsNull(StringBuilder builder, Tree node, boolean negated) {
 	private void isNullOrNot(StringBuilder builder, Tree node) {
 		StringBuilder buff = new StringBuilder();
 		processSubtree( buff, node );
-		builder.append( buff ).append( " IS NULL OR " ).append( buff ).append( " NOT" );
+		if ( isNullable( node ) ) {
+			builder.append( buff ).append( " IS NULL OR " );
+		}
+		// without the OR, the predicate can be combined with the other ones on an index
+		builder.append( buff ).append( " NOT" );
+	}
+
+
+	private boolean isNullable(Tree node) {
+		if ( node.getType() != HQLParser.PATH ) {
+			return true;
+		}
+		PropertyPath path = ( (PropertyPathTree) node ).getPropertyPath();
+		String entityType = path.getFirstNode().isAlias()
+			? propertyHelper.getEntityNameByAlias( path.getFirstNode().getName() )
+			: propertyHelper.getRootEntity();
+		return propertyHelper.isNullable( path, entityType );
 	}
 
 
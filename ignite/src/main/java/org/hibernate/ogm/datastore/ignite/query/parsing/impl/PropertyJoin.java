@@ -0,0 +1,53 @@
+/*
+ * Hibernate OGM, Domain model persistence for NoSQL datastores
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.ogm.datastore.ignite.query.parsing.impl;
+
+/**
+ * A join over an association property, either explicit ({@code join o.customer c}) or implied by a path
+ * ({@code o.customer.name})
+ */
+class PropertyJoin {
+
+	private final String alias;
+	private final String ownerAlias;
+	private final String ownerEntityType;
+	private final String property;
+	private final boolean leftJoin;
+
+	PropertyJoin(String alias, String ownerAlias, String ownerEntityType, String property, boolean leftJoin) {
+		this.alias = alias;
+		this.ownerAlias = ownerAlias;
+		this.ownerEntityType = ownerEntityType;
+		this.property = property;
+		this.leftJoin = leftJoin;
+	}
+
+	String getAlias() {
+		return alias;
+	}
+
+	String getOwnerAlias() {
+		return ownerAlias;
+	}
+
+	String getOwnerEntityType() {
+		return ownerEntityType;
+	}
+
+	String getProperty() {
+		return property;
+	}
+
+	boolean isLeftJoin() {
+		return leftJoin;
+	}
+
+	@Override
+	public String toString() {
+		return "PropertyJoin [alias=" + alias + ", owner=" + ownerAlias + ", property=" + property + ", leftJoin=" + leftJoin + "]";
+	}
+}
@@ -0,0 +1,228 @@
+/*
+ * Hibernate OGM, Domain model persistence for NoSQL datastores
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.ogm.datastore.ignite.reactive;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+
+import org.apache.ignite.IgniteCache;
+import org.apache.ignite.binary.BinaryObject;
+import org.apache.ignite.lang.IgniteFuture;
+import org.hibernate.SessionFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.ogm.datastore.ignite.IgniteDialect;
+import org.hibernate.ogm.datastore.ignite.impl.CacheKeyComparator;
+import org.hibernate.ogm.datastore.ignite.impl.IgniteDatastoreProvider;
+import org.hibernate.ogm.datastore.ignite.impl.IgniteTupleSnapshot;
+import org.hibernate.ogm.datastore.ignite.logging.impl.Log;
+import org.hibernate.ogm.datastore.ignite.logging.impl.LoggerFactory;
+import org.hibernate.ogm.datastore.ignite.query.impl.IgniteQueryDescriptor;
+import org.hibernate.ogm.datastore.ignite.query.parsing.impl.IgniteQueryParserService;
+import org.hibernate.ogm.datastore.ignite.reactive.impl.QueryResultPublisher;
+import org.hibernate.ogm.datastore.spi.DatastoreProvider;
+import org.hibernate.ogm.dialect.impl.GridDialects;
+import org.hibernate.ogm.dialect.query.spi.BackendQuery;
+import org.hibernate.ogm.dialect.query.spi.QueryParameters;
+import org.hibernate.ogm.dialect.query.spi.RowSelection;
+import org.hibernate.ogm.dialect.spi.GridDialect;
+import org.hibernate.ogm.model.key.spi.EntityKey;
+import org.hibernate.ogm.model.spi.Tuple;
+import org.hibernate.ogm.model.spi.Tuple.SnapshotType;
+import org.reactivestreams.Publisher;
+
+/**
+ * Non-blocking access to the entities stored in Ignite, next to the blocking Hibernate OGM sessions.
+ * <p>
+ * Reads and writes by key use the asynchronous cache API and return a {@link CompletionStage} completed by an Ignite
+ * thread: dependent actions which block must be run with the {@code *Async} methods of {@code CompletionStage}.
+ * <p>
+ * Ignite SQL has no asynchronous API, the results of a query are published as they are requested by the subscriber,
+ * each page being fetched by the executor given to the session.
+ * <p>
+ * The operations do not take part in transactions and fail when the calling thread runs an Ignite transaction: an
+ * asynchronous operation would be enlisted in it while ignoring the entries it has written, and Ignite only allows one
+ * asynchronous operation at a time in a transaction. The executor running a query would not see them either.
+ * <p>
+ * The entities written or removed are evicted from the second-level cache once the write is completed.
+ */
+public class IgniteReactiveSession {
+
+	private static final Log log = LoggerFactory.getLogger();
+
+	private final SessionFactoryImplementor sessionFactory;
+	private final IgniteDatastoreProvider provider;
+	private final IgniteDialect dialect;
+	private final Executor queryExecutor;
+
+	/**
+	 * @param sessionFactory a session factory using the Ignite datastore
+	 */
+	public IgniteReactiveSession(SessionFactory sessionFactory) {
+		this( sessionFactory, ForkJoinPool.commonPool() );
+	}
+
+	/**
+	 * @param sessionFactory a session factory using the Ignite datastore
+	 * @param queryExecutor the executor fetching the results of the queries
+	 */
+	public IgniteReactiveSession(SessionFactory sessionFactory, Executor queryExecutor) {
+		this.sessionFactory = sessionFactory.unwrap( SessionFactoryImplementor.class );
+		this.provider = (IgniteDatastoreProvider) this.sessionFactory.getServiceRegistry().getService( DatastoreProvider.class );
+		this.dialect = GridDialects.getDelegateOrNull(
+				this.sessionFactory.getServiceRegistry().getService( GridDialect.class ), IgniteDialect.class );
+		this.queryExecutor = queryExecutor;
+	}
+
+	/**
+	 * @param key the key of the entity
+	 * @return the tuple of the entity, {@code null} if it does not exist
+	 */
+	public CompletionStage<Tuple> getTuple(EntityKey key) {
+		checkNoTransaction( "getTuple" );
+		IgniteCache<Object, BinaryObject> cache = provider.getEntityCache( key.getMetadata() );
+		Object id = provider.createKeyObject( key );
+		return toCompletionStage( cache.getAsync( id ), value -> value != null ? tuple( key, id, value ) : null );
+	}
+
+	/**
+	 * @param keys the keys of entities of the same type
+	 * @return the tuples of the entities, in the order of the keys, {@code null} for the entities which do not exist
+	 */
+	public CompletionStage<List<Tuple>> getTuples(EntityKey... keys) {
+		checkNoTransaction( "getTuples" );
+		if ( keys.length == 0 ) {
+			return CompletableFuture.completedFuture( Collections.emptyList() );
+		}
+		IgniteCache<Object, BinaryObject> cache = provider.getEntityCache( keys[0].getMetadata() );
+		Object[] ids = new Object[keys.length];
+		Set<Object> sortedIds = new TreeSet<>( CacheKeyComparator.INSTANCE );
+		for ( int i = 0; i < keys.length; i++ ) {
+			ids[i] = provider.createKeyObject( keys[i] );
+			sortedIds.add( ids[i] );
+		}
+		return toCompletionStage( cache.getAllAsync( sortedIds ), values -> {
+			List<Tuple> tuples = new ArrayList<>( keys.length );
+			for ( int i = 0; i < keys.length; i++ ) {
+				BinaryObject value = values.get( ids[i] );
+				tuples.add( value != null ? tuple( keys[i], ids[i], value ) : null );
+			}
+			return tuples;
+		} );
+	}
+
+	/**
+	 * @param key the key of a new entity
+	 * @return an empty tuple for the entity, to be written with {@link #insertOrUpdateTuples(Map)}
+	 */
+	public Tuple createTuple(EntityKey key) {
+		return new Tuple( new IgniteTupleSnapshot( provider.createKeyObject( key ), null, key.getMetadata() ), SnapshotType.INSERT );
+	}
+
+	/**
+	 * @param tuples the tuples of entities of the same type, created by {@link #createTuple(EntityKey)} or read by this
+	 * session
+	 * @return a stage completed once the entities are written
+	 */
+	public CompletionStage<Void> insertOrUpdateTuples(Map<EntityKey, Tuple> tuples) {
+		checkNoTransaction( "insertOrUpdateTuples" );
+		if ( tuples.isEmpty() ) {
+			return CompletableFuture.completedFuture( null );
+		}
+		IgniteCache<Object, BinaryObject> cache = null;
+		Map<Object, BinaryObject> values = new TreeMap<>( CacheKeyComparator.INSTANCE );
+		for ( Map.Entry<EntityKey, Tuple> entry : tuples.entrySet() ) {
+			EntityKey key = entry.getKey();
+			if ( cache == null ) {
+				cache = provider.getEntityCache( key.getMetadata() );
+			}
+			values.put( ( (IgniteTupleSnapshot) entry.getValue().getSnapshot() ).getCacheKey(),
+					provider.createBinaryObject( key.getMetadata(), entry.getValue() ) );
+		}
+		Set<EntityKey> keys = tuples.keySet();
+		return toCompletionStage( cache.putAllAsync( values ), written -> {
+			keys.forEach( provider::evictFromSecondLevelCache );
+			return written;
+		} );
+	}
+
+	/**
+	 * @param keys the keys of entities of the same type
+	 * @return a stage completed once the entities are removed
+	 */
+	public CompletionStage<Void> removeTuples(EntityKey... keys) {
+		checkNoTransaction( "removeTuples" );
+		if ( keys.length == 0 ) {
+			return CompletableFuture.completedFuture( null );
+		}
+		IgniteCache<Object, BinaryObject> cache = provider.getEntityCache( keys[0].getMetadata() );
+		Set<Object> ids = new TreeSet<>( CacheKeyComparator.INSTANCE );
+		for ( EntityKey key : keys ) {
+			ids.add( provider.createKeyObject( key ) );
+		}
+		return toCompletionStage( cache.removeAllAsync( ids ), removed -> {
+			Arrays.asList( keys ).forEach( provider::evictFromSecondLevelCache );
+			return removed;
+		} );
+	}
+
+	/**
+	 * Executes a JP-QL query when a subscriber subscribes to the returned publisher. Each subscriber executes the query
+	 * again.
+	 * <p>
+	 * The query is executed by the executor of the session.
+	 *
+	 * @param jpqlQuery the JP-QL query
+	 * @param parameters the values of the named parameters of the query
+	 * @param queryHints the hints of the query, see {@link org.hibernate.ogm.datastore.ignite.query.impl.QueryHints}
+	 * @return the tuples of the entities, or of the projections, returned by the query
+	 */
+	public Publisher<Tuple> executeQuery(String jpqlQuery, Map<String, Object> parameters, String... queryHints) {
+		checkNoTransaction( jpqlQuery );
+		IgniteQueryDescriptor query = (IgniteQueryDescriptor) IgniteQueryParserService.INSTANCE
+				.parseQuery( sessionFactory, jpqlQuery, parameters )
+				.getQueryObject();
+		QueryParameters queryParameters = new QueryParameters( new RowSelection( null, null ), Collections.emptyMap(),
+				Collections.emptyList(), Arrays.asList( queryHints ) );
+		return new QueryResultPublisher<>(
+				() -> dialect.executeBackendQuery( new BackendQuery<>( query, null ), queryParameters, null ),
+				queryExecutor );
+	}
+
+	private void checkNoTransaction(String operation) {
+		if ( provider.getCurrentTransaction() != null ) {
+			throw log.reactiveOperationInTransaction( operation );
+		}
+	}
+
+	private Tuple tuple(EntityKey key, Object id, BinaryObject value) {
+		return new Tuple( new IgniteTupleSnapshot( id, value, key.getMetadata() ), SnapshotType.UPDATE );
+	}
+
+	private static <T, R> CompletionStage<R> toCompletionStage(IgniteFuture<T> future, Function<T, R> result) {
+		CompletableFuture<R> stage = new CompletableFuture<>();
+		future.listen( completed -> {
+			try {
+				stage.complete( result.apply( completed.get() ) );
+			}
+			catch (RuntimeException e) {
+				stage.completeExceptionally( e );
+			}
+		} );
+		return stage;
+	}
+}
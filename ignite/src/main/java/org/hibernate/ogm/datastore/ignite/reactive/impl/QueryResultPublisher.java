@@ -0,0 +1,145 @@
+/*
+ * Hibernate OGM, Domain model persistence for NoSQL datastores
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.ogm.datastore.ignite.reactive.impl;
+
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.hibernate.ogm.dialect.query.spi.ClosableIterator;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+/**
+ * Publishes the results of a blocking query. The query is executed, and its results read, by an executor when the
+ * subscriber requests them, so that neither the subscriber nor the thread subscribing waits for Ignite.
+ *
+ * @param <T> the type of the results
+ */
+public class QueryResultPublisher<T> implements Publisher<T> {
+
+	private final Supplier<ClosableIterator<T>> query;
+	private final Executor executor;
+
+	/**
+	 * @param query executes the query
+	 * @param executor the executor reading the results
+	 */
+	public QueryResultPublisher(Supplier<ClosableIterator<T>> query, Executor executor) {
+		this.query = query;
+		this.executor = executor;
+	}
+
+	@Override
+	public void subscribe(Subscriber<? super T> subscriber) {
+		Objects.requireNonNull( subscriber, "subscriber" );
+		subscriber.onSubscribe( new QuerySubscription( subscriber ) );
+	}
+
+	/**
+	 * Emits the requested results from a single task at a time, which also closes the results once they are all read
+	 * or the subscription is cancelled.
+	 */
+	private class QuerySubscription implements Subscription, Runnable {
+
+		private final Subscriber<? super T> subscriber;
+		private final AtomicLong requested = new AtomicLong();
+		// number of requests and cancellations not yet seen by the task
+		private final AtomicInteger pendingSignals = new AtomicInteger();
+		private volatile boolean cancelled;
+		private volatile IllegalArgumentException invalidRequest;
+
+		// only accessed by the task
+		private ClosableIterator<T> results;
+		private boolean done;
+
+		QuerySubscription(Subscriber<? super T> subscriber) {
+			this.subscriber = subscriber;
+		}
+
+		@Override
+		public void request(long n) {
+			if ( n <= 0 ) {
+				invalidRequest = new IllegalArgumentException( "The number of requested results must be positive: " + n );
+			}
+			else {
+				requested.accumulateAndGet( n, (current, added) -> current + added < 0 ? Long.MAX_VALUE : current + added );
+			}
+			signal();
+		}
+
+		@Override
+		public void cancel() {
+			cancelled = true;
+			signal();
+		}
+
+		private void signal() {
+			if ( pendingSignals.getAndIncrement() == 0 ) {
+				executor.execute( this );
+			}
+		}
+
+		@Override
+		public void run() {
+			int signals = pendingSignals.get();
+			do {
+				emit();
+				signals = pendingSignals.addAndGet( -signals );
+			}
+			while ( signals != 0 );
+		}
+
+		private void emit() {
+			if ( done ) {
+				return;
+			}
+			if ( cancelled ) {
+				finish();
+				return;
+			}
+			if ( invalidRequest != null ) {
+				finish();
+				subscriber.onError( invalidRequest );
+				return;
+			}
+			try {
+				if ( results == null ) {
+					results = query.get();
+				}
+				long demand = requested.get();
+				long emitted = 0;
+				while ( emitted < demand && !cancelled && results.hasNext() ) {
+					subscriber.onNext( results.next() );
+					emitted++;
+				}
+				if ( !cancelled && !results.hasNext() ) {
+					finish();
+					subscriber.onComplete();
+				}
+				else if ( emitted > 0 && demand != Long.MAX_VALUE ) {
+					requested.addAndGet( -emitted );
+				}
+			}
+			catch (RuntimeException e) {
+				finish();
+				subscriber.onError( e );
+			}
+		}
+
+		private void finish() {
+			done = true;
+			if ( results != null ) {
+				results.close();
+				results = null;
+			}
+		}
+	}
+}
@@ -8,6 +8,7 @@
 
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.util.concurrent.locks.ReentrantLock;
 
 import javax.naming.InitialContext;
 import javax.naming.NamingException;
@@ -35,6 +36,7 @@ public class DelegatingTransactionManager implements TransactionManager {
 	private static final String WAS_TRANSACTION_MANAGER_METHOD_NAME = "instance";
 	private static final String JBOSS_TRANSACTION_MANAGER_JNDI_NAME = "java:jboss/TransactionManager";
 
+	private static final ReentrantLock INSTANCE_LOCK = new ReentrantLock();
 	private static volatile TransactionManager INSTANCE;
 
 	private final TransactionManager delegate;
@@ -47,7 +49,9 @@ public DelegatingTransactionManager( final TransactionManager delegate, final Ap
 
 	public static TransactionManager transactionManager() {
 		if ( INSTANCE == null ) {
-			synchronized ( DelegatingTransactionManager.class ) {
+			// a lock rather than a monitor, so that a virtual thread waiting for the lookup does not pin its carrier
+			INSTANCE_LOCK.lock();
+			try {
 				if ( INSTANCE == null ) {
 					try {
 						TransactionManager delegate = null;
@@ -69,6 +73,9 @@ public static TransactionManager transactionManager() {
 					}
 				}
 			}
+			finally {
+				INSTANCE_LOCK.unlock();
+			}
 		}
 		return INSTANCE;
 	}
@@ -0,0 +1,230 @@
+/*
+ * Hibernate OGM, Domain model persistence for NoSQL datastores
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.ogm.datastore.ignite.transaction.impl;
+
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.ignite.transactions.Transaction;
+import org.apache.ignite.transactions.TransactionConcurrency;
+import org.apache.ignite.transactions.TransactionIsolation;
+import org.hibernate.Session;
+import org.hibernate.ogm.datastore.ignite.IgniteProperties;
+import org.hibernate.ogm.datastore.ignite.configuration.impl.IgniteProviderConfiguration;
+import org.hibernate.ogm.datastore.ignite.impl.IgniteDatastoreProvider;
+import org.hibernate.ogm.datastore.ignite.logging.impl.Log;
+import org.hibernate.ogm.datastore.ignite.logging.impl.LoggerFactory;
+import org.hibernate.ogm.transaction.impl.ForwardingTransactionCoordinator;
+import org.hibernate.ogm.transaction.impl.ForwardingTransactionDriver;
+import org.hibernate.resource.transaction.spi.TransactionCoordinator;
+import org.hibernate.resource.transaction.spi.TransactionCoordinatorOwner;
+import org.hibernate.resource.transaction.spi.TransactionObserver;
+
+/**
+ * Runs a resource-local Hibernate transaction in an Ignite transaction, so that all the writes of a flush are
+ * committed together instead of in one implicit transaction each.
+ * <p>
+ * The Ignite transaction is committed in the before completion phase, once the session has been flushed. A failure of
+ * the commit then rolls the Hibernate transaction back, before the second-level cache or the after completion
+ * processes see it as committed.
+ * <p>
+ * The concurrency, isolation, timeout and size of the Ignite transaction are read from the properties of the session
+ * when the transaction begins, and default to the configuration of the persistence unit.
+ *
+ * @see IgniteProperties#TRANSACTION_CONCURRENCY
+ * @see IgniteProperties#TRANSACTION_ISOLATION
+ * @see IgniteProperties#TRANSACTION_TIMEOUT
+ * @see IgniteProperties#TRANSACTION_SIZE
+ */
+public class IgniteResourceLocalTransactionCoordinator extends ForwardingTransactionCoordinator {
+
+	private static final Log log = LoggerFactory.getLogger();
+
+	private final TransactionCoordinatorOwner owner;
+	private final IgniteDatastoreProvider datastoreProvider;
+	private Transaction igniteTransaction;
+	private int timeOut = -1;
+
+	public IgniteResourceLocalTransactionCoordinator(TransactionCoordinator delegate, TransactionCoordinatorOwner owner,
+			IgniteDatastoreProvider datastoreProvider) {
+		super( delegate );
+		this.owner = owner;
+		this.datastoreProvider = datastoreProvider;
+		addObserver( new IgniteTransactionObserver() );
+	}
+
+	@Override
+	public TransactionDriver getTransactionDriverControl() {
+		TransactionDriver driver = super.getTransactionDriverControl();
+		return new IgniteTransactionDriver( driver );
+	}
+
+	@Override
+	public void setTimeOut(int seconds) {
+		super.setTimeOut( seconds );
+		this.timeOut = seconds;
+	}
+
+	private void beginIgniteTransaction() {
+		if ( igniteTransaction != null || datastoreProvider.getCurrentTransaction() != null ) {
+			// already running in an Ignite transaction, e.g. started by the application
+			return;
+		}
+		IgniteProviderConfiguration configuration = datastoreProvider.getConfiguration();
+		Map<String, Object> properties = sessionProperties();
+		TransactionConcurrency concurrency = enumProperty( properties, IgniteProperties.TRANSACTION_CONCURRENCY,
+				TransactionConcurrency.class, configuration.getTransactionConcurrency() );
+		TransactionIsolation isolation = enumProperty( properties, IgniteProperties.TRANSACTION_ISOLATION,
+				TransactionIsolation.class, configuration.getTransactionIsolation() );
+		long timeout = timeOut > 0
+				? TimeUnit.SECONDS.toMillis( timeOut )
+				: longProperty( properties, IgniteProperties.TRANSACTION_TIMEOUT, configuration.getTransactionTimeout() );
+		int size = (int) longProperty( properties, IgniteProperties.TRANSACTION_SIZE, configuration.getTransactionSize() );
+
+		igniteTransaction = datastoreProvider.txStart( concurrency, isolation, timeout, size );
+	}
+
+	private void commitIgniteTransaction() {
+		if ( igniteTransaction != null ) {
+			boolean committed = false;
+			try {
+				igniteTransaction.commit();
+				committed = true;
+			}
+			catch (RuntimeException e) {
+				datastoreProvider.onTransactionFailure( e );
+				throw e;
+			}
+			finally {
+				closeIgniteTransaction( committed );
+			}
+		}
+	}
+
+	private void rollbackIgniteTransaction() {
+		if ( igniteTransaction != null ) {
+			try {
+				igniteTransaction.rollback();
+			}
+			finally {
+				closeIgniteTransaction( false );
+			}
+		}
+	}
+
+	private void closeIgniteTransaction(boolean committed) {
+		try {
+			igniteTransaction.close();
+		}
+		finally {
+			igniteTransaction = null;
+			datastoreProvider.afterTransactionCompletion( committed );
+		}
+	}
+
+	private Map<String, Object> sessionProperties() {
+		if ( owner.getJdbcSessionOwner() instanceof Session ) {
+			return ( (Session) owner.getJdbcSessionOwner() ).getProperties();
+		}
+		return Collections.emptyMap();
+	}
+
+	private static <E extends Enum<E>> E enumProperty(Map<String, Object> properties, String name, Class<E> type, E defaultValue) {
+		Object value = properties.get( name );
+		if ( value == null ) {
+			return defaultValue;
+		}
+		if ( type.isInstance( value ) ) {
+			return type.cast( value );
+		}
+		try {
+			return Enum.valueOf( type, value.toString().trim().toUpperCase( Locale.ROOT ) );
+		}
+		catch (IllegalArgumentException e) {
+			throw log.invalidPropertyValue( name, e.getMessage(), e );
+		}
+	}
+
+	private static long longProperty(Map<String, Object> properties, String name, long defaultValue) {
+		Object value = properties.get( name );
+		if ( value == null ) {
+			return defaultValue;
+		}
+		if ( value instanceof Number ) {
+			return ( (Number) value ).longValue();
+		}
+		try {
+			return Long.parseLong( value.toString().trim() );
+		}
+		catch (NumberFormatException e) {
+			throw log.invalidPropertyValue( name, e.getMessage(), e );
+		}
+	}
+
+	private class IgniteTransactionDriver extends ForwardingTransactionDriver {
+
+		IgniteTransactionDriver(TransactionDriver delegate) {
+			super( delegate );
+		}
+
+		@Override
+		public void begin() {
+			beginIgniteTransaction();
+			try {
+				super.begin();
+			}
+			catch (RuntimeException e) {
+				// do not leave the Ignite transaction bound to the thread
+				rollbackIgniteTransaction();
+				throw e;
+			}
+		}
+
+		@Override
+		public void commit() {
+			try {
+				// the Ignite transaction is committed by the observer, after the flush
+				super.commit();
+			}
+			catch (RuntimeException e) {
+				rollbackIgniteTransaction();
+				throw e;
+			}
+		}
+
+		@Override
+		public void rollback() {
+			try {
+				super.rollback();
+			}
+			finally {
+				rollbackIgniteTransaction();
+			}
+		}
+	}
+
+	private class IgniteTransactionObserver implements TransactionObserver {
+
+		@Override
+		public void afterBegin() {
+		}
+
+		@Override
+		public void beforeCompletion() {
+			// a failure marks the Hibernate transaction for rollback
+			commitIgniteTransaction();
+		}
+
+		@Override
+		public void afterCompletion(boolean successful, boolean delayed) {
+			// still open if the Hibernate transaction failed before the commit of the Ignite transaction
+			rollbackIgniteTransaction();
+		}
+	}
+}
@@ -0,0 +1,36 @@
+/*
+ * Hibernate OGM, Domain model persistence for NoSQL datastores
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.ogm.datastore.ignite.transaction.impl;
+
+import org.hibernate.ogm.datastore.ignite.impl.IgniteDatastoreProvider;
+import org.hibernate.ogm.transaction.impl.ForwardingTransactionCoordinatorBuilder;
+import org.hibernate.resource.transaction.spi.TransactionCoordinator;
+import org.hibernate.resource.transaction.spi.TransactionCoordinatorBuilder;
+import org.hibernate.resource.transaction.spi.TransactionCoordinatorOwner;
+
+/**
+ * Builds a coordinator running each resource-local Hibernate transaction in a single Ignite transaction. JTA
+ * transactions are enlisted by Ignite itself, see {@link IgniteTransactionManagerFactory}.
+ */
+public class IgniteTransactionCoordinatorBuilder extends ForwardingTransactionCoordinatorBuilder {
+
+	private final IgniteDatastoreProvider datastoreProvider;
+
+	public IgniteTransactionCoordinatorBuilder(TransactionCoordinatorBuilder delegate, IgniteDatastoreProvider datastoreProvider) {
+		super( delegate );
+		this.datastoreProvider = datastoreProvider;
+	}
+
+	@Override
+	public TransactionCoordinator buildTransactionCoordinator(TransactionCoordinatorOwner owner, Options options) {
+		TransactionCoordinator coordinator = super.buildTransactionCoordinator( owner, options );
+		if ( isJta() ) {
+			return coordinator;
+		}
+		return new IgniteResourceLocalTransactionCoordinator( coordinator, owner, datastoreProvider );
+	}
+}
@@ -0,0 +1,108 @@
+/*
+ * Hibernate OGM, Domain model persistence for NoSQL datastores
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.ogm.datastore.ignite.transaction.impl;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.ignite.binary.BinaryObject;
+import org.apache.ignite.lang.IgniteUuid;
+import org.apache.ignite.transactions.Transaction;
+import org.hibernate.ogm.model.key.spi.EntityKey;
+
+/**
+ * The entries written by the dialect in an Ignite transaction, by cache name and key, so that reading them again in
+ * the same transaction does not need a call to the cache. Removed entries are kept with a {@code null} value.
+ * <p>
+ * The buffer also collects the entities to evict from the second-level cache once the transaction is committed: evicting
+ * them earlier would let a concurrent reader cache the previous state again.
+ * <p>
+ * A buffer belongs to a single transaction and thread, it is discarded when the transaction ends.
+ */
+public class TransactionWriteBuffer {
+
+	private final IgniteUuid transactionId;
+	private final Map<String, Map<Object, BinaryObject>> entriesByCache = new HashMap<>();
+	private final Set<EntityKey> evictedKeys = new HashSet<>();
+
+	public TransactionWriteBuffer(Transaction transaction) {
+		this.transactionId = transaction.xid();
+	}
+
+	/**
+	 * @param transaction the current transaction
+	 * @return {@code true} if the buffer holds the writes of the given transaction
+	 */
+	public boolean belongsTo(Transaction transaction) {
+		return transactionId.equals( transaction.xid() );
+	}
+
+	/**
+	 * @return {@code true} if the entry has been written or removed in the transaction
+	 */
+	public boolean contains(String cacheName, Object key) {
+		Map<Object, BinaryObject> entries = entriesByCache.get( cacheName );
+		return entries != null && entries.containsKey( key );
+	}
+
+	/**
+	 * @return the value written in the transaction, {@code null} if the entry has been removed
+	 */
+	public BinaryObject get(String cacheName, Object key) {
+		Map<Object, BinaryObject> entries = entriesByCache.get( cacheName );
+		return entries != null ? entries.get( key ) : null;
+	}
+
+	/**
+	 * @return the entries of a cache written in the transaction, with a {@code null} value for the removed ones
+	 */
+	public Map<Object, BinaryObject> getEntries(String cacheName) {
+		Map<Object, BinaryObject> entries = entriesByCache.get( cacheName );
+		return entries != null ? Collections.unmodifiableMap( entries ) : Collections.emptyMap();
+	}
+
+	public void put(String cacheName, Object key, BinaryObject value) {
+		entries( cacheName ).put( key, value );
+	}
+
+	public void putAll(String cacheName, Map<Object, BinaryObject> values) {
+		entries( cacheName ).putAll( values );
+	}
+
+	public void remove(String cacheName, Object key) {
+		entries( cacheName ).put( key, null );
+	}
+
+	public void removeAll(String cacheName, Collection<Object> keys) {
+		Map<Object, BinaryObject> entries = entries( cacheName );
+		for ( Object key : keys ) {
+			entries.put( key, null );
+		}
+	}
+
+	/**
+	 * @param key an entity written in the transaction, to evict from the second-level cache after the commit
+	 */
+	public void evictAfterCommit(EntityKey key) {
+		evictedKeys.add( key );
+	}
+
+	/**
+	 * @return the entities to evict from the second-level cache after the commit
+	 */
+	public Set<EntityKey> getEvictedKeys() {
+		return Collections.unmodifiableSet( evictedKeys );
+	}
+
+	private Map<Object, BinaryObject> entries(String cacheName) {
+		return entriesByCache.computeIfAbsent( cacheName, name -> new HashMap<>() );
+	}
+}
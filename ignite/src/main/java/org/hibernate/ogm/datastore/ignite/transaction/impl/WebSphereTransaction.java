@@ -28,15 +28,12 @@ public class WebSphereTransaction implements Transaction {
 	public WebSphereTransaction( final Transaction delegate ) {
 		this.delegate = delegate;
 		if ( onePhaseXAResourceClass == null ) {
-			synchronized ( WebSphereTransaction.class ) {
-				if ( onePhaseXAResourceClass == null ) {
-					try {
-						onePhaseXAResourceClass = Class.forName( ONE_PHASE_XA_RESOURCE_CLASS_NAME );
-					}
-					catch ( final ClassNotFoundException e ) {
-						throw new RuntimeException( "Cannot instantiate Transaction" );
-					}
-				}
+			// loading the class twice is harmless, no monitor needed
+			try {
+				onePhaseXAResourceClass = Class.forName( ONE_PHASE_XA_RESOURCE_CLASS_NAME );
+			}
+			catch ( final ClassNotFoundException e ) {
+				throw new RuntimeException( "Cannot instantiate Transaction" );
 			}
 		}
 	}
@@ -0,0 +1,112 @@
+/*
+ * Hibernate OGM, Domain model persistence for NoSQL datastores
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.ogm.datastore.ignite.test.batch;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+import org.hibernate.Transaction;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.ogm.OgmSession;
+import org.hibernate.ogm.datastore.ignite.IgniteDialect;
+import org.hibernate.ogm.datastore.ignite.impl.IgniteDatastoreProvider;
+import org.hibernate.ogm.datastore.ignite.test.cache.CachedPoem;
+import org.hibernate.ogm.datastore.ignite.test.cfg.Poem;
+import org.hibernate.ogm.datastore.spi.DatastoreProvider;
+import org.hibernate.ogm.dialect.batch.spi.InsertOrUpdateTupleOperation;
+import org.hibernate.ogm.dialect.batch.spi.OperationsQueue;
+import org.hibernate.ogm.dialect.batch.spi.RemoveTupleOperation;
+import org.hibernate.ogm.dialect.impl.GridDialects;
+import org.hibernate.ogm.dialect.spi.GridDialect;
+import org.hibernate.ogm.entityentry.impl.TuplePointer;
+import org.hibernate.ogm.model.key.spi.EntityKey;
+import org.hibernate.ogm.model.spi.Tuple;
+import org.hibernate.ogm.persister.impl.OgmEntityPersister;
+import org.hibernate.ogm.utils.OgmTestCase;
+import org.junit.Test;
+
+/**
+ * Checks the writes of a flush grouped by {@link IgniteDialect#executeBatch(OperationsQueue)}
+ */
+public class BatchedWritesTest extends OgmTestCase {
+
+	@Test
+	public void testBatchOutsideOfTransactionWritesAllCaches() {
+		persistPoem( "batch-removed" );
+		assertThat( provider().getCurrentTransaction() ).isNull();
+
+		OperationsQueue queue = new OperationsQueue();
+		queue.add( insert( Poem.class, "batch-1", "Le Lac" ) );
+		queue.add( insert( Poem.class, "batch-2", "L'Isolement" ) );
+		queue.add( insert( CachedPoem.class, "batch-3", "Le Vallon" ) );
+		queue.add( new RemoveTupleOperation( key( Poem.class, "batch-removed" ), null ) );
+		// the last write of a key wins
+		queue.add( insert( Poem.class, "batch-1", "Le Lac, second version" ) );
+		dialect().executeBatch( queue );
+
+		try ( OgmSession session = openSession() ) {
+			Transaction tx = session.beginTransaction();
+			assertThat( session.get( Poem.class, "batch-1" ).getName() ).isEqualTo( "Le Lac, second version" );
+			assertThat( session.get( Poem.class, "batch-2" ).getName() ).isEqualTo( "L'Isolement" );
+			assertThat( session.get( CachedPoem.class, "batch-3" ).getName() ).isEqualTo( "Le Vallon" );
+			assertThat( session.get( Poem.class, "batch-removed" ) ).isNull();
+			tx.commit();
+		}
+	}
+
+	@Test
+	public void testFlushInTransactionWritesAllCaches() {
+		try ( OgmSession session = openSession() ) {
+			Transaction tx = session.beginTransaction();
+			session.persist( new Poem( "batch-4", "Harmonie du soir", "Charles Baudelaire" ) );
+			session.persist( new CachedPoem( "batch-5", "Correspondances" ) );
+			session.flush();
+			session.delete( session.get( Poem.class, "batch-4" ) );
+			tx.commit();
+		}
+
+		try ( OgmSession session = openSession() ) {
+			Transaction tx = session.beginTransaction();
+			assertThat( session.get( Poem.class, "batch-4" ) ).isNull();
+			assertThat( session.get( CachedPoem.class, "batch-5" ).getName() ).isEqualTo( "Correspondances" );
+			tx.commit();
+		}
+	}
+
+	private InsertOrUpdateTupleOperation insert(Class<?> entityClass, String id, String name) {
+		EntityKey key = key( entityClass, id );
+		Tuple tuple = dialect().createTuple( key, null );
+		tuple.put( "name", name );
+		return new InsertOrUpdateTupleOperation( new TuplePointer( tuple ), key, null );
+	}
+
+	private void persistPoem(String id) {
+		try ( OgmSession session = openSession() ) {
+			Transaction tx = session.beginTransaction();
+			session.persist( new Poem( id, "Poem " + id, "Alphonse de Lamartine" ) );
+			tx.commit();
+		}
+	}
+
+	private EntityKey key(Class<?> entityClass, String id) {
+		SessionFactoryImplementor factory = (SessionFactoryImplementor) sessionFactory;
+		return new EntityKey( ( (OgmEntityPersister) factory.getMetamodel().entityPersister( entityClass ) ).getEntityKeyMetadata(), new Object[]{ id } );
+	}
+
+	private IgniteDialect dialect() {
+		SessionFactoryImplementor factory = (SessionFactoryImplementor) sessionFactory;
+		return GridDialects.getDelegateOrNull( factory.getServiceRegistry().getService( GridDialect.class ), IgniteDialect.class );
+	}
+
+	private IgniteDatastoreProvider provider() {
+		return (IgniteDatastoreProvider) ( (SessionFactoryImplementor) sessionFactory ).getServiceRegistry().getService( DatastoreProvider.class );
+	}
+
+	@Override
+	protected Class<?>[] getAnnotatedClasses() {
+		return new Class<?>[]{ Poem.class, CachedPoem.class };
+	}
+}
@@ -0,0 +1,170 @@
+/*
+ * Hibernate OGM, Domain model persistence for NoSQL datastores
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.ogm.datastore.ignite.test.cache;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import javax.cache.configuration.Factory;
+import javax.cache.expiry.EternalExpiryPolicy;
+import javax.cache.expiry.ExpiryPolicy;
+
+import org.apache.ignite.IgniteCache;
+import org.apache.ignite.Ignition;
+import org.apache.ignite.configuration.CacheConfiguration;
+import org.hibernate.Transaction;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.ogm.OgmSession;
+import org.hibernate.ogm.backendtck.associations.manytoone.JUG;
+import org.hibernate.ogm.datastore.ignite.IgniteProperties;
+import org.hibernate.ogm.datastore.ignite.cache.IgniteRegionFactory;
+import org.hibernate.ogm.datastore.ignite.cache.impl.EntityRegionKey;
+import org.hibernate.ogm.datastore.ignite.cache.impl.RegionInvalidation;
+import org.hibernate.ogm.datastore.ignite.test.cfg.Poem;
+import org.hibernate.ogm.model.key.spi.EntityKey;
+import org.hibernate.ogm.persister.impl.OgmEntityPersister;
+import org.hibernate.ogm.utils.OgmTestCase;
+import org.hibernate.stat.Statistics;
+import org.junit.Test;
+
+/**
+ * Checks that the update timestamps region keeps all its entries and that the regions apply the invalidations sent by
+ * the other nodes of the cluster
+ */
+public class SecondLevelCacheInvalidationTest extends OgmTestCase {
+
+	private static final int MAX_ENTRIES = 2;
+
+	@Test
+	public void testUpdateTimestampsAreNeverEvicted() throws Exception {
+		try ( OgmSession session = openSession() ) {
+			Transaction tx = session.beginTransaction();
+			session.persist( new CachedPoem( "timestamps-1", "Le Lac" ) );
+			tx.commit();
+		}
+		Statistics statistics = sessionFactory.getStatistics();
+		statistics.clear();
+
+		assertThat( findByName( "Le Lac" ) ).hasSize( 1 );
+		assertThat( findByName( "Le Lac" ) ).hasSize( 1 );
+		assertThat( statistics.getQueryCacheHitCount() ).isEqualTo( 1 );
+
+		try ( OgmSession session = openSession() ) {
+			Transaction tx = session.beginTransaction();
+			session.get( CachedPoem.class, "timestamps-1" ).setName( "Le Vallon" );
+			tx.commit();
+		}
+		// more tables are updated than the regions may hold
+		try ( OgmSession session = openSession() ) {
+			Transaction tx = session.beginTransaction();
+			session.persist( new Poem( "timestamps-2", "L'Isolement", "Alphonse de Lamartine" ) );
+			JUG jug = new JUG( "timestamps-3" );
+			jug.setName( "Mâcon JUG" );
+			session.persist( jug );
+			tx.commit();
+		}
+		assertThat( timestampsRegionCache().size() ).isGreaterThan( MAX_ENTRIES );
+
+		// the cached result is older than the update of the table, the query is executed again
+		assertThat( findByName( "Le Lac" ) ).isEmpty();
+		assertThat( statistics.getQueryCacheHitCount() ).isEqualTo( 1 );
+		assertThat( findByName( "Le Vallon" ) ).hasSize( 1 );
+	}
+
+	@Test
+	public void testUpdateTimestampsRegionHasNoEvictionNorExpiry() {
+		CacheConfiguration<?, ?> configuration = timestampsRegionCache().getConfiguration( CacheConfiguration.class );
+		assertThat( configuration.getEvictionPolicy() ).isNull();
+		Factory<ExpiryPolicy> expiryPolicyFactory = configuration.getExpiryPolicyFactory();
+		assertThat( expiryPolicyFactory == null || expiryPolicyFactory.create() instanceof EternalExpiryPolicy ).isTrue();
+	}
+
+	@Test
+	public void testEvictionSentByAnotherNodeIsApplied() throws Exception {
+		try ( OgmSession session = openSession() ) {
+			Transaction tx = session.beginTransaction();
+			session.persist( new CachedPoem( "remote-1", "Le Pont Mirabeau" ) );
+			tx.commit();
+		}
+		try ( OgmSession session = openSession() ) {
+			Transaction tx = session.beginTransaction();
+			session.get( CachedPoem.class, "remote-1" );
+			tx.commit();
+		}
+		assertThat( sessionFactory.getCache().containsEntity( CachedPoem.class, "remote-1" ) ).isTrue();
+
+		// the message another node sends once it has written the entity
+		RegionInvalidation invalidation = RegionInvalidation.evict( CachedPoem.class.getName(), new EntityRegionKey( entityKey( "remote-1" ), null ) );
+		Ignition.ignite( "OgmTestGrid" ).message().send( "ogm-l2-invalidation", invalidation );
+
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos( 10 );
+		while ( sessionFactory.getCache().containsEntity( CachedPoem.class, "remote-1" ) && System.nanoTime() < deadline ) {
+			Thread.sleep( 10 );
+		}
+		assertThat( sessionFactory.getCache().containsEntity( CachedPoem.class, "remote-1" ) ).isFalse();
+	}
+
+	@Test
+	public void testEntityRegionKeyKeepsIdentifierWhenSerialized() throws Exception {
+		EntityRegionKey key = new EntityRegionKey( entityKey( "poem-1" ), "poem-1" );
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try ( ObjectOutputStream output = new ObjectOutputStream( bytes ) ) {
+			output.writeObject( key );
+		}
+		try ( ObjectInputStream input = new ObjectInputStream( new ByteArrayInputStream( bytes.toByteArray() ) ) ) {
+			EntityRegionKey readKey = (EntityRegionKey) input.readObject();
+			assertThat( readKey ).isEqualTo( key );
+			assertThat( readKey.getId() ).isEqualTo( "poem-1" );
+		}
+	}
+
+	private List<CachedPoem> findByName(String name) {
+		try ( OgmSession session = openSession() ) {
+			Transaction tx = session.beginTransaction();
+			List<CachedPoem> poems = session.createQuery( "FROM CachedPoem p WHERE p.name = :name", CachedPoem.class )
+					.setParameter( "name", name )
+					.setCacheable( true )
+					.getResultList();
+			tx.commit();
+			return poems;
+		}
+	}
+
+	private IgniteCache<Object, Object> timestampsRegionCache() {
+		String regionName = ( (SessionFactoryImplementor) sessionFactory ).getCache().getUpdateTimestampsCache().getRegion().getName();
+		return Ignition.ignite( "OgmTestGrid" ).cache( "ogm-l2-" + regionName );
+	}
+
+	private EntityKey entityKey(String id) {
+		SessionFactoryImplementor factory = (SessionFactoryImplementor) sessionFactory;
+		return new EntityKey( ( (OgmEntityPersister) factory.getMetamodel().entityPersister( CachedPoem.class ) ).getEntityKeyMetadata(), new Object[]{ id } );
+	}
+
+	@Override
+	protected void configure(Map<String, Object> settings) {
+		settings.put( AvailableSettings.USE_SECOND_LEVEL_CACHE, "true" );
+		settings.put( AvailableSettings.USE_QUERY_CACHE, "true" );
+		settings.put( AvailableSettings.CACHE_REGION_FACTORY, IgniteRegionFactory.class.getName() );
+		settings.put( AvailableSettings.GENERATE_STATISTICS, "true" );
+		settings.put( IgniteProperties.CACHE_REGION_MAX_ENTRIES, MAX_ENTRIES );
+		settings.put( IgniteProperties.CACHE_REGION_EXPIRATION, TimeUnit.MINUTES.toMillis( 10 ) );
+	}
+
+	@Override
+	protected Class<?>[] getAnnotatedClasses() {
+		return new Class<?>[]{ CachedPoem.class, Poem.class, JUG.class };
+	}
+}
@@ -0,0 +1,154 @@
+/*
+ * Hibernate OGM, Domain model persistence for NoSQL datastores
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.ogm.datastore.ignite.test.cache;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+import java.util.Map;
+
+import org.hibernate.Transaction;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.ogm.OgmSession;
+import org.hibernate.ogm.datastore.ignite.IgniteDialect;
+import org.hibernate.ogm.datastore.ignite.cache.IgniteRegionFactory;
+import org.hibernate.ogm.dialect.impl.GridDialects;
+import org.hibernate.ogm.dialect.spi.GridDialect;
+import org.hibernate.ogm.entityentry.impl.TuplePointer;
+import org.hibernate.ogm.model.key.spi.EntityKey;
+import org.hibernate.ogm.model.key.spi.EntityKeyMetadata;
+import org.hibernate.ogm.model.spi.Tuple;
+import org.hibernate.ogm.persister.impl.OgmEntityPersister;
+import org.hibernate.ogm.utils.OgmTestCase;
+import org.hibernate.stat.Statistics;
+import org.junit.Test;
+
+/**
+ * Checks that entities are served from the second-level cache built by {@link IgniteRegionFactory}
+ * and that writes invalidate it.
+ */
+public class SecondLevelCacheTest extends OgmTestCase {
+
+	@Test
+	public void testEntityIsLoadedFromSecondLevelCache() throws Exception {
+		try ( OgmSession session = openSession() ) {
+			Transaction tx = session.beginTransaction();
+			session.persist( new CachedPoem( "poem-1", "L'albatros" ) );
+			tx.commit();
+		}
+
+		Statistics statistics = getStatistics();
+		statistics.clear();
+
+		assertThat( loadPoem( "poem-1" ).getName() ).isEqualTo( "L'albatros" );
+		assertThat( statistics.getSecondLevelCacheMissCount() ).isEqualTo( 1 );
+		assertThat( statistics.getSecondLevelCachePutCount() ).isEqualTo( 1 );
+
+		assertThat( loadPoem( "poem-1" ).getName() ).isEqualTo( "L'albatros" );
+		assertThat( statistics.getSecondLevelCacheHitCount() ).isEqualTo( 1 );
+
+		try ( OgmSession session = openSession() ) {
+			Transaction tx = session.beginTransaction();
+			CachedPoem poem = session.get( CachedPoem.class, "poem-1" );
+			poem.setName( "Wazaaaaa" );
+			tx.commit();
+		}
+
+		statistics.clear();
+		assertThat( loadPoem( "poem-1" ).getName() ).isEqualTo( "Wazaaaaa" );
+		assertThat( statistics.getSecondLevelCacheHitCount() ).isEqualTo( 0 );
+
+		try ( OgmSession session = openSession() ) {
+			Transaction tx = session.beginTransaction();
+			session.delete( session.get( CachedPoem.class, "poem-1" ) );
+			tx.commit();
+		}
+		assertThat( loadPoem( "poem-1" ) ).isNull();
+	}
+
+	@Test
+	public void testWriteOutsideOfTransactionEvictsEntity() throws Exception {
+		persistPoem( "poem-2", "Le bateau ivre" );
+		loadPoem( "poem-2" );
+		assertThat( sessionFactory.getCache().containsEntity( CachedPoem.class, "poem-2" ) ).isTrue();
+
+		// a write which does not go through a session, the entity is evicted once it is written
+		updateName( "poem-2", "Voyelles" );
+		assertThat( sessionFactory.getCache().containsEntity( CachedPoem.class, "poem-2" ) ).isFalse();
+		assertThat( loadPoem( "poem-2" ).getName() ).isEqualTo( "Voyelles" );
+	}
+
+	@Test
+	public void testWriteInTransactionEvictsEntityOnCommit() throws Exception {
+		persistPoem( "poem-3", "Ma bohème" );
+		loadPoem( "poem-3" );
+		assertThat( sessionFactory.getCache().containsEntity( CachedPoem.class, "poem-3" ) ).isTrue();
+
+		try ( OgmSession session = openSession() ) {
+			Transaction tx = session.beginTransaction();
+			updateName( "poem-3", "Le dormeur du val" );
+			// the other sessions still read the committed state, which stays in the second-level cache
+			assertThat( sessionFactory.getCache().containsEntity( CachedPoem.class, "poem-3" ) ).isTrue();
+			tx.commit();
+		}
+		assertThat( sessionFactory.getCache().containsEntity( CachedPoem.class, "poem-3" ) ).isFalse();
+		assertThat( loadPoem( "poem-3" ).getName() ).isEqualTo( "Le dormeur du val" );
+
+		try ( OgmSession session = openSession() ) {
+			Transaction tx = session.beginTransaction();
+			updateName( "poem-3", "Voyelles" );
+			tx.rollback();
+		}
+		assertThat( sessionFactory.getCache().containsEntity( CachedPoem.class, "poem-3" ) ).isTrue();
+		assertThat( loadPoem( "poem-3" ).getName() ).isEqualTo( "Le dormeur du val" );
+	}
+
+	private void persistPoem(String id, String name) {
+		try ( OgmSession session = openSession() ) {
+			Transaction tx = session.beginTransaction();
+			session.persist( new CachedPoem( id, name ) );
+			tx.commit();
+		}
+	}
+
+	private void updateName(String id, String name) {
+		SessionFactoryImplementor factory = (SessionFactoryImplementor) sessionFactory;
+		IgniteDialect dialect = GridDialects.getDelegateOrNull( factory.getServiceRegistry().getService( GridDialect.class ), IgniteDialect.class );
+		EntityKeyMetadata metadata = ( (OgmEntityPersister) factory.getMetamodel().entityPersister( CachedPoem.class ) ).getEntityKeyMetadata();
+		EntityKey key = new EntityKey( metadata, new Object[]{ id } );
+		Tuple tuple = dialect.getTuple( key, null );
+		tuple.put( "name", name );
+		dialect.insertOrUpdateTuple( key, new TuplePointer( tuple ), null );
+	}
+
+	private CachedPoem loadPoem(String id) {
+		try ( OgmSession session = openSession() ) {
+			Transaction tx = session.beginTransaction();
+			CachedPoem poem = session.get( CachedPoem.class, id );
+			tx.commit();
+			return poem;
+		}
+	}
+
+	private Statistics getStatistics() {
+		try ( OgmSession session = openSession() ) {
+			return session.getSessionFactory().getStatistics();
+		}
+	}
+
+	@Override
+	protected void configure(Map<String, Object> settings) {
+		settings.put( AvailableSettings.USE_SECOND_LEVEL_CACHE, "true" );
+		settings.put( AvailableSettings.CACHE_REGION_FACTORY, IgniteRegionFactory.class.getName() );
+		settings.put( AvailableSettings.GENERATE_STATISTICS, "true" );
+	}
+
+	@Override
+	protected Class<?>[] getAnnotatedClasses() {
+		return new Class<?>[]{ CachedPoem.class };
+	}
+}
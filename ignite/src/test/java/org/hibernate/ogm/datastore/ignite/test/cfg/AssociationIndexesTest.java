@@ -0,0 +1,71 @@
+/*
+ * Hibernate OGM, Domain model persistence for NoSQL datastores
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.ogm.datastore.ignite.test.cfg;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.ignite.Ignition;
+import org.apache.ignite.cache.QueryEntity;
+import org.apache.ignite.cache.QueryIndex;
+import org.apache.ignite.configuration.CacheConfiguration;
+import org.hibernate.ogm.OgmSession;
+import org.hibernate.ogm.datastore.ignite.utils.IgniteTestHelper;
+import org.hibernate.ogm.utils.OgmTestCase;
+import org.junit.Test;
+
+/**
+ * Checks which {@code @IndexOption} applies to the indexes generated for the associations, and the estimated inline
+ * size of the string columns
+ */
+public class AssociationIndexesTest extends OgmTestCase {
+
+	@Test
+	public void testOptionsOfEntityMappedToAssociationTableApply() {
+		try ( OgmSession session = openSession() ) {
+			Map<String, QueryIndex> indexes = byName( IgniteTestHelper.getIndexes( session.getSessionFactory(), Volume.class ) );
+			QueryIndex associationIndex = indexes.get( "T_VOLUME_shelf_id_id" );
+			assertThat( associationIndex.getFields().keySet() ).containsOnly( "shelf_id", "id" );
+			assertThat( associationIndex.getInlineSize() ).isEqualTo( 48 );
+		}
+	}
+
+	@Test
+	public void testOptionsOfOwningEntityApplyToJoinTable() {
+		CacheConfiguration<?, ?> config = Ignition.ignite( "OgmTestGrid" ).cache( "T_SHELF_HIGHLIGHT" ).getConfiguration( CacheConfiguration.class );
+		Map<String, QueryIndex> indexes = new HashMap<>();
+		for ( QueryEntity queryEntity : config.getQueryEntities() ) {
+			indexes.putAll( byName( queryEntity.getIndexes() ) );
+		}
+		assertThat( indexes.get( "T_SHELF_HIGHLIGHT_shelf_id_volume_id" ).getInlineSize() ).isEqualTo( 24 );
+	}
+
+	@Test
+	public void testInlineSizeOfStringWithExplicitLength() {
+		try ( OgmSession session = openSession() ) {
+			Map<String, QueryIndex> indexes = byName( IgniteTestHelper.getIndexes( session.getSessionFactory(), Volume.class ) );
+			// type byte, two bytes for the length and the 100 characters
+			assertThat( indexes.get( "title_idx" ).getInlineSize() ).isEqualTo( 103 );
+		}
+	}
+
+	private static Map<String, QueryIndex> byName(Collection<QueryIndex> indexes) {
+		Map<String, QueryIndex> result = new HashMap<>();
+		for ( QueryIndex index : indexes ) {
+			result.put( index.getName(), index );
+		}
+		return result;
+	}
+
+	@Override
+	protected Class<?>[] getAnnotatedClasses() {
+		return new Class<?>[]{ Shelf.class, Volume.class };
+	}
+}
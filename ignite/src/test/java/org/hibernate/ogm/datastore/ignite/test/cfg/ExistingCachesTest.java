@@ -0,0 +1,71 @@
+/*
+ * Hibernate OGM, Domain model persistence for NoSQL datastores
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.ogm.datastore.ignite.test.cfg;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+import org.apache.ignite.Ignite;
+import org.apache.ignite.IgniteCache;
+import org.apache.ignite.Ignition;
+import org.apache.ignite.configuration.CacheConfiguration;
+import org.hibernate.boot.MetadataSources;
+import org.hibernate.boot.registry.StandardServiceRegistry;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.ogm.OgmSessionFactory;
+import org.hibernate.ogm.boot.OgmSessionFactoryBuilder;
+import org.hibernate.ogm.cfg.OgmProperties;
+import org.hibernate.ogm.datastore.ignite.IgniteProperties;
+import org.hibernate.ogm.datastore.ignite.impl.IgniteDatastoreProvider;
+import org.junit.Test;
+
+/**
+ * Bootstraps against a grid in which some of the caches of the model have already been started
+ */
+public class ExistingCachesTest {
+
+	@Test
+	public void testOnlyMissingCachesAreCreated() {
+		try ( Ignite ignite = Ignition.start( new MyTinyGridConfigBuilder().build() ) ) {
+			IgniteCache<String, String> volumes = ignite.createCache( new CacheConfiguration<String, String>( "T_VOLUME" ) );
+			volumes.put( "existing", "entry" );
+
+			StandardServiceRegistry registry = new StandardServiceRegistryBuilder()
+					.applySetting( OgmProperties.ENABLED, true )
+					.applySetting( AvailableSettings.TRANSACTION_COORDINATOR_STRATEGY, "jta" )
+					.applySetting( AvailableSettings.JTA_PLATFORM, "JBossTS" )
+					.applySetting( OgmProperties.DATASTORE_PROVIDER, IgniteDatastoreProvider.class.getName() )
+					.applySetting( IgniteProperties.CONFIGURATION_CLASS_NAME, MyTinyGridConfigBuilder.class.getName() )
+					.build();
+
+			try ( OgmSessionFactory sessionFactory = createFactory( registry ) ) {
+				// the started cache is kept as is
+				CacheConfiguration<?, ?> volumesConfig = volumes.getConfiguration( CacheConfiguration.class );
+				assertThat( volumesConfig.getQueryEntities() ).isEmpty();
+				assertThat( volumes.get( "existing" ) ).isEqualTo( "entry" );
+
+				assertThat( ignite.cacheNames() ).contains( "T_VOLUME", "T_SHELF", "T_SHELF_HIGHLIGHT" );
+				assertThat( queryEntityCount( ignite, "T_SHELF" ) ).isEqualTo( 1 );
+				assertThat( queryEntityCount( ignite, "T_SHELF_HIGHLIGHT" ) ).isEqualTo( 1 );
+			}
+		}
+	}
+
+	private static int queryEntityCount(Ignite ignite, String cacheName) {
+		return ignite.cache( cacheName ).getConfiguration( CacheConfiguration.class ).getQueryEntities().size();
+	}
+
+	private OgmSessionFactory createFactory(StandardServiceRegistry registry) {
+		return new MetadataSources( registry )
+				.addAnnotatedClass( Shelf.class )
+				.addAnnotatedClass( Volume.class )
+				.buildMetadata()
+				.getSessionFactoryBuilder()
+				.unwrap( OgmSessionFactoryBuilder.class )
+				.build();
+	}
+}
@@ -8,9 +8,12 @@
 
 import static org.fest.assertions.Assertions.assertThat;
 
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Set;
 
 import org.apache.ignite.cache.QueryIndex;
+import org.apache.ignite.cache.QueryIndexType;
 import org.hibernate.ogm.OgmSession;
 import org.hibernate.ogm.datastore.ignite.utils.IgniteTestHelper;
 import org.hibernate.ogm.utils.OgmTestCase;
@@ -31,6 +34,25 @@ public void testSuccessfulTextIndexCreation() throws Exception {
 		}
 	}
 
+	@Test
+	public void testInlineSizeAndSortOrder() throws Exception {
+		try ( OgmSession session = openSession() ) {
+			Map<String, QueryIndex> indexes = new HashMap<>();
+			for ( QueryIndex index : IgniteTestHelper.getIndexes( session.getSessionFactory(), Poem.class ) ) {
+				indexes.put( index.getName(), index );
+			}
+			QueryIndex authorIndex = indexes.get( "author_idx" );
+			assertThat( authorIndex.getIndexType() ).isEqualTo( QueryIndexType.SORTED );
+			assertThat( authorIndex.getInlineSize() ).isEqualTo( 64 );
+			assertThat( authorIndex.getFields().get( "author" ) ).isTrue();
+
+			// a column with the default length counts for 32 characters, plus the type and length bytes
+			QueryIndex nameIndex = indexes.get( "name_idx" );
+			assertThat( nameIndex.getInlineSize() ).isEqualTo( 35 );
+			assertThat( nameIndex.getFields().get( "name" ) ).isFalse();
+		}
+	}
+
 	@Override
 	protected Class<?>[] getAnnotatedClasses() {
 		return new Class<?>[]{ Poem.class };
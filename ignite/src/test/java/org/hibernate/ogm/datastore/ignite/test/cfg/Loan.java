@@ -0,0 +1,63 @@
+/*
+ * Hibernate OGM, Domain model persistence for NoSQL datastores
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.ogm.datastore.ignite.test.cfg;
+
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.JoinColumn;
+import javax.persistence.ManyToOne;
+import javax.persistence.Table;
+
+/**
+ * Stores the lender and the borrower of each loan, two associations of {@link Reader}
+ */
+@Entity
+@Table(name = "T_LOAN")
+public class Loan {
+
+	private String id;
+	private Reader lender;
+	private Reader borrower;
+
+	Loan() {
+	}
+
+	public Loan(String id, Reader lender, Reader borrower) {
+		this.id = id;
+		this.lender = lender;
+		this.borrower = borrower;
+	}
+
+	@Id
+	public String getId() {
+		return id;
+	}
+
+	public void setId(String id) {
+		this.id = id;
+	}
+
+	@ManyToOne
+	@JoinColumn(name = "lender_id")
+	public Reader getLender() {
+		return lender;
+	}
+
+	public void setLender(Reader lender) {
+		this.lender = lender;
+	}
+
+	@ManyToOne
+	@JoinColumn(name = "borrower_id")
+	public Reader getBorrower() {
+		return borrower;
+	}
+
+	public void setBorrower(Reader borrower) {
+		this.borrower = borrower;
+	}
+}
@@ -11,6 +11,9 @@
 import javax.persistence.Index;
 import javax.persistence.Table;
 
+import org.hibernate.ogm.datastore.ignite.options.IndexOption;
+import org.hibernate.ogm.datastore.ignite.options.IndexOptions;
+
 /**
  * @author Francois Le Droff
  * @author Guillaume Smet
@@ -24,6 +27,9 @@
 		@Index(columnList = "", name = "index_with_no_keys_idx"),
 		@Index(columnList = "name, author"), // index with no name: the name will be generated by ORM
 })
+@IndexOptions({
+		@IndexOption(forIndex = "author_idx", inlineSize = 64)
+})
 public class Poem {
 
 	private String id;
@@ -0,0 +1,61 @@
+/*
+ * Hibernate OGM, Domain model persistence for NoSQL datastores
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.ogm.datastore.ignite.test.cfg;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.OneToMany;
+import javax.persistence.Table;
+
+/**
+ * Owns two associations stored in the table of {@link Loan}
+ */
+@Entity
+@Table(name = "T_READER")
+public class Reader {
+
+	private String id;
+	private Set<Loan> lent = new HashSet<>();
+	private Set<Loan> borrowed = new HashSet<>();
+
+	Reader() {
+	}
+
+	public Reader(String id) {
+		this.id = id;
+	}
+
+	@Id
+	public String getId() {
+		return id;
+	}
+
+	public void setId(String id) {
+		this.id = id;
+	}
+
+	@OneToMany(mappedBy = "lender")
+	public Set<Loan> getLent() {
+		return lent;
+	}
+
+	public void setLent(Set<Loan> lent) {
+		this.lent = lent;
+	}
+
+	@OneToMany(mappedBy = "borrower")
+	public Set<Loan> getBorrowed() {
+		return borrowed;
+	}
+
+	public void setBorrowed(Set<Loan> borrowed) {
+		this.borrowed = borrowed;
+	}
+}
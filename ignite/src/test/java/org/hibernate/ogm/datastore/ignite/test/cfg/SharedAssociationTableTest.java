@@ -0,0 +1,65 @@
+/*
+ * Hibernate OGM, Domain model persistence for NoSQL datastores
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.ogm.datastore.ignite.test.cfg;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.ignite.cache.QueryIndex;
+import org.hibernate.Transaction;
+import org.hibernate.ogm.OgmSession;
+import org.hibernate.ogm.datastore.ignite.utils.IgniteTestHelper;
+import org.hibernate.ogm.utils.OgmTestCase;
+import org.junit.Test;
+
+/**
+ * Checks the indexes and the navigation of several associations stored in the table of the same entity
+ */
+public class SharedAssociationTableTest extends OgmTestCase {
+
+	@Test
+	public void testEachAssociationIsIndexed() {
+		try ( OgmSession session = openSession() ) {
+			Map<String, QueryIndex> indexes = new HashMap<>();
+			for ( QueryIndex index : IgniteTestHelper.getIndexes( session.getSessionFactory(), Loan.class ) ) {
+				indexes.put( index.getName(), index );
+			}
+			assertThat( indexes.get( "T_LOAN_lender_id_id" ).getFields().keySet() ).containsOnly( "lender_id", "id" );
+			assertThat( indexes.get( "T_LOAN_borrower_id_id" ).getFields().keySet() ).containsOnly( "borrower_id", "id" );
+		}
+	}
+
+	@Test
+	public void testAssociationsAreReadFromSharedTable() {
+		try ( OgmSession session = openSession() ) {
+			Transaction tx = session.beginTransaction();
+			Reader alice = new Reader( "alice" );
+			Reader bob = new Reader( "bob" );
+			session.persist( alice );
+			session.persist( bob );
+			session.persist( new Loan( "loan-1", alice, bob ) );
+			session.persist( new Loan( "loan-2", alice, bob ) );
+			session.persist( new Loan( "loan-3", bob, alice ) );
+			tx.commit();
+		}
+		try ( OgmSession session = openSession() ) {
+			Transaction tx = session.beginTransaction();
+			Reader alice = session.get( Reader.class, "alice" );
+			assertThat( alice.getLent() ).hasSize( 2 );
+			assertThat( alice.getBorrowed() ).hasSize( 1 );
+			assertThat( alice.getBorrowed().iterator().next().getId() ).isEqualTo( "loan-3" );
+			tx.commit();
+		}
+	}
+
+	@Override
+	protected Class<?>[] getAnnotatedClasses() {
+		return new Class<?>[]{ Reader.class, Loan.class };
+	}
+}
@@ -0,0 +1,72 @@
+/*
+ * Hibernate OGM, Domain model persistence for NoSQL datastores
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.ogm.datastore.ignite.test.cfg;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.JoinColumn;
+import javax.persistence.JoinTable;
+import javax.persistence.OneToMany;
+import javax.persistence.Table;
+
+import org.hibernate.ogm.datastore.ignite.options.IndexOption;
+import org.hibernate.ogm.datastore.ignite.options.IndexOptions;
+
+/**
+ * Owns an association stored in the table of {@link Volume} and one stored in a join table
+ */
+@Entity
+@Table(name = "T_SHELF")
+@IndexOptions({
+		// ignored, the option declared on Volume applies to the table of Volume
+		@IndexOption(forIndex = "T_VOLUME_shelf_id_id", inlineSize = 12),
+		@IndexOption(forIndex = "T_SHELF_HIGHLIGHT_shelf_id_volume_id", inlineSize = 24)
+})
+public class Shelf {
+
+	private String id;
+	private Set<Volume> volumes = new HashSet<>();
+	private Set<Volume> highlights = new HashSet<>();
+
+	Shelf() {
+	}
+
+	public Shelf(String id) {
+		this.id = id;
+	}
+
+	@Id
+	public String getId() {
+		return id;
+	}
+
+	public void setId(String id) {
+		this.id = id;
+	}
+
+	@OneToMany(mappedBy = "shelf")
+	public Set<Volume> getVolumes() {
+		return volumes;
+	}
+
+	public void setVolumes(Set<Volume> volumes) {
+		this.volumes = volumes;
+	}
+
+	@OneToMany
+	@JoinTable(name = "T_SHELF_HIGHLIGHT", joinColumns = @JoinColumn(name = "shelf_id"), inverseJoinColumns = @JoinColumn(name = "volume_id"))
+	public Set<Volume> getHighlights() {
+		return highlights;
+	}
+
+	public void setHighlights(Set<Volume> highlights) {
+		this.highlights = highlights;
+	}
+}
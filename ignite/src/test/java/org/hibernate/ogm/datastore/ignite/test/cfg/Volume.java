@@ -0,0 +1,66 @@
+/*
+ * Hibernate OGM, Domain model persistence for NoSQL datastores
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.ogm.datastore.ignite.test.cfg;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.JoinColumn;
+import javax.persistence.ManyToOne;
+import javax.persistence.Table;
+
+import org.hibernate.ogm.datastore.ignite.options.IndexOption;
+import org.hibernate.ogm.datastore.ignite.options.IndexOptions;
+
+@Entity
+@Table(name = "T_VOLUME", indexes = @Index(columnList = "title", name = "title_idx"))
+@IndexOptions({
+		@IndexOption(forIndex = "T_VOLUME_shelf_id_id", inlineSize = 48)
+})
+public class Volume {
+
+	private String id;
+	private String title;
+	private Shelf shelf;
+
+	Volume() {
+	}
+
+	public Volume(String id, String title) {
+		this.id = id;
+		this.title = title;
+	}
+
+	@Id
+	public String getId() {
+		return id;
+	}
+
+	public void setId(String id) {
+		this.id = id;
+	}
+
+	@Column(length = 100)
+	public String getTitle() {
+		return title;
+	}
+
+	public void setTitle(String title) {
+		this.title = title;
+	}
+
+	@ManyToOne
+	@JoinColumn(name = "shelf_id")
+	public Shelf getShelf() {
+		return shelf;
+	}
+
+	public void setShelf(Shelf shelf) {
+		this.shelf = shelf;
+	}
+}
@@ -0,0 +1,180 @@
+/*
+ * Hibernate OGM, Domain model persistence for NoSQL datastores
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.ogm.datastore.ignite.test.concurrency;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import javax.cache.CacheException;
+
+import org.apache.ignite.IgniteCache;
+import org.apache.ignite.binary.BinaryObject;
+import org.apache.ignite.transactions.Transaction;
+import org.apache.ignite.transactions.TransactionConcurrency;
+import org.apache.ignite.transactions.TransactionDeadlockException;
+import org.apache.ignite.transactions.TransactionIsolation;
+import org.apache.ignite.transactions.TransactionTimeoutException;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.ogm.OgmSession;
+import org.hibernate.ogm.datastore.ignite.impl.CacheKeyComparator;
+import org.hibernate.ogm.datastore.ignite.impl.IgniteDatastoreProvider;
+import org.hibernate.ogm.datastore.ignite.test.cfg.Poem;
+import org.hibernate.ogm.datastore.spi.DatastoreProvider;
+import org.hibernate.ogm.model.key.spi.EntityKeyMetadata;
+import org.hibernate.ogm.persister.impl.OgmEntityPersister;
+import org.hibernate.ogm.utils.OgmTestCase;
+import org.junit.Test;
+
+/**
+ * Checks the order in which the multi-key operations lock the cache keys and the count of the transactions aborted
+ * because of a deadlock
+ */
+public class KeyOrderingTest extends OgmTestCase {
+
+	private static final int ITERATIONS = 50;
+
+	@Test
+	public void testComparatorDefinesTotalOrder() {
+		List<Object> keys = new ArrayList<>();
+		keys.add( "b" );
+		keys.add( "a" );
+		keys.add( 2L );
+		keys.add( 1L );
+		for ( int i = 0; i < 4; i++ ) {
+			keys.add( provider().createBinaryObjectBuilder( "CompositeKey" )
+					.setField( "category", "category-" + ( i % 2 ) )
+					.setField( "sequenceNo", i )
+					.build() );
+		}
+
+		List<Object> sorted = new ArrayList<>( keys );
+		Collections.sort( sorted, CacheKeyComparator.INSTANCE );
+		for ( int i = 0; i < 10; i++ ) {
+			List<Object> shuffled = new ArrayList<>( keys );
+			Collections.shuffle( shuffled );
+			Collections.sort( shuffled, CacheKeyComparator.INSTANCE );
+			assertThat( shuffled ).isEqualTo( sorted );
+		}
+
+		for ( Object key1 : keys ) {
+			for ( Object key2 : keys ) {
+				int result = CacheKeyComparator.INSTANCE.compare( key1, key2 );
+				assertThat( Integer.signum( result ) ).isEqualTo( -Integer.signum( CacheKeyComparator.INSTANCE.compare( key2, key1 ) ) );
+				assertThat( result == 0 ).isEqualTo( key1.equals( key2 ) );
+			}
+		}
+		// keys of the same class are in their natural order, classes are ordered by name
+		assertThat( sorted.subList( 0, 4 ) ).isEqualTo( Arrays.<Object>asList( 1L, 2L, "a", "b" ) );
+	}
+
+	@Test
+	public void testCompositeKeysAreComparedFieldByField() {
+		Set<Object> keys = new TreeSet<>( CacheKeyComparator.INSTANCE );
+		for ( int i = 0; i < 200; i++ ) {
+			keys.add( compositeKey( "category-" + ( i % 2 ), i ) );
+		}
+		// no distinct key is merged with another one
+		assertThat( keys ).hasSize( 200 );
+		assertThat( keys.contains( compositeKey( "category-1", 7 ) ) ).isTrue();
+
+		// the fields are compared in the order of their names, the category first
+		List<Object> sorted = new ArrayList<>( keys );
+		assertThat( sorted.get( 0 ) ).isEqualTo( compositeKey( "category-0", 0 ) );
+		assertThat( sorted.get( 99 ) ).isEqualTo( compositeKey( "category-0", 198 ) );
+		assertThat( sorted.get( 100 ) ).isEqualTo( compositeKey( "category-1", 1 ) );
+		assertThat( CacheKeyComparator.INSTANCE.compare( compositeKey( "category-0", 5 ), compositeKey( "category-0", 5 ) ) ).isEqualTo( 0 );
+	}
+
+	@Test
+	public void testOrderedKeysDoNotDeadlock() throws Exception {
+		try ( OgmSession session = openSession() ) {
+			org.hibernate.Transaction tx = session.beginTransaction();
+			session.persist( new Poem( "ordering-1", "Poem 1", "Paul Verlaine" ) );
+			session.persist( new Poem( "ordering-2", "Poem 2", "Paul Verlaine" ) );
+			tx.commit();
+		}
+
+		IgniteCache<Object, BinaryObject> cache = provider().getEntityCache( entityKeyMetadata() );
+		long deadlocks = provider().getDeadlockAbortCount();
+		ExecutorService executor = Executors.newFixedThreadPool( 2 );
+		try {
+			for ( int i = 0; i < ITERATIONS; i++ ) {
+				CountDownLatch start = new CountDownLatch( 2 );
+				// the two transactions see the keys in opposite orders
+				Future<?> first = executor.submit( () -> lockAll( cache, start, "ordering-1", "ordering-2" ) );
+				Future<?> second = executor.submit( () -> lockAll( cache, start, "ordering-2", "ordering-1" ) );
+				first.get( 30, TimeUnit.SECONDS );
+				second.get( 30, TimeUnit.SECONDS );
+			}
+		}
+		finally {
+			executor.shutdownNow();
+		}
+		assertThat( provider().getDeadlockAbortCount() ).isEqualTo( deadlocks );
+	}
+
+	@Test
+	public void testDeadlockIsCounted() {
+		long deadlocks = provider().getDeadlockAbortCount();
+
+		provider().onTransactionFailure( new CacheException( new TransactionTimeoutException( "Timed out",
+				new TransactionDeadlockException( "Deadlock detected" ) ) ) );
+		assertThat( provider().getDeadlockAbortCount() ).isEqualTo( deadlocks + 1 );
+
+		// other failures are not counted
+		provider().onTransactionFailure( new CacheException( new TransactionTimeoutException( "Timed out" ) ) );
+		assertThat( provider().getDeadlockAbortCount() ).isEqualTo( deadlocks + 1 );
+	}
+
+	private Void lockAll(IgniteCache<Object, BinaryObject> cache, CountDownLatch start, Object... keys) throws InterruptedException {
+		Set<Object> sortedKeys = new TreeSet<>( CacheKeyComparator.INSTANCE );
+		sortedKeys.addAll( Arrays.asList( keys ) );
+		start.countDown();
+		start.await();
+		try ( Transaction tx = provider().txStart( TransactionConcurrency.PESSIMISTIC, TransactionIsolation.REPEATABLE_READ, 10_000L, 0 ) ) {
+			// getAll locks the keys in the iteration order of the set
+			assertThat( cache.getAll( sortedKeys ) ).hasSize( keys.length );
+			tx.commit();
+			return null;
+		}
+		catch (RuntimeException e) {
+			provider().onTransactionFailure( e );
+			throw e;
+		}
+	}
+
+	private BinaryObject compositeKey(String category, int sequenceNo) {
+		return provider().createBinaryObjectBuilder( "CompositeKey" )
+				.setField( "category", category )
+				.setField( "sequenceNo", sequenceNo )
+				.build();
+	}
+
+	private IgniteDatastoreProvider provider() {
+		return (IgniteDatastoreProvider) ( (SessionFactoryImplementor) sessionFactory ).getServiceRegistry().getService( DatastoreProvider.class );
+	}
+
+	private EntityKeyMetadata entityKeyMetadata() {
+		return ( (OgmEntityPersister) ( (SessionFactoryImplementor) sessionFactory ).getMetamodel().entityPersister( Poem.class ) ).getEntityKeyMetadata();
+	}
+
+	@Override
+	protected Class<?>[] getAnnotatedClasses() {
+		return new Class<?>[]{ Poem.class };
+	}
+}
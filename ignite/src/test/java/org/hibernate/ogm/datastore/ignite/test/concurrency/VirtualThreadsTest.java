@@ -0,0 +1,118 @@
+/*
+ * Hibernate OGM, Domain model persistence for NoSQL datastores
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.ogm.datastore.ignite.test.concurrency;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.hibernate.Transaction;
+import org.hibernate.ogm.OgmSession;
+import org.hibernate.ogm.datastore.ignite.test.cfg.Poem;
+import org.hibernate.ogm.utils.OgmTestCase;
+import org.junit.Assume;
+import org.junit.Test;
+
+/**
+ * Runs many concurrent sessions on virtual threads, when the JVM supports them. The {@code jdk21} profile runs it with
+ * {@code -Dorg.hibernate.ogm.ignite.test.checkPinnedThreads=true}: the test is then not skipped and fails when the
+ * {@code jdk.VirtualThreadPinned} JFR event is recorded, i.e. when a carrier thread is pinned for longer than the
+ * default threshold of the event (20 ms).
+ */
+public class VirtualThreadsTest extends OgmTestCase {
+
+	private static final int SESSIONS = 2000;
+
+	private static final String CHECK_PINNED_THREADS = "org.hibernate.ogm.ignite.test.checkPinnedThreads";
+	private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+	@Test
+	public void testConcurrentSessionsOnVirtualThreads() throws Exception {
+		boolean checkPinnedThreads = Boolean.getBoolean( CHECK_PINNED_THREADS );
+		ExecutorService executor = newVirtualThreadPerTaskExecutor();
+		if ( checkPinnedThreads ) {
+			assertThat( executor ).as( "Virtual threads are not supported by this JVM" ).isNotNull();
+		}
+		Assume.assumeNotNull( executor );
+		Queue<String> pinnedEvents = new ConcurrentLinkedQueue<>();
+		AutoCloseable recording = checkPinnedThreads ? recordPinnedThreads( pinnedEvents ) : null;
+		try {
+			List<Future<Poem>> results = new ArrayList<>( SESSIONS );
+			for ( int i = 0; i < SESSIONS; i++ ) {
+				String id = "poem-" + i;
+				results.add( executor.submit( () -> {
+					try ( OgmSession session = openSession() ) {
+						Transaction tx = session.beginTransaction();
+						session.persist( new Poem( id, "Poem " + id, "Oscar Wilde" ) );
+						tx.commit();
+					}
+					try ( OgmSession session = openSession() ) {
+						Transaction tx = session.beginTransaction();
+						Poem poem = session.get( Poem.class, id );
+						tx.commit();
+						return poem;
+					}
+				} ) );
+			}
+			for ( int i = 0; i < SESSIONS; i++ ) {
+				Poem poem = results.get( i ).get( 1, TimeUnit.MINUTES );
+				assertThat( poem ).isNotNull();
+				assertThat( poem.getName() ).isEqualTo( "Poem poem-" + i );
+			}
+		}
+		finally {
+			executor.shutdownNow();
+			if ( recording != null ) {
+				stop( recording );
+			}
+		}
+		assertThat( pinnedEvents ).as( "Carrier threads pinned" ).isEmpty();
+	}
+
+	private static ExecutorService newVirtualThreadPerTaskExecutor() {
+		try {
+			return (ExecutorService) Executors.class.getMethod( "newVirtualThreadPerTaskExecutor" ).invoke( null );
+		}
+		catch (ReflectiveOperationException e) {
+			// virtual threads require Java 21
+			return null;
+		}
+	}
+
+	/**
+	 * Streams the pinning events of this JVM, through reflection as the tests are compiled for Java 8
+	 */
+	private static AutoCloseable recordPinnedThreads(Queue<String> pinnedEvents) throws ReflectiveOperationException {
+		Class<?> streamClass = Class.forName( "jdk.jfr.consumer.RecordingStream" );
+		AutoCloseable stream = (AutoCloseable) streamClass.getConstructor().newInstance();
+		Object settings = streamClass.getMethod( "enable", String.class ).invoke( stream, PINNED_EVENT );
+		Class.forName( "jdk.jfr.EventSettings" ).getMethod( "withStackTrace" ).invoke( settings );
+		Consumer<Object> onEvent = event -> pinnedEvents.add( event.toString() );
+		streamClass.getMethod( "onEvent", String.class, Consumer.class ).invoke( stream, PINNED_EVENT, onEvent );
+		streamClass.getMethod( "startAsync" ).invoke( stream );
+		return stream;
+	}
+
+	private static void stop(AutoCloseable recording) throws Exception {
+		// stop() flushes the events recorded so far to the consumer, close() would discard them
+		recording.getClass().getMethod( "stop" ).invoke( recording );
+		recording.close();
+	}
+
+	@Override
+	protected Class<?>[] getAnnotatedClasses() {
+		return new Class<?>[]{ Poem.class };
+	}
+}
@@ -0,0 +1,276 @@
+/*
+ * Hibernate OGM, Domain model persistence for NoSQL datastores
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.ogm.datastore.ignite.test.locking;
+
+import static org.fest.assertions.Assertions.assertThat;
+import static org.junit.Assert.fail;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+
+import org.apache.ignite.IgniteCache;
+import org.apache.ignite.binary.BinaryObject;
+import org.hibernate.LockMode;
+import org.hibernate.LockOptions;
+import org.hibernate.StaleObjectStateException;
+import org.hibernate.Transaction;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.ogm.OgmSession;
+import org.hibernate.ogm.datastore.ignite.IgniteLockingStrategyException;
+import org.hibernate.ogm.datastore.ignite.IgniteProperties;
+import org.hibernate.ogm.datastore.ignite.impl.IgniteDatastoreProvider;
+import org.hibernate.ogm.datastore.ignite.test.cfg.Poem;
+import org.hibernate.ogm.datastore.spi.DatastoreProvider;
+import org.hibernate.ogm.model.key.spi.EntityKey;
+import org.hibernate.ogm.model.key.spi.EntityKeyMetadata;
+import org.hibernate.ogm.persister.impl.OgmEntityPersister;
+import org.hibernate.ogm.utils.OgmTestCase;
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * Two sessions contending for the same entities. Each Ignite transaction is bound to a thread, the contending session
+ * runs on another thread.
+ */
+public class PessimisticLockingTest extends OgmTestCase {
+
+	// timeout of the transactions of the contending session, in milliseconds
+	private static final long CONTENDING_TIMEOUT = 500L;
+
+	private final ExecutorService otherThread = Executors.newSingleThreadExecutor();
+
+	@After
+	public void shutdownOtherThread() {
+		otherThread.shutdownNow();
+	}
+
+	@Test
+	public void testLockWaitIsBoundedByTransactionTimeoutAndLockIsReleasedOnCommit() throws Exception {
+		persistPoems( "lock-1" );
+
+		try ( OgmSession session = openSession() ) {
+			Transaction tx = session.beginTransaction();
+			Poem poem = session.get( Poem.class, "lock-1" );
+			session.buildLockRequest( new LockOptions( LockMode.PESSIMISTIC_WRITE ) ).lock( poem );
+
+			assertThat( lockInOtherThread( "lock-1" ) ).isFalse();
+			tx.commit();
+		}
+		assertThat( lockInOtherThread( "lock-1" ) ).isTrue();
+	}
+
+	@Test
+	public void testLockIsReleasedOnRollback() throws Exception {
+		persistPoems( "lock-2" );
+
+		try ( OgmSession session = openSession() ) {
+			Transaction tx = session.beginTransaction();
+			Poem poem = session.get( Poem.class, "lock-2" );
+			session.buildLockRequest( new LockOptions( LockMode.PESSIMISTIC_READ ) ).lock( poem );
+
+			assertThat( lockInOtherThread( "lock-2" ) ).isFalse();
+			tx.rollback();
+		}
+		assertThat( lockInOtherThread( "lock-2" ) ).isTrue();
+	}
+
+	@Test
+	public void testNoWaitFailsAtOnceOutsideOfTransaction() throws Exception {
+		persistPoems( "lock-3" );
+		Lock explicitLock = entityCache().lock( "lock-3" );
+		otherThread.submit( explicitLock::lock ).get( 10, TimeUnit.SECONDS );
+
+		try ( OgmSession session = openSession() ) {
+			Poem poem = session.get( Poem.class, "lock-3" );
+			LockOptions noWait = new LockOptions( LockMode.PESSIMISTIC_WRITE ).setTimeOut( LockOptions.NO_WAIT );
+			try {
+				session.buildLockRequest( noWait ).lock( poem );
+				fail( "The entity is locked by another thread" );
+			}
+			catch (RuntimeException e) {
+				assertThat( hasCause( e, IgniteLockingStrategyException.class ) ).isTrue();
+			}
+
+			otherThread.submit( explicitLock::unlock ).get( 10, TimeUnit.SECONDS );
+			session.buildLockRequest( noWait ).lock( poem );
+		}
+		// the lock is released at once, there is no transaction to wait for
+		assertThat( lockInOtherThread( "lock-3" ) ).isTrue();
+	}
+
+	@Test
+	public void testLockOfRemovedEntityFails() throws Exception {
+		persistPoems( "lock-4" );
+
+		try ( OgmSession session = openSession() ) {
+			// read without transaction, nothing is locked
+			Poem poem = session.get( Poem.class, "lock-4" );
+			try ( OgmSession otherSession = openSession() ) {
+				Transaction tx = otherSession.beginTransaction();
+				otherSession.delete( otherSession.get( Poem.class, "lock-4" ) );
+				tx.commit();
+			}
+
+			Transaction tx = session.beginTransaction();
+			try {
+				session.buildLockRequest( new LockOptions( LockMode.PESSIMISTIC_WRITE ) ).lock( poem );
+				fail( "The entity has been removed" );
+			}
+			catch (RuntimeException e) {
+				assertThat( hasCause( e, StaleObjectStateException.class ) ).isTrue();
+			}
+			finally {
+				tx.rollback();
+			}
+		}
+	}
+
+	@Test
+	public void testLockFailsInTransactionNotLockingReads() throws Exception {
+		persistPoems( "lock-5" );
+
+		try ( OgmSession session = openSession() ) {
+			session.setProperty( IgniteProperties.TRANSACTION_ISOLATION, "READ_COMMITTED" );
+			Transaction tx = session.beginTransaction();
+			Poem poem = session.get( Poem.class, "lock-5" );
+			try {
+				session.buildLockRequest( new LockOptions( LockMode.PESSIMISTIC_WRITE ) ).lock( poem );
+				fail( "A READ_COMMITTED transaction does not lock the entries it reads" );
+			}
+			catch (RuntimeException e) {
+				assertThat( hasCause( e, IgniteLockingStrategyException.class ) ).isTrue();
+			}
+			finally {
+				tx.rollback();
+			}
+		}
+	}
+
+	@Test
+	public void testForUpdateHintLocksRequestedPage() throws Exception {
+		persistPoems( "lock-6", "lock-7", "lock-8" );
+
+		try ( OgmSession session = openSession() ) {
+			Transaction tx = session.beginTransaction();
+			List<Poem> poems = session.createQuery( "FROM Poem p WHERE p.author = :author ORDER BY p.id", Poem.class )
+					.setParameter( "author", "Charles Baudelaire" )
+					.addQueryHint( "forUpdate" )
+					.setFirstResult( 1 )
+					.setMaxResults( 1 )
+					.getResultList();
+			assertThat( poems ).onProperty( "id" ).containsExactly( "lock-7" );
+
+			assertThat( lockInOtherThread( "lock-7" ) ).isFalse();
+			assertThat( lockInOtherThread( "lock-6" ) ).isTrue();
+			assertThat( lockInOtherThread( "lock-8" ) ).isTrue();
+			tx.commit();
+		}
+		assertThat( lockInOtherThread( "lock-7" ) ).isTrue();
+	}
+
+	@Test
+	public void testForUpdateHintRequiresTransactionLockingReads() throws Exception {
+		persistPoems( "lock-9" );
+
+		try ( OgmSession session = openSession() ) {
+			session.setProperty( IgniteProperties.TRANSACTION_ISOLATION, "READ_COMMITTED" );
+			Transaction tx = session.beginTransaction();
+			try {
+				session.createQuery( "FROM Poem p WHERE p.author = :author", Poem.class )
+						.setParameter( "author", "Charles Baudelaire" )
+						.addQueryHint( "forUpdate" )
+						.getResultList();
+				fail( "A READ_COMMITTED transaction does not lock the entries it reads" );
+			}
+			catch (RuntimeException e) {
+				assertThat( hasMessage( e, "OGM001717" ) ).isTrue();
+			}
+			finally {
+				tx.rollback();
+			}
+		}
+	}
+
+	/**
+	 * Locks an entity from another session, in a transaction of the other thread
+	 *
+	 * @return {@code true} if the lock has been acquired before the timeout of the transaction
+	 */
+	private boolean lockInOtherThread(String id) throws Exception {
+		return otherThread.submit( () -> {
+			try ( OgmSession session = openSession() ) {
+				// read without transaction, nothing is locked
+				Poem poem = session.get( Poem.class, id );
+				session.setProperty( IgniteProperties.TRANSACTION_TIMEOUT, CONTENDING_TIMEOUT );
+				Transaction tx = session.beginTransaction();
+				try {
+					session.buildLockRequest( new LockOptions( LockMode.PESSIMISTIC_WRITE ) ).lock( poem );
+					return true;
+				}
+				catch (RuntimeException e) {
+					if ( !hasCause( e, IgniteLockingStrategyException.class ) ) {
+						throw e;
+					}
+					return false;
+				}
+				finally {
+					tx.rollback();
+				}
+			}
+		} ).get( 30, TimeUnit.SECONDS );
+	}
+
+	private void persistPoems(String... ids) {
+		try ( OgmSession session = openSession() ) {
+			Transaction tx = session.beginTransaction();
+			for ( String id : ids ) {
+				session.persist( new Poem( id, "Poem " + id, "Charles Baudelaire" ) );
+			}
+			tx.commit();
+		}
+	}
+
+	private IgniteCache<Object, BinaryObject> entityCache() {
+		SessionFactoryImplementor factory = (SessionFactoryImplementor) sessionFactory;
+		IgniteDatastoreProvider provider = (IgniteDatastoreProvider) factory.getServiceRegistry().getService( DatastoreProvider.class );
+		EntityKeyMetadata metadata = ( (OgmEntityPersister) factory.getMetamodel().entityPersister( Poem.class ) ).getEntityKeyMetadata();
+		return provider.getEntityCache( metadata );
+	}
+
+	private static boolean hasCause(Throwable e, Class<? extends Throwable> type) {
+		for ( Throwable cause = e; cause != null; cause = cause.getCause() ) {
+			if ( type.isInstance( cause ) ) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static boolean hasMessage(Throwable e, String messageId) {
+		for ( Throwable cause = e; cause != null; cause = cause.getCause() ) {
+			if ( cause.getMessage() != null && cause.getMessage().contains( messageId ) ) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	@Override
+	protected void configure(Map<String, Object> settings) {
+		// the transactions only lock the entries they read with this isolation
+		settings.put( IgniteProperties.TRANSACTION_ISOLATION, "REPEATABLE_READ" );
+	}
+
+	@Override
+	protected Class<?>[] getAnnotatedClasses() {
+		return new Class<?>[]{ Poem.class };
+	}
+}
@@ -0,0 +1,79 @@
+/*
+ * Hibernate OGM, Domain model persistence for NoSQL datastores
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.ogm.datastore.ignite.test.metrics;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.Set;
+
+import javax.management.JMX;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.hibernate.Transaction;
+import org.hibernate.ogm.OgmSession;
+import org.hibernate.ogm.datastore.ignite.IgniteProperties;
+import org.hibernate.ogm.datastore.ignite.metrics.OperationMetricsMXBean;
+import org.hibernate.ogm.datastore.ignite.metrics.impl.IgniteMetrics;
+import org.hibernate.ogm.datastore.ignite.test.cache.CachedPoem;
+import org.hibernate.ogm.utils.OgmTestCase;
+import org.junit.Test;
+
+/**
+ * Reads the statistics of the operations of the dialect from their MBeans
+ */
+public class OperationMetricsTest extends OgmTestCase {
+
+	@Test
+	public void testOperationsAreMeasured() throws Exception {
+		try ( OgmSession session = openSession() ) {
+			Transaction tx = session.beginTransaction();
+			session.persist( new CachedPoem( "poem-1", "L'albatros" ) );
+			tx.commit();
+		}
+		try ( OgmSession session = openSession() ) {
+			Transaction tx = session.beginTransaction();
+			assertThat( session.get( CachedPoem.class, "poem-1" ).getName() ).isEqualTo( "L'albatros" );
+			assertThat( session.get( CachedPoem.class, "poem-2" ) ).isNull();
+			tx.commit();
+		}
+
+		OperationMetricsMXBean getTuple = operationMetrics( "getTuple", "CachedPoem" );
+		assertThat( getTuple.getOperation() ).isEqualTo( "getTuple" );
+		assertThat( getTuple.getCacheName() ).isEqualTo( "CachedPoem" );
+		assertThat( getTuple.getCount() ).isGreaterThanOrEqualTo( 2L );
+		assertThat( getTuple.getRows() ).isGreaterThanOrEqualTo( 1L );
+		assertThat( getTuple.getMaxTimeMicros() ).isGreaterThanOrEqualTo( 0L );
+
+		OperationMetricsMXBean insertOrUpdateTuple = operationMetrics( "insertOrUpdateTuple", "CachedPoem" );
+		assertThat( insertOrUpdateTuple.getCount() ).isGreaterThanOrEqualTo( 1L );
+		assertThat( insertOrUpdateTuple.getBytesWritten() ).isGreaterThan( 0L );
+
+		getTuple.reset();
+		assertThat( getTuple.getCount() ).isEqualTo( 0L );
+	}
+
+	private OperationMetricsMXBean operationMetrics(String operation, String cacheName) throws Exception {
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		Set<ObjectName> names = server.queryNames( new ObjectName( IgniteMetrics.JMX_DOMAIN + ":type=Operation"
+				+ ",operation=" + operation + ",cache=" + ObjectName.quote( cacheName ) + ",*" ), null );
+		assertThat( names ).hasSize( 1 );
+		return JMX.newMXBeanProxy( server, names.iterator().next(), OperationMetricsMXBean.class );
+	}
+
+	@Override
+	protected void configure(Map<String, Object> settings) {
+		settings.put( IgniteProperties.METRICS_ENABLED, "true" );
+	}
+
+	@Override
+	protected Class<?>[] getAnnotatedClasses() {
+		return new Class<?>[]{ CachedPoem.class };
+	}
+}
@@ -0,0 +1,95 @@
+/*
+ * Hibernate OGM, Domain model persistence for NoSQL datastores
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.ogm.datastore.ignite.test.queries;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.hibernate.ogm.datastore.ignite.logging.impl.FullScanDetector;
+import org.hibernate.ogm.datastore.ignite.query.impl.QueryPlan;
+import org.junit.Test;
+
+/**
+ * Checks that {@link FullScanDetector} explains a query once, before its first execution
+ */
+public class FullScanDetectorTest {
+
+	private static final String SCAN_SQL = "SELECT _KEY FROM MOVIE WHERE UPPER(TITLE) = ?";
+	private static final String INDEXED_SQL = "SELECT _KEY FROM MOVIE WHERE TITLE = ?";
+
+	private final AtomicInteger explains = new AtomicInteger();
+
+	@Test
+	public void testQueryIsExplainedOnceBeforeExecution() {
+		FullScanDetector detector = new FullScanDetector( 2 );
+
+		QueryPlan plan = detector.checkBeforeExecution( SCAN_SQL, explain( SCAN_SQL, "/* PUBLIC.MOVIE.__SCAN_ */" ) );
+		assertThat( explains.get() ).isEqualTo( 1 );
+		assertThat( plan.getScannedTables() ).containsOnly( "PUBLIC.MOVIE" );
+
+		assertThat( detector.checkBeforeExecution( SCAN_SQL, explain( SCAN_SQL, "/* PUBLIC.MOVIE.__SCAN_ */" ) ) ).isSameAs( plan );
+		assertThat( explains.get() ).isEqualTo( 1 );
+	}
+
+	@Test
+	public void testFullScanIsReportedOnceWhenThresholdIsExceeded() {
+		FullScanDetector detector = new FullScanDetector( 2 );
+		QueryPlan plan = detector.checkBeforeExecution( SCAN_SQL, explain( SCAN_SQL, "/* PUBLIC.MOVIE.__SCAN_ */" ) );
+
+		// below the threshold, the query is still watched
+		assertThat( readAll( detector.monitor( rows( 2 ), plan ) ) ).hasSize( 2 );
+		assertThat( detector.checkBeforeExecution( SCAN_SQL, explain( SCAN_SQL, "/* PUBLIC.MOVIE.__SCAN_ */" ) ) ).isSameAs( plan );
+
+		assertThat( readAll( detector.monitor( rows( 3 ), plan ) ) ).hasSize( 3 );
+		assertThat( detector.checkBeforeExecution( SCAN_SQL, explain( SCAN_SQL, "/* PUBLIC.MOVIE.__SCAN_ */" ) ) ).isNull();
+		assertThat( explains.get() ).isEqualTo( 1 );
+	}
+
+	@Test
+	public void testQueryUsingIndexIsNotMonitored() {
+		FullScanDetector detector = new FullScanDetector( 2 );
+		QueryPlan plan = detector.checkBeforeExecution( INDEXED_SQL, explain( INDEXED_SQL, "/* PUBLIC.MOVIE_TITLE_IDX: TITLE = ?1 */" ) );
+		assertThat( plan ).isNull();
+
+		Iterable<List<?>> rows = rows( 5 );
+		assertThat( detector.monitor( rows, plan ) ).isSameAs( rows );
+	}
+
+	@Test
+	public void testDisabledDetectorDoesNotExplain() {
+		FullScanDetector detector = new FullScanDetector( -1 );
+		assertThat( detector.checkBeforeExecution( SCAN_SQL, explain( SCAN_SQL, "/* PUBLIC.MOVIE.__SCAN_ */" ) ) ).isNull();
+		assertThat( explains.get() ).isEqualTo( 0 );
+	}
+
+	private Supplier<QueryPlan> explain(String sql, String indexComment) {
+		return () -> {
+			explains.incrementAndGet();
+			return new QueryPlan( sql, Collections.singletonList( "SELECT __Z0._KEY FROM PUBLIC.MOVIE __Z0 " + indexComment ), null, false );
+		};
+	}
+
+	private static Iterable<List<?>> rows(int count) {
+		List<List<?>> rows = new ArrayList<>();
+		for ( int i = 0; i < count; i++ ) {
+			rows.add( Arrays.asList( "movie-" + i ) );
+		}
+		return rows;
+	}
+
+	private static List<List<?>> readAll(Iterable<List<?>> rows) {
+		List<List<?>> result = new ArrayList<>();
+		rows.forEach( result::add );
+		return result;
+	}
+}
@@ -0,0 +1,63 @@
+/*
+ * Hibernate OGM, Domain model persistence for NoSQL datastores
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.ogm.datastore.ignite.test.queries;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.hibernate.ogm.datastore.ignite.impl.IgniteProjectionTupleSnapshot;
+import org.junit.Test;
+
+/**
+ * Checks that the columns of a projection row are looked up by their position in the row
+ */
+public class ProjectionTupleSnapshotTest {
+
+	@Test
+	public void testColumnsAreReadByPosition() {
+		Map<String, Integer> columnIndexes = columnIndexes( "name", "author", "year" );
+		IgniteProjectionTupleSnapshot first = new IgniteProjectionTupleSnapshot( columnIndexes, Arrays.asList( "Le Lac", "Alphonse de Lamartine", 1820 ) );
+		IgniteProjectionTupleSnapshot second = new IgniteProjectionTupleSnapshot( columnIndexes, Arrays.asList( "Zone", "Guillaume Apollinaire", 1913 ) );
+
+		assertThat( first.get( "name" ) ).isEqualTo( "Le Lac" );
+		assertThat( first.get( "author" ) ).isEqualTo( "Alphonse de Lamartine" );
+		assertThat( first.get( "year" ) ).isEqualTo( 1820 );
+		// the positions are shared by all the rows of the query
+		assertThat( second.get( "name" ) ).isEqualTo( "Zone" );
+		assertThat( second.get( "year" ) ).isEqualTo( 1913 );
+		assertThat( first.getColumnNames() ).containsOnly( "name", "author", "year" );
+		assertThat( first.isEmpty() ).isFalse();
+	}
+
+	@Test
+	public void testNullValueAndUnknownColumn() {
+		IgniteProjectionTupleSnapshot snapshot = new IgniteProjectionTupleSnapshot( columnIndexes( "name", "author" ), Arrays.asList( "Le Lac", null ) );
+
+		assertThat( snapshot.get( "author" ) ).isNull();
+		assertThat( snapshot.get( "unknown" ) ).isNull();
+	}
+
+	@Test
+	public void testRowWithoutColumnsIsEmpty() {
+		IgniteProjectionTupleSnapshot snapshot = new IgniteProjectionTupleSnapshot( Collections.<String, Integer>emptyMap(), Collections.emptyList() );
+
+		assertThat( snapshot.isEmpty() ).isTrue();
+		assertThat( snapshot.getColumnNames() ).isEmpty();
+	}
+
+	private static Map<String, Integer> columnIndexes(String... columns) {
+		Map<String, Integer> indexes = new LinkedHashMap<>();
+		for ( String column : columns ) {
+			indexes.put( column, indexes.size() );
+		}
+		return indexes;
+	}
+}
@@ -10,9 +10,6 @@
 
 import javax.persistence.EntityManager;
 
-import org.junit.Ignore;
-import org.junit.Test;
-
 /**
  * Copied from {@link org.hibernate.ogm.backendtck.queries.QueriesWithAssociationsTest} but Ignite queries are not
  * transactional so we need another algorithm in {@code removeEntities()}
@@ -34,11 +31,4 @@ protected void removeEntities() throws Exception {
 		}
 		em.close();
 	}
-
-	@Test
-	@Override
-	@Ignore
-	public void testGetWithJoinOnAssociations() throws Exception {
-		// Ignite does not support JOIN right now
-	}
 }
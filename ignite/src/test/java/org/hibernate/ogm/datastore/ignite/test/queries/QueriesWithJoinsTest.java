@@ -0,0 +1,167 @@
+/*
+ * Hibernate OGM, Domain model persistence for NoSQL datastores
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.ogm.datastore.ignite.test.queries;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+import java.util.List;
+
+import org.hibernate.Session;
+import org.hibernate.Transaction;
+import org.hibernate.ogm.backendtck.associations.manytoone.JUG;
+import org.hibernate.ogm.backendtck.associations.manytoone.Member;
+import org.hibernate.ogm.backendtck.associations.manytoone.SalesForce;
+import org.hibernate.ogm.backendtck.associations.manytoone.SalesGuy;
+import org.hibernate.ogm.utils.OgmTestCase;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Checks the results of the JP-QL queries rendered as Ignite SQL joins
+ */
+public class QueriesWithJoinsTest extends OgmTestCase {
+
+	@Test
+	public void testInnerJoinOnManyToOne() {
+		try ( Session session = openSession() ) {
+			List<Member> members = session.createQuery( "SELECT m FROM Member m JOIN m.memberOf j WHERE j.name = :name ORDER BY m.name", Member.class )
+					.setParameter( "name", "JUG Summer Camp" )
+					.getResultList();
+			assertThat( members ).onProperty( "name" ).containsExactly( "Emmanuel", "Jerome" );
+		}
+	}
+
+	@Test
+	public void testInnerJoinSkipsEntitiesWithoutAssociation() {
+		try ( Session session = openSession() ) {
+			List<String> names = session.createQuery( "SELECT m.name FROM Member m JOIN m.memberOf j ORDER BY m.name", String.class )
+					.getResultList();
+			assertThat( names ).containsExactly( "Emmanuel", "Jerome", "Sanne" );
+		}
+	}
+
+	@Test
+	public void testLeftJoinKeepsEntitiesWithoutAssociation() {
+		try ( Session session = openSession() ) {
+			List<Object[]> rows = session.createQuery( "SELECT m.name, j.name FROM Member m LEFT JOIN m.memberOf j ORDER BY m.name", Object[].class )
+					.getResultList();
+			assertThat( rows ).hasSize( 4 );
+			assertThat( rows.get( 0 ) ).isEqualTo( new Object[]{ "Davide", null } );
+			assertThat( rows.get( 1 ) ).isEqualTo( new Object[]{ "Emmanuel", "JUG Summer Camp" } );
+			assertThat( rows.get( 2 ) ).isEqualTo( new Object[]{ "Jerome", "JUG Summer Camp" } );
+			assertThat( rows.get( 3 ) ).isEqualTo( new Object[]{ "Sanne", "Lyon JUG" } );
+		}
+	}
+
+	@Test
+	public void testImplicitJoinOnManyToOne() {
+		try ( Session session = openSession() ) {
+			List<String> names = session.createQuery( "SELECT m.name FROM Member m WHERE m.memberOf.name = :name", String.class )
+					.setParameter( "name", "Lyon JUG" )
+					.getResultList();
+			assertThat( names ).containsExactly( "Sanne" );
+		}
+	}
+
+	@Test
+	public void testInnerJoinOnOneToMany() {
+		try ( Session session = openSession() ) {
+			List<String> corporations = session.createQuery( "SELECT f.corporation FROM SalesForce f JOIN f.salesGuys g WHERE g.name = :name", String.class )
+					.setParameter( "name", "Simon" )
+					.getResultList();
+			assertThat( corporations ).containsExactly( "Red Hat" );
+
+			List<String> salesGuys = session.createQuery( "SELECT g.name FROM SalesForce f JOIN f.salesGuys g WHERE f.corporation = :corporation ORDER BY g.name", String.class )
+					.setParameter( "corporation", "Red Hat" )
+					.getResultList();
+			assertThat( salesGuys ).containsExactly( "Eric", "Simon" );
+		}
+	}
+
+	@Test
+	public void testCrossJoinOfSeveralRoots() {
+		try ( Session session = openSession() ) {
+			List<Object[]> rows = session.createQuery( "SELECT m.name, j.name FROM Member m, JUG j ORDER BY m.name, j.name", Object[].class )
+					.getResultList();
+			// every member with every JUG
+			assertThat( rows ).hasSize( 8 );
+			assertThat( rows.get( 0 ) ).isEqualTo( new Object[]{ "Davide", "JUG Summer Camp" } );
+			assertThat( rows.get( 1 ) ).isEqualTo( new Object[]{ "Davide", "Lyon JUG" } );
+
+			List<String> names = session.createQuery( "SELECT m.name FROM Member m, JUG j WHERE j.name = :jug AND m.name <> :member ORDER BY m.name", String.class )
+					.setParameter( "jug", "Lyon JUG" )
+					.setParameter( "member", "Davide" )
+					.getResultList();
+			assertThat( names ).containsExactly( "Emmanuel", "Jerome", "Sanne" );
+		}
+	}
+
+	@Before
+	public void populateDb() {
+		try ( Session session = openSession() ) {
+			Transaction transaction = session.beginTransaction();
+			JUG summerCamp = jug( session, "summer_camp", "JUG Summer Camp" );
+			JUG lyon = jug( session, "lyon", "Lyon JUG" );
+			member( session, "emmanuel", "Emmanuel", summerCamp );
+			member( session, "jerome", "Jerome", summerCamp );
+			member( session, "sanne", "Sanne", lyon );
+			member( session, "davide", "Davide", null );
+
+			SalesForce force = new SalesForce( "red_hat" );
+			force.setCorporation( "Red Hat" );
+			session.save( force );
+			salesGuy( session, "eric", "Eric", force );
+			salesGuy( session, "simon", "Simon", force );
+			transaction.commit();
+		}
+	}
+
+	@After
+	public void removeTestEntities() {
+		try ( Session session = openSession() ) {
+			Transaction transaction = session.beginTransaction();
+			for ( String id : new String[]{ "emmanuel", "jerome", "sanne", "davide" } ) {
+				session.delete( session.get( Member.class, id ) );
+			}
+			session.delete( session.get( JUG.class, "summer_camp" ) );
+			session.delete( session.get( JUG.class, "lyon" ) );
+			session.delete( session.get( SalesGuy.class, "eric" ) );
+			session.delete( session.get( SalesGuy.class, "simon" ) );
+			session.delete( session.get( SalesForce.class, "red_hat" ) );
+			transaction.commit();
+		}
+		checkCleanCache();
+	}
+
+	private static JUG jug(Session session, String id, String name) {
+		JUG jug = new JUG( id );
+		jug.setName( name );
+		session.persist( jug );
+		return jug;
+	}
+
+	private static void member(Session session, String id, String name, JUG jug) {
+		Member member = new Member( id );
+		member.setName( name );
+		member.setMemberOf( jug );
+		session.persist( member );
+	}
+
+	private static void salesGuy(Session session, String id, String name, SalesForce force) {
+		SalesGuy salesGuy = new SalesGuy( id );
+		salesGuy.setName( name );
+		salesGuy.setSalesForce( force );
+		force.getSalesGuys().add( salesGuy );
+		session.save( salesGuy );
+	}
+
+	@Override
+	protected Class<?>[] getAnnotatedClasses() {
+		return new Class<?>[]{ JUG.class, Member.class, SalesForce.class, SalesGuy.class };
+	}
+}
@@ -6,13 +6,20 @@
  */
 package org.hibernate.ogm.datastore.ignite.test.queries;
 
+import static org.fest.assertions.Assertions.assertThat;
+
+import java.util.Collections;
 import java.util.GregorianCalendar;
 import java.util.List;
+import java.util.Map;
 
 import javax.persistence.EntityManager;
-import static org.fest.assertions.Assertions.assertThat;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
 import org.hibernate.ogm.backendtck.queries.parameters.Genre;
 import org.hibernate.ogm.backendtck.queries.parameters.Movie;
+import org.hibernate.ogm.datastore.ignite.query.impl.IgniteQueryDescriptor;
+import org.hibernate.ogm.datastore.ignite.query.parsing.impl.IgniteQueryParserService;
 import org.hibernate.ogm.utils.jpa.OgmJpaTestCase;
 import org.junit.After;
 import org.junit.Before;
@@ -95,6 +102,119 @@ public void testWithArithmeticOperations() {
 		em.close();
 	}
 
+	@Test
+	public void testRestrictionOnId() {
+		EntityManager em = getFactory().createEntityManager();
+		em.getTransaction().begin();
+		List<Movie> movies;
+
+		movies = em.createQuery( "from Movie m where m.id = :id", Movie.class )
+			.setParameter( "id", "movie-2" )
+			.getResultList();
+		assertThat( movies ).onProperty( "id" ).containsOnly( "movie-2" );
+
+		movies = em.createQuery( "from Movie m where m.id in (:id1, :id2) and m.viewerRating = 7", Movie.class )
+			.setParameter( "id1", "movie-1" )
+			.setParameter( "id2", "movie-4" )
+			.getResultList();
+		assertThat( movies ).onProperty( "id" ).containsOnly( "movie-4" );
+
+		movies = em.createQuery( "from Movie m where m.id = :id or m.viewerRating = 9", Movie.class )
+			.setParameter( "id", "movie-1" )
+			.getResultList();
+		assertThat( movies ).onProperty( "id" ).containsOnly( "movie-1", "movie-2" );
+
+		em.getTransaction().commit();
+		em.close();
+	}
+
+	@Test
+	public void testIdentifierIsRenderedAsKey() {
+		String sql = render( "from Movie m where m.id = :id order by m.id", Collections.<String, Object>singletonMap( "id", "movie-2" ) );
+		assertThat( sql.substring( sql.indexOf( " WHERE " ) ) ).contains( "m._KEY=" ).excludes( "m.id" );
+		assertThat( sql.substring( sql.indexOf( " ORDER BY " ) ) ).contains( "m._KEY" );
+
+		EntityManager em = getFactory().createEntityManager();
+		em.getTransaction().begin();
+		List<Movie> movies = em.createQuery( "from Movie m where m.id in (:id1, :id2) order by m.id desc", Movie.class )
+			.setParameter( "id1", "movie-1" )
+			.setParameter( "id2", "movie-3" )
+			.getResultList();
+		assertThat( movies ).onProperty( "id" ).containsExactly( "movie-3", "movie-1" );
+		em.getTransaction().commit();
+		em.close();
+	}
+
+	@Test
+	public void testNegatedPredicateOnNonNullableProperty() {
+		// viewerRating is a primitive, it is never null
+		String sql = render( "from Movie m where m.viewerRating not in (7, 8)", Collections.<String, Object>emptyMap() );
+		assertThat( sql ).excludes( "IS NULL" );
+		sql = render( "from Movie m where m.viewerRating not between 7 and 8", Collections.<String, Object>emptyMap() );
+		assertThat( sql ).excludes( "IS NULL" );
+
+		// title may be null, the negated predicate must keep the rows without title
+		sql = render( "from Movie m where m.title not in ('Barnie', 'Front Door')", Collections.<String, Object>emptyMap() );
+		assertThat( sql ).contains( "IS NULL OR " );
+
+		EntityManager em = getFactory().createEntityManager();
+		em.getTransaction().begin();
+		List<Movie> movies = em.createQuery( "from Movie m where m.viewerRating not in (7, 8)", Movie.class ).getResultList();
+		assertThat( movies ).onProperty( "id" ).containsOnly( "movie-2" );
+
+		movies = em.createQuery( "from Movie m where m.viewerRating not between 8 and 9", Movie.class ).getResultList();
+		assertThat( movies ).onProperty( "id" ).containsOnly( "movie-3", "movie-4" );
+
+		movies = em.createQuery( "from Movie m where m.title not in ('Barnie', 'Front Door')", Movie.class ).getResultList();
+		assertThat( movies ).onProperty( "id" ).containsOnly( "movie-1", "movie-2" );
+		em.getTransaction().commit();
+		em.close();
+	}
+
+	@Test
+	public void testAggregates() {
+		EntityManager em = getFactory().createEntityManager();
+		em.getTransaction().begin();
+
+		Long count = em.createQuery( "select count(m) from Movie m where m.viewerRating > 7", Long.class ).getSingleResult();
+		assertThat( count ).isEqualTo( 2L );
+
+		Object[] result = (Object[]) em.createQuery( "select max(m.viewerRating), avg(m.viewerRating) from Movie m" ).getSingleResult();
+		assertThat( result[0] ).isEqualTo( (byte) 9 );
+		assertThat( result[1] ).isEqualTo( 7.75 );
+
+		List<?> ratings = em.createQuery( "select m.viewerRating from Movie m group by m.viewerRating having count(m) > 1" ).getResultList();
+		assertThat( ratings ).containsOnly( (byte) 7 );
+
+		em.getTransaction().commit();
+		em.close();
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void testNativeQueryReturningEntities() {
+		EntityManager em = getFactory().createEntityManager();
+		em.getTransaction().begin();
+		List<Movie> movies;
+
+		movies = em.createNativeQuery( "SELECT _KEY, _VAL FROM Movie WHERE viewerRating = 9", Movie.class ).getResultList();
+		assertThat( movies ).onProperty( "id" ).containsOnly( "movie-2" );
+
+		movies = em.createNativeQuery( "SELECT {m.*} FROM Movie m WHERE m.viewerRating = 7 ORDER BY m._KEY", Movie.class ).getResultList();
+		assertThat( movies ).onProperty( "id" ).containsExactly( "movie-3", "movie-4" );
+
+		em.getTransaction().commit();
+		em.close();
+	}
+
+	private String render(String jpqlQuery, Map<String, Object> parameters) {
+		SessionFactoryImplementor sessionFactory = getFactory().unwrap( SessionFactoryImplementor.class );
+		IgniteQueryDescriptor query = (IgniteQueryDescriptor) IgniteQueryParserService.INSTANCE
+				.parseQuery( sessionFactory, jpqlQuery, parameters )
+				.getQueryObject();
+		return query.getSql();
+	}
+
 	@Before
 	public void populateDb() {
 		EntityManager entityManager = getFactory().createEntityManager();
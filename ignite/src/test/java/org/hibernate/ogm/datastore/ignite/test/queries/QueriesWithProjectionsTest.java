@@ -0,0 +1,119 @@
+/*
+ * Hibernate OGM, Domain model persistence for NoSQL datastores
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.ogm.datastore.ignite.test.queries;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+import java.util.List;
+
+import org.hibernate.Session;
+import org.hibernate.Transaction;
+import org.hibernate.ogm.backendtck.associations.manytoone.JUG;
+import org.hibernate.ogm.backendtck.associations.manytoone.Member;
+import org.hibernate.ogm.utils.OgmTestCase;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Checks the projections of embeddables, assembled from their columns by the projection cursor, and of to-one
+ * associations
+ */
+public class QueriesWithProjectionsTest extends OgmTestCase {
+
+	@Test
+	public void testEmbeddableProjection() {
+		try ( Session session = openSession() ) {
+			List<Address> addresses = session.createQuery( "SELECT w.address FROM Writer w WHERE w.name = :name", Address.class )
+					.setParameter( "name", "Victor Hugo" )
+					.getResultList();
+			assertThat( addresses ).hasSize( 1 );
+			assertThat( addresses.get( 0 ).getStreet() ).isEqualTo( "6 place des Vosges" );
+			assertThat( addresses.get( 0 ).getCity() ).isEqualTo( "Paris" );
+		}
+	}
+
+	@Test
+	public void testEmbeddableProjectionWithOtherProperties() {
+		try ( Session session = openSession() ) {
+			List<Object[]> rows = session.createQuery( "SELECT w.name, w.address, w.id FROM Writer w ORDER BY w.name", Object[].class )
+					.getResultList();
+			assertThat( rows ).hasSize( 3 );
+
+			assertThat( rows.get( 0 )[0] ).isEqualTo( "Charles Baudelaire" );
+			Address address = (Address) rows.get( 0 )[1];
+			assertThat( address.getStreet() ).isNull();
+			assertThat( address.getCity() ).isEqualTo( "Paris" );
+			assertThat( rows.get( 0 )[2] ).isEqualTo( "baudelaire" );
+
+			// all the columns of the embeddable are null
+			assertThat( rows.get( 1 ) ).isEqualTo( new Object[]{ "Homer", null, "homer" } );
+
+			assertThat( rows.get( 2 )[0] ).isEqualTo( "Victor Hugo" );
+			assertThat( ( (Address) rows.get( 2 )[1] ).getCity() ).isEqualTo( "Paris" );
+			assertThat( rows.get( 2 )[2] ).isEqualTo( "hugo" );
+		}
+	}
+
+	@Test
+	public void testPropertyOfEmbeddableProjection() {
+		try ( Session session = openSession() ) {
+			List<String> streets = session.createQuery( "SELECT w.address.street FROM Writer w WHERE w.address.city = :city ORDER BY w.name", String.class )
+					.setParameter( "city", "Paris" )
+					.getResultList();
+			assertThat( streets ).containsExactly( null, "6 place des Vosges" );
+		}
+	}
+
+	@Test
+	public void testToOneAssociationProjection() {
+		try ( Session session = openSession() ) {
+			List<JUG> jugs = session.createQuery( "SELECT m.memberOf FROM Member m WHERE m.name = :name", JUG.class )
+					.setParameter( "name", "Emmanuel" )
+					.getResultList();
+			assertThat( jugs ).onProperty( "name" ).containsExactly( "JUG Summer Camp" );
+		}
+	}
+
+	@Before
+	public void populateDb() {
+		try ( Session session = openSession() ) {
+			Transaction transaction = session.beginTransaction();
+			session.persist( new Writer( "hugo", "Victor Hugo", new Address( "6 place des Vosges", "Paris" ) ) );
+			session.persist( new Writer( "baudelaire", "Charles Baudelaire", new Address( null, "Paris" ) ) );
+			session.persist( new Writer( "homer", "Homer", null ) );
+
+			JUG jug = new JUG( "summer_camp" );
+			jug.setName( "JUG Summer Camp" );
+			session.persist( jug );
+			Member member = new Member( "emmanuel" );
+			member.setName( "Emmanuel" );
+			member.setMemberOf( jug );
+			session.persist( member );
+			transaction.commit();
+		}
+	}
+
+	@After
+	public void removeTestEntities() {
+		try ( Session session = openSession() ) {
+			Transaction transaction = session.beginTransaction();
+			for ( String id : new String[]{ "hugo", "baudelaire", "homer" } ) {
+				session.delete( session.get( Writer.class, id ) );
+			}
+			session.delete( session.get( Member.class, "emmanuel" ) );
+			session.delete( session.get( JUG.class, "summer_camp" ) );
+			transaction.commit();
+		}
+		checkCleanCache();
+	}
+
+	@Override
+	protected Class<?>[] getAnnotatedClasses() {
+		return new Class<?>[]{ Writer.class, JUG.class, Member.class };
+	}
+}
@@ -0,0 +1,102 @@
+/*
+ * Hibernate OGM, Domain model persistence for NoSQL datastores
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.ogm.datastore.ignite.test.queries;
+
+import static org.fest.assertions.Assertions.assertThat;
+import static org.junit.Assert.fail;
+
+import java.util.Arrays;
+
+import org.apache.ignite.cache.query.SqlFieldsQuery;
+import org.hibernate.HibernateException;
+import org.hibernate.ogm.datastore.ignite.query.impl.QueryHints;
+import org.junit.Test;
+
+/**
+ * Parsing of the query hints and the execution options they set on the Ignite queries
+ */
+public class QueryHintsTest {
+
+	@Test
+	public void testExecutionOptionsAreAppliedToQuery() {
+		QueryHints hints = hints( "partitions=1, 5,7", "distributedJoins", "enforceJoinOrder=true", "collocated=TRUE",
+				"lazy=false", "pageSize=64", "timeout=1500", "replicatedOnly" );
+		assertThat( hints.isEmpty() ).isFalse();
+		assertThat( hints.getPartitions() ).isEqualTo( new int[]{ 1, 5, 7 } );
+
+		SqlFieldsQuery query = new SqlFieldsQuery( "SELECT 1" );
+		hints.applyTo( query );
+		assertThat( query.getPartitions() ).isEqualTo( new int[]{ 1, 5, 7 } );
+		assertThat( query.isDistributedJoins() ).isTrue();
+		assertThat( query.isEnforceJoinOrder() ).isTrue();
+		assertThat( query.isCollocated() ).isTrue();
+		assertThat( query.isLazy() ).isFalse();
+		assertThat( query.getPageSize() ).isEqualTo( 64 );
+		assertThat( query.getTimeout() ).isEqualTo( 1500 );
+		assertThat( query.isReplicatedOnly() ).isTrue();
+	}
+
+	@Test
+	public void testOptionsWithoutHintKeepIgniteDefaults() {
+		SqlFieldsQuery defaults = new SqlFieldsQuery( "SELECT 1" );
+		SqlFieldsQuery query = new SqlFieldsQuery( "SELECT 1" );
+		QueryHints hints = hints( "lazy" );
+		hints.applyTo( query );
+
+		assertThat( query.isLazy() ).isTrue();
+		assertThat( query.getPartitions() ).isNull();
+		assertThat( query.isDistributedJoins() ).isEqualTo( defaults.isDistributedJoins() );
+		assertThat( query.isEnforceJoinOrder() ).isEqualTo( defaults.isEnforceJoinOrder() );
+		assertThat( query.isCollocated() ).isEqualTo( defaults.isCollocated() );
+		assertThat( query.getPageSize() ).isEqualTo( defaults.getPageSize() );
+		assertThat( query.getTimeout() ).isEqualTo( defaults.getTimeout() );
+		assertThat( query.isReplicatedOnly() ).isEqualTo( defaults.isReplicatedOnly() );
+	}
+
+	@Test
+	public void testHintsAreCaseInsensitiveAndFalseValuesAreKept() {
+		QueryHints hints = hints( "DISTRIBUTEDJOINS=false", "forupdate" );
+		assertThat( hints.isForUpdate() ).isTrue();
+
+		SqlFieldsQuery query = new SqlFieldsQuery( "SELECT 1" ).setDistributedJoins( true );
+		hints.applyTo( query );
+		assertThat( query.isDistributedJoins() ).isFalse();
+		assertThat( hints.toComment() ).contains( "distributedJoins=false" ).contains( "forUpdate" );
+	}
+
+	@Test
+	public void testUnknownHintIsIgnored() {
+		QueryHints hints = hints( "distributedJoin=true" );
+		assertThat( hints.isEmpty() ).isTrue();
+		assertThat( hints.toComment() ).isEmpty();
+	}
+
+	@Test
+	public void testInvalidValuesAreRejected() {
+		assertInvalid( "pageSize=many" );
+		assertInvalid( "pageSize" );
+		assertInvalid( "timeout=1.5" );
+		assertInvalid( "partitions=1,a" );
+		assertInvalid( "partitions" );
+		assertInvalid( "lazy=yes" );
+		assertInvalid( "collocated=1" );
+	}
+
+	private static void assertInvalid(String hint) {
+		try {
+			hints( hint );
+			fail( "Invalid hint accepted: " + hint );
+		}
+		catch (HibernateException e) {
+			assertThat( e.getMessage() ).contains( hint );
+		}
+	}
+
+	private static QueryHints hints(String... hints) {
+		return new QueryHints.Builder( Arrays.asList( hints ) ).build();
+	}
+}
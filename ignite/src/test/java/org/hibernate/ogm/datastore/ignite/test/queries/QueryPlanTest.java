@@ -0,0 +1,67 @@
+/*
+ * Hibernate OGM, Domain model persistence for NoSQL datastores
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.ogm.datastore.ignite.test.queries;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+import java.util.Collections;
+import java.util.GregorianCalendar;
+
+import javax.persistence.EntityManager;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.ogm.backendtck.queries.parameters.Genre;
+import org.hibernate.ogm.backendtck.queries.parameters.Movie;
+import org.hibernate.ogm.datastore.ignite.impl.IgniteDatastoreProvider;
+import org.hibernate.ogm.datastore.ignite.query.impl.QueryPlan;
+import org.hibernate.ogm.datastore.spi.DatastoreProvider;
+import org.hibernate.ogm.utils.jpa.OgmJpaTestCase;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Checks the plans returned by {@link IgniteDatastoreProvider#explain(SessionFactoryImplementor, String, java.util.Map)}
+ */
+public class QueryPlanTest extends OgmJpaTestCase {
+
+	@Test
+	public void testExplain() {
+		SessionFactoryImplementor sessionFactory = getFactory().unwrap( SessionFactoryImplementor.class );
+		IgniteDatastoreProvider provider = (IgniteDatastoreProvider) sessionFactory.getServiceRegistry().getService( DatastoreProvider.class );
+
+		QueryPlan plan = provider.explain( sessionFactory, "from Movie m where m.id = :id",
+				Collections.<String, Object>singletonMap( "id", "movie-2" ) );
+		assertThat( plan.isFullScan() ).isFalse();
+		assertThat( plan.isPartitionPruned() ).isTrue();
+
+		plan = provider.explain( sessionFactory, "from Movie m where upper(m.title) = 'BARNIE'", Collections.<String, Object>emptyMap() );
+		assertThat( plan.isFullScan() ).isTrue();
+		assertThat( plan.isBroadcast() ).isTrue();
+	}
+
+	@Before
+	public void populateDb() {
+		EntityManager entityManager = getFactory().createEntityManager();
+		entityManager.getTransaction().begin();
+		entityManager.persist( new Movie( "movie-1", Genre.COMEDY, "To thatch a roof", true, ( new GregorianCalendar( 1955, 5, 10 ) ).getTime(), (byte) 8 ) );
+		entityManager.persist( new Movie( "movie-2", Genre.THRILLER, "South by Southeast", true, ( new GregorianCalendar( 1958, 3, 2 ) ).getTime(), (byte) 9 ) );
+		entityManager.persist( new Movie( "movie-4", Genre.DRAMA, "Barnie", false, ( new GregorianCalendar( 1962, 11, 2 ) ).getTime(), (byte) 7 ) );
+		entityManager.getTransaction().commit();
+		entityManager.close();
+	}
+
+	@After
+	public void removeTestEntities() throws Exception {
+		removeEntities();
+	}
+
+	@Override
+	protected Class<?>[] getAnnotatedClasses() {
+		return new Class[]{ Movie.class };
+	}
+}
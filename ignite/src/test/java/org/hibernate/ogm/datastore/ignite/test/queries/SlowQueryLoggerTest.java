@@ -0,0 +1,124 @@
+/*
+ * Hibernate OGM, Domain model persistence for NoSQL datastores
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.ogm.datastore.ignite.test.queries;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.ignite.cache.query.QueryCursor;
+import org.apache.ignite.cache.query.SqlFieldsQuery;
+import org.hibernate.ogm.datastore.ignite.logging.impl.SlowQueryLogger;
+import org.hibernate.ogm.datastore.ignite.query.impl.QueryHints;
+import org.junit.Test;
+
+/**
+ * Checks that the slow query log measures the time spent in Ignite, not the time spent processing the rows
+ */
+public class SlowQueryLoggerTest {
+
+	private static final long PAGE_WAIT = 50;
+	private static final long ROW_PROCESSING = 200;
+
+	@Test
+	public void testRowProcessingIsNotMeasured() throws Exception {
+		RecordingLogger logger = new RecordingLogger( 0 );
+		QueryCursor<List<?>> cursor = logger.monitor( new SlowFirstPage( 3 ), new SqlFieldsQuery( "SELECT 1" ), null, System.nanoTime() );
+		for ( List<?> row : cursor ) {
+			Thread.sleep( ROW_PROCESSING );
+		}
+
+		assertThat( logger.rowCount ).isEqualTo( 3 );
+		assertThat( TimeUnit.NANOSECONDS.toMillis( logger.executionTime ) ).isGreaterThanOrEqualTo( PAGE_WAIT );
+		// the rows were processed for 3 * ROW_PROCESSING ms
+		assertThat( TimeUnit.NANOSECONDS.toMillis( logger.executionTime + logger.fetchTime ) ).isLessThan( ROW_PROCESSING );
+	}
+
+	@Test
+	public void testResultClosedBeforeReadingRowsIsMeasured() throws Exception {
+		RecordingLogger logger = new RecordingLogger( 0 );
+		QueryCursor<List<?>> cursor = logger.monitor( Collections.emptyList(), new SqlFieldsQuery( "SELECT 1" ), null, System.nanoTime() );
+		Thread.sleep( PAGE_WAIT );
+		cursor.close();
+
+		assertThat( logger.rowCount ).isEqualTo( 0 );
+		assertThat( TimeUnit.NANOSECONDS.toMillis( logger.executionTime ) ).isGreaterThanOrEqualTo( PAGE_WAIT );
+		assertThat( logger.fetchTime ).isEqualTo( 0L );
+	}
+
+	@Test
+	public void testQueryIsLoggedOnce() {
+		RecordingLogger logger = new RecordingLogger( 0 );
+		QueryCursor<List<?>> cursor = logger.monitor( new SlowFirstPage( 2 ), new SqlFieldsQuery( "SELECT 1" ), null, System.nanoTime() );
+		assertThat( cursor.getAll() ).hasSize( 2 );
+		cursor.close();
+
+		assertThat( logger.logged ).isEqualTo( 1 );
+	}
+
+	private static class RecordingLogger extends SlowQueryLogger {
+
+		private long executionTime;
+		private long fetchTime;
+		private int rowCount;
+		private int logged;
+
+		RecordingLogger(long threshold) {
+			super( threshold );
+		}
+
+		@Override
+		public void logQuery(SqlFieldsQuery query, QueryHints hints, long executionTime, long fetchTime, int rowCount) {
+			this.executionTime = executionTime;
+			this.fetchTime = fetchTime;
+			this.rowCount = rowCount;
+			this.logged++;
+		}
+	}
+
+	/**
+	 * Rows whose first page takes {@link #PAGE_WAIT} ms to be available
+	 */
+	private static class SlowFirstPage implements Iterable<List<?>> {
+
+		private final int rowCount;
+
+		SlowFirstPage(int rowCount) {
+			this.rowCount = rowCount;
+		}
+
+		@Override
+		public Iterator<List<?>> iterator() {
+			return new Iterator<List<?>>() {
+
+				private int next;
+
+				@Override
+				public boolean hasNext() {
+					if ( next == 0 ) {
+						try {
+							Thread.sleep( PAGE_WAIT );
+						}
+						catch (InterruptedException e) {
+							Thread.currentThread().interrupt();
+						}
+					}
+					return next < rowCount;
+				}
+
+				@Override
+				public List<?> next() {
+					return Arrays.asList( next++ );
+				}
+			};
+		}
+	}
+}
@@ -0,0 +1,156 @@
+/*
+ * Hibernate OGM, Domain model persistence for NoSQL datastores
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.ogm.datastore.ignite.test.reactive;
+
+import static org.fest.assertions.Assertions.assertThat;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.GregorianCalendar;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import javax.persistence.EntityManager;
+
+import org.hibernate.HibernateException;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.ogm.backendtck.queries.parameters.Genre;
+import org.hibernate.ogm.backendtck.queries.parameters.Movie;
+import org.hibernate.ogm.datastore.ignite.reactive.IgniteReactiveSession;
+import org.hibernate.ogm.model.key.spi.EntityKey;
+import org.hibernate.ogm.model.key.spi.EntityKeyMetadata;
+import org.hibernate.ogm.model.spi.Tuple;
+import org.hibernate.ogm.persister.impl.OgmEntityPersister;
+import org.hibernate.ogm.utils.jpa.OgmJpaTestCase;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+/**
+ * Reads entities and executes queries with {@link IgniteReactiveSession}
+ */
+public class IgniteReactiveSessionTest extends OgmJpaTestCase {
+
+	@Test
+	public void testReactiveSession() throws Exception {
+		SessionFactoryImplementor sessionFactory = getFactory().unwrap( SessionFactoryImplementor.class );
+		IgniteReactiveSession session = new IgniteReactiveSession( sessionFactory );
+		EntityKeyMetadata keyMetadata = ( (OgmEntityPersister) sessionFactory.getMetamodel().entityPersister( Movie.class ) ).getEntityKeyMetadata();
+
+		Tuple tuple = session.getTuple( new EntityKey( keyMetadata, new Object[]{ "movie-2" } ) ).toCompletableFuture().get();
+		assertThat( tuple.get( "title" ) ).isEqualTo( "South by Southeast" );
+
+		List<String> ids = new ArrayList<>();
+		CompletableFuture<List<String>> completed = new CompletableFuture<>();
+		session.executeQuery( "from Movie m where m.viewerRating = :rating", Collections.<String, Object>singletonMap( "rating", (byte) 7 ) )
+			.subscribe( new Subscriber<Tuple>() {
+
+				private Subscription subscription;
+
+				@Override
+				public void onSubscribe(Subscription subscription) {
+					this.subscription = subscription;
+					subscription.request( 1 );
+				}
+
+				@Override
+				public void onNext(Tuple result) {
+					ids.add( (String) result.get( "id" ) );
+					subscription.request( 1 );
+				}
+
+				@Override
+				public void onError(Throwable e) {
+					completed.completeExceptionally( e );
+				}
+
+				@Override
+				public void onComplete() {
+					completed.complete( ids );
+				}
+			} );
+		assertThat( completed.get( 10, TimeUnit.SECONDS ) ).containsOnly( "movie-3", "movie-4" );
+	}
+
+	@Test
+	public void testQueryInTransactionIsRejected() throws Exception {
+		IgniteReactiveSession session = new IgniteReactiveSession( getFactory().unwrap( SessionFactoryImplementor.class ) );
+		EntityManager em = getFactory().createEntityManager();
+		em.getTransaction().begin();
+		try {
+			session.executeQuery( "from Movie m", Collections.<String, Object>emptyMap() );
+			fail( "A query of a reactive session would not see the writes of the transaction" );
+		}
+		catch (HibernateException e) {
+			assertThat( e.getMessage() ).startsWith( "OGM001720" );
+		}
+		finally {
+			em.getTransaction().rollback();
+			em.close();
+		}
+	}
+
+	@Test
+	public void testKeyOperationsInTransactionAreRejected() throws Exception {
+		SessionFactoryImplementor sessionFactory = getFactory().unwrap( SessionFactoryImplementor.class );
+		IgniteReactiveSession session = new IgniteReactiveSession( sessionFactory );
+		EntityKeyMetadata keyMetadata = ( (OgmEntityPersister) sessionFactory.getMetamodel().entityPersister( Movie.class ) ).getEntityKeyMetadata();
+		EntityKey key = new EntityKey( keyMetadata, new Object[]{ "movie-1" } );
+		Tuple tuple = session.getTuple( key ).toCompletableFuture().get();
+
+		EntityManager em = getFactory().createEntityManager();
+		em.getTransaction().begin();
+		try {
+			assertRejected( () -> session.getTuple( key ) );
+			assertRejected( () -> session.getTuples( key ) );
+			assertRejected( () -> session.insertOrUpdateTuples( Collections.singletonMap( key, tuple ) ) );
+			assertRejected( () -> session.removeTuples( key ) );
+		}
+		finally {
+			em.getTransaction().rollback();
+			em.close();
+		}
+		// nothing has been removed
+		assertThat( session.getTuple( key ).toCompletableFuture().get() ).isNotNull();
+	}
+
+	private static void assertRejected(Runnable operation) {
+		try {
+			operation.run();
+			fail( "An operation of a reactive session would not see the writes of the transaction" );
+		}
+		catch (HibernateException e) {
+			assertThat( e.getMessage() ).startsWith( "OGM001720" );
+		}
+	}
+
+	@Before
+	public void populateDb() {
+		EntityManager entityManager = getFactory().createEntityManager();
+		entityManager.getTransaction().begin();
+		entityManager.persist( new Movie( "movie-1", Genre.COMEDY, "To thatch a roof", true, ( new GregorianCalendar( 1955, 5, 10 ) ).getTime(), (byte) 8 ) );
+		entityManager.persist( new Movie( "movie-2", Genre.THRILLER, "South by Southeast", true, ( new GregorianCalendar( 1958, 3, 2 ) ).getTime(), (byte) 9 ) );
+		entityManager.persist( new Movie( "movie-3", Genre.THRILLER, "Front Door", false, ( new GregorianCalendar( 1961, 2, 23 ) ).getTime(), (byte) 7 ) );
+		entityManager.persist( new Movie( "movie-4", Genre.DRAMA, "Barnie", false, ( new GregorianCalendar( 1962, 11, 2 ) ).getTime(), (byte) 7 ) );
+		entityManager.getTransaction().commit();
+		entityManager.close();
+	}
+
+	@After
+	public void removeTestEntities() throws Exception {
+		removeEntities();
+	}
+
+	@Override
+	protected Class<?>[] getAnnotatedClasses() {
+		return new Class[]{ Movie.class };
+	}
+}
@@ -0,0 +1,165 @@
+/*
+ * Hibernate OGM, Domain model persistence for NoSQL datastores
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.ogm.datastore.ignite.test.transaction;
+
+import static org.fest.assertions.Assertions.assertThat;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.ignite.IgniteException;
+import org.apache.ignite.transactions.TransactionConcurrency;
+import org.apache.ignite.transactions.TransactionIsolation;
+import org.hibernate.Transaction;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.ogm.OgmSession;
+import org.hibernate.ogm.datastore.ignite.IgniteProperties;
+import org.hibernate.ogm.datastore.ignite.impl.IgniteDatastoreProvider;
+import org.hibernate.ogm.datastore.ignite.test.cfg.Poem;
+import org.hibernate.ogm.datastore.spi.DatastoreProvider;
+import org.hibernate.ogm.utils.OgmTestCase;
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * Checks the Ignite transaction run for each resource-local Hibernate transaction
+ */
+public class ResourceLocalTransactionTest extends OgmTestCase {
+
+	private final ExecutorService otherThread = Executors.newSingleThreadExecutor();
+
+	@After
+	public void shutdownOtherThread() {
+		otherThread.shutdownNow();
+	}
+
+	@Test
+	public void testCommitWritesInOneIgniteTransaction() {
+		try ( OgmSession session = openSession() ) {
+			Transaction tx = session.beginTransaction();
+			org.apache.ignite.transactions.Transaction igniteTransaction = provider().getCurrentTransaction();
+			assertThat( igniteTransaction ).isNotNull();
+			assertThat( igniteTransaction.concurrency() ).isEqualTo( TransactionConcurrency.PESSIMISTIC );
+			assertThat( igniteTransaction.isolation() ).isEqualTo( TransactionIsolation.READ_COMMITTED );
+
+			session.persist( new Poem( "tx-1", "Le Lac", "Alphonse de Lamartine" ) );
+			session.persist( new Poem( "tx-2", "Demain, dès l'aube", "Victor Hugo" ) );
+			tx.commit();
+			assertThat( provider().getCurrentTransaction() ).isNull();
+		}
+		try ( OgmSession session = openSession() ) {
+			assertThat( session.get( Poem.class, "tx-1" ) ).isNotNull();
+			assertThat( session.get( Poem.class, "tx-2" ) ).isNotNull();
+		}
+	}
+
+	@Test
+	public void testRollbackDiscardsFlushedWrites() {
+		try ( OgmSession session = openSession() ) {
+			Transaction tx = session.beginTransaction();
+			session.persist( new Poem( "tx-3", "Le Dormeur du val", "Arthur Rimbaud" ) );
+			session.flush();
+			tx.rollback();
+			assertThat( provider().getCurrentTransaction() ).isNull();
+		}
+		try ( OgmSession session = openSession() ) {
+			assertThat( session.get( Poem.class, "tx-3" ) ).isNull();
+		}
+	}
+
+	@Test
+	public void testSessionPropertiesOverrideConfiguration() {
+		try ( OgmSession session = openSession() ) {
+			session.setProperty( IgniteProperties.TRANSACTION_CONCURRENCY, "OPTIMISTIC" );
+			session.setProperty( IgniteProperties.TRANSACTION_ISOLATION, TransactionIsolation.SERIALIZABLE );
+			session.setProperty( IgniteProperties.TRANSACTION_TIMEOUT, "4000" );
+			Transaction tx = session.beginTransaction();
+			org.apache.ignite.transactions.Transaction igniteTransaction = provider().getCurrentTransaction();
+			assertThat( igniteTransaction.concurrency() ).isEqualTo( TransactionConcurrency.OPTIMISTIC );
+			assertThat( igniteTransaction.isolation() ).isEqualTo( TransactionIsolation.SERIALIZABLE );
+			assertThat( igniteTransaction.timeout() ).isEqualTo( 4000L );
+			tx.rollback();
+		}
+	}
+
+	@Test
+	public void testTransactionTimeoutIsConvertedToMilliseconds() {
+		try ( OgmSession session = openSession() ) {
+			session.setProperty( IgniteProperties.TRANSACTION_TIMEOUT, "4000" );
+			Transaction tx = session.getTransaction();
+			// takes precedence over the property
+			tx.setTimeout( 7 );
+			tx.begin();
+			assertThat( provider().getCurrentTransaction().timeout() ).isEqualTo( 7000L );
+			tx.rollback();
+		}
+	}
+
+	@Test
+	public void testFailedIgniteCommitRollsBackHibernateTransaction() throws Exception {
+		try ( OgmSession session = openSession() ) {
+			Transaction tx = session.beginTransaction();
+			session.persist( new Poem( "tx-4", "Le Pont Mirabeau", "Guillaume Apollinaire" ) );
+			tx.commit();
+		}
+
+		try ( OgmSession session = openSession() ) {
+			// an optimistic serializable transaction fails to commit an entry changed since it has been read
+			session.setProperty( IgniteProperties.TRANSACTION_CONCURRENCY, "OPTIMISTIC" );
+			session.setProperty( IgniteProperties.TRANSACTION_ISOLATION, "SERIALIZABLE" );
+			Transaction tx = session.beginTransaction();
+			Poem poem = session.get( Poem.class, "tx-4" );
+			poem.setName( "Alcools" );
+
+			renameInOtherThread( "tx-4", "Zone" );
+			try {
+				tx.commit();
+				fail( "The entry has been changed by another transaction" );
+			}
+			catch (RuntimeException e) {
+				assertThat( hasCause( e, IgniteException.class ) ).isTrue();
+			}
+			assertThat( provider().getCurrentTransaction() ).isNull();
+			assertThat( provider().getWriteBuffer() ).isNull();
+		}
+
+		try ( OgmSession session = openSession() ) {
+			assertThat( session.get( Poem.class, "tx-4" ).getName() ).isEqualTo( "Zone" );
+		}
+	}
+
+	private void renameInOtherThread(String id, String name) throws Exception {
+		otherThread.submit( () -> {
+			try ( OgmSession session = openSession() ) {
+				Transaction tx = session.beginTransaction();
+				session.get( Poem.class, id ).setName( name );
+				tx.commit();
+			}
+		} ).get( 30, TimeUnit.SECONDS );
+	}
+
+	private IgniteDatastoreProvider provider() {
+		SessionFactoryImplementor factory = (SessionFactoryImplementor) sessionFactory;
+		return (IgniteDatastoreProvider) factory.getServiceRegistry().getService( DatastoreProvider.class );
+	}
+
+	private static boolean hasCause(Throwable e, Class<? extends Throwable> type) {
+		for ( Throwable cause = e; cause != null; cause = cause.getCause() ) {
+			if ( type.isInstance( cause ) ) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	@Override
+	protected Class<?>[] getAnnotatedClasses() {
+		return new Class<?>[]{ Poem.class };
+	}
+}
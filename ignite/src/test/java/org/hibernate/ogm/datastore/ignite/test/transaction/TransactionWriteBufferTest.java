@@ -0,0 +1,166 @@
+/*
+ * Hibernate OGM, Domain model persistence for NoSQL datastores
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.ogm.datastore.ignite.test.transaction;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+import org.hibernate.Transaction;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.ogm.OgmSession;
+import org.hibernate.ogm.backendtck.associations.manytoone.SalesForce;
+import org.hibernate.ogm.backendtck.associations.manytoone.SalesGuy;
+import org.hibernate.ogm.datastore.ignite.impl.IgniteDatastoreProvider;
+import org.hibernate.ogm.datastore.ignite.test.cfg.Poem;
+import org.hibernate.ogm.datastore.ignite.transaction.impl.TransactionWriteBuffer;
+import org.hibernate.ogm.datastore.spi.DatastoreProvider;
+import org.hibernate.ogm.model.key.spi.EntityKeyMetadata;
+import org.hibernate.ogm.persister.impl.OgmEntityPersister;
+import org.hibernate.ogm.utils.OgmTestCase;
+import org.junit.Test;
+
+/**
+ * Checks that the entries written in an Ignite transaction are read back from the write buffer, and merged into the
+ * associations read by SQL queries, which do not see the uncommitted changes
+ */
+public class TransactionWriteBufferTest extends OgmTestCase {
+
+	@Test
+	public void testEntityWrittenInTransactionIsReadFromBuffer() {
+		try ( OgmSession session = openSession() ) {
+			Transaction tx = session.beginTransaction();
+			session.persist( new Poem( "buffer-1", "L'Albatros", "Charles Baudelaire" ) );
+			session.flush();
+			session.clear();
+
+			TransactionWriteBuffer buffer = provider().getWriteBuffer();
+			String cacheName = provider().getEntityCache( entityKeyMetadata( Poem.class ) ).getName();
+			assertThat( buffer.contains( cacheName, "buffer-1" ) ).isTrue();
+
+			Poem poem = session.get( Poem.class, "buffer-1" );
+			assertThat( poem.getName() ).isEqualTo( "L'Albatros" );
+
+			poem.setName( "Spleen" );
+			session.flush();
+			session.clear();
+			assertThat( session.get( Poem.class, "buffer-1" ).getName() ).isEqualTo( "Spleen" );
+
+			session.delete( session.get( Poem.class, "buffer-1" ) );
+			session.flush();
+			session.clear();
+			// a removed entry is buffered with a null value
+			assertThat( buffer.contains( cacheName, "buffer-1" ) ).isTrue();
+			assertThat( buffer.get( cacheName, "buffer-1" ) ).isNull();
+			assertThat( session.get( Poem.class, "buffer-1" ) ).isNull();
+			tx.commit();
+		}
+		// nothing is buffered outside of a transaction
+		assertThat( provider().getWriteBuffer() ).isNull();
+	}
+
+	@Test
+	public void testWriteBufferIsDiscardedOnRollback() {
+		try ( OgmSession session = openSession() ) {
+			Transaction tx = session.beginTransaction();
+			session.persist( new Poem( "buffer-2", "Le Pont Mirabeau", "Guillaume Apollinaire" ) );
+			session.flush();
+			tx.rollback();
+		}
+		try ( OgmSession session = openSession() ) {
+			Transaction tx = session.beginTransaction();
+			assertThat( session.get( Poem.class, "buffer-2" ) ).isNull();
+			tx.commit();
+		}
+	}
+
+	@Test
+	public void testWriteBufferIsCreatedOnFirstWrite() {
+		try ( OgmSession session = openSession() ) {
+			Transaction tx = session.beginTransaction();
+			session.persist( new Poem( "buffer-3", "Ozymandias", "Percy Bysshe Shelley" ) );
+			tx.commit();
+		}
+		try ( OgmSession session = openSession() ) {
+			Transaction tx = session.beginTransaction();
+			assertThat( session.get( Poem.class, "buffer-3" ) ).isNotNull();
+			session.createQuery( "FROM Poem p WHERE p.author = 'Percy Bysshe Shelley'" ).list();
+			// reads do not create a buffer
+			assertThat( provider().findWriteBuffer() ).isNull();
+
+			session.delete( session.get( Poem.class, "buffer-3" ) );
+			session.flush();
+			assertThat( provider().findWriteBuffer() ).isNotNull();
+			tx.commit();
+		}
+		assertThat( provider().findWriteBuffer() ).isNull();
+	}
+
+	@Test
+	public void testAssociationRowsWrittenInTransactionAreMerged() {
+		try ( OgmSession session = openSession() ) {
+			Transaction tx = session.beginTransaction();
+			SalesForce force = new SalesForce( "buffer_force" );
+			force.setCorporation( "Red Hat" );
+			session.save( force );
+			session.save( salesGuy( "buffer_eric", "Eric", force ) );
+			tx.commit();
+		}
+
+		try ( OgmSession session = openSession() ) {
+			Transaction tx = session.beginTransaction();
+			SalesForce force = session.get( SalesForce.class, "buffer_force" );
+			session.save( salesGuy( "buffer_simon", "Simon", force ) );
+			session.flush();
+			session.clear();
+
+			// the row added in the transaction is not seen by the SQL query reading the association
+			force = session.get( SalesForce.class, "buffer_force" );
+			assertThat( force.getSalesGuys() ).onProperty( "name" ).containsOnly( "Eric", "Simon" );
+
+			SalesGuy eric = session.get( SalesGuy.class, "buffer_eric" );
+			eric.setSalesForce( null );
+			force.getSalesGuys().remove( eric );
+			session.flush();
+			session.clear();
+
+			// the row updated in the transaction no longer belongs to the association
+			force = session.get( SalesForce.class, "buffer_force" );
+			assertThat( force.getSalesGuys() ).onProperty( "name" ).containsOnly( "Simon" );
+			tx.commit();
+		}
+
+		try ( OgmSession session = openSession() ) {
+			Transaction tx = session.beginTransaction();
+			SalesForce force = session.get( SalesForce.class, "buffer_force" );
+			assertThat( force.getSalesGuys() ).onProperty( "name" ).containsOnly( "Simon" );
+			session.delete( session.get( SalesGuy.class, "buffer_eric" ) );
+			session.delete( force.getSalesGuys().iterator().next() );
+			session.delete( force );
+			tx.commit();
+		}
+	}
+
+	private static SalesGuy salesGuy(String id, String name, SalesForce force) {
+		SalesGuy salesGuy = new SalesGuy( id );
+		salesGuy.setName( name );
+		salesGuy.setSalesForce( force );
+		force.getSalesGuys().add( salesGuy );
+		return salesGuy;
+	}
+
+	private EntityKeyMetadata entityKeyMetadata(Class<?> entityClass) {
+		return ( (OgmEntityPersister) ( (SessionFactoryImplementor) sessionFactory ).getMetamodel().entityPersister( entityClass ) ).getEntityKeyMetadata();
+	}
+
+	private IgniteDatastoreProvider provider() {
+		return (IgniteDatastoreProvider) ( (SessionFactoryImplementor) sessionFactory ).getServiceRegistry().getService( DatastoreProvider.class );
+	}
+
+	@Override
+	protected Class<?>[] getAnnotatedClasses() {
+		return new Class<?>[]{ Poem.class, SalesForce.class, SalesGuy.class };
+	}
+}
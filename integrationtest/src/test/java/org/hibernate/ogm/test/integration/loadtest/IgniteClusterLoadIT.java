@@ -0,0 +1,105 @@
+/*
+ * Hibernate OGM, Domain model persistence for NoSQL datastores
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.ogm.test.integration.loadtest;
+
+import static org.junit.Assert.assertTrue;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.hibernate.ogm.test.integration.loadtest.Workload.Operation;
+import org.jboss.logging.Logger;
+import org.junit.Test;
+
+/**
+ * Load test of a cluster of Ignite server nodes used by several client nodes through Hibernate OGM, with a mixed OLTP
+ * workload: reads by key, persists of orders with an embedded collection, changes of a many-to-many association and
+ * paged JP-QL queries. Reports the throughput and the median and 99th percentile latencies of each operation, and the
+ * bytes exchanged by the nodes.
+ * <p>
+ * Run with {@code mvn verify -pl integrationtest -Pload-test}, the system properties below change the scenario:
+ * <ul>
+ * <li>{@code loadtest.servers}: number of server nodes, 3 by default</li>
+ * <li>{@code loadtest.clients}: number of client nodes, 2 by default</li>
+ * <li>{@code loadtest.threads}: number of threads per client node, 4 by default</li>
+ * <li>{@code loadtest.forkServers}: whether each server node runs in its own JVM, {@code false} by default</li>
+ * <li>{@code loadtest.warmup} and {@code loadtest.duration}: in seconds, 10 and 60 by default</li>
+ * <li>{@code loadtest.customers} and {@code loadtest.products}: size of the data, 5000 and 500 by default</li>
+ * </ul>
+ */
+public class IgniteClusterLoadIT {
+
+	private static final Logger log = Logger.getLogger( IgniteClusterLoadIT.class );
+
+	private static final double NANOS_PER_MILLI = TimeUnit.MILLISECONDS.toNanos( 1 );
+
+	@Test
+	public void mixedWorkload() throws Exception {
+		int servers = Integer.getInteger( "loadtest.servers", 3 );
+		int clients = Integer.getInteger( "loadtest.clients", 2 );
+		int threads = Integer.getInteger( "loadtest.threads", 4 );
+		boolean forkServers = Boolean.getBoolean( "loadtest.forkServers" );
+		long warmup = TimeUnit.SECONDS.toMillis( Integer.getInteger( "loadtest.warmup", 10 ) );
+		long duration = TimeUnit.SECONDS.toMillis( Integer.getInteger( "loadtest.duration", 60 ) );
+		int customers = Integer.getInteger( "loadtest.customers", 5000 );
+		Workload workload = new Workload( customers, Integer.getInteger( "loadtest.products", 500 ), 50 );
+
+		try ( LoadTestCluster cluster = new LoadTestCluster( servers, clients, forkServers ) ) {
+			workload.populate( cluster.getEntityManagerFactories().get( 0 ) );
+
+			long[] bytesAtStart = new long[3];
+			Map<Operation, OperationStats> stats = workload.run( cluster.getEntityManagerFactories(), threads, warmup, duration, () -> {
+				bytesAtStart[0] = cluster.getClientBytesSent();
+				bytesAtStart[1] = cluster.getClientBytesReceived();
+				bytesAtStart[2] = cluster.getServerBytesSent();
+			} );
+			long clientBytesSent = cluster.getClientBytesSent() - bytesAtStart[0];
+			long clientBytesReceived = cluster.getClientBytesReceived() - bytesAtStart[1];
+			long serverBytesSent = forkServers ? -1 : cluster.getServerBytesSent() - bytesAtStart[2];
+
+			report( servers, clients, threads, duration, stats, clientBytesSent, clientBytesReceived, serverBytesSent );
+
+			int total = 0;
+			int errors = 0;
+			for ( OperationStats operationStats : stats.values() ) {
+				total += operationStats.getCount();
+				errors += operationStats.getErrors();
+			}
+			assertTrue( "No operation was executed", total > 0 );
+			// concurrent changes of the same association may time out, but only rarely
+			assertTrue( errors + " operations failed", errors <= total / 100 );
+		}
+	}
+
+	private static void report(int servers, int clients, int threads, long durationMillis, Map<Operation, OperationStats> stats,
+			long clientBytesSent, long clientBytesReceived, long serverBytesSent) {
+		double seconds = durationMillis / 1000d;
+		int total = 0;
+		StringBuilder report = new StringBuilder();
+		report.append( String.format( "%n%d server nodes, %d client nodes, %d threads per client, %.0f s%n", servers, clients, threads, seconds ) );
+		report.append( String.format( "%-20s %10s %10s %10s %10s %8s%n", "operation", "count", "ops/s", "p50 (ms)", "p99 (ms)", "errors" ) );
+		for ( Map.Entry<Operation, OperationStats> entry : stats.entrySet() ) {
+			OperationStats operationStats = entry.getValue();
+			total += operationStats.getCount();
+			report.append( String.format( "%-20s %10d %10.1f %10.3f %10.3f %8d%n",
+					entry.getKey(),
+					operationStats.getCount(),
+					operationStats.getCount() / seconds,
+					operationStats.percentile( 50 ) / NANOS_PER_MILLI,
+					operationStats.percentile( 99 ) / NANOS_PER_MILLI,
+					operationStats.getErrors() ) );
+		}
+		report.append( String.format( "%-20s %10d %10.1f%n", "total", total, total / seconds ) );
+		report.append( String.format( "client bytes sent: %d (%.0f per operation), received: %d (%.0f per operation)%n",
+				clientBytesSent, (double) clientBytesSent / Math.max( total, 1 ),
+				clientBytesReceived, (double) clientBytesReceived / Math.max( total, 1 ) ) );
+		if ( serverBytesSent >= 0 ) {
+			report.append( String.format( "server bytes sent: %d%n", serverBytesSent ) );
+		}
+		log.info( report );
+	}
+}
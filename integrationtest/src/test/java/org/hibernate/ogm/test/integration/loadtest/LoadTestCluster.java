@@ -0,0 +1,176 @@
+/*
+ * Hibernate OGM, Domain model persistence for NoSQL datastores
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.ogm.test.integration.loadtest;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.persistence.EntityManagerFactory;
+
+import org.apache.ignite.Ignite;
+import org.apache.ignite.Ignition;
+import org.apache.ignite.spi.communication.tcp.TcpCommunicationSpi;
+import org.hibernate.boot.MetadataSources;
+import org.hibernate.boot.registry.StandardServiceRegistry;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.ogm.boot.OgmSessionFactoryBuilder;
+import org.hibernate.ogm.cfg.OgmProperties;
+import org.hibernate.ogm.datastore.ignite.IgniteProperties;
+import org.hibernate.ogm.datastore.ignite.impl.IgniteDatastoreProvider;
+import org.hibernate.ogm.test.integration.loadtest.model.Customer;
+import org.hibernate.ogm.test.integration.loadtest.model.Product;
+import org.hibernate.ogm.test.integration.loadtest.model.PurchaseOrder;
+
+/**
+ * Ignite server nodes, started in this JVM or each in its own JVM, and client nodes used by one entity manager
+ * factory each.
+ */
+public class LoadTestCluster implements AutoCloseable {
+
+	private static final long TOPOLOGY_TIMEOUT = TimeUnit.MINUTES.toMillis( 2 );
+
+	private final List<Ignite> servers = new ArrayList<>();
+	private final List<Process> serverProcesses = new ArrayList<>();
+	private final List<Ignite> clients = new ArrayList<>();
+	private final List<EntityManagerFactory> entityManagerFactories = new ArrayList<>();
+
+	/**
+	 * @param serverCount the number of server nodes
+	 * @param clientCount the number of client nodes
+	 * @param forkServers whether each server node runs in its own JVM
+	 */
+	public LoadTestCluster(int serverCount, int clientCount, boolean forkServers) throws Exception {
+		try {
+			for ( int i = 0; i < serverCount; i++ ) {
+				if ( forkServers ) {
+					serverProcesses.add( forkServer( i ) );
+				}
+				else {
+					servers.add( Ignition.start( LoadTestNodes.serverConfiguration( i ) ) );
+				}
+			}
+			for ( int i = 0; i < clientCount; i++ ) {
+				Ignite client = Ignition.start( LoadTestNodes.clientConfiguration( i ) );
+				clients.add( client );
+			}
+			awaitServers( serverCount );
+			for ( Ignite client : clients ) {
+				entityManagerFactories.add( createEntityManagerFactory( client.name() ) );
+			}
+		}
+		catch (Exception | Error e) {
+			close();
+			throw e;
+		}
+	}
+
+	private static Process forkServer(int index) throws Exception {
+		String java = System.getProperty( "java.home" ) + File.separator + "bin" + File.separator + "java";
+		File log = new File( System.getProperty( "java.io.tmpdir" ), "LoadTestServer-" + index + ".log" );
+		return new ProcessBuilder( java, "-cp", System.getProperty( "java.class.path" ), LoadTestNodes.class.getName(), String.valueOf( index ) )
+				.redirectErrorStream( true )
+				.redirectOutput( log )
+				.start();
+	}
+
+	private void awaitServers(int serverCount) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + TOPOLOGY_TIMEOUT;
+		for ( Ignite client : clients ) {
+			while ( client.cluster().forServers().nodes().size() < serverCount ) {
+				if ( System.currentTimeMillis() > deadline ) {
+					throw new IllegalStateException( "The " + serverCount + " server nodes did not join the cluster" );
+				}
+				Thread.sleep( 100 );
+			}
+		}
+	}
+
+	private static EntityManagerFactory createEntityManagerFactory(String clientName) {
+		StandardServiceRegistry registry = new StandardServiceRegistryBuilder()
+				.applySetting( OgmProperties.ENABLED, true )
+				.applySetting( OgmProperties.DATASTORE_PROVIDER, IgniteDatastoreProvider.class.getName() )
+				.applySetting( IgniteProperties.CONFIGURATION_CLASS_NAME, LoadTestNodes.class.getName() )
+				.applySetting( IgniteProperties.IGNITE_INSTANCE_NAME, clientName )
+				.build();
+		return new MetadataSources( registry )
+				.addAnnotatedClass( Customer.class )
+				.addAnnotatedClass( Product.class )
+				.addAnnotatedClass( PurchaseOrder.class )
+				.buildMetadata()
+				.getSessionFactoryBuilder()
+				.unwrap( OgmSessionFactoryBuilder.class )
+				.build();
+	}
+
+	public List<EntityManagerFactory> getEntityManagerFactories() {
+		return entityManagerFactories;
+	}
+
+	public int getServerCount() {
+		return servers.size() + serverProcesses.size();
+	}
+
+	/**
+	 * @return the bytes sent by the client nodes to the server nodes
+	 */
+	public long getClientBytesSent() {
+		long bytes = 0;
+		for ( Ignite client : clients ) {
+			bytes += communicationSpi( client ).getSentBytesCount();
+		}
+		return bytes;
+	}
+
+	/**
+	 * @return the bytes received by the client nodes from the server nodes
+	 */
+	public long getClientBytesReceived() {
+		long bytes = 0;
+		for ( Ignite client : clients ) {
+			bytes += communicationSpi( client ).getReceivedBytesCount();
+		}
+		return bytes;
+	}
+
+	/**
+	 * @return the bytes sent by the server nodes, to the clients and to each other, {@code -1} if the servers run in
+	 * other JVMs
+	 */
+	public long getServerBytesSent() {
+		if ( !serverProcesses.isEmpty() ) {
+			return -1;
+		}
+		long bytes = 0;
+		for ( Ignite server : servers ) {
+			bytes += communicationSpi( server ).getSentBytesCount();
+		}
+		return bytes;
+	}
+
+	private static TcpCommunicationSpi communicationSpi(Ignite ignite) {
+		return (TcpCommunicationSpi) ignite.configuration().getCommunicationSpi();
+	}
+
+	@Override
+	public void close() throws InterruptedException {
+		for ( EntityManagerFactory entityManagerFactory : entityManagerFactories ) {
+			entityManagerFactory.close();
+		}
+		for ( Ignite client : clients ) {
+			Ignition.stop( client.name(), true );
+		}
+		for ( Ignite server : servers ) {
+			Ignition.stop( server.name(), true );
+		}
+		for ( Process process : serverProcesses ) {
+			process.destroy();
+			process.waitFor( 30, TimeUnit.SECONDS );
+		}
+	}
+}
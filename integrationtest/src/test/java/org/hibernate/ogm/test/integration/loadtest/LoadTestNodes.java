@@ -0,0 +1,84 @@
+/*
+ * Hibernate OGM, Domain model persistence for NoSQL datastores
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.ogm.test.integration.loadtest;
+
+import java.util.Collections;
+
+import org.apache.ignite.IgniteSystemProperties;
+import org.apache.ignite.Ignition;
+import org.apache.ignite.binary.BinaryBasicNameMapper;
+import org.apache.ignite.configuration.BinaryConfiguration;
+import org.apache.ignite.configuration.IgniteConfiguration;
+import org.apache.ignite.configuration.TransactionConfiguration;
+import org.apache.ignite.spi.communication.tcp.TcpCommunicationSpi;
+import org.apache.ignite.spi.discovery.tcp.TcpDiscoverySpi;
+import org.apache.ignite.spi.discovery.tcp.ipfinder.vm.TcpDiscoveryVmIpFinder;
+import org.apache.ignite.transactions.TransactionConcurrency;
+import org.apache.ignite.transactions.TransactionIsolation;
+import org.hibernate.ogm.datastore.ignite.IgniteConfigurationBuilder;
+
+/**
+ * Configurations of the nodes of the load-test cluster. The nodes only discover each other on the loopback interface.
+ * <p>
+ * Also the entry point of the server nodes started in their own JVM: {@code LoadTestNodes <index>}.
+ */
+public class LoadTestNodes implements IgniteConfigurationBuilder {
+
+	private static final String DISCOVERY_ADDRESSES = "127.0.0.1:47500..47519";
+
+	public static void main(String[] args) {
+		Ignition.start( serverConfiguration( Integer.parseInt( args[0] ) ) );
+	}
+
+	public static IgniteConfiguration serverConfiguration(int index) {
+		IgniteConfiguration config = configuration( "LoadTestServer-" + index );
+		config.setClientMode( false );
+		return config;
+	}
+
+	public static IgniteConfiguration clientConfiguration(int index) {
+		IgniteConfiguration config = configuration( "LoadTestClient-" + index );
+		config.setClientMode( true );
+		return config;
+	}
+
+	/**
+	 * The configuration used by Hibernate OGM if the client node it is given is not started
+	 */
+	@Override
+	public IgniteConfiguration build() {
+		return clientConfiguration( 0 );
+	}
+
+	private static IgniteConfiguration configuration(String instanceName) {
+		System.setProperty( IgniteSystemProperties.IGNITE_UPDATE_NOTIFIER, Boolean.FALSE.toString() );
+		System.setProperty( IgniteSystemProperties.IGNITE_NO_ASCII, Boolean.TRUE.toString() );
+
+		IgniteConfiguration config = new IgniteConfiguration();
+		config.setIgniteInstanceName( instanceName );
+		config.setLocalHost( "127.0.0.1" );
+
+		BinaryConfiguration binaryConfiguration = new BinaryConfiguration();
+		binaryConfiguration.setNameMapper( new BinaryBasicNameMapper( true ) );
+		binaryConfiguration.setCompactFooter( false ); // required by the embedded collections
+		config.setBinaryConfiguration( binaryConfiguration );
+
+		TransactionConfiguration transactionConfiguration = new TransactionConfiguration();
+		transactionConfiguration.setDefaultTxConcurrency( TransactionConcurrency.PESSIMISTIC );
+		transactionConfiguration.setDefaultTxIsolation( TransactionIsolation.READ_COMMITTED );
+		config.setTransactionConfiguration( transactionConfiguration );
+
+		TcpDiscoveryVmIpFinder ipFinder = new TcpDiscoveryVmIpFinder();
+		ipFinder.setAddresses( Collections.singletonList( DISCOVERY_ADDRESSES ) );
+		TcpDiscoverySpi discoverySpi = new TcpDiscoverySpi();
+		discoverySpi.setIpFinder( ipFinder );
+		config.setDiscoverySpi( discoverySpi );
+		// the bytes exchanged by the nodes are read from the communication SPI
+		config.setCommunicationSpi( new TcpCommunicationSpi() );
+		return config;
+	}
+}
@@ -0,0 +1,60 @@
+/*
+ * Hibernate OGM, Domain model persistence for NoSQL datastores
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.ogm.test.integration.loadtest;
+
+import java.util.Arrays;
+
+/**
+ * Latencies and errors of an operation of the workload. Each worker thread records into its own instance, the
+ * instances are merged once the workload is over.
+ */
+class OperationStats {
+
+	private long[] latencies = new long[1024];
+	private int count;
+	private int errors;
+
+	void record(long nanos) {
+		if ( count == latencies.length ) {
+			latencies = Arrays.copyOf( latencies, count * 2 );
+		}
+		latencies[count++] = nanos;
+	}
+
+	void recordError() {
+		errors++;
+	}
+
+	void merge(OperationStats other) {
+		for ( int i = 0; i < other.count; i++ ) {
+			record( other.latencies[i] );
+		}
+		errors += other.errors;
+	}
+
+	int getCount() {
+		return count;
+	}
+
+	int getErrors() {
+		return errors;
+	}
+
+	/**
+	 * @param percentile between 0 and 100
+	 * @return the latency in nanoseconds below which the given percentage of the executions are
+	 */
+	long percentile(double percentile) {
+		if ( count == 0 ) {
+			return 0;
+		}
+		long[] sorted = Arrays.copyOf( latencies, count );
+		Arrays.sort( sorted );
+		int index = (int) Math.ceil( percentile / 100 * count ) - 1;
+		return sorted[Math.max( index, 0 )];
+	}
+}
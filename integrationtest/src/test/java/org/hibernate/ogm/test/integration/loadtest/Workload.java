@@ -0,0 +1,228 @@
+/*
+ * Hibernate OGM, Domain model persistence for NoSQL datastores
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.ogm.test.integration.loadtest;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.EntityTransaction;
+
+import org.hibernate.ogm.test.integration.loadtest.model.Customer;
+import org.hibernate.ogm.test.integration.loadtest.model.Product;
+import org.hibernate.ogm.test.integration.loadtest.model.PurchaseOrder;
+
+/**
+ * A mixed OLTP workload executed through JPA by several threads on each entity manager factory.
+ */
+class Workload {
+
+	/**
+	 * The operations of the workload, with their share of the executions in percents
+	 */
+	enum Operation {
+		READ( 50 ),
+		PERSIST( 20 ),
+		UPDATE_ASSOCIATION( 15 ),
+		PAGED_QUERY( 15 );
+
+		private final int weight;
+
+		Operation(int weight) {
+			this.weight = weight;
+		}
+	}
+
+	private static final int PAGE_SIZE = 20;
+
+	private final int customers;
+	private final int products;
+	private final int cities;
+
+	Workload(int customers, int products, int cities) {
+		this.customers = customers;
+		this.products = products;
+		this.cities = cities;
+	}
+
+	/**
+	 * Stores the customers and the products
+	 */
+	void populate(EntityManagerFactory entityManagerFactory) {
+		EntityManager entityManager = entityManagerFactory.createEntityManager();
+		try {
+			EntityTransaction transaction = entityManager.getTransaction();
+			transaction.begin();
+			for ( int i = 0; i < products; i++ ) {
+				entityManager.persist( new Product( productId( i ), "product " + i, 1 + i % 100 ) );
+			}
+			for ( int i = 0; i < customers; i++ ) {
+				entityManager.persist( new Customer( customerId( i ), "customer " + i, city( i ) ) );
+				if ( i % 100 == 99 ) {
+					transaction.commit();
+					entityManager.clear();
+					transaction.begin();
+				}
+			}
+			transaction.commit();
+		}
+		finally {
+			entityManager.close();
+		}
+	}
+
+	/**
+	 * Executes the workload until the end of the measurement
+	 *
+	 * @param entityManagerFactories the factories, one per client node
+	 * @param threads the number of threads per factory
+	 * @param warmupMillis the time during which the executions are not measured
+	 * @param durationMillis the time during which the executions are measured
+	 * @param onMeasurementStart called when the warmup is over
+	 * @return the statistics of each operation
+	 */
+	Map<Operation, OperationStats> run(List<EntityManagerFactory> entityManagerFactories, int threads, long warmupMillis,
+			long durationMillis, Runnable onMeasurementStart) throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool( entityManagerFactories.size() * threads );
+		try {
+			long start = System.currentTimeMillis();
+			long measurementStart = start + warmupMillis;
+			long end = measurementStart + durationMillis;
+			List<Future<Map<Operation, OperationStats>>> workers = new ArrayList<>();
+			for ( EntityManagerFactory entityManagerFactory : entityManagerFactories ) {
+				for ( int t = 0; t < threads; t++ ) {
+					workers.add( executor.submit( () -> work( entityManagerFactory, measurementStart, end ) ) );
+				}
+			}
+			Thread.sleep( warmupMillis );
+			onMeasurementStart.run();
+
+			Map<Operation, OperationStats> stats = newStats();
+			for ( Future<Map<Operation, OperationStats>> worker : workers ) {
+				for ( Map.Entry<Operation, OperationStats> entry : worker.get().entrySet() ) {
+					stats.get( entry.getKey() ).merge( entry.getValue() );
+				}
+			}
+			return stats;
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private Map<Operation, OperationStats> work(EntityManagerFactory entityManagerFactory, long measurementStart, long end) {
+		Map<Operation, OperationStats> stats = newStats();
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		long now = System.currentTimeMillis();
+		while ( now < end ) {
+			Operation operation = nextOperation( random );
+			boolean measured = now >= measurementStart;
+			long start = System.nanoTime();
+			EntityManager entityManager = entityManagerFactory.createEntityManager();
+			try {
+				EntityTransaction transaction = entityManager.getTransaction();
+				transaction.begin();
+				execute( operation, entityManager, random );
+				transaction.commit();
+				if ( measured ) {
+					stats.get( operation ).record( System.nanoTime() - start );
+				}
+			}
+			catch (RuntimeException e) {
+				if ( entityManager.getTransaction().isActive() ) {
+					entityManager.getTransaction().rollback();
+				}
+				if ( measured ) {
+					stats.get( operation ).recordError();
+				}
+			}
+			finally {
+				entityManager.close();
+			}
+			now = System.currentTimeMillis();
+		}
+		return stats;
+	}
+
+	private void execute(Operation operation, EntityManager entityManager, ThreadLocalRandom random) {
+		switch ( operation ) {
+			case READ:
+				entityManager.find( Customer.class, customerId( random.nextInt( customers ) ) ).getName();
+				break;
+			case PERSIST:
+				Customer customer = entityManager.getReference( Customer.class, customerId( random.nextInt( customers ) ) );
+				PurchaseOrder order = new PurchaseOrder( customer );
+				int lines = 1 + random.nextInt( 5 );
+				for ( int i = 0; i < lines; i++ ) {
+					order.addLine( entityManager.find( Product.class, productId( random.nextInt( products ) ) ), 1 + random.nextInt( 10 ) );
+				}
+				entityManager.persist( order );
+				break;
+			case UPDATE_ASSOCIATION:
+				// adds a product to the favourites of a customer, or removes one if there are enough
+				Customer favouriteCustomer = entityManager.find( Customer.class, customerId( random.nextInt( customers ) ) );
+				Iterator<Product> favourites = favouriteCustomer.getFavourites().iterator();
+				if ( favouriteCustomer.getFavourites().size() >= 5 ) {
+					favourites.next();
+					favourites.remove();
+				}
+				else {
+					favouriteCustomer.getFavourites().add( entityManager.getReference( Product.class, productId( random.nextInt( products ) ) ) );
+				}
+				break;
+			case PAGED_QUERY:
+				entityManager.createQuery( "SELECT c FROM Customer c WHERE c.city = :city ORDER BY c.name", Customer.class )
+						.setParameter( "city", city( random.nextInt( cities ) ) )
+						.setFirstResult( random.nextInt( Math.max( customers / cities - PAGE_SIZE, 1 ) ) )
+						.setMaxResults( PAGE_SIZE )
+						.getResultList()
+						.size();
+				break;
+			default:
+				throw new IllegalArgumentException( operation.name() );
+		}
+	}
+
+	private static Operation nextOperation(ThreadLocalRandom random) {
+		int value = random.nextInt( 100 );
+		for ( Operation operation : Operation.values() ) {
+			value -= operation.weight;
+			if ( value < 0 ) {
+				return operation;
+			}
+		}
+		return Operation.READ;
+	}
+
+	private static Map<Operation, OperationStats> newStats() {
+		Map<Operation, OperationStats> stats = new EnumMap<>( Operation.class );
+		for ( Operation operation : Operation.values() ) {
+			stats.put( operation, new OperationStats() );
+		}
+		return stats;
+	}
+
+	private static String customerId(int index) {
+		return "customer-" + index;
+	}
+
+	private static String productId(int index) {
+		return "product-" + index;
+	}
+
+	private String city(int index) {
+		return "city-" + index % cities;
+	}
+}
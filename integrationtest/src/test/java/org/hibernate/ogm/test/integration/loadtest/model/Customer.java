@@ -0,0 +1,58 @@
+/*
+ * Hibernate OGM, Domain model persistence for NoSQL datastores
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.ogm.test.integration.loadtest.model;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.JoinTable;
+import javax.persistence.ManyToMany;
+import javax.persistence.Table;
+
+@Entity
+@Table(indexes = @Index(columnList = "city", name = "customer_city_idx"))
+public class Customer {
+
+	@Id
+	private String id;
+
+	private String name;
+
+	private String city;
+
+	@ManyToMany
+	@JoinTable(name = "Customer_Favourite")
+	private Set<Product> favourites = new HashSet<>();
+
+	Customer() {
+	}
+
+	public Customer(String id, String name, String city) {
+		this.id = id;
+		this.name = name;
+		this.city = city;
+	}
+
+	public String getId() {
+		return id;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public String getCity() {
+		return city;
+	}
+
+	public Set<Product> getFavourites() {
+		return favourites;
+	}
+}
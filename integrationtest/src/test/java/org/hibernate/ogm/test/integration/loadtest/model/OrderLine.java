@@ -0,0 +1,40 @@
+/*
+ * Hibernate OGM, Domain model persistence for NoSQL datastores
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.ogm.test.integration.loadtest.model;
+
+import javax.persistence.Embeddable;
+
+@Embeddable
+public class OrderLine {
+
+	private String productId;
+
+	private int quantity;
+
+	private double price;
+
+	OrderLine() {
+	}
+
+	public OrderLine(String productId, int quantity, double price) {
+		this.productId = productId;
+		this.quantity = quantity;
+		this.price = price;
+	}
+
+	public String getProductId() {
+		return productId;
+	}
+
+	public int getQuantity() {
+		return quantity;
+	}
+
+	public double getPrice() {
+		return price;
+	}
+}
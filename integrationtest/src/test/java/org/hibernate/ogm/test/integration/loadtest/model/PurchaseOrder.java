@@ -0,0 +1,63 @@
+/*
+ * Hibernate OGM, Domain model persistence for NoSQL datastores
+ *
+ * License: GNU Lesser General Public License (LGPL), version 2.1 or later
+ * See the lgpl.txt file in the root directory or <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ */
+package org.hibernate.ogm.test.integration.loadtest.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.persistence.ElementCollection;
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.ManyToOne;
+import javax.persistence.SequenceGenerator;
+
+@Entity
+public class PurchaseOrder {
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "orderIds")
+	@SequenceGenerator(name = "orderIds", sequenceName = "PurchaseOrderIds")
+	private Long id;
+
+	@ManyToOne
+	private Customer customer;
+
+	@ElementCollection
+	private List<OrderLine> lines = new ArrayList<>();
+
+	private double total;
+
+	PurchaseOrder() {
+	}
+
+	public PurchaseOrder(Customer customer) {
+		this.customer = customer;
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	public Customer getCustomer() {
+		return customer;
+	}
+
+	public List<OrderLine> getLines() {
+		return lines;
+	}
+
+	public void addLine(Product product, int quantity) {
+		lines.add( new OrderLine( product.getId(), quantity, product.getPrice() ) );
+		total += quantity * product.getPrice();
+	}
+
+	public double getTotal() {
+		return total;
+	}
+}